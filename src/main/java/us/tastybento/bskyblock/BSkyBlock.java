@@ -1,5 +1,8 @@
 package us.tastybento.bskyblock;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.bukkit.World;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -27,6 +30,8 @@ import us.tastybento.bskyblock.managers.PlayersManager;
 import us.tastybento.bskyblock.managers.RanksManager;
 import us.tastybento.bskyblock.managers.SchemsManager;
 import us.tastybento.bskyblock.util.HeadGetter;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
  * Main BSkyBlock class - provides an island minigame in the sky
@@ -72,6 +77,7 @@ public class BSkyBlock extends JavaPlugin {
 
         // Load settings from config.yml. This will check if there are any issues with it too.
         settings = new BSBConfig<>(this, Settings.class).loadConfigObject("");
+        Timings.setSampleRate(settings.getTimingsSampleRate());
         // Start Database managers
         playersManager = new PlayersManager(this);
         // Check if this plugin is now disabled (due to bad database handling)
@@ -130,11 +136,20 @@ public class BSkyBlock extends JavaPlugin {
                 islandsManager.load();
 
                 // Save islands & players data asynchronously every X minutes
+                Timer autosave = Timings.timer("autosave");
                 instance.getServer().getScheduler().runTaskTimer(instance, () -> {
+                    long start = autosave.start();
                     playersManager.save(true);
                     islandsManager.save(true);
+                    autosave.stop(start);
                 }, getSettings().getDatabaseBackupPeriod() * 20 * 60L, getSettings().getDatabaseBackupPeriod() * 20 * 60L);
 
+                // Write the timings to a file every X minutes
+                if (getSettings().getTimingsDumpPeriod() > 0) {
+                    long period = getSettings().getTimingsDumpPeriod() * 20 * 60L;
+                    instance.getServer().getScheduler().runTaskTimerAsynchronously(instance, instance::dumpTimings, period, period);
+                }
+
                 instance.log("#############################################");
                 instance.log(instance.getDescription().getFullName() + " has been fully enabled.");
                 instance.log("It took: " + (System.currentTimeMillis() - startMillis + "ms"));
@@ -164,6 +179,29 @@ public class BSkyBlock extends JavaPlugin {
         manager.registerEvents(new FlyingMobEvents(this), this);
         // End dragon blocking
         manager.registerEvents(new BlockEndDragon(this), this);
+        // Forget safe spots in chunks that change
+        manager.registerEvents(islandsManager.getSafeSpotCache(), this);
+        // Track which island each player is on
+        manager.registerEvents(islandsManager.getTracker(), this);
+        // Regenerate deleted island chunks when they load
+        manager.registerEvents(islandsManager.getDeleter(), this);
+        // Forget world look ups when worlds unload
+        manager.registerEvents(islandWorldManager, this);
+    }
+
+    /**
+     * Writes the timings to timings.txt in the plugin folder
+     * @return the file written, or null if it could not be written
+     */
+    public File dumpTimings() {
+        File file = new File(getDataFolder(), "timings.txt");
+        try {
+            Timings.dump(file);
+            return file;
+        } catch (IOException e) {
+            logError("Could not write timings to " + file.getName() + " " + e.getMessage());
+            return null;
+        }
     }
 
     @Override
@@ -201,6 +239,32 @@ public class BSkyBlock extends JavaPlugin {
             }
         });
 
+        metrics.addCustomChart(new Metrics.SingleLineChart("islands_saved") {
+
+            @Override
+            public int getValue() {
+                return islandsManager.metrics_getLastSavedCount();
+            }
+        });
+
+        metrics.addCustomChart(new Metrics.SingleLineChart("islands_save_time") {
+
+            @Override
+            public int getValue() {
+                return (int)islandsManager.metrics_getLastSaveTime();
+            }
+        });
+
+        metrics.addCustomChart(new Metrics.SingleLineChart("deleted_chunks_per_second") {
+
+            @Override
+            public int getValue() {
+                int rate = islandsManager.getDeleter().metrics_getChunksPerSecond();
+                islandsManager.getDeleter().metrics_resetCounts();
+                return rate;
+            }
+        });
+
         metrics.addCustomChart(new Metrics.SimplePie("default_locale") {
 
             @Override
@@ -19,6 +19,7 @@ import us.tastybento.bskyblock.api.configuration.ConfigEntry;
 import us.tastybento.bskyblock.api.configuration.StoreAt;
 import us.tastybento.bskyblock.api.configuration.WorldSettings;
 import us.tastybento.bskyblock.api.flags.Flag;
+import us.tastybento.bskyblock.api.flags.WorldFlags;
 import us.tastybento.bskyblock.database.BSBDbSetup.DatabaseType;
 import us.tastybento.bskyblock.database.objects.DataObject;
 
@@ -100,6 +101,17 @@ public class Settings implements DataObject, WorldSettings {
     @ConfigEntry(path = "general.database.backup-period")
     private int databaseBackupPeriod = 5;
 
+    @ConfigComment("Timings count and time protection checks, island look ups, database saves and loads,")
+    @ConfigComment("island pastes and deletes, safe spot scans and autosaves. See them with /bsbadmin timings.")
+    @ConfigComment("Checks and look ups happen many times a tick, so only one in this many of them is timed.")
+    @ConfigComment("0 turns timings off.")
+    @ConfigEntry(path = "general.timings.sample-rate")
+    private int timingsSampleRate = 16;
+
+    @ConfigComment("How often the timings are written to timings.txt in the plugin folder in mins. 0 does not write them.")
+    @ConfigEntry(path = "general.timings.dump-period")
+    private int timingsDumpPeriod = 60;
+
     @ConfigComment("Recover super flat - if the generator does not run for some reason, you can get")
     @ConfigComment("super flat chunks (grass). To remove automatically, select this option. Turn off")
     @ConfigComment("if there are no more because it may cause lag.")
@@ -280,6 +292,16 @@ public class Settings implements DataObject, WorldSettings {
     @ConfigEntry(path = "island.invite-wait")
     private int inviteWait = 60;
 
+    @ConfigComment("How many milliseconds per tick can be spent pasting new islands, all together.")
+    @ConfigComment("Islands are pasted one after another over several ticks. 0 pastes each island in one go.")
+    @ConfigEntry(path = "island.paste-time-budget")
+    private int pasteTimeBudget = 10;
+
+    @ConfigComment("How many milliseconds per tick can be spent deleting islands.")
+    @ConfigComment("Chunks that are not loaded are deleted when they next load. 0 deletes in one go.")
+    @ConfigEntry(path = "island.delete-time-budget")
+    private int deleteTimeBudget = 10;
+
     // Reset
     @ConfigComment("How many resets a player is allowed (override with /asadmin clearreset <player>)")
     @ConfigComment("Value of -1 means unlimited, 0 means hardcore - no resets.")
@@ -525,6 +547,18 @@ public class Settings implements DataObject, WorldSettings {
     public int getDatabaseBackupPeriod() {
         return databaseBackupPeriod;
     }
+    /**
+     * @return the timingsSampleRate
+     */
+    public int getTimingsSampleRate() {
+        return timingsSampleRate;
+    }
+    /**
+     * @return the timingsDumpPeriod
+     */
+    public int getTimingsDumpPeriod() {
+        return timingsDumpPeriod;
+    }
     /**
      * @return the databaseType
      */
@@ -593,6 +627,18 @@ public class Settings implements DataObject, WorldSettings {
     public int getInviteWait() {
         return inviteWait;
     }
+    /**
+     * @return the pasteTimeBudget
+     */
+    public int getPasteTimeBudget() {
+        return pasteTimeBudget;
+    }
+    /**
+     * @return the deleteTimeBudget
+     */
+    public int getDeleteTimeBudget() {
+        return deleteTimeBudget;
+    }
     /**
      * @return the islandDistance
      */
@@ -1021,6 +1067,18 @@ public class Settings implements DataObject, WorldSettings {
     public void setDatabaseBackupPeriod(int databaseBackupPeriod) {
         this.databaseBackupPeriod = databaseBackupPeriod;
     }
+    /**
+     * @param timingsSampleRate the timingsSampleRate to set
+     */
+    public void setTimingsSampleRate(int timingsSampleRate) {
+        this.timingsSampleRate = timingsSampleRate;
+    }
+    /**
+     * @param timingsDumpPeriod the timingsDumpPeriod to set
+     */
+    public void setTimingsDumpPeriod(int timingsDumpPeriod) {
+        this.timingsDumpPeriod = timingsDumpPeriod;
+    }
     /**
      * @param databaseType the databaseType to set
      */
@@ -1117,6 +1175,18 @@ public class Settings implements DataObject, WorldSettings {
     public void setInviteWait(int inviteWait) {
         this.inviteWait = inviteWait;
     }
+    /**
+     * @param pasteTimeBudget the pasteTimeBudget to set
+     */
+    public void setPasteTimeBudget(int pasteTimeBudget) {
+        this.pasteTimeBudget = pasteTimeBudget;
+    }
+    /**
+     * @param deleteTimeBudget the deleteTimeBudget to set
+     */
+    public void setDeleteTimeBudget(int deleteTimeBudget) {
+        this.deleteTimeBudget = deleteTimeBudget;
+    }
     /**
      * @param islandDistance the islandDistance to set
      */
@@ -1440,10 +1510,12 @@ public class Settings implements DataObject, WorldSettings {
         return worldFlags;
     }
     /**
+     * Sets the world flags. The flags resolved from the old map are forgotten, see {@link WorldFlags#reset(WorldSettings)}.
      * @param worldFlags the worldFlags to set
      */
     public void setWorldFlags(Map<String, Boolean> worldFlags) {
         this.worldFlags = worldFlags;
+        WorldFlags.reset(this);
     }
 
     /**
@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
@@ -286,6 +288,24 @@ public abstract class CompositeCommand extends Command implements PluginIdentifi
         return plugin.getPlayers();
     }
 
+    /**
+     * Gets the UUID of a player by name without blocking the server thread, then carries on with the command.
+     * If the name is in memory, the rest of the command is run straight away and its result is returned.
+     * Otherwise the name is looked up in the background and the rest of the command is run on the server thread
+     * once the answer is known.
+     * @param name - name of player
+     * @param then - rest of the command, given the UUID or null if the player is unknown
+     * @return result of the rest of the command, or true if it runs later
+     */
+    protected boolean withUUID(String name, Function<UUID, Boolean> then) {
+        CompletableFuture<UUID> uuid = getPlayers().getUUIDAsync(name);
+        if (uuid.isDone() && !uuid.isCompletedExceptionally()) {
+            return then.apply(uuid.join());
+        }
+        uuid.whenComplete((u, t) -> Bukkit.getScheduler().runTask(getPlugin(), () -> then.apply(t == null ? u : null)));
+        return true;
+    }
+
     @Override
     public BSkyBlock getPlugin() {
         return plugin;
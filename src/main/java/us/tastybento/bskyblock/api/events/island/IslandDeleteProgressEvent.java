@@ -0,0 +1,67 @@
+package us.tastybento.bskyblock.api.events.island;
+
+import us.tastybento.bskyblock.api.events.PremadeEvent;
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * Fired after each tick in which some of an island's chunks were deleted.
+ * Chunks that were not loaded are counted as done and are deleted when they next load.
+ *
+ * @author tastybento
+ * @since 1.0
+ */
+public class IslandDeleteProgressEvent extends PremadeEvent {
+
+    private final String islandId;
+    private final Island island;
+    private final int done;
+    private final int total;
+
+    /**
+     * @param islandId - unique id of the island
+     * @param island - island, or null if it is no longer known, e.g., after a restart
+     * @param done - number of chunks that have had their turn
+     * @param total - total number of chunks
+     */
+    public IslandDeleteProgressEvent(String islandId, Island island, int done, int total) {
+        this.islandId = islandId;
+        this.island = island;
+        this.done = done;
+        this.total = total;
+    }
+
+    /**
+     * @return the unique id of the island
+     */
+    public String getIslandId() {
+        return islandId;
+    }
+
+    /**
+     * @return the island, or null if it is no longer known, e.g., after a restart
+     */
+    public Island getIsland() {
+        return island;
+    }
+
+    /**
+     * @return the number of chunks that have had their turn
+     */
+    public int getDone() {
+        return done;
+    }
+
+    /**
+     * @return the total number of chunks
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return true if every chunk has had its turn
+     */
+    public boolean isComplete() {
+        return done >= total;
+    }
+}
@@ -44,6 +44,7 @@ public class Flag implements Comparable<Flag> {
     private final int defaultRank;
     private final PanelItem.ClickHandler clickHandler;
     private final boolean subPanel;
+    private int ordinal = -1;
 
     Flag(String id, Material icon, Listener listener, Type type, int defaultRank, PanelItem.ClickHandler clickListener, boolean subPanel) {
         this.id = id;
@@ -63,6 +64,22 @@ public class Flag implements Comparable<Flag> {
         return icon;
     }
 
+    /**
+     * Dense index of this flag, used by islands to look up flag values in an array
+     * @return the index given when the flag was registered, or -1 if it is not registered
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the dense index of this flag. This is done by the FlagsManager when the flag is registered.
+     * @param ordinal - index
+     */
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     public Optional<Listener> getListener() {
         return Optional.ofNullable(listener);
     }
@@ -77,8 +94,7 @@ public class Flag implements Comparable<Flag> {
         if (type.equals(Type.WORLD_SETTING)) {
             WorldSettings ws = BSkyBlock.getInstance().getIWM().getWorldSettings(world);
             if (ws != null) {
-                ws.getWorldFlags().putIfAbsent(getID(), setting);
-                return ws.getWorldFlags().get(getID());
+                return WorldFlags.of(ws).isSet(this, setting);
             }
             return false;
         } else {
@@ -94,7 +110,7 @@ public class Flag implements Comparable<Flag> {
      */
     public void setSetting(World world, boolean setting) {
         if (getType().equals(Type.WORLD_SETTING)) {
-            BSkyBlock.getInstance().getIWM().getWorldSettings(world).getWorldFlags().put(getID(), setting);
+            WorldFlags.of(BSkyBlock.getInstance().getIWM().getWorldSettings(world)).set(this, setting);
         }
     }
 
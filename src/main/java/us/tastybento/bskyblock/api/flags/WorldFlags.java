@@ -0,0 +1,97 @@
+package us.tastybento.bskyblock.api.flags;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import us.tastybento.bskyblock.api.configuration.WorldSettings;
+
+/**
+ * Resolved world setting flags of one set of world settings, held as bits indexed by flag ordinal.
+ * The world flag map of the settings stays the stored copy. Each flag is read from the map once
+ * and after that checking it is a bit test.
+ * <p>
+ * Anything that changes {@link WorldSettings#getWorldFlags()} directly, instead of through
+ * {@link Flag#setSetting(org.bukkit.World, boolean)}, must call {@link #reset(WorldSettings)}.
+ *
+ * @author tastybento
+ *
+ */
+public class WorldFlags {
+
+    private static final Map<WorldSettings, WorldFlags> ALL = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Most servers have one game world, so the last one used saves the map look up
+     */
+    private static volatile WorldFlags last;
+
+    private final WorldSettings settings;
+    private final BitSet known = new BitSet();
+    private final BitSet values = new BitSet();
+
+    private WorldFlags(WorldSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Get the resolved flags for these world settings
+     * @param settings - world settings
+     * @return world flags
+     */
+    static WorldFlags of(WorldSettings settings) {
+        WorldFlags flags = last;
+        if (flags == null || flags.settings != settings) {
+            flags = ALL.computeIfAbsent(settings, WorldFlags::new);
+            last = flags;
+        }
+        return flags;
+    }
+
+    /**
+     * Forgets the resolved flags of these world settings so they are read again from the world flag map
+     * @param settings - world settings
+     */
+    public static void reset(WorldSettings settings) {
+        WorldFlags flags = ALL.get(settings);
+        if (flags != null) {
+            synchronized (flags) {
+                flags.known.clear();
+            }
+        }
+    }
+
+    /**
+     * Check if a world setting flag is set
+     * @param flag - world setting flag
+     * @param defaultSetting - value used, and stored, if the world flag map does not have this flag yet
+     * @return true or false
+     */
+    synchronized boolean isSet(Flag flag, boolean defaultSetting) {
+        int ordinal = flag.getOrdinal();
+        if (ordinal >= 0 && known.get(ordinal)) {
+            return values.get(ordinal);
+        }
+        settings.getWorldFlags().putIfAbsent(flag.getID(), defaultSetting);
+        boolean value = settings.getWorldFlags().get(flag.getID());
+        if (ordinal >= 0) {
+            known.set(ordinal);
+            values.set(ordinal, value);
+        }
+        return value;
+    }
+
+    /**
+     * Set a world setting flag
+     * @param flag - world setting flag
+     * @param value - true or false
+     */
+    synchronized void set(Flag flag, boolean value) {
+        settings.getWorldFlags().put(flag.getID(), value);
+        int ordinal = flag.getOrdinal();
+        if (ordinal >= 0) {
+            known.set(ordinal);
+            values.set(ordinal, value);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import us.tastybento.bskyblock.commands.admin.AdminReloadCommand;
 import us.tastybento.bskyblock.commands.admin.AdminSchemCommand;
 import us.tastybento.bskyblock.commands.admin.AdminSetRankCommand;
 import us.tastybento.bskyblock.commands.admin.AdminTeleportCommand;
+import us.tastybento.bskyblock.commands.admin.AdminTimingsCommand;
 import us.tastybento.bskyblock.commands.admin.AdminUnregisterCommand;
 import us.tastybento.bskyblock.commands.admin.AdminVersionCommand;
 import us.tastybento.bskyblock.commands.admin.teams.AdminTeamAddCommand;
@@ -51,6 +52,8 @@ public class AdminCommand extends CompositeCommand {
         // Register/unregister islands
         new AdminRegisterCommand(this);
         new AdminUnregisterCommand(this);
+        // Timings
+        new AdminTimingsCommand(this);
     }
 
     @Override
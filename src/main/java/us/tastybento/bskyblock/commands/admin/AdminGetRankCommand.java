@@ -46,7 +46,10 @@ public class AdminGetRankCommand extends CompositeCommand {
             return false;
         } 
         // Get target player
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> showRank(user, targetUUID));
+    }
+
+    private boolean showRank(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
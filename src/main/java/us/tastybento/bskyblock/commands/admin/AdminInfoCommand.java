@@ -1,10 +1,13 @@
 package us.tastybento.bskyblock.commands.admin;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import us.tastybento.bskyblock.api.commands.CompositeCommand;
 import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.database.objects.Island;
 
 public class AdminInfoCommand extends CompositeCommand {
 
@@ -29,14 +32,17 @@ public class AdminInfoCommand extends CompositeCommand {
         }
         // If there are no args, then the player wants info on the island at this location
         if (args.isEmpty()) {
-            if (!getIslands().getIslandAt(user.getLocation()).map(i -> i.showInfo(getPlugin(), user, getWorld())).orElse(false)) {
+            if (!getIslands().getIslandAt(user.getLocation()).map(i -> showInfo(user, i)).orElse(false)) {
                 user.sendMessage("commands.admin.info.no-island");
                 return false;
             }
             return true;
         }
         // Get target player
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> showInfo(user, targetUUID));
+    }
+
+    private boolean showInfo(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -46,7 +52,23 @@ public class AdminInfoCommand extends CompositeCommand {
             return false;
         }
         // Show info for this player
-        getIslands().getIsland(getWorld(), targetUUID).showInfo(getPlugin(), user, getWorld());
+        return showInfo(user, getIslands().getIsland(getWorld(), targetUUID));
+    }
+
+    /**
+     * Shows the island's info once its owner, members and banned players are loaded in the background
+     * @param user - user asking
+     * @param island - island
+     * @return true always
+     */
+    private boolean showInfo(User user, Island island) {
+        Set<UUID> players = new HashSet<>(island.getMembers().keySet());
+        players.addAll(island.getBanned());
+        if (island.getOwner() != null) {
+            players.add(island.getOwner());
+        }
+        // Anything that could not be loaded is looked up as the info is shown
+        getPlayers().prefetch(players).whenComplete((v, t) -> island.showInfo(getPlugin(), user, getWorld()));
         return true;
     }
 }
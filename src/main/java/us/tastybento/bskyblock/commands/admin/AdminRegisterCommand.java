@@ -35,7 +35,10 @@ public class AdminRegisterCommand extends CompositeCommand {
             return false;
         }
         // Get target
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> registerIsland(user, targetUUID));
+    }
+
+    private boolean registerIsland(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -43,7 +43,10 @@ public class AdminSetRankCommand extends CompositeCommand {
             return false;
         } 
         // Get target player
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> setRank(user, args.get(1), targetUUID));
+    }
+
+    private boolean setRank(User user, String rankName, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -55,7 +58,7 @@ public class AdminSetRankCommand extends CompositeCommand {
         // Get rank
         RanksManager rm = getPlugin().getRanksManager();
         int rankValue = rm.getRanks().entrySet().stream()
-                .filter(r -> user.getTranslation(r.getKey()).equalsIgnoreCase(args.get(1))).findFirst()
+                .filter(r -> user.getTranslation(r.getKey()).equalsIgnoreCase(rankName)).findFirst()
                 .map(Map.Entry::getValue).orElse(-999);
         if (rankValue < RanksManager.BANNED_RANK) {
             user.sendMessage("commands.admin.setrank.unknown-rank");
@@ -35,7 +35,10 @@ public class AdminTeleportCommand extends CompositeCommand {
         }
 
         // Convert name to a UUID
-        final UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> teleport(user, targetUUID));
+    }
+
+    private boolean teleport(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
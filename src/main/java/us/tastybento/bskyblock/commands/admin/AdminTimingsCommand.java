@@ -0,0 +1,79 @@
+package us.tastybento.bskyblock.commands.admin;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import us.tastybento.bskyblock.api.commands.CompositeCommand;
+import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.util.Util;
+import us.tastybento.bskyblock.util.timings.Timings;
+
+/**
+ * Shows how long protection checks, island look ups, database saves and the like take.
+ * The timings can be reset, or written to a file.
+ * @author tastybento
+ *
+ */
+public class AdminTimingsCommand extends CompositeCommand {
+
+    private static final String RESET = "reset";
+    private static final String DUMP = "dump";
+
+    /**
+     * @param parent - parent command
+     */
+    public AdminTimingsCommand(CompositeCommand parent) {
+        super(parent, "timings");
+    }
+
+    @Override
+    public void setup() {
+        setPermission("admin.timings");
+        setOnlyPlayer(false);
+        setParameters("commands.admin.timings.parameters");
+        setDescription("commands.admin.timings.description");
+    }
+
+    @Override
+    public boolean execute(User user, List<String> args) {
+        if (args.size() > 1) {
+            showHelp(this, user);
+            return false;
+        }
+        if (args.isEmpty()) {
+            List<String> report = Timings.report();
+            if (report.isEmpty()) {
+                user.sendMessage("commands.admin.timings.none");
+                return true;
+            }
+            user.sendMessage("commands.admin.timings.title");
+            report.forEach(user::sendRawMessage);
+            return true;
+        }
+        switch (args.get(0).toLowerCase()) {
+        case RESET:
+            Timings.reset();
+            user.sendMessage("commands.admin.timings.reset");
+            return true;
+        case DUMP:
+            File file = getPlugin().dumpTimings();
+            if (file == null) {
+                user.sendMessage("commands.admin.timings.not-dumped");
+                return false;
+            }
+            user.sendMessage("commands.admin.timings.dumped", "[file]", file.getPath());
+            return true;
+        default:
+            showHelp(this, user);
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<List<String>> tabComplete(User user, String alias, List<String> args) {
+        String lastArg = !args.isEmpty() ? args.get(args.size()-1) : "";
+        return Optional.of(Util.tabLimit(Arrays.asList(RESET, DUMP), lastArg));
+    }
+}
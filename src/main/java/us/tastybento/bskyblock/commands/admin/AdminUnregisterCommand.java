@@ -30,7 +30,10 @@ public class AdminUnregisterCommand extends CompositeCommand {
             return false;
         }
         // Get target
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> unregister(user, targetUUID));
+    }
+
+    private boolean unregister(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -29,12 +29,16 @@ public class AdminTeamAddCommand extends CompositeCommand {
             return false;
         }
         // Get leader and target
-        UUID leaderUUID = getPlayers().getUUID(args.get(0));
-        if (leaderUUID == null) {
-            user.sendMessage("general.errors.unknown-player-name", TextVariables.NAME, args.get(0));
-            return false;
-        }
-        UUID targetUUID = getPlayers().getUUID(args.get(1));
+        return withUUID(args.get(0), leaderUUID -> {
+            if (leaderUUID == null) {
+                user.sendMessage("general.errors.unknown-player-name", TextVariables.NAME, args.get(0));
+                return false;
+            }
+            return withUUID(args.get(1), targetUUID -> addMember(user, args, leaderUUID, targetUUID));
+        });
+    }
+
+    private boolean addMember(User user, List<String> args, UUID leaderUUID, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player-name", TextVariables.NAME, args.get(1));
             return false;
@@ -64,7 +68,6 @@ public class AdminTeamAddCommand extends CompositeCommand {
         getIslands().getIsland(getWorld(), leaderUUID).addMember(targetUUID);
         user.sendMessage("general.success");
         return true;
-
     }
 
 
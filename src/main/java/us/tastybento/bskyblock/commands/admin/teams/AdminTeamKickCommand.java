@@ -28,7 +28,10 @@ public class AdminTeamKickCommand extends CompositeCommand {
             return false;
         }
         // Get target
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> kick(user, targetUUID));
+    }
+
+    private boolean kick(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -50,7 +53,6 @@ public class AdminTeamKickCommand extends CompositeCommand {
         getIslands().removePlayer(getWorld(), targetUUID);
         user.sendMessage("general.success");
         return true;
-
     }
 
 
@@ -27,7 +27,10 @@ public class AdminTeamMakeLeaderCommand extends CompositeCommand {
             return false;
         }
         // Get target
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> makeLeader(user, targetUUID));
+    }
+
+    private boolean makeLeader(User user, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
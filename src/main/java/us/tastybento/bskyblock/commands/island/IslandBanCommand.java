@@ -47,7 +47,10 @@ public class IslandBanCommand extends CompositeCommand {
             return false;
         }
         // Get target player
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> tryBan(user, playerUUID, targetUUID));
+    }
+
+    private boolean tryBan(User user, UUID playerUUID, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -39,6 +39,12 @@ public class IslandBanlistCommand extends CompositeCommand {
             user.sendMessage("commands.island.banlist.noone");
             return true;
         }
+        // Load the banned players in the background, then show the list
+        getPlayers().prefetch(island.getBanned()).whenComplete((v, t) -> showBanlist(user, island));
+        return true;
+    }
+
+    private void showBanlist(User user, Island island) {
         // Title
         user.sendMessage("commands.island.banlist.the-following");
         // Create a nicely formatted list
@@ -64,7 +70,6 @@ public class IslandBanlistCommand extends CompositeCommand {
         }
         // Send the strings
         lines.forEach(l -> user.sendMessage("commands.island.banlist.names", "[line]", l));
-        return true;
     }
 
 }
@@ -43,7 +43,10 @@ public class IslandUnbanCommand extends CompositeCommand {
             return false;
         }
         // Get target player
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> tryUnban(user, playerUUID, targetUUID));
+    }
+
+    private boolean tryUnban(User user, UUID playerUUID, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
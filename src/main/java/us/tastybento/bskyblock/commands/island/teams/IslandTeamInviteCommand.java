@@ -59,35 +59,38 @@ public class IslandTeamInviteCommand extends CompositeCommand {
             return false;
         } else  {
             // Only online players can be invited
-            UUID invitedPlayerUUID = getPlayers().getUUID(args.get(0));
-            if (invitedPlayerUUID == null) {
-                user.sendMessage("general.errors.unknown-player");
-                return false;
-            }
-            User invitedPlayer = User.getInstance(invitedPlayerUUID);
-            if (!invitedPlayer.isOnline()) {
-                user.sendMessage("general.errors.offline-player");
-                return false;
-            }
-            // Player cannot invite themselves
-            if (playerUUID.equals(invitedPlayerUUID)) {
-                user.sendMessage("commands.island.team.invite.cannot-invite-self");
-                return false;
-            }
-            // Check if this player can be invited to this island, or
-            // whether they are still on cooldown
-            long time = getPlayers().getInviteCoolDownTime(invitedPlayerUUID, getIslands().getIslandLocation(getWorld(), playerUUID));
-            if (time > 0 && !user.isOp()) {
-                user.sendMessage("commands.island.team.invite.cooldown", TextVariables.NUMBER, String.valueOf(time));
-                return false;
-            }
-            // Player cannot invite someone already on a team
-            if (getIslands().inTeam(getWorld(), invitedPlayerUUID)) {
-                user.sendMessage("commands.island.team.invite.already-on-team");
-                return false;
-            }
-            return invite(user,invitedPlayer);
+            return withUUID(args.get(0), invitedPlayerUUID -> tryInvite(user, playerUUID, invitedPlayerUUID));
+        }
+    }
+
+    private boolean tryInvite(User user, UUID playerUUID, UUID invitedPlayerUUID) {
+        if (invitedPlayerUUID == null) {
+            user.sendMessage("general.errors.unknown-player");
+            return false;
+        }
+        User invitedPlayer = User.getInstance(invitedPlayerUUID);
+        if (!invitedPlayer.isOnline()) {
+            user.sendMessage("general.errors.offline-player");
+            return false;
+        }
+        // Player cannot invite themselves
+        if (playerUUID.equals(invitedPlayerUUID)) {
+            user.sendMessage("commands.island.team.invite.cannot-invite-self");
+            return false;
+        }
+        // Check if this player can be invited to this island, or
+        // whether they are still on cooldown
+        long time = getPlayers().getInviteCoolDownTime(invitedPlayerUUID, getIslands().getIslandLocation(getWorld(), playerUUID));
+        if (time > 0 && !user.isOp()) {
+            user.sendMessage("commands.island.team.invite.cooldown", TextVariables.NUMBER, String.valueOf(time));
+            return false;
+        }
+        // Player cannot invite someone already on a team
+        if (getIslands().inTeam(getWorld(), invitedPlayerUUID)) {
+            user.sendMessage("commands.island.team.invite.already-on-team");
+            return false;
         }
+        return invite(user,invitedPlayer);
     }
 
     private boolean invite(User user, User invitedPlayer) {
@@ -40,7 +40,10 @@ public class IslandTeamSetownerCommand extends CompositeCommand {
             showHelp(this, user);
             return false;
         }
-        UUID targetUUID = getPlayers().getUUID(args.get(0));
+        return withUUID(args.get(0), targetUUID -> setOwner(user, playerUUID, targetUUID));
+    }
+
+    private boolean setOwner(User user, UUID playerUUID, UUID targetUUID) {
         if (targetUUID == null) {
             user.sendMessage("general.errors.unknown-player");
             return false;
@@ -2,6 +2,8 @@ package us.tastybento.bskyblock.database;
 
 import java.beans.IntrospectionException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import us.tastybento.bskyblock.BSkyBlock;
@@ -67,6 +69,49 @@ public abstract class AbstractDatabaseHandler<T> {
      */
     public abstract void saveObject(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException ;
 
+    /**
+     * Save many T into the corresponding database. By default they are saved one at a time.
+     * Handlers that can write many objects in one go should override this.
+     *
+     * @param instances - objects that should be inserted into the database
+     */
+    public void saveObjects(Collection<T> instances) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        for (T instance : instances) {
+            saveObject(instance);
+        }
+    }
+
+    /**
+     * Makes what will be written for an object, e.g., its JSON, so that it can be written later by another thread.
+     * This is called on the thread that saves the object, so changes made to the object after that are not
+     * written half way through. By default the object itself is used, which is only safe for objects that are not
+     * changed once saved. Handlers should override this together with {@link #saveSnapshots(Collection)}.
+     *
+     * @param instance - object that is being saved
+     * @return snapshot of the object
+     */
+    public Object snapshot(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        return instance;
+    }
+
+    /**
+     * Save snapshots made by {@link #snapshot(Object)} into the corresponding database
+     *
+     * @param snapshots - snapshots of the objects that should be inserted into the database
+     */
+    @SuppressWarnings("unchecked")
+    public void saveSnapshots(Collection<Object> snapshots) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        if (snapshots.size() == 1) {
+            saveObject((T)snapshots.iterator().next());
+            return;
+        }
+        List<T> instances = new ArrayList<>(snapshots.size());
+        for (Object snapshot : snapshots) {
+            instances.add((T)snapshot);
+        }
+        saveObjects(instances);
+    }
+
     /**
      * Deletes the object with the unique id from the database
      * @param instance - object instance
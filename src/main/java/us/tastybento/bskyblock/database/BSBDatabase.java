@@ -8,9 +8,13 @@ import java.util.logging.Logger;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.addons.Addon;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
- * Handy class to store and load Java POJOs in the BSkyBlock Database
+ * Handy class to store and load Java POJOs in the BSkyBlock Database.
+ * Saves and deletes are write-behind: they are queued and written by a writer thread, see {@link WriteBehindQueue}.
+ * Loads see objects that are still waiting to be written.
  * @author tastybento
  *
  * @param <T>
@@ -19,18 +23,31 @@ public class BSBDatabase<T> {
 
     private AbstractDatabaseHandler<T> handler;
     private Logger logger;
+    private WriteBehindQueue<T> queue;
+    private Timer loadTimer;
+    private Timer loadAllTimer;
+    private Timer saveTimer;
 
     @SuppressWarnings("unchecked")
     public BSBDatabase(BSkyBlock plugin, Class<T> type)  {
         this.logger = plugin.getLogger();
         handler = (AbstractDatabaseHandler<T>) BSBDbSetup.getDatabase().getHandler(type);
+        queue = new WriteBehindQueue<>(handler, logger, type.getSimpleName());
+        setTimers(type);
     }
 
     @SuppressWarnings("unchecked")
     public BSBDatabase(Addon addon, Class<T> type)  {
         this.logger = addon.getLogger();
         handler = (AbstractDatabaseHandler<T>) BSBDbSetup.getDatabase().getHandler(type);
-       
+        queue = new WriteBehindQueue<>(handler, logger, type.getSimpleName());
+        setTimers(type);
+    }
+
+    private void setTimers(Class<T> type) {
+        loadTimer = Timings.timer("database." + type.getSimpleName() + ".load");
+        loadAllTimer = Timings.timer("database." + type.getSimpleName() + ".load-all");
+        saveTimer = Timings.timer("database." + type.getSimpleName() + ".save");
     }
 
     /**
@@ -39,12 +56,17 @@ public class BSBDatabase<T> {
      */
     public List<T> loadObjects() {
         List<T> result = new ArrayList<>();
+        // Make sure the database is up to date first
+        queue.flush();
+        long start = loadAllTimer.start();
         try {
             result = handler.loadObjects();
         } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
                 | InvocationTargetException | ClassNotFoundException | IntrospectionException e) {
             logger.severe(() -> "Could not load objects from database! Error: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            loadAllTimer.stop(start);
         }
         return result;
     }
@@ -55,28 +77,60 @@ public class BSBDatabase<T> {
      * @return the object or null if it cannot be loaded
      */
     public T loadObject(String uniqueId) {
+        WriteBehindQueue.Op<T> queued = queue.getQueued(uniqueId);
+        if (queued != null) {
+            // Not written yet - the queued object is the latest
+            return queued.delete ? null : queued.instance;
+        }
         T result = null;
+        long start = loadTimer.start();
         try {
             result = handler.loadObject(uniqueId);
         } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
                 | ClassNotFoundException | IntrospectionException e) {
             logger.severe(() -> "Could not load object from database! " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            loadTimer.stop(start);
         }
         return result;
     }
 
     /**
-     * Save config object
+     * Save config object. A snapshot of the object is queued and written later by the writer thread.
+     * If the database is closed or the queue is full, it is written immediately.
+     * If writing fails later, the object is handed back by {@link #takeFailed()}.
      * @param instance to save
+     * @return true if queued or saved, false if saving failed
      */
     public boolean saveObject(T instance) {
+        try {
+            if (queue.save(instance)) {
+                return true;
+            }
+        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | SecurityException
+                | IntrospectionException e) {
+            logger.severe(() -> "Could not save object to database! Error: " + e.getMessage());
+            return false;
+        }
+        return saveNow(instance);
+    }
+
+    /**
+     * Save config object immediately on this thread
+     * @param instance to save
+     * @return true if successful
+     */
+    public boolean saveNow(T instance) {
+        long start = saveTimer.start();
         try {
             handler.saveObject(instance);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException | SecurityException
                 | IntrospectionException e) {
             logger.severe(() -> "Could not save object to database! Error: " + e.getMessage());
             return false;
+        } finally {
+            saveTimer.stop(start);
         }
         return true;
     }
@@ -87,6 +141,10 @@ public class BSBDatabase<T> {
      * @return true if it exists
      */
     public boolean objectExists(String name) {
+        WriteBehindQueue.Op<T> queued = queue.getQueued(name);
+        if (queued != null) {
+            return !queued.delete;
+        }
         return handler.objectExists(name);
     }
 
@@ -95,6 +153,9 @@ public class BSBDatabase<T> {
      * @param object - object to delete
      */
     public void deleteObject(T object) {
+        if (queue.delete(object)) {
+            return;
+        }
         try {
             handler.deleteObject(object);
         } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException
@@ -104,11 +165,41 @@ public class BSBDatabase<T> {
     }
 
     /**
-     * Close the database
+     * Gets the objects that the writer thread could not save, even after retrying, since this was last called.
+     * They should be marked as changed so that they are saved again.
+     * @return objects that were not saved
+     */
+    public List<T> takeFailed() {
+        return queue.takeFailed();
+    }
+
+    /**
+     * Waits until all queued saves and deletes have been written
+     */
+    public void flush() {
+        queue.flush();
+    }
+
+    /**
+     * @return number of saves and deletes waiting to be written
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return how long in milliseconds the writer took to empty the queue the last time it had work
+     */
+    public long getLastFlushTime() {
+        return queue.getLastFlushTime();
+    }
+
+    /**
+     * Close the database. Everything queued is written first.
      */
     public void close() {
+        queue.close();
         handler.close(); 
     }
 
-
 }
\ No newline at end of file
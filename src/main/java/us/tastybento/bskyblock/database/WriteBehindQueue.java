@@ -0,0 +1,453 @@
+package us.tastybento.bskyblock.database;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import us.tastybento.bskyblock.database.objects.DataObject;
+import us.tastybento.bskyblock.util.timings.Counter;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
+
+/**
+ * Write-behind queue for a database handler.
+ * <p>
+ * Saves and deletes are queued and written by a single writer thread per handler, in batches.
+ * Saves in a batch are handed to {@link AbstractDatabaseHandler#saveObjects(java.util.Collection)} together.
+ * A snapshot of each saved object is taken by the handler when it is queued, see
+ * {@link AbstractDatabaseHandler#snapshot(Object)}, so the writer never reads an object that the server thread is changing.
+ * Queuing an object that is already waiting to be written replaces the waiting operation, so an object
+ * that is saved many times between writes is only written once. The queue is bounded - if it is full, the caller
+ * is told to write the object itself rather than wait. Objects that still cannot be written after a few attempts
+ * are handed back by {@link #takeFailed()}. {@link #close()} writes everything that is left.
+ *
+ * @author tastybento
+ *
+ * @param <T> data object type
+ */
+public class WriteBehindQueue<T> {
+
+    private static final int DEFAULT_CAPACITY = 10000;
+    private static final int BATCH_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long CLOSE_TIMEOUT = 60;
+
+    /**
+     * A queued operation
+     */
+    static class Op<T> {
+        final T instance;
+        final Object snapshot;
+        final boolean delete;
+        int attempts;
+
+        Op(T instance, Object snapshot, boolean delete) {
+            this.instance = instance;
+            this.snapshot = snapshot;
+            this.delete = delete;
+        }
+    }
+
+    private final AbstractDatabaseHandler<T> handler;
+    private final Logger logger;
+    private final String name;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock
+    private final LinkedHashMap<Object, Op<T>> pending = new LinkedHashMap<>();
+    private final Map<Object, Op<T>> inFlight = new HashMap<>();
+    private final Map<Object, T> failed = new LinkedHashMap<>();
+    private Thread writer;
+    private boolean closed;
+
+    // Metrics
+    private volatile long written;
+    private volatile long lastFlushTime;
+    private final Timer saveTimer;
+    private final Timer batchTimer;
+    private final Timer deleteTimer;
+    private final Counter savedCount;
+
+    /**
+     * @param handler - database handler that does the writing
+     * @param logger - logger for errors
+     * @param name - name of the queue, used for the writer thread name
+     */
+    public WriteBehindQueue(AbstractDatabaseHandler<T> handler, Logger logger, String name) {
+        this(handler, logger, name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param handler - database handler that does the writing
+     * @param logger - logger for errors
+     * @param name - name of the queue, used for the writer thread name
+     * @param capacity - maximum number of waiting operations before callers have to write themselves
+     */
+    public WriteBehindQueue(AbstractDatabaseHandler<T> handler, Logger logger, String name, int capacity) {
+        this.handler = handler;
+        this.logger = logger;
+        this.name = name;
+        this.capacity = capacity;
+        saveTimer = Timings.timer("database." + name + ".save");
+        batchTimer = Timings.timer("database." + name + ".save-batch");
+        deleteTimer = Timings.timer("database." + name + ".delete");
+        savedCount = Timings.counter("database." + name + ".saved");
+    }
+
+    /**
+     * Queues an object to be saved. A snapshot of the object is taken now, on this thread.
+     * @param instance - object
+     * @return true if queued, false if the queue is closed or full and the caller must write it
+     * @throws IntrospectionException if the snapshot cannot be taken
+     * @throws InvocationTargetException if the snapshot cannot be taken
+     * @throws IllegalAccessException if the snapshot cannot be taken
+     */
+    public boolean save(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        Object key = getKey(instance);
+        if (!accepts(key)) {
+            return false;
+        }
+        return enqueue(key, new Op<>(instance, handler.snapshot(instance), false));
+    }
+
+    /**
+     * Queues an object to be deleted. Any save waiting for this object is dropped.
+     * @param instance - object
+     * @return true if queued, false if the queue is closed or full and the caller must delete it
+     */
+    public boolean delete(T instance) {
+        return enqueue(getKey(instance), new Op<>(instance, null, true));
+    }
+
+    /**
+     * Checks if an operation for this key would be queued, so that no snapshot is taken for nothing
+     */
+    private boolean accepts(Object key) {
+        lock.lock();
+        try {
+            return !closed && hasRoom(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * An operation replacing a waiting one always fits. So does one for an object that is being written,
+     * because the caller must not write it at the same time as the writer.
+     * Must be called while holding the lock.
+     */
+    private boolean hasRoom(Object key) {
+        return pending.size() < capacity || pending.containsKey(key) || inFlight.containsKey(key);
+    }
+
+    private boolean enqueue(Object key, Op<T> op) {
+        lock.lock();
+        try {
+            if (closed || !hasRoom(key)) {
+                return false;
+            }
+            pending.put(key, op);
+            // Newer than anything that failed
+            failed.remove(key);
+            if (writer == null) {
+                writer = new Thread(this::run, "BSkyBlock-DB-" + name);
+                writer.setDaemon(true);
+                writer.start();
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the latest operation that is waiting for, or being written for, this unique id
+     * @param uniqueId - unique id
+     * @return operation or null if there is none
+     */
+    Op<T> getQueued(String uniqueId) {
+        lock.lock();
+        try {
+            Op<T> op = pending.get(uniqueId);
+            return op != null ? op : inFlight.get(uniqueId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the objects that could not be written, even after retrying, since this was last called.
+     * Objects that have been queued again since they failed are left out.
+     * @return objects that need to be saved again
+     */
+    public List<T> takeFailed() {
+        lock.lock();
+        try {
+            List<T> result = new ArrayList<>(failed.values());
+            failed.clear();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until everything queued so far has been written
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT);
+            while ((!pending.isEmpty() || !inFlight.isEmpty()) && writer != null && writer.isAlive()) {
+                if (nanos <= 0L) {
+                    logger.warning(() -> "Timed out waiting for the " + name + " database queue to flush");
+                    return;
+                }
+                nanos = changed.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting operations and writes everything that is left. Blocks until done.
+     * If the writer does not finish in time, this waits for the batch it is writing before writing the rest
+     * on this thread, so an object is never written by both threads at once.
+     */
+    public void close() {
+        Thread w;
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            changed.signalAll();
+            w = writer;
+        } finally {
+            lock.unlock();
+        }
+        if (w != null) {
+            try {
+                w.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // If the writer could not finish, write what is left on this thread
+        List<Entry<Object, Op<T>>> left;
+        lock.lock();
+        try {
+            long nanos = TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT);
+            while (!inFlight.isEmpty() && nanos > 0L) {
+                nanos = changed.awaitNanos(nanos);
+            }
+            if (!inFlight.isEmpty()) {
+                logger.warning(() -> "The " + name + " database writer is still writing " + inFlight.size() + " objects");
+            }
+            left = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            left = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        List<Entry<Object, Op<T>>> notWritten = new ArrayList<>();
+        for (Entry<Object, Op<T>> en : left) {
+            if (!write(en.getValue()) && !en.getValue().delete) {
+                notWritten.add(en);
+            }
+        }
+        lock.lock();
+        try {
+            notWritten.forEach(en -> failed.put(en.getKey(), en.getValue().instance));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of operations waiting to be written
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return total number of objects written
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * @return how long it took in milliseconds to empty the queue the last time it had work
+     */
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    /**
+     * Writer thread loop
+     */
+    private void run() {
+        long busySince = 0L;
+        while (true) {
+            List<Entry<Object, Op<T>>> batch = new ArrayList<>();
+            lock.lock();
+            try {
+                while (pending.isEmpty()) {
+                    if (busySince != 0L) {
+                        lastFlushTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - busySince);
+                        busySince = 0L;
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    notEmpty.await();
+                }
+                if (busySince == 0L) {
+                    busySince = System.nanoTime();
+                }
+                Iterator<Entry<Object, Op<T>>> it = pending.entrySet().iterator();
+                while (it.hasNext() && batch.size() < BATCH_SIZE) {
+                    Entry<Object, Op<T>> en = it.next();
+                    batch.add(en);
+                    inFlight.put(en.getKey(), en.getValue());
+                    it.remove();
+                }
+                // Room has been made
+                changed.signalAll();
+            } catch (InterruptedException e) {
+                // Anything left will be written by close()
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            List<Entry<Object, Op<T>>> notWritten = write(batch);
+            written += batch.size() - notWritten.size();
+            lock.lock();
+            try {
+                batch.forEach(en -> inFlight.remove(en.getKey()));
+                for (Entry<Object, Op<T>> en : notWritten) {
+                    Op<T> op = en.getValue();
+                    if (pending.containsKey(en.getKey())) {
+                        // Something newer is already waiting
+                        continue;
+                    }
+                    if (++op.attempts < MAX_ATTEMPTS) {
+                        pending.put(en.getKey(), op);
+                    } else {
+                        logger.severe(() -> "Giving up writing " + en.getKey() + " to the database after " + MAX_ATTEMPTS + " attempts!");
+                        if (!op.delete) {
+                            // Hand it back so that it is saved again later
+                            failed.put(en.getKey(), op.instance);
+                        }
+                    }
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch. Saves are handed to the handler together so that it can write them in one go.
+     * @param batch - batch of operations
+     * @return operations that failed
+     */
+    private List<Entry<Object, Op<T>>> write(List<Entry<Object, Op<T>>> batch) {
+        List<Entry<Object, Op<T>>> notWritten = new ArrayList<>();
+        List<Entry<Object, Op<T>>> saves = new ArrayList<>();
+        for (Entry<Object, Op<T>> en : batch) {
+            if (!en.getValue().delete) {
+                saves.add(en);
+            } else if (!write(en.getValue())) {
+                notWritten.add(en);
+            }
+        }
+        if (saves.size() == 1) {
+            if (!write(saves.get(0).getValue())) {
+                notWritten.add(saves.get(0));
+            }
+        } else if (!saves.isEmpty()) {
+            List<Object> snapshots = new ArrayList<>(saves.size());
+            saves.forEach(en -> snapshots.add(en.getValue().snapshot));
+            long start = batchTimer.start();
+            try {
+                handler.saveSnapshots(snapshots);
+                savedCount.add(snapshots.size());
+            } catch (Exception e) {
+                logger.severe(() -> "Could not save " + snapshots.size() + " objects to database! Error: " + e.getMessage());
+                notWritten.addAll(saves);
+            } finally {
+                batchTimer.stop(start);
+            }
+        }
+        return notWritten;
+    }
+
+    /**
+     * Does the actual writing
+     * @param op - operation
+     * @return true if successful
+     */
+    private boolean write(Op<T> op) {
+        Timer timer = op.delete ? deleteTimer : saveTimer;
+        long start = timer.start();
+        try {
+            if (op.delete) {
+                handler.deleteObject(op.instance);
+            } else {
+                handler.saveSnapshots(Collections.singletonList(op.snapshot));
+                savedCount.increment();
+            }
+            return true;
+        } catch (Exception e) {
+            logger.severe(() -> "Could not " + (op.delete ? "delete object from" : "save object to") + " database! Error: " + e.getMessage());
+            return false;
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    /**
+     * Operations are coalesced by unique id when there is one, otherwise by the object itself
+     * @param instance - object
+     * @return key
+     */
+    private Object getKey(T instance) {
+        if (instance instanceof DataObject) {
+            String id = ((DataObject)instance).getUniqueId();
+            if (id != null && !id.isEmpty()) {
+                return id;
+            }
+        }
+        return instance;
+    }
+}
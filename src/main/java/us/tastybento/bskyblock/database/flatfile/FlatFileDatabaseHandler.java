@@ -1,16 +1,16 @@
 package us.tastybento.bskyblock.database.flatfile;
 
 import java.beans.IntrospectionException;
-import java.beans.PropertyDescriptor;
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -19,6 +19,11 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -26,15 +31,12 @@ import org.bukkit.configuration.MemorySection;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import us.tastybento.bskyblock.BSkyBlock;
-import us.tastybento.bskyblock.Constants;
-import us.tastybento.bskyblock.Constants.GameType;
 import us.tastybento.bskyblock.api.configuration.ConfigComment;
-import us.tastybento.bskyblock.api.configuration.ConfigEntry;
 import us.tastybento.bskyblock.api.configuration.StoreAt;
 import us.tastybento.bskyblock.database.AbstractDatabaseHandler;
 import us.tastybento.bskyblock.database.DatabaseConnecter;
-import us.tastybento.bskyblock.database.objects.adapters.Adapter;
-import us.tastybento.bskyblock.database.objects.adapters.AdapterInterface;
+import us.tastybento.bskyblock.database.flatfile.SerializationPlan.FieldPlan;
+import us.tastybento.bskyblock.database.flatfile.SerializationPlan.Kind;
 import us.tastybento.bskyblock.util.Util;
 
 /**
@@ -49,8 +51,33 @@ import us.tastybento.bskyblock.util.Util;
 public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     private static final String DATABASE_FOLDER_NAME = "database";
+    /**
+     * Maximum number of threads used to parse files when loading all objects
+     */
+    private static final int MAX_LOAD_THREADS = 4;
+    /**
+     * Fewer files than this are loaded on the calling thread
+     */
+    private static final int PARALLEL_LOAD_MIN_FILES = 32;
     protected boolean configFlag;
 
+    /**
+     * What is written for one object: the YAML and where it goes
+     */
+    private static class YamlSnapshot {
+        private final YamlConfiguration config;
+        private final String path;
+        private final String filename;
+        private final Map<String, String> comments;
+
+        private YamlSnapshot(YamlConfiguration config, String path, String filename, Map<String, String> comments) {
+            this.config = config;
+            this.path = path;
+            this.filename = filename;
+            this.comments = comments;
+        }
+    }
+
     public FlatFileDatabaseHandler(BSkyBlock plugin, Class<T> type, DatabaseConnecter dbConnecter) {
         super(plugin, type, dbConnecter);
     }
@@ -68,7 +95,7 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
             fileName = storeAt.filename();
         }
         YamlConfiguration config = databaseConnecter.loadYamlFile(path, fileName);
-        return createObject(config);
+        return createObject(config, getWorlds());
     }
 
     @Override
@@ -77,12 +104,23 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     }
 
 
-    /* (non-Javadoc)
-     * @see us.tastybento.bskyblock.database.managers.AbstractDatabaseHandler#loadObjects()
+    /**
+     * Loads all the objects. Files are parsed in parallel on a small pool of threads. The objects are returned
+     * in file name order, so the result is the same as loading them one at a time.
+     * @see us.tastybento.bskyblock.database.AbstractDatabaseHandler#loadObjects()
      */
     @Override
     public List<T> loadObjects() throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
-        List<T> list = new ArrayList<>();
+        return loadObjects(0);
+    }
+
+    /**
+     * Loads all the objects
+     * @param threads - number of threads to parse the files with, or 0 to choose from the number of files
+     * @return the objects in file name order
+     */
+    List<T> loadObjects(int threads) throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        long start = System.nanoTime();
         FilenameFilter ymlFilter = (dir, name) ->  name.toLowerCase().endsWith(".yml");
         String path = dataObject.getSimpleName();
         StoreAt storeAt = dataObject.getAnnotation(StoreAt.class);
@@ -95,53 +133,117 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
             // Nothing there...
             tableFolder.mkdirs();
         }
-        for (File file: Objects.requireNonNull(tableFolder.listFiles(ymlFilter))) {
-            String fileName = file.getName();
-            if (storeAt != null) {
-                fileName = storeAt.filename();
-            }
-            YamlConfiguration config = databaseConnecter.loadYamlFile(DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName(), fileName);
-            list.add(createObject(config));
+        File[] files = Objects.requireNonNull(tableFolder.listFiles(ymlFilter));
+        // Sort so that the load order is the same every time
+        Arrays.sort(files, Comparator.comparing(File::getName));
+        long listed = System.nanoTime();
+        if (threads <= 0) {
+            threads = files.length < PARALLEL_LOAD_MIN_FILES ? 1 : Math.min(MAX_LOAD_THREADS, Runtime.getRuntime().availableProcessors());
+        }
+        // Worlds are looked up here because the server's world list must not be read by the load threads
+        Map<String, World> worlds = getWorlds();
+        List<T> list = threads <= 1 ? loadFiles(files, storeAt, worlds) : loadFiles(files, storeAt, worlds, threads);
+        long parsed = System.nanoTime();
+        if (files.length > 0) {
+            plugin.log("Loaded " + list.size() + " " + dataObject.getSimpleName() + " objects: list " + TimeUnit.NANOSECONDS.toMillis(listed - start)
+            + " ms, parse " + TimeUnit.NANOSECONDS.toMillis(parsed - listed) + " ms using " + threads + " thread(s)");
         }
         return list;
     }
 
+    /**
+     * Loads files one at a time on this thread
+     */
+    private List<T> loadFiles(File[] files, StoreAt storeAt, Map<String, World> worlds) throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        List<T> list = new ArrayList<>(files.length);
+        for (File file: files) {
+            list.add(loadFile(file, storeAt, worlds));
+        }
+        return list;
+    }
+
+    /**
+     * Loads files in parallel
+     */
+    private List<T> loadFiles(File[] files, StoreAt storeAt, Map<String, World> worlds, int threads) throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "BSkyBlock-Load-" + dataObject.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(files.length);
+            for (File file : files) {
+                futures.add(pool.submit(() -> loadFile(file, storeAt, worlds)));
+            }
+            // Collect in file order
+            List<T> list = new ArrayList<>(files.length);
+            for (Future<T> future : futures) {
+                list.add(future.get());
+            }
+            return list;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + dataObject.getSimpleName(), e);
+        } catch (ExecutionException e) {
+            // Throw what loading the file threw
+            Throwable cause = e.getCause();
+            if (cause instanceof InstantiationException) throw (InstantiationException)cause;
+            if (cause instanceof IllegalAccessException) throw (IllegalAccessException)cause;
+            if (cause instanceof InvocationTargetException) throw (InvocationTargetException)cause;
+            if (cause instanceof ClassNotFoundException) throw (ClassNotFoundException)cause;
+            if (cause instanceof IntrospectionException) throw (IntrospectionException)cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private T loadFile(File file, StoreAt storeAt, Map<String, World> worlds) throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        String fileName = file.getName();
+        if (storeAt != null) {
+            fileName = storeAt.filename();
+        }
+        YamlConfiguration config = databaseConnecter.loadYamlFile(DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName(), fileName);
+        return createObject(config, worlds);
+    }
+
+    /**
+     * @return the server's worlds by name
+     */
+    private Map<String, World> getWorlds() {
+        Map<String, World> worlds = new HashMap<>();
+        for (World world : plugin.getServer().getWorlds()) {
+            worlds.put(world.getName(), world);
+        }
+        return worlds;
+    }
+
     /**
      *
      * Creates a list of <T>s filled with values from the provided ResultSet
      *
      * @param config - YAML config file
+     * @param worlds - the server's worlds by name
      *
      * @return <T> filled with values
      */
-    private T createObject(YamlConfiguration config) throws InstantiationException, IllegalAccessException, IntrospectionException, InvocationTargetException, ClassNotFoundException {
+    private T createObject(YamlConfiguration config, Map<String, World> worlds) throws InstantiationException, IllegalAccessException, IntrospectionException, InvocationTargetException, ClassNotFoundException {
         T instance = dataObject.newInstance();
 
         // Run through all the fields in the object
-        for (Field field : dataObject.getDeclaredFields()) {
-            // Gets the getter and setters for this field
-            PropertyDescriptor propertyDescriptor = new PropertyDescriptor(field.getName(), dataObject);
-            // Get the write method
-            Method method = propertyDescriptor.getWriteMethod();
-            String storageLocation = field.getName();
-            // Check if there is an annotation on the field
-            ConfigEntry configEntry = field.getAnnotation(ConfigEntry.class);
-            // If there is a config annotation then do something
-            if (configEntry != null) {
-                if (!configEntry.path().isEmpty()) {
-                    storageLocation = configEntry.path();
+        for (FieldPlan field : SerializationPlan.of(dataObject).getFields()) {
+            String storageLocation = field.storageLocation;
+            if (field.hasAdapter()) {
+                if (field.adapter == null) {
+                    throw new InstantiationException(field.adapterError);
                 }
-                if (!configEntry.specificTo().equals(GameType.BOTH) && !configEntry.specificTo().equals(Constants.GAMETYPE)) {
-                    continue;
-                }
-                // TODO: Add handling of other ConfigEntry elements
-            }
-            Adapter adapterNotation = field.getAnnotation(Adapter.class);
-            if (adapterNotation != null && AdapterInterface.class.isAssignableFrom(adapterNotation.value())) {
                 // A conversion adapter has been defined
                 // Get the original value
                 Object value = config.get(storageLocation);
-                method.invoke(instance, ((AdapterInterface<?,?>)adapterNotation.value().newInstance()).deserialize(value));
+                field.set(instance, field.adapter.deserialize(value));
                 // We are done here
                 continue;
             }
@@ -150,63 +252,57 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
             if (config.contains(storageLocation)) {
                 // Check for null values
                 if (config.get(storageLocation) == null) {
-                    method.invoke(instance, (Object)null);
+                    field.set(instance, null);
                     continue;
                 }
                 // Handle storage of maps. Check if this type is a Map
-                if (Map.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
-                    // Note that we have no idea what type this is
-                    List<Type> collectionTypes = Util.getCollectionParameterTypes(method);
+                if (field.kind == Kind.MAP) {
                     // collectionTypes should be 2 long
-                    Type keyType = collectionTypes.get(0);
-                    Type valueType = collectionTypes.get(1);
+                    Class<?> keyType = field.getTypeArgument(0);
+                    Class<?> valueType = field.getTypeArgument(1);
                     // TODO: this may not work with all keys. Further serialization may be required.
                     Map<Object,Object> value = new HashMap<>();
                     if (config.getConfigurationSection(storageLocation) != null) {
                         for (String key : config.getConfigurationSection(storageLocation).getKeys(false)) {
                             // Keys cannot be null - skip if they exist
-                            Object mapKey = deserialize(key,Class.forName(keyType.getTypeName()));
+                            Object mapKey = deserialize(key, keyType, worlds);
                             if (mapKey == null) {
                                 continue;
                             }
                             // Map values can be null - it is allowed here
-                            Object mapValue = deserialize(config.get(storageLocation + "." + key), Class.forName(valueType.getTypeName()));
+                            Object mapValue = deserialize(config.get(storageLocation + "." + key), valueType, worlds);
                             value.put(mapKey, mapValue);
                         }
                     }
-                    method.invoke(instance, value);
-                } else if (Set.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
+                    field.set(instance, value);
+                } else if (field.kind == Kind.SET) {
                     // Loop through the collection resultset
-                    // Note that we have no idea what type this is
-                    List<Type> collectionTypes = Util.getCollectionParameterTypes(method);
                     // collectionTypes should be only 1 long
-                    Type setType = collectionTypes.get(0);
+                    Class<?> setType = field.getTypeArgument(0);
                     Set<Object> value = new HashSet<>();
                     for (Object listValue: config.getList(storageLocation)) {
-                        value.add(deserialize(listValue,Class.forName(setType.getTypeName())));
+                        value.add(deserialize(listValue, setType, worlds));
                     }
 
                     // TODO: this may not work with all keys. Further serialization may be required.
-                    method.invoke(instance, value);
-                } else if (List.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
+                    field.set(instance, value);
+                } else if (field.kind == Kind.LIST) {
                     // Loop through the collection resultset
-                    // Note that we have no idea what type this is
-                    List<Type> collectionTypes = Util.getCollectionParameterTypes(method);
                     // collectionTypes should be only 1 long
-                    Type setType = collectionTypes.get(0);
+                    Class<?> setType = field.getTypeArgument(0);
                     List<Object> value = new ArrayList<>();
                     if (config.getList(storageLocation) != null) {
                         for (Object listValue: config.getList(storageLocation)) {
-                            value.add(deserialize(listValue,Class.forName(setType.getTypeName())));
+                            value.add(deserialize(listValue, setType, worlds));
                         }
                     }
                     // TODO: this may not work with all keys. Further serialization may be required.
-                    method.invoke(instance, value);
+                    field.set(instance, value);
                 } else {
                     // Not a collection
                     Object value = config.get(storageLocation);
                     if (value != null && !value.getClass().equals(MemorySection.class)) {
-                        method.invoke(instance, deserialize(value,propertyDescriptor.getPropertyType()));
+                        field.set(instance, deserialize(value, field.propertyType, worlds));
                     }
                 }
             }
@@ -220,10 +316,34 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
      *
      * @param instance that should be inserted into the database
      */
-    @SuppressWarnings("unchecked")
     @Override
     public void saveObject(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        write((YamlSnapshot)snapshot(instance));
+    }
+
+    /**
+     * Writes YAML made by {@link #snapshot(Object)}
+     * @param snapshots - YAML of the objects
+     */
+    @Override
+    public void saveSnapshots(Collection<Object> snapshots) {
+        for (Object snapshot : snapshots) {
+            write((YamlSnapshot)snapshot);
+        }
+    }
+
+    private void write(YamlSnapshot snapshot) {
+        databaseConnecter.saveYamlFile(snapshot.config, snapshot.path, snapshot.filename, snapshot.comments);
+    }
 
+    /**
+     * The snapshot is the YAML of the object
+     * @param instance - object
+     * @return YAML of the object and where it goes
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object snapshot(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
 
         // This is the Yaml Configuration that will be used and saved at the end
         YamlConfiguration config = new YamlConfiguration();
@@ -242,55 +362,29 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         }
 
         // Run through all the fields in the class that is being stored. EVERY field must have a get and set method
-        for (Field field : dataObject.getDeclaredFields()) {
-
-            // Get the property descriptor for this field
-            PropertyDescriptor propertyDescriptor = new PropertyDescriptor(field.getName(), dataObject);
-            // Get the read method, i.e., getXXXX();
-            Method method = propertyDescriptor.getReadMethod();
+        for (FieldPlan field : SerializationPlan.of(dataObject).getFields()) {
             // Invoke the read method to get the value. We have no idea what type of value it is.
-            Object value = method.invoke(instance);
-            String storageLocation = field.getName();
-            // Check if there is an annotation on the field
-            ConfigEntry configEntry = field.getAnnotation(ConfigEntry.class);
-            // If there is a config path annotation then do something
-            if (configEntry != null) {
-                if (!configEntry.specificTo().equals(GameType.BOTH) && !configEntry.specificTo().equals(Constants.GAMETYPE)) {
-                    continue;
-                }
-                if (!configEntry.path().isEmpty()) {
-                    storageLocation = configEntry.path();
-                }
-                // TODO: add in game-specific saving
-
-            }
+            Object value = field.get(instance);
+            String storageLocation = field.storageLocation;
 
             // Get path for comments
-            String parent = "";
-            if (storageLocation.contains(".")) {
-                parent = storageLocation.substring(0, storageLocation.lastIndexOf('.')) + ".";
-            }
-            // See if there are multiple comments
-            ConfigComment.Line comments = field.getAnnotation(ConfigComment.Line.class);
-            if (comments != null) {
-                for (ConfigComment comment : comments.value()) {
+            if (!field.comments.isEmpty()) {
+                String parent = "";
+                if (storageLocation.contains(".")) {
+                    parent = storageLocation.substring(0, storageLocation.lastIndexOf('.')) + ".";
+                }
+                for (ConfigComment comment : field.comments) {
                     setComment(comment, config, yamlComments, parent);
                 }
             }
-            // Handle single line comments
-            ConfigComment comment = field.getAnnotation(ConfigComment.class);
-            if (comment != null) {
-                setComment(comment, config, yamlComments, parent);
-            }
 
             // Adapter
-            Adapter adapterNotation = field.getAnnotation(Adapter.class);
-            if (adapterNotation != null && AdapterInterface.class.isAssignableFrom(adapterNotation.value())) {
-                // A conversion adapter has been defined
-                try {
-                    config.set(storageLocation, ((AdapterInterface<?,?>)adapterNotation.value().newInstance()).serialize(value));
-                } catch (InstantiationException e) {
-                    plugin.logError("Could not instatiate adapter " + adapterNotation.value().getName() + " " + e.getMessage());
+            if (field.hasAdapter()) {
+                if (field.adapter == null) {
+                    plugin.logError(field.adapterError);
+                } else {
+                    // A conversion adapter has been defined
+                    config.set(storageLocation, field.adapter.serialize(value));
                 }
                 // We are done here
                 continue;
@@ -298,13 +392,13 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
             // Depending on the vale type, it'll need serializing differently
             // Check if this field is the mandatory UniqueId field. This is used to identify this instantiation of the class
-            if (method.getName().equals("getUniqueId")) {
+            if (field.uniqueId) {
                 // If the object does not have a unique name assigned to it already, one is created at random
                 String id = (String)value;
                 if (value == null || id.isEmpty()) {
                     id = databaseConnecter.getUniqueId(dataObject.getSimpleName());
                     // Set it in the class so that it will be used next time
-                    propertyDescriptor.getWriteMethod().invoke(instance, id);
+                    field.set(instance, id);
                 }
                 // Save the name for when the file is saved
                 if (filename.isEmpty()) {
@@ -312,7 +406,7 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
                 }
             }
             // Collections need special serialization
-            if (Map.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
+            if (field.kind == Kind.MAP) {
                 // Maps need to have keys serialized
                 if (value != null) {
                     Map<Object, Object> result = new HashMap<>();
@@ -323,7 +417,7 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
                     // Save the list in the config file
                     config.set(storageLocation, result);
                 }
-            } else if (Set.class.isAssignableFrom(propertyDescriptor.getPropertyType())) {
+            } else if (field.kind == Kind.SET) {
                 // Sets need to be serialized as string lists
                 if (value != null) {
                     List<Object> list = new ArrayList<>();
@@ -342,7 +436,7 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
             throw new IllegalArgumentException("No uniqueId in class");
         }
 
-        databaseConnecter.saveYamlFile(config, path, filename, yamlComments);
+        return new YamlSnapshot(config, path, filename, yamlComments);
     }
 
     private void setComment(ConfigComment comment, YamlConfiguration config, Map<String, String> yamlComments, String parent) {
@@ -379,7 +473,7 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private Object deserialize(Object value, Class<?> clazz) {
+    private Object deserialize(Object value, Class<?> clazz, Map<String, World> worlds) {
         // If value is already null, then it can be nothing else
         if (value == null) {
             return null;
@@ -414,11 +508,11 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         // Bukkit Types
         if (clazz.equals(Location.class)) {
             // Get Location from String - may be null...
-            value = Util.getLocationString(((String)value));
+            value = Util.getLocationString((String)value, worlds::get);
         }
         if (clazz.equals(World.class)) {
             // Get world by name - may be null...
-            value = plugin.getServer().getWorld((String)value);
+            value = worlds.get(value);
         }
         // Enums
         if (Enum.class.isAssignableFrom(clazz)) {
@@ -449,9 +543,11 @@ public class FlatFileDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     @Override
     public void deleteObject(T instance) throws IllegalAccessException, InvocationTargetException, IntrospectionException {
         // The file name of the Yaml file.
-        PropertyDescriptor propertyDescriptor = new PropertyDescriptor("uniqueId", dataObject);
-        Method method = propertyDescriptor.getReadMethod();
-        String fileName = (String) method.invoke(instance);
+        FieldPlan uniqueId = SerializationPlan.of(dataObject).getUniqueIdField();
+        if (uniqueId == null) {
+            throw new IntrospectionException("No uniqueId in class " + dataObject.getName());
+        }
+        String fileName = (String) uniqueId.get(instance);
         if (!fileName.endsWith(".yml")) {
             fileName = fileName + ".yml";
         }
@@ -0,0 +1,258 @@
+package us.tastybento.bskyblock.database.flatfile;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import us.tastybento.bskyblock.Constants;
+import us.tastybento.bskyblock.Constants.GameType;
+import us.tastybento.bskyblock.api.configuration.ConfigComment;
+import us.tastybento.bskyblock.api.configuration.ConfigEntry;
+import us.tastybento.bskyblock.database.objects.adapters.Adapter;
+import us.tastybento.bskyblock.database.objects.adapters.AdapterInterface;
+import us.tastybento.bskyblock.util.Util;
+
+/**
+ * Everything the flat file handler needs to know to store and load a class, worked out once per class.
+ * Getters and setters are method handles, generic collection types are resolved and adapters are
+ * made once and shared, so no reflection look ups are done per object.
+ *
+ * @author tastybento
+ *
+ */
+public class SerializationPlan {
+
+    /**
+     * Plan for each class, or the exception thrown when working it out. Kept with the class, so classes
+     * of addons that are unloaded are not held on to.
+     */
+    private static final ClassValue<Object> PLANS = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            try {
+                return new SerializationPlan(type);
+            } catch (IntrospectionException | IllegalAccessException e) {
+                return e;
+            }
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * How a field's value is stored
+     */
+    enum Kind {
+        MAP,
+        SET,
+        LIST,
+        OTHER
+    }
+
+    /**
+     * Plan for one field
+     */
+    static class FieldPlan {
+        final String storageLocation;
+        final Kind kind;
+        final Class<?> propertyType;
+        final boolean uniqueId;
+        final List<ConfigComment> comments;
+        final AdapterInterface<?,?> adapter;
+        /**
+         * Set if the adapter could not be made
+         */
+        final String adapterError;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        /**
+         * Resolved generic types for collections, e.g., key and value types for maps
+         */
+        private final List<Class<?>> typeArguments;
+        /**
+         * Set if a generic type could not be resolved
+         */
+        private final String typeError;
+
+        FieldPlan(Field field, PropertyDescriptor propertyDescriptor, String storageLocation) throws IllegalAccessException {
+            this.storageLocation = storageLocation;
+            this.propertyType = propertyDescriptor.getPropertyType();
+            Method readMethod = propertyDescriptor.getReadMethod();
+            Method writeMethod = propertyDescriptor.getWriteMethod();
+            getter = readMethod == null ? null : unreflect(readMethod).asType(GETTER_TYPE);
+            setter = writeMethod == null ? null : unreflect(writeMethod).asType(SETTER_TYPE);
+            uniqueId = readMethod != null && readMethod.getName().equals("getUniqueId");
+            if (Map.class.isAssignableFrom(propertyType)) {
+                kind = Kind.MAP;
+            } else if (Set.class.isAssignableFrom(propertyType)) {
+                kind = Kind.SET;
+            } else if (List.class.isAssignableFrom(propertyType)) {
+                kind = Kind.LIST;
+            } else {
+                kind = Kind.OTHER;
+            }
+            // Comments, multiple lines first
+            List<ConfigComment> list = new ArrayList<>();
+            ConfigComment.Line lines = field.getAnnotation(ConfigComment.Line.class);
+            if (lines != null) {
+                Collections.addAll(list, lines.value());
+            }
+            ConfigComment comment = field.getAnnotation(ConfigComment.class);
+            if (comment != null) {
+                list.add(comment);
+            }
+            comments = Collections.unmodifiableList(list);
+            // Adapter
+            Adapter adapterNotation = field.getAnnotation(Adapter.class);
+            AdapterInterface<?,?> a = null;
+            String error = null;
+            if (adapterNotation != null && AdapterInterface.class.isAssignableFrom(adapterNotation.value())) {
+                try {
+                    a = (AdapterInterface<?,?>)adapterNotation.value().newInstance();
+                } catch (InstantiationException e) {
+                    error = "Could not instatiate adapter " + adapterNotation.value().getName() + " " + e.getMessage();
+                }
+            }
+            adapter = a;
+            adapterError = error;
+            // Generic types of collections
+            List<Class<?>> types = new ArrayList<>();
+            String tError = null;
+            if (kind != Kind.OTHER && writeMethod != null) {
+                for (Type type : Util.getCollectionParameterTypes(writeMethod)) {
+                    try {
+                        types.add(Class.forName(type.getTypeName()));
+                    } catch (ClassNotFoundException e) {
+                        tError = type.getTypeName();
+                        break;
+                    }
+                }
+            }
+            typeArguments = Collections.unmodifiableList(types);
+            typeError = tError;
+        }
+
+        private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+            // Allows classes that are not public, e.g., in add-ons
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+
+        /**
+         * @return true if an adapter annotation is on this field
+         */
+        boolean hasAdapter() {
+            return adapter != null || adapterError != null;
+        }
+
+        /**
+         * @param index - index of the generic type argument
+         * @return the type
+         * @throws ClassNotFoundException if the type could not be resolved
+         */
+        Class<?> getTypeArgument(int index) throws ClassNotFoundException {
+            if (typeError != null) {
+                throw new ClassNotFoundException(typeError);
+            }
+            return typeArguments.get(index);
+        }
+
+        Object get(Object instance) throws InvocationTargetException {
+            try {
+                return getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        void set(Object instance, Object value) throws InvocationTargetException {
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    private final List<FieldPlan> fields;
+    private final FieldPlan uniqueIdField;
+
+    private SerializationPlan(Class<?> type) throws IntrospectionException, IllegalAccessException {
+        List<FieldPlan> list = new ArrayList<>();
+        FieldPlan id = null;
+        for (Field field : type.getDeclaredFields()) {
+            // Transient fields are run-time state only
+            if (Modifier.isTransient(field.getModifiers())) {
+                continue;
+            }
+            // Gets the getter and setters for this field. EVERY field must have a get and set method
+            PropertyDescriptor propertyDescriptor = new PropertyDescriptor(field.getName(), type);
+            String storageLocation = field.getName();
+            // Check if there is an annotation on the field
+            ConfigEntry configEntry = field.getAnnotation(ConfigEntry.class);
+            if (configEntry != null) {
+                if (!configEntry.specificTo().equals(GameType.BOTH) && !configEntry.specificTo().equals(Constants.GAMETYPE)) {
+                    continue;
+                }
+                if (!configEntry.path().isEmpty()) {
+                    storageLocation = configEntry.path();
+                }
+                // TODO: Add handling of other ConfigEntry elements
+            }
+            FieldPlan plan = new FieldPlan(field, propertyDescriptor, storageLocation);
+            if (plan.uniqueId) {
+                id = plan;
+            }
+            list.add(plan);
+        }
+        fields = Collections.unmodifiableList(list);
+        uniqueIdField = id;
+    }
+
+    /**
+     * Gets the plan for a class. It is worked out the first time and then shared.
+     * @param type - class
+     * @return plan
+     * @throws IntrospectionException if a field does not have a getter and setter
+     * @throws IllegalAccessException if a getter or setter cannot be accessed
+     */
+    public static SerializationPlan of(Class<?> type) throws IntrospectionException, IllegalAccessException {
+        Object plan = PLANS.get(type);
+        if (plan instanceof SerializationPlan) {
+            return (SerializationPlan)plan;
+        }
+        // Failures are not kept, so the next call tries again
+        PLANS.remove(type);
+        if (plan instanceof IntrospectionException) {
+            throw (IntrospectionException)plan;
+        }
+        throw (IllegalAccessException)plan;
+    }
+
+    /**
+     * @return the stored fields in declaration order
+     */
+    List<FieldPlan> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return the uniqueId field or null if there is none
+     */
+    FieldPlan getUniqueIdField() {
+        return uniqueIdField;
+    }
+}
@@ -0,0 +1,133 @@
+package us.tastybento.bskyblock.database.mongodb;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.bson.Document;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Converts between Gson trees and Mongo documents directly, without going through a JSON string.
+ * The data object's uniqueId is stored as the document's _id.
+ *
+ * @author tastybento
+ *
+ */
+public class DocumentConverter {
+
+    private static final String UNIQUEID = "uniqueId";
+    private static final String MONGO_ID = "_id";
+
+    private DocumentConverter() {}
+
+    /**
+     * Converts a serialized data object to a document
+     * @param object - Gson tree of the data object
+     * @return document with the uniqueId as _id
+     */
+    public static Document toDocument(JsonObject object) {
+        Document document = new Document();
+        for (Entry<String, JsonElement> en : object.entrySet()) {
+            document.put(en.getKey().equals(UNIQUEID) ? MONGO_ID : en.getKey(), toValue(en.getValue()));
+        }
+        return document;
+    }
+
+    /**
+     * Converts a document to a Gson tree that can be deserialized to a data object
+     * @param document - document
+     * @return Gson tree with _id as the uniqueId
+     */
+    public static JsonObject toJson(Document document) {
+        JsonObject object = new JsonObject();
+        for (Entry<String, Object> en : document.entrySet()) {
+            object.add(en.getKey().equals(MONGO_ID) ? UNIQUEID : en.getKey(), toElement(en.getValue()));
+        }
+        return object;
+    }
+
+    private static Object toValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonObject()) {
+            Document document = new Document();
+            for (Entry<String, JsonElement> en : element.getAsJsonObject().entrySet()) {
+                document.put(en.getKey(), toValue(en.getValue()));
+            }
+            return document;
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<Object> list = new ArrayList<>(array.size());
+            array.forEach(e -> list.add(toValue(e)));
+            return list;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            return toBsonNumber(primitive.getAsNumber());
+        }
+        return primitive.getAsString();
+    }
+
+    /**
+     * BSON can only store some number types
+     * @param number - number
+     * @return Integer, Long or Double
+     */
+    private static Number toBsonNumber(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Double) {
+            return number;
+        }
+        if (number instanceof Short || number instanceof Byte) {
+            return number.intValue();
+        }
+        if (number instanceof Float) {
+            return number.doubleValue();
+        }
+        // Lazily parsed or big numbers
+        BigDecimal big = new BigDecimal(number.toString());
+        if (big.stripTrailingZeros().scale() <= 0) {
+            long l = big.longValue();
+            return l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE ? (Number)(int)l : (Number)l;
+        }
+        return big.doubleValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonElement toElement(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (value instanceof Map) {
+            JsonObject object = new JsonObject();
+            for (Entry<String, Object> en : ((Map<String, Object>)value).entrySet()) {
+                object.add(en.getKey(), toElement(en.getValue()));
+            }
+            return object;
+        }
+        if (value instanceof List) {
+            JsonArray array = new JsonArray();
+            ((List<Object>)value).forEach(v -> array.add(toElement(v)));
+            return array;
+        }
+        if (value instanceof Boolean) {
+            return new JsonPrimitive((Boolean)value);
+        }
+        if (value instanceof Number) {
+            return new JsonPrimitive((Number)value);
+        }
+        return new JsonPrimitive(value.toString());
+    }
+}
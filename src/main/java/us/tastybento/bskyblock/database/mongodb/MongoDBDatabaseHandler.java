@@ -1,6 +1,8 @@
 package us.tastybento.bskyblock.database.mongodb;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.bson.Document;
@@ -13,10 +15,12 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.FindOneAndReplaceOptions;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
-import com.mongodb.util.JSON;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOptions;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.flags.Flag;
@@ -36,16 +40,21 @@ import us.tastybento.bskyblock.database.objects.DataObject;
  *
  * @param <T>
  */
-@SuppressWarnings("deprecation")
 public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     private static final String UNIQUEID = "uniqueId";
     private static final String MONGO_ID = "_id";
 
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
     private MongoCollection<Document> collection;
     private DatabaseConnecter dbConnecter;
 
-    private BSkyBlock bskyblock;
+    /**
+     * Gson is thread-safe and expensive to build, so one is made per handler
+     */
+    private Gson gson;
 
     /**
      * Handles the connection to the database and creation of the initial database schema (tables) for
@@ -56,8 +65,8 @@ public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
      */
     public MongoDBDatabaseHandler(BSkyBlock plugin, Class<T> type, DatabaseConnecter dbConnecter) {
         super(plugin, type, dbConnecter);
-        this.bskyblock = plugin;
         this.dbConnecter = dbConnecter;
+        gson = getGSON(plugin);
         /*
       Connection to the database
      */
@@ -68,14 +77,14 @@ public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     }
 
     // Gets the GSON builder
-    private Gson getGSON() {
+    private Gson getGSON(BSkyBlock plugin) {
         // excludeFieldsWithoutExposeAnnotation - this means that every field to be stored should use @Expose
         // enableComplexMapKeySerialization - forces GSON to use TypeAdapters even for Map keys
         GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
         // Register adapters
         builder.registerTypeAdapter(Location.class, new LocationAdapter(plugin)) ;
         builder.registerTypeAdapter(World.class, new WorldAdapter(plugin));
-        builder.registerTypeAdapter(Flag.class, new FlagAdapter(bskyblock));
+        builder.registerTypeAdapter(Flag.class, new FlagAdapter(plugin));
         builder.registerTypeAdapter(PotionEffectType.class, new PotionEffectTypeAdapter());
         // Keep null in the database
         builder.serializeNulls();
@@ -84,15 +93,16 @@ public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         return builder.create();
     }
 
+    /**
+     * Loads all the objects. Documents are read from the cursor one at a time and converted straight to objects.
+     */
     @Override
     public List<T> loadObjects() {
         List<T> list = new ArrayList<>();
-        Gson gson = getGSON();
-        for (Document document : collection.find(new Document())) {
-            // The deprecated serialize option does not have a viable alternative without involving a huge amount of custom code
-            String json = JSON.serialize(document);
-            json = json.replaceFirst(MONGO_ID, UNIQUEID);
-            list.add(gson.fromJson(json, dataObject));
+        try (MongoCursor<Document> cursor = collection.find(new Document()).iterator()) {
+            while (cursor.hasNext()) {
+                list.add(fromDocument(cursor.next()));
+            }
         }
         return list;
     }
@@ -100,42 +110,91 @@ public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     @Override
     public T loadObject(String uniqueId) { 
         Document doc = collection.find(new Document(MONGO_ID, uniqueId)).limit(1).first();
-        if (doc != null) {
-            Gson gson = getGSON();
-            String json = JSON.serialize(doc).replaceFirst(MONGO_ID, UNIQUEID);
-            // load single object
-            return gson.fromJson(json, dataObject);
+        // load single object
+        return doc == null ? null : fromDocument(doc);
+    }
+
+    /**
+     * @throws InvocationTargetException if the database could not save the object
+     */
+    @Override
+    public void saveObject(T instance) throws InvocationTargetException {
+        ReplaceOneModel<Document> model = snapshot(instance);
+        try {
+            // Upsert (update or insert if doc is not there) based on the id
+            collection.replaceOne(model.getFilter(), model.getReplacement(), UPSERT);
+        } catch (Exception e) {
+            throw new InvocationTargetException(e, "Could not save object " + instance.getClass().getName() + " " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saves all the objects with one unordered bulk write of upserts
+     * @param instances - objects to save
+     * @throws InvocationTargetException if the database could not save all the objects
+     */
+    @Override
+    public void saveObjects(Collection<T> instances) throws InvocationTargetException {
+        List<Object> models = new ArrayList<>(instances.size());
+        for (T instance : instances) {
+            models.add(snapshot(instance));
         }
-        return null;
+        saveSnapshots(models);
     }
 
+    /**
+     * The snapshot is the upsert of the object's document
+     * @param instance - object
+     * @return upsert
+     */
     @Override
-    public void saveObject(T instance) {
+    public ReplaceOneModel<Document> snapshot(T instance) {
         if (!(instance instanceof DataObject)) {
-            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
+            throw new IllegalArgumentException("This class is not a DataObject: " + instance.getClass().getName());
+        }
+        return new ReplaceOneModel<>(getFilter((DataObject)instance), toDocument(instance), UPSERT);
+    }
+
+    /**
+     * Saves upserts made by {@link #snapshot(Object)} with one unordered bulk write
+     * @param snapshots - upserts
+     * @throws InvocationTargetException if the database could not save all of them. Being unordered,
+     * the others may have been saved, but saving them again does no harm.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void saveSnapshots(Collection<Object> snapshots) throws InvocationTargetException {
+        if (snapshots.isEmpty()) {
             return;
         }
-        DataObject dataObj = (DataObject)instance;
+        List<ReplaceOneModel<Document>> models = new ArrayList<>(snapshots.size());
+        for (Object snapshot : snapshots) {
+            models.add((ReplaceOneModel<Document>)snapshot);
+        }
         try {
-            Gson gson = getGSON();
-            String toStore = gson.toJson(instance);
-            // Change uniqueId to _id
-            toStore = toStore.replaceFirst(UNIQUEID, MONGO_ID);
-            // This parses JSON to a Mongo Document
-            Document document = Document.parse(toStore);
-            // Filter based on the id
-            Bson filter = new Document(MONGO_ID, dataObj.getUniqueId());
-            // Set the options to upsert (update or insert if doc is not there)
-            FindOneAndReplaceOptions options = new FindOneAndReplaceOptions().upsert(true);
-            // Do the deed
-            collection.findOneAndReplace(filter, document, options);
+            collection.bulkWrite(models, UNORDERED);
         } catch (Exception e) {
-            plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
+            throw new InvocationTargetException(e, "Could not save " + models.size() + " objects " + dataObject.getName() + " " + e.getMessage());
         }
     }
 
+    private Bson getFilter(DataObject dataObj) {
+        return new Document(MONGO_ID, dataObj.getUniqueId());
+    }
+
+    private Document toDocument(T instance) {
+        return DocumentConverter.toDocument(gson.toJsonTree(instance).getAsJsonObject());
+    }
+
+    private T fromDocument(Document document) {
+        return gson.fromJson(DocumentConverter.toJson(document), dataObject);
+    }
+
+    /**
+     * @throws InvocationTargetException if the database could not delete the object
+     */
     @Override
-    public void deleteObject(T instance) {
+    public void deleteObject(T instance) throws InvocationTargetException {
         if (!(instance instanceof DataObject)) {
             plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
             return;
@@ -143,7 +202,7 @@ public class MongoDBDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         try {
             collection.findOneAndDelete(new Document(MONGO_ID, ((DataObject)instance).getUniqueId()));
         } catch (Exception e) {
-            plugin.logError("Could not delete object " + instance.getClass().getName() + " " + e.getMessage());
+            throw new InvocationTargetException(e, "Could not delete object " + instance.getClass().getName() + " " + e.getMessage());
         }
     }
 
@@ -0,0 +1,103 @@
+package us.tastybento.bskyblock.database.mysql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import us.tastybento.bskyblock.database.DatabaseConnecter;
+
+/**
+ * A small pool of database connections so that the database writer thread and the server thread
+ * do not have to share, or wait on, one connection. Connections are made when needed, up to the pool size,
+ * and are kept open for reuse until the pool is closed.
+ *
+ * @author tastybento
+ *
+ */
+public class MySQLConnectionPool {
+
+    private static final long BORROW_TIMEOUT = 30;
+
+    private final DatabaseConnecter dbConnecter;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    /**
+     * @param dbConnecter - makes the connections
+     * @param size - maximum number of connections in use at once
+     */
+    public MySQLConnectionPool(DatabaseConnecter dbConnecter, int size) {
+        this.dbConnecter = dbConnecter;
+        this.permits = new Semaphore(size, true);
+    }
+
+    /**
+     * Gets a connection. It must be given back with {@link #release(Connection)}.
+     * Waits if all the connections are in use.
+     * @return connection
+     * @throws SQLException if the pool is closed, no connection becomes free in time, or a connection cannot be made
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a database connection");
+        }
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            if (!connection.isClosed()) {
+                return connection;
+            }
+        }
+        connection = (Connection)dbConnecter.createConnection();
+        if (connection == null) {
+            permits.release();
+            throw new SQLException("Could not connect to the database");
+        }
+        return connection;
+    }
+
+    /**
+     * Gives a connection back to the pool
+     * @param connection - connection from {@link #borrow()}
+     */
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (closed) {
+            close(connection);
+        } else {
+            idle.offer(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * Closes all the idle connections. Connections that are in use are closed when they are released.
+     */
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            close(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Nothing more can be done
+        }
+    }
+}
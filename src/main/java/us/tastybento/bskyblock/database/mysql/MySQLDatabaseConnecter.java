@@ -15,7 +15,6 @@ public class MySQLDatabaseConnecter implements DatabaseConnecter {
 
     private String connectionUrl;
     private DatabaseConnectionSettingsImpl dbSettings;
-    private Connection connection = null;
 
     /**
      * Class for MySQL database connections using the settings provided
@@ -29,17 +28,23 @@ public class MySQLDatabaseConnecter implements DatabaseConnecter {
             Bukkit.getLogger().severe("Could not instantiate JDBC driver! " + e.getMessage());
         }
         // jdbc:mysql://localhost:3306/Peoples?autoReconnect=true&useSSL=false
-        connectionUrl = "jdbc:mysql://" + dbSettings.getHost() + ":" + dbSettings.getPort() + "/" + dbSettings.getDatabaseName() + "?autoReconnect=true&useSSL=false&allowMultiQueries=true";
+        // rewriteBatchedStatements makes the driver send batched upserts as multi-row statements
+        connectionUrl = "jdbc:mysql://" + dbSettings.getHost() + ":" + dbSettings.getPort() + "/" + dbSettings.getDatabaseName() + "?autoReconnect=true&useSSL=false&allowMultiQueries=true&rewriteBatchedStatements=true";
     }
 
+    /**
+     * Makes a new connection each time it is called. The connections are owned, and closed, by the caller,
+     * see {@link MySQLConnectionPool}.
+     * @return connection or null if one cannot be made
+     */
     @Override
     public Connection createConnection() {
         try {
-            connection = DriverManager.getConnection(connectionUrl, dbSettings.getUsername(), dbSettings.getPassword());
+            return DriverManager.getConnection(connectionUrl, dbSettings.getUsername(), dbSettings.getPassword());
         } catch (SQLException e) {
             Bukkit.getLogger().severe("Could not connect to the database! " + e.getMessage());
+            return null;
         }
-        return connection;
     }
 
     @Override
@@ -74,12 +79,6 @@ public class MySQLDatabaseConnecter implements DatabaseConnecter {
 
     @Override
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                Bukkit.getLogger().severe("Could not close MySQL database connection");
-            }
-        }
+        // Not used - connections are closed by the pool that made them
     }
 }
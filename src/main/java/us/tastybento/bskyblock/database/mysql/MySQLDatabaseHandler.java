@@ -1,5 +1,6 @@
 package us.tastybento.bskyblock.database.mysql;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -7,6 +8,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.bukkit.Location;
@@ -37,11 +39,23 @@ import us.tastybento.bskyblock.database.objects.DataObject;
 public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     /**
-     * Connection to the database
+     * Maximum number of connections this handler will use at once
      */
-    private Connection connection;
+    private static final int POOL_SIZE = 3;
+    /**
+     * Number of rows sent to the database in one batch
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Connections to the database
+     */
+    private MySQLConnectionPool pool;
 
-    private BSkyBlock bskyblock;
+    /**
+     * Gson is thread-safe and expensive to build, so one is made per handler
+     */
+    private Gson gson;
 
     /**
      * Handles the connection to the database and creation of the initial database schema (tables) for
@@ -52,8 +66,8 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
      */
     public MySQLDatabaseHandler(BSkyBlock plugin, Class<T> type, DatabaseConnecter dbConnecter) {
         super(plugin, type, dbConnecter);
-        this.bskyblock = plugin;
-        connection = (Connection)dbConnecter.createConnection();
+        pool = new MySQLConnectionPool(dbConnecter, POOL_SIZE);
+        gson = getGSON(plugin);
         // Check if the table exists in the database and if not, create it
         createSchema();
     }
@@ -65,23 +79,29 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         String sql = "CREATE TABLE IF NOT EXISTS `" +
                 dataObject.getCanonicalName() +
                 "` (json JSON, uniqueId VARCHAR(255) GENERATED ALWAYS AS (json->\"$.uniqueId\"), UNIQUE INDEX i (uniqueId) )";
+        Connection connection = null;
         // Prepare and execute the database statements
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.executeUpdate();
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                pstmt.executeUpdate();
+            }
         } catch (SQLException e) {
             plugin.logError("Problem trying to create schema for data object " + dataObject.getCanonicalName() + " " + e.getMessage());
+        } finally {
+            pool.release(connection);
         }
     }
 
     // Gets the GSON builder
-    private Gson getGSON() {
+    private Gson getGSON(BSkyBlock plugin) {
         // excludeFieldsWithoutExposeAnnotation - this means that every field to be stored should use @Expose
         // enableComplexMapKeySerialization - forces GSON to use TypeAdapters even for Map keys
         GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().enableComplexMapKeySerialization();
         // Register adapters
         builder.registerTypeAdapter(Location.class, new LocationAdapter(plugin)) ;
         builder.registerTypeAdapter(World.class, new WorldAdapter(plugin));
-        builder.registerTypeAdapter(Flag.class, new FlagAdapter(bskyblock));
+        builder.registerTypeAdapter(Flag.class, new FlagAdapter(plugin));
         builder.registerTypeAdapter(PotionEffectType.class, new PotionEffectTypeAdapter());
         // Keep null in the database
         builder.serializeNulls();
@@ -97,16 +117,20 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         sb.append("SELECT `json` FROM `");
         sb.append(dataObject.getCanonicalName());
         sb.append("`");
-        try (Statement preparedStatement = connection.createStatement()) {
-            try (ResultSet resultSet = preparedStatement.executeQuery(sb.toString())) {
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (Statement preparedStatement = connection.createStatement();
+                    ResultSet resultSet = preparedStatement.executeQuery(sb.toString())) {
                 // Load all the results
-                Gson gson = getGSON();
                 while (resultSet.next()) {
                     list.add(gson.fromJson(resultSet.getString("json"), dataObject));
                 }
             }
         } catch (SQLException e) {
             plugin.logError("Could not load objects " + e.getMessage());
+        } finally {
+            pool.release(connection);
         }
         return list;
     }
@@ -116,47 +140,144 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         String sb = "SELECT `json` FROM `" +
                 dataObject.getCanonicalName() +
                 "` WHERE uniqueId = ? LIMIT 1";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
-            // UniqueId needs to be placed in quotes
-            preparedStatement.setString(1, "\"" + uniqueId + "\"");
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    // If there is a result, we only want/need the first one
-                    Gson gson = getGSON();
-                    return gson.fromJson(resultSet.getString("json"), dataObject);
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
+                // UniqueId needs to be placed in quotes
+                preparedStatement.setString(1, "\"" + uniqueId + "\"");
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    if (resultSet.next()) {
+                        // If there is a result, we only want/need the first one
+                        return gson.fromJson(resultSet.getString("json"), dataObject);
+                    }
                 }
             }
         } catch (SQLException e) {
             plugin.logError("Could not load object " + uniqueId + " " + e.getMessage());
+        } finally {
+            pool.release(connection);
         }
         return null;
     }
 
+    /**
+     * @throws InvocationTargetException if the database could not save the object
+     */
+    @Override
+    public void saveObject(T instance) throws InvocationTargetException {
+        String row = snapshot(instance);
+        // Replace into is used so that any data in the table will be replaced with updated data
+        // The table name is the canonical name, so that add-ons can be sure of a unique table in the database
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(getUpsertSQL())) {
+                preparedStatement.setString(1, row);
+                preparedStatement.execute();
+            }
+        } catch (SQLException e) {
+            throw new InvocationTargetException(e, "Could not save object " + instance.getClass().getName() + " " + e.getMessage());
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    /**
+     * Saves all the objects in one transaction using JDBC batches
+     * @param instances - objects to save
+     * @throws InvocationTargetException if the database could not save the objects
+     */
     @Override
-    public void saveObject(T instance) {
+    public void saveObjects(Collection<T> instances) throws InvocationTargetException {
+        // Serialize first so that the connection is held for as short a time as possible
+        List<Object> rows = new ArrayList<>(instances.size());
+        for (T instance : instances) {
+            rows.add(snapshot(instance));
+        }
+        saveSnapshots(rows);
+    }
+
+    /**
+     * The snapshot is the JSON of the object
+     * @param instance - object
+     * @return JSON
+     */
+    @Override
+    public String snapshot(T instance) {
         if (!(instance instanceof DataObject)) {
-            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
+            throw new IllegalArgumentException("This class is not a DataObject: " + instance.getClass().getName());
+        }
+        return gson.toJson(instance);
+    }
+
+    /**
+     * Saves the JSON of many objects in one transaction using JDBC batches. The connection URL has rewriteBatchedStatements set,
+     * so the driver sends each batch as one multi-row upsert instead of a round trip per object.
+     * @param rows - JSON made by {@link #snapshot(Object)}
+     * @throws InvocationTargetException if the database could not save the rows. None of them are saved.
+     */
+    @Override
+    public void saveSnapshots(Collection<Object> rows) throws InvocationTargetException {
+        if (rows.isEmpty()) {
             return;
         }
-        String sb = "INSERT INTO " +
-                "`" +
-                dataObject.getCanonicalName() +
-                "` (json) VALUES (?) ON DUPLICATE KEY UPDATE json = ?";
-        // Replace into is used so that any data in the table will be replaced with updated data
-        // The table name is the canonical name, so that add-ons can be sure of a unique table in the database
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
-            Gson gson = getGSON();
-            String toStore = gson.toJson(instance);
-            preparedStatement.setString(1, toStore);
-            preparedStatement.setString(2, toStore);
-            preparedStatement.execute(); 
+        Connection connection = null;
+        boolean autoCommit = true;
+        try {
+            connection = pool.borrow();
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(getUpsertSQL())) {
+                int count = 0;
+                for (Object row : rows) {
+                    preparedStatement.setString(1, (String)row);
+                    preparedStatement.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        preparedStatement.executeBatch();
+                    }
+                }
+                if (count % BATCH_SIZE != 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+            connection.commit();
         } catch (SQLException e) {
-            plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
+            rollback(connection);
+            throw new InvocationTargetException(e, "Could not save " + rows.size() + " objects " + dataObject.getName() + " " + e.getMessage());
+        } finally {
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    plugin.logError("Could not reset database connection " + e.getMessage());
+                }
+            }
+            pool.release(connection);
+        }
+    }
+
+    private String getUpsertSQL() {
+        return "INSERT INTO `" +
+                dataObject.getCanonicalName() +
+                "` (json) VALUES (?) ON DUPLICATE KEY UPDATE json = VALUES(json)";
+    }
+
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                plugin.logError("Could not roll back " + e.getMessage());
+            }
         }
     }
 
+    /**
+     * @throws InvocationTargetException if the database could not delete the object
+     */
     @Override
-    public void deleteObject(T instance) {
+    public void deleteObject(T instance) throws InvocationTargetException {
         if (!(instance instanceof DataObject)) {
             plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
             return;
@@ -164,13 +285,19 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         String sb = "DELETE FROM `" +
                 dataObject.getCanonicalName() +
                 "` WHERE uniqueId = ?";
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
-            Method getUniqueId = dataObject.getMethod("getUniqueId");
-            String uniqueId = (String) getUniqueId.invoke(instance);
-            preparedStatement.setString(1, uniqueId);
-            preparedStatement.execute();
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
+                Method getUniqueId = dataObject.getMethod("getUniqueId");
+                String uniqueId = (String) getUniqueId.invoke(instance);
+                preparedStatement.setString(1, uniqueId);
+                preparedStatement.execute();
+            }
         } catch (Exception e) {
-            plugin.logError("Could not delete object " + instance.getClass().getName() + " " + e.getMessage());
+            throw new InvocationTargetException(e, "Could not delete object " + instance.getClass().getName() + " " + e.getMessage());
+        } finally {
+            pool.release(connection);
         }
     }
 
@@ -183,29 +310,28 @@ public class MySQLDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         String query = "SELECT IF ( EXISTS( SELECT * FROM `" +
                 dataObject.getCanonicalName() +
                 "` WHERE `uniqueId` = ?), 1, 0)";
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setString(1, uniqueId);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getBoolean(1);
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setString(1, uniqueId);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getBoolean(1);
+                    }
                 }
             }
         } catch (SQLException e) {
             plugin.logError("Could not check if key exists in database! " + uniqueId + " " + e.getMessage());
+        } finally {
+            pool.release(connection);
         }
         return false;
     }
 
     @Override
     public void close() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                plugin.logError("Could not close database for some reason");
-            }
-        }
+        pool.close();
     }
 
 }
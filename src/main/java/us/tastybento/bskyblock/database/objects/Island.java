@@ -1,5 +1,7 @@
 package us.tastybento.bskyblock.database.objects;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import us.tastybento.bskyblock.database.objects.adapters.Adapter;
 import us.tastybento.bskyblock.database.objects.adapters.FlagSerializer;
 import us.tastybento.bskyblock.managers.RanksManager;
 import us.tastybento.bskyblock.util.Pair;
+import us.tastybento.bskyblock.util.UUIDIntMap;
 import us.tastybento.bskyblock.util.Util;
 
 /**
@@ -104,6 +107,26 @@ public class Island implements DataObject {
     @Expose
     private Map<Environment, Location> spawnPoint = new HashMap<>();
 
+    /**
+     * True if this island has changed since it was last saved. Not stored.
+     */
+    private transient volatile boolean dirty = true;
+
+    /**
+     * Marks a flag value that is not in the flag table yet
+     */
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    /**
+     * Flag values indexed by flag ordinal. Filled from flags as they are asked for. Not stored.
+     */
+    private transient volatile int[] flagTable;
+
+    /**
+     * Snapshot of members for rank look ups. Made when needed. Not stored.
+     */
+    private transient volatile UUIDIntMap rankTable;
+
     public Island() {}
     public Island(Location location, UUID owner, int protectionRange) {
         setOwner(owner);
@@ -126,6 +149,8 @@ public class Island implements DataObject {
      */
     public void addMember(UUID playerUUID) {
         if (playerUUID != null) {
+            dirty = true;
+            rankTable = null;
             members.put(playerUUID, RanksManager.MEMBER_RANK);
         }
     }
@@ -137,6 +162,8 @@ public class Island implements DataObject {
      */
     public boolean addToBanList(UUID targetUUID) {
         if (targetUUID != null) {
+            dirty = true;
+            rankTable = null;
             members.put(targetUUID, RanksManager.BANNED_RANK);
             return true;
         }
@@ -177,15 +204,35 @@ public class Island implements DataObject {
      * @return flag value
      */
     public int getFlag(Flag flag) {
+        int ordinal = flag.getOrdinal();
+        int[] table = flagTable;
+        if (table != null && ordinal >= 0 && ordinal < table.length && table[ordinal] != UNSET) {
+            return table[ordinal];
+        }
         flags.putIfAbsent(flag, flag.getDefaultRank());
-        return flags.get(flag);
+        int value = flags.get(flag);
+        if (ordinal >= 0) {
+            cacheFlag(ordinal, value);
+        }
+        return value;
+    }
+
+    private void cacheFlag(int ordinal, int value) {
+        int[] table = flagTable;
+        if (table == null || ordinal >= table.length) {
+            int oldLength = table == null ? 0 : table.length;
+            table = table == null ? new int[Math.max(ordinal + 1, 64)] : Arrays.copyOf(table, Math.max(ordinal + 1, oldLength * 2));
+            Arrays.fill(table, oldLength, table.length, UNSET);
+        }
+        table[ordinal] = value;
+        flagTable = table;
     }
 
     /**
-     * @return the flags
+     * @return the flags. The map cannot be changed, use {@link #setFlag(Flag, int)} or {@link #setFlags(Map)}.
      */
     public Map<Flag, Integer> getFlags() {
-        return flags;
+        return Collections.unmodifiableMap(flags);
     }
 
     /**
@@ -197,10 +244,11 @@ public class Island implements DataObject {
 
     /**
      * Get the team members of the island. If this is empty or cleared, there is no team.
+     * The map cannot be changed, use {@link #setRank(User, int)}, {@link #removeMember(UUID)} or {@link #setMembers(Map)}.
      * @return the members - key is the UUID, value is the RanksManager enum, e.g. RanksManager.MEMBER_RANK
      */
     public Map<UUID, Integer> getMembers() {
-        return members;
+        return Collections.unmodifiableMap(members);
     }
 
     /**
@@ -286,7 +334,12 @@ public class Island implements DataObject {
      * @return rank integer
      */
     public int getRank(User user) {
-        return members.getOrDefault(user.getUniqueId(), RanksManager.VISITOR_RANK);
+        UUIDIntMap table = rankTable;
+        if (table == null) {
+            table = new UUIDIntMap(members);
+            rankTable = table;
+        }
+        return table.get(user.getUniqueId(), RanksManager.VISITOR_RANK);
     }
 
     /**
@@ -435,7 +488,18 @@ public class Island implements DataObject {
      * @return true if it is, false if not
      */
     public boolean onIsland(Location target) {
-        return Util.sameWorld(world, target.getWorld()) && target.getBlockX() >= minProtectedX && target.getBlockX() < (minProtectedX + protectionRange * 2) && target.getBlockZ() >= minProtectedZ && target.getBlockZ() < (minProtectedZ + protectionRange * 2);
+        return Util.sameWorld(world, target.getWorld()) && onIsland(target.getBlockX(), target.getBlockZ());
+    }
+
+    /**
+     * Checks if coords are within this island's protected area. The world is not checked.
+     *
+     * @param x - x coordinate
+     * @param z - z coordinate
+     * @return true if they are, false if not
+     */
+    public boolean onIsland(int x, int z) {
+        return x >= minProtectedX && x < (minProtectedX + protectionRange * 2) && z >= minProtectedZ && z < (minProtectedZ + protectionRange * 2);
     }
 
     /**
@@ -444,7 +508,12 @@ public class Island implements DataObject {
      * @return true if successful, otherwise false.
      */
     public boolean removeFromBanList(UUID targetUUID) {
-        return (members.remove(targetUUID) != null);
+        if (members.remove(targetUUID) != null) {
+            dirty = true;
+            rankTable = null;
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -453,6 +522,8 @@ public class Island implements DataObject {
      * @param playerUUID - uuid of player
      */
     public void removeMember(UUID playerUUID) {
+        dirty = true;
+        rankTable = null;
         members.remove(playerUUID);
     }
 
@@ -460,6 +531,7 @@ public class Island implements DataObject {
      * @param center the center to set
      */
     public void setCenter(Location center) {
+        dirty = true;
         if (center != null) {
             this.world = center.getWorld();
         }
@@ -470,6 +542,7 @@ public class Island implements DataObject {
      * @param createdDate - the createdDate to sets
      */
     public void setCreatedDate(long createdDate){
+        dirty = true;
         this.createdDate = createdDate;
     }
 
@@ -479,14 +552,18 @@ public class Island implements DataObject {
      * @param value - Use RanksManager settings, e.g. RanksManager.MEMBER
      */
     public void setFlag(Flag flag, int value){
+        dirty = true;
         flags.put(flag, value);
+        flagTable = null;
     }
 
     /**
      * @param flags the flags to set
      */
     public void setFlags(Map<Flag, Integer> flags) {
+        dirty = true;
         this.flags = flags;
+        flagTable = null;
     }
 
     /**
@@ -500,6 +577,7 @@ public class Island implements DataObject {
      * @param levelHandicap the levelHandicap to set
      */
     public void setLevelHandicap(int levelHandicap) {
+        dirty = true;
         this.levelHandicap = levelHandicap;
     }
 
@@ -507,13 +585,16 @@ public class Island implements DataObject {
      * @param members the members to set
      */
     public void setMembers(Map<UUID, Integer> members) {
+        dirty = true;
         this.members = members;
+        rankTable = null;
     }
 
     /**
      * @param minProtectedX the minProtectedX to set
      */
     public final void setMinProtectedX(int minProtectedX) {
+        dirty = true;
         this.minProtectedX = minProtectedX;
     }
 
@@ -521,6 +602,7 @@ public class Island implements DataObject {
      * @param minProtectedZ the minProtectedZ to set
      */
     public final void setMinProtectedZ(int minProtectedZ) {
+        dirty = true;
         this.minProtectedZ = minProtectedZ;
     }
 
@@ -528,6 +610,7 @@ public class Island implements DataObject {
      * @param minX the minX to set
      */
     public final void setMinX(int minX) {
+        dirty = true;
         this.minX = minX;
     }
 
@@ -535,6 +618,7 @@ public class Island implements DataObject {
      * @param minZ the minZ to set
      */
     public final void setMinZ(int minZ) {
+        dirty = true;
         this.minZ = minZ;
     }
 
@@ -543,6 +627,7 @@ public class Island implements DataObject {
      *               Set to null to remove the display name
      */
     public void setName(String name){
+        dirty = true;
         this.name = name;
     }
 
@@ -551,6 +636,8 @@ public class Island implements DataObject {
      * @param owner - the island owner - the owner/team leader to set
      */
     public void setOwner(UUID owner){
+        dirty = true;
+        rankTable = null;
         this.owner = owner;
         if (owner == null) {
             return;
@@ -568,6 +655,7 @@ public class Island implements DataObject {
      * @param protectionRange the protectionRange to set
      */
     public void setProtectionRange(int protectionRange) {
+        dirty = true;
         this.protectionRange = protectionRange;
     }
 
@@ -575,6 +663,7 @@ public class Island implements DataObject {
      * @param purgeProtected - if the island is protected from the Purge
      */
     public void setPurgeProtected(boolean purgeProtected){
+        dirty = true;
         this.purgeProtected = purgeProtected;
     }
 
@@ -582,6 +671,7 @@ public class Island implements DataObject {
      * @param range - the range to set
      */
     public void setRange(int range){
+        dirty = true;
         this.range = range;
     }
 
@@ -592,7 +682,9 @@ public class Island implements DataObject {
      */
     public void setRank(User user, int rank) {
         if (user.getUniqueId() != null) {
+            dirty = true;
             members.put(user.getUniqueId(), rank);
+            rankTable = null;
         }
     }
 
@@ -600,13 +692,16 @@ public class Island implements DataObject {
      * @param ranks the ranks to set
      */
     public void setRanks(Map<UUID, Integer> ranks) {
+        dirty = true;
         members = ranks;
+        rankTable = null;
     }
 
     /**
      * @param isSpawn - if the island is the spawn
      */
     public void setSpawn(boolean isSpawn){
+        dirty = true;
         spawn = isSpawn;
     }
 
@@ -631,11 +726,13 @@ public class Island implements DataObject {
      * @param spawnPoint the spawnPoint to set
      */
     public void setSpawnPoint(Map<Environment, Location> spawnPoint) {
+        dirty = true;
         this.spawnPoint = spawnPoint;
     }
 
     @Override
     public void setUniqueId(String uniqueId) {
+        dirty = true;
         this.uniqueId = uniqueId;
     }
 
@@ -643,6 +740,7 @@ public class Island implements DataObject {
      * @param updatedDate - the updatedDate to sets
      */
     public void setUpdatedDate(long updatedDate){
+        dirty = true;
         this.updatedDate = updatedDate;
     }
 
@@ -650,6 +748,7 @@ public class Island implements DataObject {
      * @param world the world to set
      */
     public void setWorld(World world) {
+        dirty = true;
         this.world = world;
     }
 
@@ -736,7 +835,9 @@ public class Island implements DataObject {
      */
     public void setSettingsFlag(Flag flag, boolean state) {
         if (flag.getType().equals(Flag.Type.SETTING) || flag.getType().equals(Flag.Type.WORLD_SETTING)) {
+            dirty = true;
             flags.put(flag, state ? 1 : -1);
+            flagTable = null;
         }
     }
 
@@ -746,6 +847,7 @@ public class Island implements DataObject {
      * @param l - location
      */
     public void setSpawnPoint(Environment islandType, Location l) {
+        dirty = true;
         spawnPoint.put(islandType, l);
     }
 
@@ -758,5 +860,18 @@ public class Island implements DataObject {
         return spawnPoint.get(islandType);
     }
 
+    /**
+     * @return true if this island has changed since it was last saved
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
 
-}
\ No newline at end of file
+    /**
+     * Marks this island as changed, or as saved
+     * @param dirty - true if the island needs saving
+     */
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+}
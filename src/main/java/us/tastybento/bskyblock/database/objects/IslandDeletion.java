@@ -0,0 +1,274 @@
+package us.tastybento.bskyblock.database.objects;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.annotations.Expose;
+
+/**
+ * Stores how far the deletion of an island's chunks has got, so it can carry on after a restart.
+ * Chunks are worked through world by world, column by column, and {@link #getNext()} is the index of
+ * the next chunk to do. Chunks that were not loaded when their turn came are kept in
+ * {@link #getUnloadedChunks()} until they next load.
+ * @author tastybento
+ *
+ */
+public class IslandDeletion implements DataObject {
+
+    private static final String SEPARATOR = ":";
+
+    @Expose
+    private String uniqueId = "";
+    @Expose
+    private List<String> worlds = new ArrayList<>();
+    @Expose
+    private int minXChunk;
+    @Expose
+    private int maxXChunk;
+    @Expose
+    private int minZChunk;
+    @Expose
+    private int maxZChunk;
+    @Expose
+    private int next;
+    @Expose
+    private Set<String> unloadedChunks = new HashSet<>();
+
+    /**
+     * Island that is being deleted, if it is still known
+     */
+    private transient Island island;
+
+    public IslandDeletion() {}
+
+    /**
+     * @param island - island whose chunks will be deleted
+     * @param worlds - names of the worlds to delete the chunks in
+     */
+    public IslandDeletion(Island island, List<String> worlds) {
+        this.uniqueId = island.getUniqueId();
+        this.island = island;
+        this.worlds = worlds;
+        minXChunk = island.getMinX() >> 4;
+        maxXChunk = (island.getMinX() + island.getRange() * 2 - 1) >> 4;
+        minZChunk = island.getMinZ() >> 4;
+        maxZChunk = (island.getMinZ() + island.getRange() * 2 - 1) >> 4;
+    }
+
+    @Override
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    @Override
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    /**
+     * @return the total number of chunks to delete
+     */
+    public int getTotal() {
+        return worlds.size() * getChunksPerWorld();
+    }
+
+    /**
+     * @return true if every chunk has had its turn. Unloaded chunks may still be waiting.
+     */
+    public boolean isWorkedThrough() {
+        return next >= getTotal();
+    }
+
+    /**
+     * @param index - chunk index, less than {@link #getTotal()}
+     * @return name of the world of this chunk
+     */
+    public String getWorld(int index) {
+        return worlds.get(index / getChunksPerWorld());
+    }
+
+    /**
+     * @param index - chunk index, less than {@link #getTotal()}
+     * @return chunk x
+     */
+    public int getChunkX(int index) {
+        return minXChunk + (index % getChunksPerWorld()) / getDepth();
+    }
+
+    /**
+     * @param index - chunk index, less than {@link #getTotal()}
+     * @return chunk z
+     */
+    public int getChunkZ(int index) {
+        return minZChunk + (index % getChunksPerWorld()) % getDepth();
+    }
+
+    /**
+     * Checks if an area of chunks overlaps the chunks of this deletion
+     * @param minX - lowest chunk x
+     * @param minZ - lowest chunk z
+     * @param maxX - highest chunk x
+     * @param maxZ - highest chunk z
+     * @return true if they overlap
+     */
+    public boolean overlaps(int minX, int minZ, int maxX, int maxZ) {
+        return minX <= maxXChunk && maxX >= minXChunk && minZ <= maxZChunk && maxZ >= minZChunk;
+    }
+
+    /**
+     * Adds a chunk that will be deleted when it next loads
+     * @param world - world name
+     * @param x - chunk x
+     * @param z - chunk z
+     */
+    public void addUnloadedChunk(String world, int x, int z) {
+        unloadedChunks.add(toKey(world, x, z));
+    }
+
+    /**
+     * Removes a chunk that was waiting to load
+     * @param world - world name
+     * @param x - chunk x
+     * @param z - chunk z
+     * @return true if the chunk was waiting
+     */
+    public boolean removeUnloadedChunk(String world, int x, int z) {
+        return unloadedChunks.remove(toKey(world, x, z));
+    }
+
+    /**
+     * @return true if all the chunks have had their turn and none are waiting to load
+     */
+    public boolean isComplete() {
+        return isWorkedThrough() && unloadedChunks.isEmpty();
+    }
+
+    /**
+     * Splits an unloaded chunk key back into its parts
+     * @param key - key from {@link #getUnloadedChunks()}
+     * @return world name, chunk x and chunk z, or null if the key is not valid
+     */
+    public static String[] splitKey(String key) {
+        String[] split = key.split(SEPARATOR);
+        return split.length == 3 ? split : null;
+    }
+
+    private static String toKey(String world, int x, int z) {
+        return world + SEPARATOR + x + SEPARATOR + z;
+    }
+
+    private int getDepth() {
+        return maxZChunk - minZChunk + 1;
+    }
+
+    private int getChunksPerWorld() {
+        return (maxXChunk - minXChunk + 1) * getDepth();
+    }
+
+    /**
+     * @return the island being deleted, or null if it is no longer known, e.g., after a restart
+     */
+    public Island getIsland() {
+        return island;
+    }
+
+    /**
+     * @return the worlds
+     */
+    public List<String> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * @param worlds the worlds to set
+     */
+    public void setWorlds(List<String> worlds) {
+        this.worlds = worlds;
+    }
+
+    /**
+     * @return the minXChunk
+     */
+    public int getMinXChunk() {
+        return minXChunk;
+    }
+
+    /**
+     * @param minXChunk the minXChunk to set
+     */
+    public void setMinXChunk(int minXChunk) {
+        this.minXChunk = minXChunk;
+    }
+
+    /**
+     * @return the maxXChunk
+     */
+    public int getMaxXChunk() {
+        return maxXChunk;
+    }
+
+    /**
+     * @param maxXChunk the maxXChunk to set
+     */
+    public void setMaxXChunk(int maxXChunk) {
+        this.maxXChunk = maxXChunk;
+    }
+
+    /**
+     * @return the minZChunk
+     */
+    public int getMinZChunk() {
+        return minZChunk;
+    }
+
+    /**
+     * @param minZChunk the minZChunk to set
+     */
+    public void setMinZChunk(int minZChunk) {
+        this.minZChunk = minZChunk;
+    }
+
+    /**
+     * @return the maxZChunk
+     */
+    public int getMaxZChunk() {
+        return maxZChunk;
+    }
+
+    /**
+     * @param maxZChunk the maxZChunk to set
+     */
+    public void setMaxZChunk(int maxZChunk) {
+        this.maxZChunk = maxZChunk;
+    }
+
+    /**
+     * @return the index of the next chunk to delete
+     */
+    public int getNext() {
+        return next;
+    }
+
+    /**
+     * @param next the next to set
+     */
+    public void setNext(int next) {
+        this.next = next;
+    }
+
+    /**
+     * @return the chunks waiting to load, as world:x:z
+     */
+    public Set<String> getUnloadedChunks() {
+        return unloadedChunks;
+    }
+
+    /**
+     * @param unloadedChunks the unloadedChunks to set
+     */
+    public void setUnloadedChunks(Set<String> unloadedChunks) {
+        this.unloadedChunks = unloadedChunks;
+    }
+}
@@ -38,6 +38,11 @@ public class Players implements DataObject {
     @Expose
     private Map<Location, Long> kickedList = new HashMap<>();
 
+    /**
+     * True if this player has changed since it was last saved. Not stored.
+     */
+    private transient volatile boolean dirty = true;
+
     /**
      * This is required for database storage
      */
@@ -112,6 +117,7 @@ public class Players implements DataObject {
      * @param kickedList the kickedList to set
      */
     public void setKickedList(Map<Location, Long> kickedList) {
+        dirty = true;
         this.kickedList = kickedList;
     }
 
@@ -119,6 +125,7 @@ public class Players implements DataObject {
      * @param homeLocations the homeLocations to set
      */
     public void setHomeLocations(Map<Location, Integer> homeLocations) {
+        dirty = true;
         this.homeLocations = homeLocations;
     }
 
@@ -126,6 +133,7 @@ public class Players implements DataObject {
      * @param playerName the playerName to set
      */
     public void setPlayerName(String playerName) {
+        dirty = true;
         this.playerName = playerName;
     }
 
@@ -153,6 +161,7 @@ public class Players implements DataObject {
      *            the resetsLeft to set
      */
     public void setResetsLeft(int resetsLeft) {
+        dirty = true;
         this.resetsLeft = resetsLeft;
     }
 
@@ -172,6 +181,7 @@ public class Players implements DataObject {
      * @param number - a number
      */
     public void setHomeLocation(Location location, int number) {
+        dirty = true;
         // Remove any home locations in the same world with the same number
         homeLocations.entrySet().removeIf(e -> Util.sameWorld(location.getWorld(), e.getKey().getWorld()) && e.getValue().equals(number));
         homeLocations.put(location, number);
@@ -182,6 +192,7 @@ public class Players implements DataObject {
      * @param uuid - UUID
      */
     public void setPlayerUUID(UUID uuid) {
+        dirty = true;
         uniqueId = uuid.toString();
     }
 
@@ -190,6 +201,7 @@ public class Players implements DataObject {
      * @param world - world
      */
     public void clearHomeLocations(World world) {
+        dirty = true;
         homeLocations.keySet().removeIf(l -> Util.sameWorld(l.getWorld(), world));
     }
 
@@ -204,6 +216,7 @@ public class Players implements DataObject {
      * @param locale the locale to set
      */
     public void setLocale(String locale) {
+        dirty = true;
         this.locale = locale;
     }
 
@@ -218,6 +231,7 @@ public class Players implements DataObject {
      * @param deaths the deaths to set
      */
     public void setDeaths(int deaths) {
+        dirty = true;
         this.deaths = deaths > getPlugin().getSettings().getDeathsMax() ? getPlugin().getSettings().getDeathsMax() : deaths;
     }
 
@@ -226,6 +240,7 @@ public class Players implements DataObject {
      */
     public void addDeath() {
         if (deaths < getPlugin().getSettings().getDeathsMax()) {
+            dirty = true;
             deaths++;
         }
     }
@@ -251,6 +266,7 @@ public class Players implements DataObject {
             if (coolDownTime.before(timeNow)) {
                 // The time has expired
                 kickedList.remove(location);
+                dirty = true;
                 return 0;
             } else {
                 // Still not there yet
@@ -267,6 +283,7 @@ public class Players implements DataObject {
      */
     public void startInviteCoolDownTimer(Location location) {
         if (location != null) {
+            dirty = true;
             kickedList.put(location, System.currentTimeMillis());
         }
     }
@@ -278,7 +295,23 @@ public class Players implements DataObject {
 
     @Override
     public void setUniqueId(String uniqueId) {
+        dirty = true;
         this.uniqueId = uniqueId;
     }
 
+    /**
+     * @return true if this player has changed since it was last saved
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this player as changed, or as saved
+     * @param dirty - true if the player needs saving
+     */
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
 }
@@ -17,7 +17,6 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
-import org.bukkit.Bukkit;
 import org.bukkit.DyeColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -84,6 +83,7 @@ public class Clipboard {
     private static final String LOAD_ERROR = "Could not load schems file - does not exist : ";
 
     private YamlConfiguration blockConfig = new YamlConfiguration();
+    private SchemBlocks blocks;
     private Location pos1;
     private Location pos2;
     private Location origin;
@@ -154,6 +154,7 @@ public class Clipboard {
         World world = pos1.getWorld();
         // Clear the clipboard
         blockConfig = new YamlConfiguration();
+        blocks = null;
 
         int count = 0;
         int minX = Math.max(pos1.getBlockX(),pos2.getBlockX());
@@ -191,26 +192,22 @@ public class Clipboard {
     }
 
     /**
-     * Pastes the clipboard to island location
+     * Pastes the clipboard to island location. Pasting is spread over ticks.
      * @param world - world in which to paste
      * @param island - location to paste
      * @param task - task to run after pasting
      */
     public void paste(World world, Island island, Runnable task) {
-        // Offset due to bedrock
-        Vector off = new Vector(0,0,0);
-        if (blockConfig.contains("bedrock")) {
-            String[] offset = blockConfig.getString("bedrock").split(",");
-            off = new Vector(Integer.valueOf(offset[0]), Integer.valueOf(offset[1]), Integer.valueOf(offset[2]));
+        SchemBlocks b = getBlocks();
+        if (b == null) {
+            return;
         }
+        // Offset due to bedrock
+        Vector off = b.getBedrock() == null ? new Vector(0,0,0) : b.getBedrock();
         // Calculate location for pasting
         Location loc = island.getCenter().toVector().subtract(off).toLocation(world);
         // Paste
-        blockConfig.getConfigurationSection(BLOCK).getKeys(false).forEach(b -> pasteBlock(world, island, loc, blockConfig.getConfigurationSection(BLOCK + "." + b)));
-        // Run follow on task if it exists
-        if (task != null) {
-            Bukkit.getScheduler().runTaskLater(plugin, task, 2L);
-        }
+        new SchemPaster(plugin, this, b, world, island, loc, task).paste();
     }
 
     /**
@@ -218,8 +215,24 @@ public class Clipboard {
      * @param location
      */
     public void paste(Location location) {
-        blockConfig.getConfigurationSection(BLOCK).getKeys(false).forEach(b -> pasteBlock(location.getWorld(), null, location, blockConfig.getConfigurationSection(BLOCK + "." + b)));
+        SchemBlocks b = getBlocks();
+        if (b != null) {
+            new SchemPaster(plugin, this, b, location.getWorld(), null, location, null).paste();
+        }
+    }
 
+    /**
+     * @return the clipboard in the form used for pasting, or null if it cannot be converted
+     */
+    private SchemBlocks getBlocks() {
+        if (blocks == null) {
+            try {
+                blocks = SchemBlocks.fromYaml(blockConfig);
+            } catch (InvalidConfigurationException e) {
+                plugin.logError("Could not paste clipboard: " + e.getMessage());
+            }
+        }
+        return blocks;
     }
 
     private void writeSign(Island island, Block block, List<String> lines) {
@@ -246,23 +259,15 @@ public class Clipboard {
     }
 
 
-    private void pasteBlock(World world, Island island, Location location, ConfigurationSection config) {
-        String[] pos = config.getName().split(",");
-        int x = location.getBlockX() + Integer.valueOf(pos[0]);
-        int y = location.getBlockY() + Integer.valueOf(pos[1]);
-        int z = location.getBlockZ() + Integer.valueOf(pos[2]);
-        // Default type is air
-        Material material = Material.getMaterial(config.getString("type", "AIR"));
-        Block block = world.getBlockAt(x, y, z);
-        if (config.getBoolean(ATTACHED)) {
-            plugin.getServer().getScheduler().runTask(plugin, () -> setBlock(island, block, config, material));
-        } else {
-            setBlock(island, block, config, material);
-        }
-    }
-
+    /**
+     * Sets a block that needs more than a type and data
+     * @param island - island being pasted, or null
+     * @param block - block to set
+     * @param config - the block's section in the schem
+     * @param material - material
+     */
     @SuppressWarnings("deprecation")
-    private void setBlock(Island island, Block block, ConfigurationSection config, Material material) {
+    void setBlock(Island island, Block block, ConfigurationSection config, Material material) {
         // Block state
 
         if (config.getBoolean(ATTACHED) && material.toString().contains("TORCH")) {
@@ -631,6 +636,37 @@ public class Clipboard {
         blockConfig.load(file);
         copied = true;
         Files.delete(file.toPath());
+        // Keep a binary copy for quick loading next time
+        blocks = SchemBlocks.fromYaml(blockConfig);
+        File binFile = new File(schemFolder, fileName + SchemBlocks.FILE_EXTENSION);
+        try {
+            blocks.write(binFile);
+        } catch (IOException e) {
+            plugin.logError("Could not save binary schem " + binFile.getName() + " " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a file to the clipboard for pasting only. The binary copy of the schem is used if it
+     * is up to date, otherwise the schem is loaded and converted. The clipboard cannot be saved after this.
+     * @param fileName - filename in schems folder
+     * @throws IOException - if there's a load error with unziping or name
+     * @throws InvalidConfigurationException - the YAML of the schem is at fault
+     */
+    public void loadBlocks(String fileName) throws IOException, InvalidConfigurationException {
+        File zipFile = new File(schemFolder, fileName + ".schem");
+        File binFile = new File(schemFolder, fileName + SchemBlocks.FILE_EXTENSION);
+        if (zipFile.exists() && binFile.exists() && binFile.lastModified() >= zipFile.lastModified()) {
+            try {
+                blocks = SchemBlocks.read(binFile);
+                blockConfig = new YamlConfiguration();
+                copied = true;
+                return;
+            } catch (IOException e) {
+                plugin.logWarning("Could not load binary schem " + binFile.getName() + ", converting again: " + e.getMessage());
+            }
+        }
+        load(fileName);
     }
 
     /*
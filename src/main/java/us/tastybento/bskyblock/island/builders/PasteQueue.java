@@ -0,0 +1,73 @@
+package us.tastybento.bskyblock.island.builders;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
+
+/**
+ * Runs all the pastes of the server from one task, spending no more than the configured time
+ * each tick on all of them together. Pastes are done in the order they were started, so the first
+ * island is finished before the next one is begun.
+ *
+ * @author tastybento
+ *
+ */
+public class PasteQueue {
+
+    private static final Timer PASTE = Timings.timer("island.paste");
+
+    private final BSkyBlock plugin;
+    private final Deque<SchemPaster> queue = new ArrayDeque<>();
+    private BukkitTask task;
+
+    /**
+     * @param plugin - plugin
+     */
+    public PasteQueue(BSkyBlock plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds a paste to the end of the queue. If there is no time budget, it is pasted in one go straight away.
+     * @param paster - paste to do
+     */
+    public void add(SchemPaster paster) {
+        if (plugin.getSettings().getPasteTimeBudget() <= 0) {
+            long start = PASTE.start();
+            paster.pasteSome(Long.MAX_VALUE);
+            PASTE.stop(start);
+            return;
+        }
+        queue.add(paster);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * @return number of pastes that are waiting or being done
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    void tick() {
+        long start = PASTE.start();
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getPasteTimeBudget());
+        while (!queue.isEmpty() && queue.peek().pasteSome(end)) {
+            queue.poll();
+        }
+        PASTE.stop(start);
+        if (queue.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package us.tastybento.bskyblock.island.builders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.util.Vector;
+
+/**
+ * Compact, read-only form of a schem that is quick to load and paste.
+ * <p>
+ * Blocks are held in columns: a packed relative coordinate and a palette index per block. The palette holds
+ * each distinct material and data value once. Blocks that need more than a type and data, e.g., signs, chests,
+ * stairs or blocks with entities, are kept in a separate tile section as their original YAML.
+ * <p>
+ * The binary file is gzipped and laid out as: magic, version, bedrock offset, palette, coordinates column,
+ * palette index column, then the tile section.
+ *
+ * @author tastybento
+ *
+ */
+public class SchemBlocks {
+
+    /**
+     * File extension of the binary form
+     */
+    public static final String FILE_EXTENSION = ".bschem";
+
+    private static final int MAGIC = 0x42534253; // BSBS
+    private static final int VERSION = 1;
+
+    // Relative coordinates are packed into 10 bits each, so -512 to 511
+    private static final int COORD_BITS = 10;
+    private static final int COORD_MASK = (1 << COORD_BITS) - 1;
+    private static final int COORD_OFFSET = 1 << (COORD_BITS - 1);
+
+    private static final String BLOCK = "blocks";
+    private static final String TYPE = "type";
+    private static final String DATA = "data";
+
+    private final String[] paletteNames;
+    private final byte[] paletteData;
+    private final Material[] paletteMaterials;
+    private final int[] coords;
+    private final short[] palette;
+    private final Map<Integer, ConfigurationSection> tiles;
+    private final Vector bedrock;
+
+    private SchemBlocks(String[] paletteNames, byte[] paletteData, int[] coords, short[] palette, Map<Integer, ConfigurationSection> tiles, Vector bedrock) {
+        this.paletteNames = paletteNames;
+        this.paletteData = paletteData;
+        this.coords = coords;
+        this.palette = palette;
+        this.tiles = tiles;
+        this.bedrock = bedrock;
+        // Resolve materials once. Unknown materials are null and are not pasted.
+        paletteMaterials = new Material[paletteNames.length];
+        for (int i = 0; i < paletteNames.length; i++) {
+            paletteMaterials[i] = Material.getMaterial(paletteNames[i]);
+        }
+    }
+
+    /**
+     * Converts a schem in the YAML format
+     * @param config - schem YAML
+     * @return blocks
+     * @throws InvalidConfigurationException if a block position cannot be read or is too far from the origin
+     */
+    public static SchemBlocks fromYaml(YamlConfiguration config) throws InvalidConfigurationException {
+        ConfigurationSection blocks = config.getConfigurationSection(BLOCK);
+        Set<String> keys = blocks == null ? Collections.emptySet() : blocks.getKeys(false);
+        Map<String, Integer> paletteIndex = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>();
+        List<Byte> datas = new ArrayList<>();
+        int[] coords = new int[keys.size()];
+        short[] palette = new short[keys.size()];
+        Map<Integer, ConfigurationSection> tiles = new HashMap<>();
+        int i = 0;
+        for (String key : keys) {
+            coords[i] = parsePosition(key);
+            ConfigurationSection s = blocks.getConfigurationSection(key);
+            String type = s.getString(TYPE, "AIR");
+            byte data = (byte)s.getInt(DATA);
+            Integer index = paletteIndex.get(type + ":" + data);
+            if (index == null) {
+                if (names.size() > Short.MAX_VALUE) {
+                    throw new InvalidConfigurationException("Too many different blocks in schem");
+                }
+                index = names.size();
+                paletteIndex.put(type + ":" + data, index);
+                names.add(type);
+                datas.add(data);
+            }
+            palette[i] = index.shortValue();
+            // Anything more than a type and data is kept as it is
+            for (String k : s.getKeys(false)) {
+                if (!k.equals(TYPE) && !k.equals(DATA)) {
+                    tiles.put(i, s);
+                    break;
+                }
+            }
+            i++;
+        }
+        Vector bedrock = null;
+        if (config.contains("bedrock")) {
+            String[] offset = config.getString("bedrock").split(",");
+            try {
+                bedrock = new Vector(Integer.valueOf(offset[0]), Integer.valueOf(offset[1]), Integer.valueOf(offset[2]));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidConfigurationException("Bad bedrock position: " + config.getString("bedrock"));
+            }
+        }
+        byte[] data = new byte[datas.size()];
+        for (int j = 0; j < data.length; j++) {
+            data[j] = datas.get(j);
+        }
+        return new SchemBlocks(names.toArray(new String[0]), data, coords, palette, tiles, bedrock);
+    }
+
+    private static int parsePosition(String key) throws InvalidConfigurationException {
+        String[] pos = key.split(",");
+        try {
+            return pack(Integer.parseInt(pos[0]), Integer.parseInt(pos[1]), Integer.parseInt(pos[2]));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidConfigurationException("Bad block position: " + key);
+        }
+    }
+
+    private static int pack(int x, int y, int z) throws InvalidConfigurationException {
+        if (outOfRange(x) || outOfRange(y) || outOfRange(z)) {
+            throw new InvalidConfigurationException("Block is too far from the origin: " + x + "," + y + "," + z);
+        }
+        return ((x + COORD_OFFSET) << (COORD_BITS * 2)) | ((y + COORD_OFFSET) << COORD_BITS) | (z + COORD_OFFSET);
+    }
+
+    private static boolean outOfRange(int c) {
+        return c < -COORD_OFFSET || c >= COORD_OFFSET;
+    }
+
+    /**
+     * Reads the binary form
+     * @param file - file
+     * @return blocks
+     * @throws IOException if the file cannot be read or is not a binary schem
+     */
+    public static SchemBlocks read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a binary schem or unknown version: " + file.getName());
+            }
+            Vector bedrock = in.readBoolean() ? new Vector(in.readInt(), in.readInt(), in.readInt()) : null;
+            // Palette
+            int paletteSize = in.readInt();
+            String[] names = new String[paletteSize];
+            byte[] data = new byte[paletteSize];
+            for (int i = 0; i < paletteSize; i++) {
+                names[i] = in.readUTF();
+                data[i] = in.readByte();
+            }
+            // Columns
+            int count = in.readInt();
+            int[] coords = new int[count];
+            for (int i = 0; i < count; i++) {
+                coords[i] = in.readInt();
+            }
+            short[] palette = new short[count];
+            for (int i = 0; i < count; i++) {
+                palette[i] = in.readShort();
+                if (palette[i] < 0 || palette[i] >= paletteSize) {
+                    throw new IOException("Bad palette index in " + file.getName());
+                }
+            }
+            // Tiles
+            int tileCount = in.readInt();
+            Map<Integer, ConfigurationSection> tiles = new HashMap<>();
+            for (int i = 0; i < tileCount; i++) {
+                int index = in.readInt();
+                byte[] yaml = new byte[in.readInt()];
+                in.readFully(yaml);
+                YamlConfiguration tile = new YamlConfiguration();
+                try {
+                    tile.loadFromString(new String(yaml, StandardCharsets.UTF_8));
+                } catch (InvalidConfigurationException e) {
+                    throw new IOException("Bad tile section in " + file.getName() + ": " + e.getMessage());
+                }
+                tiles.put(index, tile);
+            }
+            return new SchemBlocks(names, data, coords, palette, tiles, bedrock);
+        }
+    }
+
+    /**
+     * Writes the binary form
+     * @param file - file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(bedrock != null);
+            if (bedrock != null) {
+                out.writeInt(bedrock.getBlockX());
+                out.writeInt(bedrock.getBlockY());
+                out.writeInt(bedrock.getBlockZ());
+            }
+            // Palette
+            out.writeInt(paletteNames.length);
+            for (int i = 0; i < paletteNames.length; i++) {
+                out.writeUTF(paletteNames[i]);
+                out.writeByte(paletteData[i]);
+            }
+            // Columns
+            out.writeInt(coords.length);
+            for (int c : coords) {
+                out.writeInt(c);
+            }
+            for (short p : palette) {
+                out.writeShort(p);
+            }
+            // Tiles
+            out.writeInt(tiles.size());
+            for (Map.Entry<Integer, ConfigurationSection> en : tiles.entrySet()) {
+                YamlConfiguration tile = new YamlConfiguration();
+                en.getValue().getValues(false).forEach(tile::set);
+                byte[] yaml = tile.saveToString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(en.getKey());
+                out.writeInt(yaml.length);
+                out.write(yaml);
+            }
+        }
+    }
+
+    /**
+     * @return number of blocks
+     */
+    public int size() {
+        return coords.length;
+    }
+
+    /**
+     * @param index - block index
+     * @return x relative to the origin
+     */
+    public int getX(int index) {
+        return ((coords[index] >> (COORD_BITS * 2)) & COORD_MASK) - COORD_OFFSET;
+    }
+
+    /**
+     * @param index - block index
+     * @return y relative to the origin
+     */
+    public int getY(int index) {
+        return ((coords[index] >> COORD_BITS) & COORD_MASK) - COORD_OFFSET;
+    }
+
+    /**
+     * @param index - block index
+     * @return z relative to the origin
+     */
+    public int getZ(int index) {
+        return (coords[index] & COORD_MASK) - COORD_OFFSET;
+    }
+
+    /**
+     * @param index - block index
+     * @return material or null if it is not known by this server
+     */
+    public Material getMaterial(int index) {
+        return paletteMaterials[palette[index]];
+    }
+
+    /**
+     * @param index - block index
+     * @return block data value
+     */
+    public byte getData(int index) {
+        return paletteData[palette[index]];
+    }
+
+    /**
+     * @param index - block index
+     * @return the full YAML section of the block if it needs more than a type and data, otherwise null
+     */
+    public ConfigurationSection getTile(int index) {
+        return tiles.get(index);
+    }
+
+    /**
+     * @return position of the bedrock block relative to the origin, or null if there is none
+     */
+    public Vector getBedrock() {
+        return bedrock == null ? null : bedrock.clone();
+    }
+
+    /**
+     * @return number of distinct material and data values
+     */
+    public int getPaletteSize() {
+        return paletteNames.length;
+    }
+}
@@ -0,0 +1,143 @@
+package us.tastybento.bskyblock.island.builders;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.ConfigurationSection;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.util.LongObjectMap;
+import us.tastybento.bskyblock.util.timings.Counter;
+import us.tastybento.bskyblock.util.timings.Timings;
+
+/**
+ * Pastes {@link SchemBlocks} over as many ticks as needed. The time spent each tick is shared by all pastes,
+ * see {@link PasteQueue}. Blocks are pasted a chunk at a time. Blocks that are attached to other blocks,
+ * e.g., torches, are pasted after all the others.
+ *
+ * @author tastybento
+ *
+ */
+public class SchemPaster {
+
+    private static final String ATTACHED = "attached";
+    private static final Counter BLOCKS = Timings.counter("island.paste.blocks");
+
+    private final BSkyBlock plugin;
+    private final Clipboard clipboard;
+    private final SchemBlocks blocks;
+    private final World world;
+    private final Island island;
+    private final Location location;
+    private final Runnable task;
+    private int[] order;
+    private int next;
+
+    /**
+     * @param plugin - plugin
+     * @param clipboard - clipboard that sets blocks with more than a type and data
+     * @param blocks - blocks to paste
+     * @param world - world to paste in
+     * @param island - island being pasted, or null
+     * @param location - location of the schem origin
+     * @param task - task to run after pasting, or null
+     */
+    public SchemPaster(BSkyBlock plugin, Clipboard clipboard, SchemBlocks blocks, World world, Island island, Location location, Runnable task) {
+        this.plugin = plugin;
+        this.clipboard = clipboard;
+        this.blocks = blocks;
+        this.world = world;
+        this.island = island;
+        this.location = location;
+        this.task = task;
+    }
+
+    /**
+     * Queues the paste on the server's paste queue
+     */
+    public void paste() {
+        plugin.getSchemsManager().getPasteQueue().add(this);
+    }
+
+    /**
+     * Pastes blocks until they are all pasted or the time runs out
+     * @param end - System.nanoTime() when the time for this tick runs out
+     * @return true if pasting is complete
+     */
+    boolean pasteSome(long end) {
+        if (order == null) {
+            order = getPasteOrder();
+        }
+        int first = next;
+        while (next < order.length) {
+            pasteBlock(order[next++]);
+            if (System.nanoTime() >= end) {
+                break;
+            }
+        }
+        BLOCKS.add(next - first);
+        if (next < order.length) {
+            return false;
+        }
+        // Run follow on task if it exists
+        if (task != null) {
+            Bukkit.getScheduler().runTaskLater(plugin, task, 2L);
+        }
+        return true;
+    }
+
+    /**
+     * Groups the blocks by chunk, keeping the schem order inside each chunk. Attached blocks go last.
+     * @return block indexes in the order to paste them
+     */
+    int[] getPasteOrder() {
+        Map<Long, List<Integer>> chunks = new LinkedHashMap<>();
+        Map<Long, List<Integer>> attached = new LinkedHashMap<>();
+        for (int i = 0; i < blocks.size(); i++) {
+            long key = LongObjectMap.pack((location.getBlockX() + blocks.getX(i)) >> 4, (location.getBlockZ() + blocks.getZ(i)) >> 4);
+            ConfigurationSection tile = blocks.getTile(i);
+            Map<Long, List<Integer>> group = tile != null && tile.getBoolean(ATTACHED) ? attached : chunks;
+            group.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+        int[] result = new int[blocks.size()];
+        int n = 0;
+        for (List<Integer> list : chunks.values()) {
+            for (int i : list) {
+                result[n++] = i;
+            }
+        }
+        for (List<Integer> list : attached.values()) {
+            for (int i : list) {
+                result[n++] = i;
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("deprecation")
+    private void pasteBlock(int index) {
+        Material material = blocks.getMaterial(index);
+        if (material == null) {
+            // Not known on this server
+            return;
+        }
+        Block block = world.getBlockAt(location.getBlockX() + blocks.getX(index), location.getBlockY() + blocks.getY(index), location.getBlockZ() + blocks.getZ(index));
+        ConfigurationSection tile = blocks.getTile(index);
+        if (tile == null) {
+            // Copying saves the facing or open state of every block that has one, so a block with
+            // only a type and data has no block state to set and needs none of the clipboard's handling
+            block.setType(material, false);
+            block.setData(blocks.getData(index));
+        } else {
+            clipboard.setBlock(island, block, tile, material);
+        }
+    }
+}
@@ -37,8 +37,9 @@ public class JoinLeaveListener implements Listener {
         }
         UUID playerUUID = user.getUniqueId();
         if (plugin.getPlayers().isKnown(playerUUID)) {
-            // Load player
+            // Load player and keep them in memory while they are online
             players.addPlayer(playerUUID);
+            players.setOnline(playerUUID);
 
             // Reset resets if the admin changes it to or from unlimited
             if (plugin.getSettings().getResetLimit() < players.getResetsLeft(playerUUID)  || (plugin.getSettings().getResetLimit() >= 0 && players.getResetsLeft(playerUUID) < 0)) {
@@ -22,6 +22,7 @@ import org.bukkit.util.Vector;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.managers.island.RegionChecker;
 import us.tastybento.bskyblock.util.Util;
 import us.tastybento.bskyblock.util.teleport.SafeTeleportBuilder;
 
@@ -43,8 +44,8 @@ public class NetherPortals implements Listener {
     private boolean atSpawn(Location location) {
         Vector p = location.toVector().multiply(new Vector(1, 0, 1));
         Vector spawn = location.getWorld().getSpawnLocation().toVector().multiply(new Vector(1, 0, 1));
-        int radiusSquared = plugin.getIWM().getNetherSpawnRadius(location.getWorld()) ^ 2;
-        return (spawn.distanceSquared(p) < radiusSquared);
+        int radius = plugin.getIWM().getNetherSpawnRadius(location.getWorld());
+        return (spawn.distanceSquared(p) < (double)radius * radius);
     } 
 
     /**
@@ -157,7 +158,9 @@ public class NetherPortals implements Listener {
         if (expl == null) {
             return false;
         }
-        e.blockList().removeIf(b -> atSpawn(b.getLocation()));
+        World world = e.getLocation().getWorld();
+        Location spawn = world.getSpawnLocation();
+        RegionChecker.removeInRadius(e.blockList(), spawn.getBlockX(), spawn.getBlockZ(), plugin.getIWM().getNetherSpawnRadius(world));
         return true;
     }
 
@@ -1,7 +1,13 @@
 package us.tastybento.bskyblock.listeners.flags;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -17,6 +23,9 @@ import us.tastybento.bskyblock.api.user.User;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.managers.IslandWorldManager;
 import us.tastybento.bskyblock.managers.IslandsManager;
+import us.tastybento.bskyblock.util.LongObjectMap;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
  * Abstract class for flag listeners. Provides common code.
@@ -25,7 +34,20 @@ import us.tastybento.bskyblock.managers.IslandsManager;
  */
 public abstract class AbstractFlagListener implements Listener {
 
+    /**
+     * Gets the player from events that have a getPlayer method. Worked out once per event class.
+     */
+    private static final ClassValue<Function<Event, Player>> PLAYER_GETTERS = new ClassValue<Function<Event, Player>>() {
+        @Override
+        protected Function<Event, Player> computeValue(Class<?> type) {
+            return makePlayerGetter(type);
+        }
+    };
+
     private BSkyBlock plugin = BSkyBlock.getInstance();
+    /**
+     * User set by {@link #setUser(User)} for the next check that is not given a user
+     */
     private User user = null;
 
     /**
@@ -41,35 +63,57 @@ public abstract class AbstractFlagListener implements Listener {
      */
     public void setPlugin(BSkyBlock plugin) {
         this.plugin = plugin;
+        // Required for testing
+        User.setPlugin(plugin);
+    }
+
+    private static Function<Event, Player> makePlayerGetter(Class<?> type) {
+        try {
+            Method getPlayer = type.getMethod("getPlayer");
+            getPlayer.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(getPlayer).asType(MethodType.methodType(Object.class, Event.class));
+            return e -> {
+                try {
+                    Object player = handle.invokeExact(e);
+                    return player instanceof Player ? (Player)player : null;
+                } catch (Throwable t) {
+                    return null;
+                }
+            };
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException ex) {
+            // This event has no player
+            return e -> null;
+        }
     }
 
     /**
-     * Sets the player associated with this event.
-     * If the user is a fake player, they are not counted.
+     * Gets the player associated with this event
      * @param e - event
-     * @return true if found, otherwise false
+     * @return the player or null if the event has no player
      */
-    private boolean createEventUser(Event e) {
-        try {
-            // Use reflection to get the getPlayer method if it exists
-            Method getPlayer = e.getClass().getMethod("getPlayer");
-            if (getPlayer != null) {
-                setUser(User.getInstance((Player)getPlayer.invoke(e)));
-                return true;
-            }
-        } catch (Exception e1) {  // Do nothing
-        }
-        return false;
+    static Player getEventPlayer(Event e) {
+        return PLAYER_GETTERS.get(e.getClass()).apply(e);
+    }
+
+    /**
+     * Gets the user associated with this event
+     * @param e - event
+     * @return the user or null if the event has no player
+     */
+    private User getEventUser(Event e) {
+        Player player = getEventPlayer(e);
+        return player == null ? null : User.getInstance(player);
     }
 
     /**
      * Explicitly set the user for the next {@link #checkIsland(Event, Location, Flag)} or {@link #checkIsland(Event, Location, Flag, boolean)}
      * @param user - the User
+     * @return this listener
+     * @deprecated use {@link #checkIsland(Event, User, Location, Flag)} instead
      */
+    @Deprecated
     public AbstractFlagListener setUser(User user) {
-        if (!plugin.getSettings().getFakePlayers().contains(user.getName())) {
-            this.user = user;
-        }
+        this.user = user;
         return this;
     }
 
@@ -78,21 +122,46 @@ public abstract class AbstractFlagListener implements Listener {
      */
 
     /**
-     * Cancels the event and sends the island public message to user
+     * Cancels the event and sends the island public message to the user set by {@link #setUser(User)}
      * @param e - event
      * @param flag - the flag that has been checked
+     * @deprecated use {@link #noGo(Event, User, Flag)} instead
      */
+    @Deprecated
     public void noGo(Event e, Flag flag) {
-        noGo(e, flag, false);
+        noGo(e, user, flag, false);
     }
 
     /**
-     * Cancels the event and sends the island protected message to user unless silent is true
+     * Cancels the event and sends the island protected message to the user set by {@link #setUser(User)} unless silent is true
      * @param e - event
      * @param flag - the flag that has been checked
      * @param silent - if true, message is not sent
+     * @deprecated use {@link #noGo(Event, User, Flag, boolean)} instead
      */
+    @Deprecated
     public void noGo(Event e, Flag flag, boolean silent) {
+        noGo(e, user, flag, silent);
+    }
+
+    /**
+     * Cancels the event and sends the island public message to user
+     * @param e - event
+     * @param user - user to tell, may be null
+     * @param flag - the flag that has been checked
+     */
+    public void noGo(Event e, User user, Flag flag) {
+        noGo(e, user, flag, false);
+    }
+
+    /**
+     * Cancels the event and sends the island protected message to user unless silent is true
+     * @param e - event
+     * @param user - user to tell, may be null
+     * @param flag - the flag that has been checked
+     * @param silent - if true, message is not sent
+     */
+    public void noGo(Event e, User user, Flag flag, boolean silent) {
         if (e instanceof Cancellable) {
             ((Cancellable)e).setCancelled(true);
         }
@@ -105,7 +174,7 @@ public abstract class AbstractFlagListener implements Listener {
     }
 
     /**
-     * Check if flag is allowed at location
+     * Check if flag is allowed at location. The user is the one set by {@link #setUser(User)}, or else the event's player.
      * @param e - event
      * @param loc - location
      * @param flag - flag {@link us.tastybento.bskyblock.lists.Flags}
@@ -116,7 +185,7 @@ public abstract class AbstractFlagListener implements Listener {
     }
 
     /**
-     * Check if flag is allowed at location
+     * Check if flag is allowed at location. The user is the one set by {@link #setUser(User)}, or else the event's player.
      * @param e - event
      * @param loc - location
      * @param flag - flag {@link us.tastybento.bskyblock.lists.Flags}
@@ -124,6 +193,44 @@ public abstract class AbstractFlagListener implements Listener {
      * @return true if the check is okay, false if it was disallowed
      */
     public boolean checkIsland(Event e, Location loc, Flag flag, boolean silent) {
+        // Use the user from setUser once, if there is one
+        User u = user;
+        user = null;
+        return checkIsland(e, u, loc, flag, silent);
+    }
+
+    /**
+     * Check if flag is allowed at location for this user
+     * @param e - event
+     * @param user - user doing the action, or null to use the event's player
+     * @param loc - location
+     * @param flag - flag {@link us.tastybento.bskyblock.lists.Flags}
+     * @return true if allowed, false if not
+     */
+    public boolean checkIsland(Event e, User user, Location loc, Flag flag) {
+        return checkIsland(e, user, loc, flag, false);
+    }
+
+    /**
+     * Check if flag is allowed at location for this user
+     * @param e - event
+     * @param user - user doing the action, or null to use the event's player
+     * @param loc - location
+     * @param flag - flag {@link us.tastybento.bskyblock.lists.Flags}
+     * @param silent - if true, no attempt is made to tell the user
+     * @return true if the check is okay, false if it was disallowed
+     */
+    public boolean checkIsland(Event e, User user, Location loc, Flag flag, boolean silent) {
+        Timer timer = Timings.flag(flag);
+        long start = timer.start();
+        try {
+            return check(e, user, loc, flag, silent);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    private boolean check(Event e, User user, Location loc, Flag flag, boolean silent) {
         // If this is not an Island World, skip
         if (!plugin.getIWM().inWorld(loc)) {
             return true;
@@ -137,37 +244,73 @@ public abstract class AbstractFlagListener implements Listener {
         }
 
         // Protection flag
-        // If the user is not set already, try to get it from the event
-        // Set the user associated with this event
+        // If the user is not given, try to get it from the event
+        if (user == null) {
+            user = getEventUser(e);
+        }
         // The user is not set, and the event does not hold a getPlayer, so return false
         // TODO: is this the correct handling here?
-        if (user == null && !createEventUser(e)) {
+        if (user == null) {
             plugin.logError("Check island had no associated user! " + e.getEventName());
             return false;
         }
-
-        // Check if the plugin is set in User (required for testing)
-        User.setPlugin(plugin);
+        // Fake players are not counted
+        if (plugin.getSettings().getFakePlayers().contains(user.getName())) {
+            return true;
+        }
 
         if (island.isPresent()) {
             if (!island.get().isAllowed(user, flag)) {
-                noGo(e, flag, silent);
-                // Clear the user for the next time
-                user = null;
+                noGo(e, user, flag, silent);
                 return false;
-            } else {
-                user = null;
-                return true;
             }
+            return true;
         }
         // The player is in the world, but not on an island, so general world settings apply
         if (!flag.isSetForWorld(loc.getWorld())) {
-            noGo(e, flag, silent);
-            user = null;
+            noGo(e, user, flag, silent);
             return false;
-        } else {
-            user = null;
-            return true;
+        }
+        return true;
+    }
+
+    /**
+     * Checks flags at many locations for one action, e.g., at every entity hit by a splash potion.
+     * What a check allows depends only on the world and the block column, so each flag is checked once
+     * per block column and other locations in that column get the same result.
+     */
+    protected class AreaCheck {
+
+        private final User user;
+        private final Map<Flag, LongObjectMap<Boolean>> results = new HashMap<>();
+
+        /**
+         * @param user - user doing the action, or null to use the event's player
+         */
+        protected AreaCheck(User user) {
+            this.user = user;
+        }
+
+        /**
+         * Check if flag is allowed at location. The first check of a flag in a block column is done by
+         * {@link AbstractFlagListener#checkIsland(Event, User, Location, Flag)}, which tells the user if it
+         * is not allowed. Later checks in the column only cancel the event if it is not allowed.
+         * @param e - event
+         * @param loc - location, all in the same world
+         * @param flag - flag {@link us.tastybento.bskyblock.lists.Flags}
+         * @return true if allowed, false if not
+         */
+        public boolean isAllowed(Event e, Location loc, Flag flag) {
+            LongObjectMap<Boolean> columns = results.computeIfAbsent(flag, f -> new LongObjectMap<>());
+            long key = LongObjectMap.pack(loc.getBlockX(), loc.getBlockZ());
+            Boolean result = columns.get(key);
+            if (result == null) {
+                result = checkIsland(e, user, loc, flag);
+                columns.put(key, result);
+            } else if (!result && e instanceof Cancellable) {
+                ((Cancellable)e).setCancelled(true);
+            }
+            return result;
         }
     }
 
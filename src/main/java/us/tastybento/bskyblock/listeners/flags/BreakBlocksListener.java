@@ -40,7 +40,7 @@ public class BreakBlocksListener extends AbstractFlagListener {
     @EventHandler(priority = EventPriority.LOW)
     public void onBreakHanging(final HangingBreakByEntityEvent e) {
         if (e.getRemover() instanceof Player) {
-            setUser(User.getInstance(e.getRemover())).checkIsland(e, e.getEntity().getLocation(), Flags.BREAK_BLOCKS);
+            checkIsland(e, User.getInstance(e.getRemover()), e.getEntity().getLocation(), Flags.BREAK_BLOCKS);
         }
     }
 
@@ -124,11 +124,11 @@ public class BreakBlocksListener extends AbstractFlagListener {
 
         // Get the attacker
         if (e.getDamager() instanceof Player) {
-            setUser(User.getInstance(e.getDamager())).checkIsland(e, e.getEntity().getLocation(), Flags.BREAK_BLOCKS);
+            checkIsland(e, User.getInstance(e.getDamager()), e.getEntity().getLocation(), Flags.BREAK_BLOCKS);
         } else if (e.getDamager() instanceof Projectile) {
             // Find out who fired the arrow
             Projectile p = (Projectile) e.getDamager();
-            if (p.getShooter() instanceof Player && !setUser(User.getInstance((Player)p.getShooter())).checkIsland(e, e.getEntity().getLocation(), Flags.BREAK_BLOCKS)) {
+            if (p.getShooter() instanceof Player && !checkIsland(e, User.getInstance((Player)p.getShooter()), e.getEntity().getLocation(), Flags.BREAK_BLOCKS)) {
                 e.getEntity().setFireTicks(0);
                 e.getDamager().remove();
             }
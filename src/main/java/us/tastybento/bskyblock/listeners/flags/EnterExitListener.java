@@ -5,11 +5,6 @@ package us.tastybento.bskyblock.listeners.flags;
 
 import java.util.Optional;
 
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.util.Vector;
-
 import us.tastybento.bskyblock.api.user.User;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.lists.Flags;
@@ -19,21 +14,18 @@ import us.tastybento.bskyblock.lists.Flags;
  * @author tastybento
  *
  */
-public class EnterExitListener extends AbstractFlagListener {
+public class EnterExitListener extends AbstractFlagListener implements IslandMoveListener.Handler {
 
-    private static final Vector XZ = new Vector(1,0,1);
     private static final String NAME = "[name]";
 
-    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
-    public void onMove(PlayerMoveEvent e) {
-        // Only process if Enter Exit flags are active, we are in the right world and there is a change in X or Z coords
-        if (!getIWM().inWorld(e.getFrom())
-                || e.getFrom().toVector().multiply(XZ).equals(e.getTo().toVector().multiply(XZ))
-                || !Flags.ENTER_EXIT_MESSAGES.isSetForWorld(e.getFrom().getWorld())) {
+    @Override
+    public void onIslandMove(IslandMove move) {
+        // Only process if Enter Exit flags are active
+        if (!Flags.ENTER_EXIT_MESSAGES.isSetForWorld(move.getEvent().getFrom().getWorld())) {
             return;
         }
-        Optional<Island> from = this.getIslands().getProtectedIslandAt(e.getFrom());
-        Optional<Island> to = this.getIslands().getProtectedIslandAt(e.getTo());
+        Optional<Island> from = move.getFrom();
+        Optional<Island> to = move.getTo();
 
         /*
          * Options:
@@ -47,7 +39,7 @@ public class EnterExitListener extends AbstractFlagListener {
         if (from.equals(to)) {
             return;
         }
-        User user = User.getInstance(e.getPlayer());
+        User user = move.getUser();
         // Send message if island is owned by someone
         from.filter(i -> i.getOwner() != null).ifPresent(i -> user.sendMessage("protection.flags.ENTER_EXIT_MESSAGES.now-leaving", NAME, !i.getName().isEmpty() ? i.getName() :
             user.getTranslation("protection.flags.ENTER_EXIT_MESSAGES.island", NAME, getPlugin().getPlayers().getName(i.getOwner()))));
@@ -128,8 +128,7 @@ public class FireListener extends AbstractFlagListener {
             // Find out who fired it
             if (projectile.getShooter() instanceof Player && projectile.getFireTicks() > 0) {
                 Player shooter = (Player)projectile.getShooter();
-                setUser(User.getInstance(shooter));
-                if (!setUser(User.getInstance(shooter)).checkIsland(e, e.getBlock().getLocation(), Flags.BREAK_BLOCKS)) {
+                if (!checkIsland(e, User.getInstance(shooter), e.getBlock().getLocation(), Flags.BREAK_BLOCKS)) {
                     // Remove the arrow
                     projectile.remove();
                     e.setCancelled(true);
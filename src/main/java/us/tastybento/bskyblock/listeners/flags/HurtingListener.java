@@ -1,11 +1,13 @@
 package us.tastybento.bskyblock.listeners.flags;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.bukkit.Material;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Monster;
@@ -39,6 +41,46 @@ import us.tastybento.bskyblock.lists.Flags;
 public class HurtingListener extends AbstractFlagListener {
 
     private HashMap<Integer, UUID> thrownPotions = new HashMap<>();
+    /**
+     * Checks of the lingering potions that have hurt entities this tick, by potion cloud entity id
+     */
+    private Map<Integer, AreaCheck> lingeringChecks = new HashMap<>();
+    /**
+     * Flag that protects each entity type from being hurt, by entity type ordinal. Made on first use,
+     * because this listener is made before the flags are.
+     */
+    private Flag[] hurtFlags;
+
+    /**
+     * Gets the flag that protects this entity from being hurt
+     * @param entity - entity
+     * @return flag, or null if the entity is not protected
+     */
+    Flag getHurtFlag(Entity entity) {
+        if (hurtFlags == null) {
+            hurtFlags = makeHurtFlags();
+        }
+        EntityType type = entity.getType();
+        return type == null ? null : hurtFlags[type.ordinal()];
+    }
+
+    private static Flag[] makeHurtFlags() {
+        Flag[] flags = new Flag[EntityType.values().length];
+        for (EntityType type : EntityType.values()) {
+            Class<? extends Entity> c = type.getEntityClass();
+            if (c == null) {
+                continue;
+            }
+            if (Animals.class.isAssignableFrom(c) || IronGolem.class.isAssignableFrom(c) || Snowman.class.isAssignableFrom(c)) {
+                flags[type.ordinal()] = Flags.HURT_ANIMALS;
+            } else if (Villager.class.isAssignableFrom(c)) {
+                flags[type.ordinal()] = Flags.HURT_VILLAGERS;
+            } else if (Monster.class.isAssignableFrom(c) || Squid.class.isAssignableFrom(c) || Slime.class.isAssignableFrom(c)) {
+                flags[type.ordinal()] = Flags.HURT_MONSTERS;
+            }
+        }
+        return flags;
+    }
 
     /**
      * Handles mob and monster protection
@@ -48,12 +90,9 @@ public class HurtingListener extends AbstractFlagListener {
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public void onEntityDamage(final EntityDamageByEntityEvent e) {
         // Mobs being hurt
-        if (e.getEntity() instanceof Animals || e.getEntity() instanceof IronGolem || e.getEntity() instanceof Snowman) {
-            respond(e, e.getDamager(), Flags.HURT_ANIMALS);
-        } else if (e.getEntity() instanceof Villager) {
-            respond(e, e.getDamager(), Flags.HURT_VILLAGERS);
-        } else if (e.getEntity() instanceof Monster || e.getEntity() instanceof Squid || e.getEntity() instanceof Slime) {
-            respond(e, e.getDamager(), Flags.HURT_MONSTERS);
+        Flag flag = getHurtFlag(e.getEntity());
+        if (flag != null) {
+            respond(e, e.getDamager(), flag);
         }
     }
 
@@ -66,12 +105,12 @@ public class HurtingListener extends AbstractFlagListener {
     private void respond(EntityDamageByEntityEvent e, Entity damager, Flag flag) {
         // Get the attacker
         if (damager instanceof Player) {
-            setUser(User.getInstance(damager)).checkIsland(e, damager.getLocation(), flag);
+            checkIsland(e, User.getInstance(damager), damager.getLocation(), flag);
         } else if (damager instanceof Projectile) {
             // Find out who fired the projectile
             Projectile p = (Projectile) damager;
             if (p.getShooter() instanceof Player) {
-                if (!setUser(User.getInstance((Player)p.getShooter())).checkIsland(e, damager.getLocation(), flag)) {
+                if (!checkIsland(e, User.getInstance((Player)p.getShooter()), damager.getLocation(), flag)) {
                     e.getEntity().setFireTicks(0);
                     damager.remove();
                 }
@@ -89,9 +128,8 @@ public class HurtingListener extends AbstractFlagListener {
             return;
         }
 
-        if (((e.getCaught() instanceof Animals || e.getCaught() instanceof IronGolem || e.getCaught() instanceof Snowman) && checkIsland(e, e.getCaught().getLocation(), Flags.HURT_ANIMALS)) 
-                || ((e.getCaught() instanceof Monster || e.getCaught() instanceof Squid || e.getCaught() instanceof Slime) && checkIsland(e, e.getCaught().getLocation(), Flags.HURT_MONSTERS))
-                || (e.getCaught() instanceof Villager && checkIsland(e, e.getCaught().getLocation(), Flags.HURT_VILLAGERS))) {
+        Flag flag = getHurtFlag(e.getCaught());
+        if (flag != null && checkIsland(e, e.getCaught().getLocation(), flag)) {
             e.getHook().remove();
         }
     }
@@ -112,6 +150,7 @@ public class HurtingListener extends AbstractFlagListener {
 
     /**
      * Checks for splash damage. Remove damage if it should not affect.
+     * Entities in the same block column share one check.
      * @param e - event
      */
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled=true)
@@ -120,32 +159,16 @@ public class HurtingListener extends AbstractFlagListener {
         Projectile projectile = e.getEntity();
         if (projectile.getShooter() instanceof Player) {
             Player attacker = (Player)projectile.getShooter();
+            AreaCheck check = new AreaCheck(User.getInstance(attacker));
             // Run through all the affected entities
             for (LivingEntity entity: e.getAffectedEntities()) {
                 // Self damage
                 if (attacker.equals(entity)) {
                     continue;
                 }
-                // Monsters being hurt
-                if (entity instanceof Monster || entity instanceof Slime || entity instanceof Squid) {
-                    if (!setUser(User.getInstance(attacker)).checkIsland(e, entity.getLocation(), Flags.HURT_MONSTERS)) {
-                        for (PotionEffect effect : e.getPotion().getEffects()) {
-                            entity.removePotionEffect(effect.getType());
-                        }
-                    }
-                }
-
-                // Mobs being hurt
-                if (entity instanceof Animals || entity instanceof IronGolem || entity instanceof Snowman) {
-                    if (!checkIsland(e, entity.getLocation(), Flags.HURT_ANIMALS)) {
-                        for (PotionEffect effect : e.getPotion().getEffects()) {
-                            entity.removePotionEffect(effect.getType());
-                        }
-                    }
-                }
-
-                // Villagers being hurt
-                if (entity instanceof Villager && !checkIsland(e, entity.getLocation(), Flags.HURT_VILLAGERS)) {
+                // Mobs, monsters and villagers being hurt
+                Flag flag = getHurtFlag(entity);
+                if (flag != null && !check.isAllowed(e, entity.getLocation(), flag)) {
                     for (PotionEffect effect : e.getPotion().getEffects()) {
                         entity.removePotionEffect(effect.getType());
                     }
@@ -182,19 +205,30 @@ public class HurtingListener extends AbstractFlagListener {
             if (attacker.equals(e.getEntity().getUniqueId())) {
                 return;
             }
-            Entity entity = e.getEntity();
-            // Monsters being hurt
-            if (entity instanceof Monster || entity instanceof Slime || entity instanceof Squid) {
-                checkIsland(e, entity.getLocation(), Flags.HURT_MONSTERS);
-            }
-            // Mobs being hurt
-            if (entity instanceof Animals || entity instanceof IronGolem || entity instanceof Snowman) {
-                checkIsland(e, entity.getLocation(), Flags.HURT_ANIMALS);
-            }
-            // Villagers being hurt
-            if (entity instanceof Villager) {
-                checkIsland(e, entity.getLocation(), Flags.HURT_VILLAGERS);
+            // Mobs, monsters and villagers being hurt
+            Flag flag = getHurtFlag(e.getEntity());
+            if (flag != null) {
+                getLingeringCheck(e.getDamager().getEntityId(), attacker).isAllowed(e, e.getEntity().getLocation(), flag);
             }
         }
     }
+
+    /**
+     * Gets the check of a lingering potion for this tick. A potion cloud hurts each entity in a separate
+     * event, so entities in the same block column share one check for the rest of the tick.
+     * @param cloudId - potion cloud entity id
+     * @param attacker - UUID of the player who threw the potion
+     * @return area check
+     */
+    private AreaCheck getLingeringCheck(int cloudId, UUID attacker) {
+        if (lingeringChecks.isEmpty()) {
+            getPlugin().getServer().getScheduler().runTask(getPlugin(), lingeringChecks::clear);
+        }
+        AreaCheck check = lingeringChecks.get(cloudId);
+        if (check == null) {
+            check = new AreaCheck(User.getInstance(attacker));
+            lingeringChecks.put(cloudId, check);
+        }
+        return check;
+    }
 }
@@ -40,16 +40,16 @@ public class InventoryListener extends AbstractFlagListener {
                 || e.getInventory().getHolder() instanceof Hopper
                 || e.getInventory().getHolder() instanceof Dropper
                 || e.getInventory().getHolder() instanceof ShulkerBox) {
-            setUser(User.getInstance(e.getWhoClicked())).checkIsland(e, e.getInventory().getLocation(), Flags.CHEST);
+            checkIsland(e, User.getInstance(e.getWhoClicked()), e.getInventory().getLocation(), Flags.CHEST);
         }
         else if (e.getInventory().getHolder() instanceof Furnace) {
-            setUser(User.getInstance(e.getWhoClicked())).checkIsland(e, e.getInventory().getLocation(), Flags.FURNACE);
+            checkIsland(e, User.getInstance(e.getWhoClicked()), e.getInventory().getLocation(), Flags.FURNACE);
         }
         else if (e.getInventory().getHolder() instanceof BrewingStand) {
-            setUser(User.getInstance(e.getWhoClicked())).checkIsland(e, e.getInventory().getLocation(), Flags.BREWING);
+            checkIsland(e, User.getInstance(e.getWhoClicked()), e.getInventory().getLocation(), Flags.BREWING);
         }
         else if (e.getInventory().getHolder() instanceof Beacon) {
-            setUser(User.getInstance(e.getWhoClicked())).checkIsland(e, e.getInventory().getLocation(), Flags.BEACON);
+            checkIsland(e, User.getInstance(e.getWhoClicked()), e.getInventory().getLocation(), Flags.BEACON);
         }
     }
 
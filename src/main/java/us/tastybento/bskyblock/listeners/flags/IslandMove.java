@@ -0,0 +1,80 @@
+package us.tastybento.bskyblock.listeners.flags;
+
+import java.util.Optional;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * A player move that crossed into a new block column in an island world, with the islands
+ * at both ends already looked up. Passed to each {@link IslandMoveListener.Handler}.
+ *
+ * @author tastybento
+ *
+ */
+public class IslandMove {
+
+    private final PlayerMoveEvent event;
+    private final Optional<Island> from;
+    private final Optional<Island> to;
+    private User user;
+
+    /**
+     * @param event - the move event
+     * @param from - protected island at the from location
+     * @param to - protected island at the to location
+     */
+    public IslandMove(PlayerMoveEvent event, Optional<Island> from, Optional<Island> to) {
+        this.event = event;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return the move event
+     */
+    public PlayerMoveEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the player moving
+     */
+    public Player getPlayer() {
+        return event.getPlayer();
+    }
+
+    /**
+     * @return the user moving. Only looked up when first asked for.
+     */
+    public User getUser() {
+        if (user == null) {
+            user = User.getInstance(event.getPlayer());
+        }
+        return user;
+    }
+
+    /**
+     * @return the protected island the player is moving from, if any
+     */
+    public Optional<Island> getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the protected island the player is moving to, if any
+     */
+    public Optional<Island> getTo() {
+        return to;
+    }
+
+    /**
+     * @return true if the player is moving onto, off or between islands
+     */
+    public boolean isIslandChange() {
+        return !from.equals(to);
+    }
+}
@@ -0,0 +1,98 @@
+package us.tastybento.bskyblock.listeners.flags;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bukkit.Location;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.managers.island.IslandTracker;
+
+/**
+ * Single PlayerMoveEvent listener for island flags. Moves that stay in the same block column
+ * or are outside the island worlds are dropped straight away. For the rest, the islands
+ * at the from and to locations are worked out once and handed to each {@link Handler}.
+ * The {@link IslandTracker} already knows the from island of players it tracks, and the island
+ * it finds at the to location is kept for its own update when the move is made.
+ *
+ * @author tastybento
+ *
+ */
+public class IslandMoveListener implements Listener {
+
+    /**
+     * Flag listeners that act on player moves implement this
+     */
+    public interface Handler {
+        /**
+         * Called for each move into a new block column in an island world
+         * @param move - the move, with the from and to islands
+         */
+        void onIslandMove(IslandMove move);
+    }
+
+    private final BSkyBlock plugin;
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param plugin - BSkyBlock plugin object
+     */
+    public IslandMoveListener(BSkyBlock plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Add a handler. Handlers are called in the order they are added.
+     * @param handler - handler
+     */
+    public void addHandler(Handler handler) {
+        if (!handlers.contains(handler)) {
+            handlers.add(handler);
+        }
+    }
+
+    /**
+     * @return true if there are any handlers
+     */
+    public boolean hasHandlers() {
+        return !handlers.isEmpty();
+    }
+
+    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent e) {
+        Location from = e.getFrom();
+        Location to = e.getTo();
+        // Islands are columns, so only a change in X or Z can change the island
+        if (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()) {
+            return;
+        }
+        if (!plugin.getIWM().inWorld(from)) {
+            return;
+        }
+        Optional<Island> fromIsland;
+        Optional<Island> toIsland;
+        IslandTracker tracker = plugin.getIslands().getTracker();
+        if (tracker.isTracked(e.getPlayer().getUniqueId())) {
+            // The tracker knows where the player is, and only asks the grid if they are leaving that island space
+            fromIsland = tracker.getProtectedIsland(e.getPlayer().getUniqueId());
+            toIsland = tracker.getIslandSpaceAt(e.getPlayer(), to).filter(i -> i.onIsland(to));
+        } else {
+            fromIsland = plugin.getIslands().getProtectedIslandAt(from);
+            toIsland = plugin.getIslands().getProtectedIslandAt(to);
+        }
+        IslandMove move = new IslandMove(e, fromIsland, toIsland);
+        for (Handler handler : handlers) {
+            // Handlers ignore cancelled moves
+            if (e.isCancelled()) {
+                return;
+            }
+            handler.onIslandMove(move);
+        }
+    }
+}
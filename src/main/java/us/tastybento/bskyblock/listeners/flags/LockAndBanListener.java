@@ -1,5 +1,7 @@
 package us.tastybento.bskyblock.listeners.flags;
 
+import java.util.Optional;
+
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
@@ -16,6 +18,7 @@ import org.bukkit.util.Vector;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.lists.Flags;
 import us.tastybento.bskyblock.managers.IslandsManager;
 
@@ -26,7 +29,7 @@ import us.tastybento.bskyblock.managers.IslandsManager;
  * @author tastybento
  *
  */
-public class LockAndBanListener implements Listener {
+public class LockAndBanListener implements Listener, IslandMoveListener.Handler {
 
     private IslandsManager im;
     private enum CheckResult {
@@ -49,20 +52,17 @@ public class LockAndBanListener implements Listener {
     }
 
     // Movement check
-    @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent e) {
-        // Ignore only vertical movement
-        if (e.getFrom().getBlockX() - e.getTo().getBlockX() == 0 && e.getFrom().getBlockZ() - e.getTo().getBlockZ() == 0) {
-            return;
-        }
-        if (!checkAndNotify(e.getPlayer(), e.getTo()).equals(CheckResult.OPEN)) {
+    @Override
+    public void onIslandMove(IslandMove move) {
+        PlayerMoveEvent e = move.getEvent();
+        if (!checkAndNotify(e.getPlayer(), move.getTo()).equals(CheckResult.OPEN)) {
             e.setCancelled(true);
             e.getFrom().getWorld().playSound(e.getFrom(), Sound.BLOCK_ANVIL_HIT, 1F, 1F);
             e.getPlayer().setVelocity(new Vector(0,0,0));
             e.getPlayer().setGliding(false);
         }
         // Check from - just in case the player is inside the island
-        if (!check(e.getPlayer(), e.getFrom()).equals(CheckResult.OPEN)) {
+        if (!check(e.getPlayer(), move.getFrom()).equals(CheckResult.OPEN)) {
             // Has to be done 1 tick later otherwise it doesn't happen for some reason...
             Bukkit.getScheduler().runTask(BSkyBlock.getInstance(), () -> eject(e.getPlayer()));
         }
@@ -101,9 +101,19 @@ public class LockAndBanListener implements Listener {
      * @return CheckResult LOCKED, BANNED or OPEN. If an island is locked, that will take priority over banned
      */
     private CheckResult check(Player player, Location loc) {
+        return check(player, im.getProtectedIslandAt(loc));
+    }
+
+    /**
+     * Check if a player is banned or the island is locked
+     * @param player - player
+     * @param island - island at the location being checked, if any
+     * @return CheckResult LOCKED, BANNED or OPEN. If an island is locked, that will take priority over banned
+     */
+    private CheckResult check(Player player, Optional<Island> island) {
 
         // See if the island is locked to non-members or player is banned
-        return im.getProtectedIslandAt(loc)
+        return island
                 .map(is -> {
                     if (is.isBanned(player.getUniqueId())) {
                         return CheckResult.BANNED;
@@ -122,7 +132,17 @@ public class LockAndBanListener implements Listener {
      * @return true if banned
      */
     private CheckResult checkAndNotify(Player player, Location loc) {
-        CheckResult r = check(player,loc);
+        return checkAndNotify(player, im.getProtectedIslandAt(loc));
+    }
+
+    /**
+     * Checks if a player is banned from this island and notifies them if so
+     * @param player - player
+     * @param island - island at the location being checked, if any
+     * @return true if banned
+     */
+    private CheckResult checkAndNotify(Player player, Optional<Island> island) {
+        CheckResult r = check(player, island);
         switch (r) {
         case BANNED:
             User.getInstance(player).notify("commands.island.ban.you-are-banned");
@@ -67,7 +67,7 @@ public class PVPListener extends AbstractFlagListener {
         // Get the attacker
         if (damager instanceof Player) {
             User user = User.getInstance(damager);
-            if (!setUser(user).checkIsland((Event)e, damager.getLocation(), flag)) {
+            if (!checkIsland((Event)e, user, damager.getLocation(), flag)) {
                 user.sendMessage(Flags.PVP_OVERWORLD.getHintReference());
                 e.setCancelled(true);
             }
@@ -76,7 +76,7 @@ public class PVPListener extends AbstractFlagListener {
             Projectile p = (Projectile) damager;
             if (p.getShooter() instanceof Player) {
                 User user = User.getInstance((Player)p.getShooter());
-                if (!setUser(user).checkIsland((Event)e, damager.getLocation(), flag)) {
+                if (!checkIsland((Event)e, user, damager.getLocation(), flag)) {
                     damager.setFireTicks(0);
                     damager.remove();
                     user.sendMessage(Flags.PVP_OVERWORLD.getHintReference());
@@ -109,12 +109,23 @@ public class PVPListener extends AbstractFlagListener {
     public void onSplashPotionSplash(final PotionSplashEvent e) {
         if (e.getEntity().getShooter() instanceof Player && getPlugin().getIWM().inWorld(e.getEntity().getLocation())) {
             User user = User.getInstance((Player)e.getEntity().getShooter());
+            AreaCheck check = new AreaCheck(null);
+            Flag flag = getFlag(e.getEntity().getWorld());
             // Run through affected entities and cancel the splash if any are a protected player
-            e.setCancelled(e.getAffectedEntities().stream().anyMatch(le -> blockPVP(user, le, e, getFlag(e.getEntity().getWorld()))));
+            e.setCancelled(e.getAffectedEntities().stream().anyMatch(le -> blockPVP(user, le, e, flag, check)));
         }
     }
 
-    private boolean blockPVP(User user, LivingEntity le, Event e, Flag flag) {
+    /**
+     * Checks if a player is protected from PVP
+     * @param user - attacker
+     * @param le - entity being hurt
+     * @param e - event
+     * @param flag - PVP flag of this world
+     * @param check - area check that is shared by all the entities hurt by this event
+     * @return true if the entity is a player that is protected
+     */
+    private boolean blockPVP(User user, LivingEntity le, Event e, Flag flag, AreaCheck check) {
         if (le instanceof Player) {
             // Protect visitors
             if (protectedVisitor(le)) {
@@ -122,7 +133,7 @@ public class PVPListener extends AbstractFlagListener {
                 return true;
             }
             // Check if PVP is allowed or not
-            if (!checkIsland(e, le.getLocation(), flag)) {
+            if (!check.isAllowed(e, le.getLocation(), flag)) {
                 user.sendMessage(Flags.PVP_OVERWORLD.getHintReference());
                 return true;
             }
@@ -149,8 +160,10 @@ public class PVPListener extends AbstractFlagListener {
     public void onLingeringPotionDamage(AreaEffectCloudApplyEvent e) {
         if (e.getEntity() != null && thrownPotions.containsKey(e.getEntity().getEntityId())) {
             User user = User.getInstance(thrownPotions.get(e.getEntity().getEntityId()));
+            AreaCheck check = new AreaCheck(null);
+            Flag flag = getFlag(e.getEntity().getWorld());
             // Run through affected entities and delete them if they are safe
-            e.getAffectedEntities().removeIf(le -> !le.getUniqueId().equals(user.getUniqueId()) && blockPVP(user, le, e, getFlag(e.getEntity().getWorld())));
+            e.getAffectedEntities().removeIf(le -> !le.getUniqueId().equals(user.getUniqueId()) && blockPVP(user, le, e, flag, check));
         }
     }
 
@@ -8,6 +8,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockPistonExtendEvent;
 
 import us.tastybento.bskyblock.lists.Flags;
+import us.tastybento.bskyblock.managers.island.RegionChecker;
 
 /**
  * Prevents pistons from pushing blocks outside island protection range
@@ -20,13 +21,9 @@ public class PistonPushListener extends AbstractFlagListener {
     public void onPistonExtend(BlockPistonExtendEvent e) {
         // Only process if flag is active
         if (Flags.PISTON_PUSH.isSetForWorld(e.getBlock().getWorld())) {
-            getIslands().getProtectedIslandAt(e.getBlock().getLocation()).ifPresent(i -> 
-            e.setCancelled(
-                    // Run through the location of all the relative blocks and see if they are outside the island
-                    !e.getBlocks().stream()
-                    .map(b -> b.getRelative(e.getDirection()).getLocation())
-                    // All blocks must be on the island, otherwise the event is cancelled
-                    .allMatch(i::onIsland)));
+            // All the pushed blocks must end up on the island, otherwise the event is cancelled
+            getIslands().getProtectedIslandAt(e.getBlock().getLocation()).ifPresent(i ->
+            e.setCancelled(!RegionChecker.allOnIsland(i, e.getBlocks(), e.getDirection())));
         }
     }
 }
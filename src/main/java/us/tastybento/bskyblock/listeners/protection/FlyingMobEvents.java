@@ -1,10 +1,14 @@
 package us.tastybento.bskyblock.listeners.protection;
 
-import java.util.Iterator;
-import java.util.Map.Entry;
-import java.util.WeakHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
@@ -20,47 +24,164 @@ import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.ExplosionPrimeEvent;
 
 import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.api.events.island.IslandEvent.IslandDeletedEvent;
 import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.util.LongObjectMap;
+import us.tastybento.bskyblock.util.timings.Counter;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
  * This class manages flying mobs. If they exist the spawned island's limits they will be removed.
+ * <p>
+ * Mobs are tracked by entity id and grouped by the island they spawned on. Each mob is looked at about once
+ * a second, but the work is spread over the ticks and only {@link #BUDGET} mobs are looked at each tick.
+ * A mob is only checked against its island when it has moved to another chunk, or is in a chunk on the edge
+ * of the island space, so mobs sitting in a farm cost little more than reading where they are.
  *
  * @author tastybento
  *
  */
 public class FlyingMobEvents implements Listener {
+
+    /**
+     * Ticks between looks at each mob
+     */
+    private static final int PERIOD = 20;
+    /**
+     * Most mobs looked at in a tick
+     */
+    private static final int BUDGET = 100;
+
+    private static final Timer SWEEP = Timings.timer("flyingmobs.sweep");
+    private static final Counter RECHECKED = Timings.counter("flyingmobs.rechecked");
+
+    private static class TrackedMob {
+        private final LivingEntity entity;
+        private final Island island;
+        private int chunkX;
+        private int chunkZ;
+        /**
+         * True if the whole of the chunk the mob was last seen in is in the island space
+         */
+        private boolean chunkInside;
+        private long lastLook;
+        private boolean removed;
+
+        private TrackedMob(LivingEntity entity, Island island, long tick) {
+            this.entity = entity;
+            this.island = island;
+            this.lastLook = tick;
+        }
+    }
+
     private BSkyBlock plugin;
-    private WeakHashMap<Entity, Island> mobSpawnInfo;
+    private final LongObjectMap<TrackedMob> mobs = new LongObjectMap<>();
+    private final Map<Island, Set<TrackedMob>> byIsland = new HashMap<>();
+    /**
+     * Mobs in the order they are to be looked at
+     */
+    private final Deque<TrackedMob> queue = new ArrayDeque<>();
+    /**
+     * Reused to read mob locations without making a new Location each time
+     */
+    private final Location where = new Location(null, 0, 0, 0);
+    private long tick;
 
     /**
      * @param plugin - BSkyBlock plugin object
      */
     public FlyingMobEvents(BSkyBlock plugin) {
         this.plugin = plugin;
-        mobSpawnInfo = new WeakHashMap<>();
-
-        Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            Iterator<Entry<Entity, Island>> it = mobSpawnInfo.entrySet().iterator();
-            while (it.hasNext()) {
-                Entry<Entity, Island> entry = it.next();
-                if (entry.getKey() == null) {
-                    it.remove();
+        Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, 1L, 1L);
+    }
+
+    /**
+     * Looks at the mobs whose turn it is, up to the budget, and kills any that have left their island space
+     */
+    private void sweep() {
+        long start = SWEEP.start();
+        try {
+            tick++;
+            int looked = 0;
+            while (looked < BUDGET && !queue.isEmpty() && tick - queue.peekFirst().lastLook >= PERIOD) {
+                TrackedMob mob = queue.pollFirst();
+                if (mob.removed) {
+                    continue;
+                }
+                looked++;
+                mob.lastLook = tick;
+                if (!mob.entity.isValid()) {
+                    forget(mob);
+                } else if (inIslandSpace(mob)) {
+                    queue.addLast(mob);
                 } else {
-                    if (entry.getKey() instanceof LivingEntity) {
-                        if (!entry.getValue().inIslandSpace(entry.getKey().getLocation())) {
-                            it.remove();
-                            // Kill mob
-                            LivingEntity mob = (LivingEntity)entry.getKey();
-                            mob.setHealth(0);
-                            entry.getKey().remove();
-                        }
-                    } else {
-                        // Not living entity
-                        it.remove();
-                    }
+                    forget(mob);
+                    // Kill mob
+                    mob.entity.setHealth(0);
+                    mob.entity.remove();
                 }
             }
-        }, 20L, 20L);
+        } finally {
+            SWEEP.stop(start);
+        }
+    }
+
+    /**
+     * Checks if a mob is still in its island space. The island is only asked if the mob is in a different
+     * chunk to last time, or the chunk is not all in the island space.
+     * @param mob - tracked mob
+     * @return true if the mob is in its island space
+     */
+    private boolean inIslandSpace(TrackedMob mob) {
+        mob.entity.getLocation(where);
+        int x = where.getBlockX();
+        int z = where.getBlockZ();
+        if (mob.chunkInside && x >> 4 == mob.chunkX && z >> 4 == mob.chunkZ) {
+            return true;
+        }
+        RECHECKED.increment();
+        mob.chunkX = x >> 4;
+        mob.chunkZ = z >> 4;
+        int minX = mob.chunkX << 4;
+        int minZ = mob.chunkZ << 4;
+        mob.chunkInside = mob.island.inIslandSpace(minX, minZ) && mob.island.inIslandSpace(minX + 15, minZ + 15);
+        return mob.chunkInside || mob.island.inIslandSpace(x, z);
+    }
+
+    private void track(LivingEntity entity, Island island) {
+        TrackedMob mob = new TrackedMob(entity, island, tick);
+        TrackedMob old = mobs.put(entity.getEntityId(), mob);
+        if (old != null) {
+            // Spawned again, e.g., by another plugin. The map already holds the new mob.
+            forget(old);
+        }
+        byIsland.computeIfAbsent(island, k -> new HashSet<>()).add(mob);
+        queue.addLast(mob);
+    }
+
+    private void forget(TrackedMob mob) {
+        mob.removed = true;
+        if (mobs.get(mob.entity.getEntityId()) == mob) {
+            mobs.remove(mob.entity.getEntityId());
+        }
+        Set<TrackedMob> onIsland = byIsland.get(mob.island);
+        if (onIsland != null) {
+            onIsland.remove(mob);
+            if (onIsland.isEmpty()) {
+                byIsland.remove(mob.island);
+            }
+        }
+    }
+
+    /**
+     * Gets the island a mob spawned on if it is being tracked
+     * @param entity - entity
+     * @return island or null if the mob is not tracked
+     */
+    private Island getIsland(Entity entity) {
+        TrackedMob mob = mobs.get(entity.getEntityId());
+        return mob != null && mob.entity.equals(entity) ? mob.island : null;
     }
 
     /**
@@ -76,7 +197,7 @@ public class FlyingMobEvents implements Listener {
             return;
         }
         // Store where this mob originated
-        plugin.getIslands().getIslandAt(e.getLocation()).ifPresent(island->mobSpawnInfo.put(e.getEntity(),island));
+        plugin.getIslands().getIslandAt(e.getLocation()).ifPresent(island -> track(e.getEntity(), island));
     }
 
     /**
@@ -90,7 +211,8 @@ public class FlyingMobEvents implements Listener {
         if (e.getEntity() == null || !plugin.getIWM().inWorld(e.getEntity().getLocation())) {
             return false;
         }
-        if (mobSpawnInfo.containsKey(e.getEntity()) && !mobSpawnInfo.get(e.getEntity()).inIslandSpace(e.getLocation())) {
+        Island island = getIsland(e.getEntity());
+        if (island != null && !island.inIslandSpace(e.getLocation())) {
             // Cancel the explosion and block damage
             e.blockList().clear();
             e.setCancelled(true);
@@ -109,9 +231,10 @@ public class FlyingMobEvents implements Listener {
             return false;
         }
         // The wither or wither skulls can both blow up
+        Island island = getIsland(e.getEntity());
         if (e.getEntityType() == EntityType.WITHER 
-                && mobSpawnInfo.containsKey(e.getEntity()) 
-                && !mobSpawnInfo.get(e.getEntity()).inIslandSpace(e.getEntity().getLocation())) {
+                && island != null
+                && !island.inIslandSpace(e.getEntity().getLocation())) {
             // Cancel the explosion
             e.setCancelled(true);
             return true;
@@ -119,9 +242,9 @@ public class FlyingMobEvents implements Listener {
             // Get shooter
             Projectile projectile = (Projectile)e.getEntity();
             if (projectile.getShooter() instanceof Wither) {
-                Wither wither = (Wither)projectile.getShooter();
+                Island witherIsland = getIsland((Wither)projectile.getShooter());
                 // Check the location
-                if (mobSpawnInfo.containsKey(wither) && !mobSpawnInfo.get(wither).inIslandSpace(e.getEntity().getLocation())) {
+                if (witherIsland != null && !witherIsland.inIslandSpace(e.getEntity().getLocation())) {
                     // Cancel the explosion
                     e.setCancelled(true);
                     return true;
@@ -142,7 +265,8 @@ public class FlyingMobEvents implements Listener {
         if (e.getEntityType() != EntityType.WITHER || !plugin.getIWM().inWorld(e.getEntity().getLocation()) ) {
             return;
         }
-        if (mobSpawnInfo.containsKey(e.getEntity()) && !mobSpawnInfo.get(e.getEntity()).inIslandSpace(e.getEntity().getLocation())) {
+        Island island = getIsland(e.getEntity());
+        if (island != null && !island.inIslandSpace(e.getEntity().getLocation())) {
             // We know about this wither
             // Cancel the block changes
             e.setCancelled(true);
@@ -150,10 +274,29 @@ public class FlyingMobEvents implements Listener {
     }
 
     /**
-     * Clean up the hashmap. It's probably not needed, but just in case.
+     * Stop tracking mobs that die
+     * @param e - event
+     * @return the island the mob spawned on, or null if it was not tracked
      */
     @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
     public Island onMobDeath(EntityDeathEvent e) {
-        return mobSpawnInfo.remove(e.getEntity());
+        TrackedMob mob = mobs.get(e.getEntity().getEntityId());
+        if (mob == null || !mob.entity.equals(e.getEntity())) {
+            return null;
+        }
+        forget(mob);
+        return mob.island;
+    }
+
+    /**
+     * Stop tracking the mobs of deleted islands. They no longer have an island to keep them in.
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onIslandDeleted(IslandDeletedEvent e) {
+        Set<TrackedMob> onIsland = byIsland.remove(e.getIsland());
+        if (onIsland != null) {
+            onIsland.forEach(this::forget);
+        }
     }
-}
\ No newline at end of file
+}
@@ -8,6 +8,7 @@ import org.bukkit.event.Listener;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.flags.Flag;
+import us.tastybento.bskyblock.listeners.flags.IslandMoveListener;
 import us.tastybento.bskyblock.lists.Flags;
 
 /**
@@ -24,8 +25,14 @@ public class FlagsManager {
      */
     private ArrayList<Listener> registeredListeners = new ArrayList<>();
 
+    /**
+     * Shared player move listener that flag listeners can hook into
+     */
+    private IslandMoveListener moveListener;
+
     public FlagsManager(BSkyBlock plugin) {
         this.plugin = plugin;
+        moveListener = new IslandMoveListener(plugin);
 
         // Register default flags
         Flags.values().forEach(this::registerFlag);
@@ -43,17 +50,40 @@ public class FlagsManager {
                 return false;
             }
         }
+        // Flags are numbered in the order they are registered
+        flag.setOrdinal(flags.size());
         flags.add(flag);
         // If there is a listener which is not already registered, register it into Bukkit.
         flag.getListener().ifPresent(l -> {
             if (!registeredListeners.contains(l)) {
                 Bukkit.getServer().getPluginManager().registerEvents(l, plugin);
                 registeredListeners.add(l);
+                if (l instanceof IslandMoveListener.Handler) {
+                    registerMoveHandler((IslandMoveListener.Handler)l);
+                }
             }
         });
         return true;
     }
 
+    /**
+     * Adds a handler to the shared player move listener. The move listener is registered with Bukkit when the first handler is added.
+     * @param handler - move handler
+     */
+    private void registerMoveHandler(IslandMoveListener.Handler handler) {
+        if (!moveListener.hasHandlers()) {
+            Bukkit.getServer().getPluginManager().registerEvents(moveListener, plugin);
+        }
+        moveListener.addHandler(handler);
+    }
+
+    /**
+     * @return the shared player move listener
+     */
+    public IslandMoveListener getMoveListener() {
+        return moveListener;
+    }
+
     /**
      * @return list of all flags
      */
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
@@ -16,6 +17,11 @@ import org.bukkit.World.Environment;
 import org.bukkit.WorldCreator;
 import org.bukkit.WorldType;
 import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 
 import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.addons.Addon;
@@ -30,7 +36,7 @@ import us.tastybento.bskyblock.util.Util;
  * @author tastybento
  *
  */
-public class IslandWorldManager {
+public class IslandWorldManager implements Listener {
 
     private static final String MULTIVERSE_SET_GENERATOR = "mv modify set generator ";
     private static final String MULTIVERSE_IMPORT = "mv import ";
@@ -44,6 +50,14 @@ public class IslandWorldManager {
     private World endWorld;
     private Map<World, String> worlds;
     private Map<World, WorldSettings> worldSettings;
+    /**
+     * Settings of every known world, including nether and end worlds, so they can be found with one look up
+     */
+    private final Map<World, WorldSettings> settingsByWorld = new ConcurrentHashMap<>();
+    /**
+     * Worlds that have been looked up and are not island worlds, so they are not looked up again
+     */
+    private final Set<World> notIslandWorlds = ConcurrentHashMap.newKeySet();
 
     /**
      * Generates the Skyblock worlds.
@@ -138,7 +152,7 @@ public class IslandWorldManager {
      * @return true if in a world or false if not
      */
     public boolean inWorld(Location loc) {
-        return worlds.containsKey(Util.getWorld(loc.getWorld()));
+        return getWorldSettings(loc.getWorld()) != null;
     }
 
     /**
@@ -185,16 +199,61 @@ public class IslandWorldManager {
         plugin.log("Adding world " + friendlyName);
         worlds.put(world, friendlyName);
         worldSettings.put(world, settings);
+        settingsByWorld.put(world, settings);
+        // Worlds that were not island worlds may be part of this one
+        notIslandWorlds.clear();
+        // Map any nether and end worlds that already exist straight to the settings
+        addSubWorld(world, getNetherWorld(world), settings);
+        addSubWorld(world, getEndWorld(world), settings);
         multiverseReg(world);
     }
 
+    private void addSubWorld(World overWorld, World subWorld, WorldSettings settings) {
+        if (subWorld != null) {
+            Util.addOverWorld(subWorld, overWorld);
+            settingsByWorld.put(subWorld, settings);
+        }
+    }
+
     /**
      * Get the settings for this world or sub-worlds (nether, end)
      * @param world - world
      * @return world settings, or null if world is unknown
      */
     public WorldSettings getWorldSettings(World world) {
-        return worldSettings.get(Util.getWorld(world));
+        WorldSettings settings = settingsByWorld.get(world);
+        if (settings == null && !notIslandWorlds.contains(world)) {
+            // Nether or end world that was created after the over world was added, or not an island world
+            World overWorld = Util.getWorld(world);
+            settings = overWorld == null ? null : worldSettings.get(overWorld);
+            if (settings != null) {
+                settingsByWorld.put(world, settings);
+            } else {
+                notIslandWorlds.add(world);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Forgets any look ups for a world when it is unloaded
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        settingsByWorld.remove(e.getWorld());
+        notIslandWorlds.remove(e.getWorld());
+        Util.forgetWorld(e.getWorld());
+    }
+
+    /**
+     * Forgets the worlds that were found to have no over world, as it may be the world that has just loaded
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent e) {
+        notIslandWorlds.clear();
+        Util.forgetMissingOverWorlds();
     }
 
     /**
@@ -210,119 +269,119 @@ public class IslandWorldManager {
      * @return the entityLimits
      */
     public Map<EntityType, Integer> getEntityLimits(World world) {
-        return worldSettings.get(Util.getWorld(world)).getEntityLimits();
+        return getWorldSettings(world).getEntityLimits();
     }
 
     /**
      * @return the islandDistance
      */
     public int getIslandDistance(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandDistance();
+        return getWorldSettings(world).getIslandDistance();
     }
 
     /**
      * @return the islandHeight
      */
     public int getIslandHeight(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandHeight();
+        return getWorldSettings(world).getIslandHeight();
     }
 
     /**
      * @return the islandProtectionRange
      */
     public int getIslandProtectionRange(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandProtectionRange();
+        return getWorldSettings(world).getIslandProtectionRange();
     }
 
     /**
      * @return the islandStartX
      */
     public int getIslandStartX(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandStartX();
+        return getWorldSettings(world).getIslandStartX();
     }
 
     /**
      * @return the islandStartZ
      */
     public int getIslandStartZ(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandStartZ();
+        return getWorldSettings(world).getIslandStartZ();
     }
 
     /**
      * @return the islandXOffset
      */
     public int getIslandXOffset(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandXOffset();
+        return getWorldSettings(world).getIslandXOffset();
     }
 
     /**
      * @return the islandZOffset
      */
     public int getIslandZOffset(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIslandZOffset();
+        return getWorldSettings(world).getIslandZOffset();
     }
 
     /**
      * @return the maxIslands
      */
     public int getMaxIslands(World world) {
-        return worldSettings.get(Util.getWorld(world)).getMaxIslands();
+        return getWorldSettings(world).getMaxIslands();
     }
 
     /**
      * @return the netherSpawnRadius
      */
     public int getNetherSpawnRadius(World world) {
-        return worldSettings.get(Util.getWorld(world)).getNetherSpawnRadius();
+        return getWorldSettings(world).getNetherSpawnRadius();
     }
 
     /**
      * @return the seaHeight
      */
     public int getSeaHeight(World world) {
-        return worldSettings.get(Util.getWorld(world)).getSeaHeight();
+        return getWorldSettings(world).getSeaHeight();
     }
 
     /**
      * @return the tileEntityLimits
      */
     public Map<String, Integer> getTileEntityLimits(World world) {
-        return worldSettings.get(Util.getWorld(world)).getTileEntityLimits();
+        return getWorldSettings(world).getTileEntityLimits();
     }
 
     /**
      * @return the worldName
      */
     public String getWorldName(World world) {
-        return worldSettings.get(Util.getWorld(world)).getWorldName();
+        return getWorldSettings(world).getWorldName();
     }
 
     /**
      * @return the endGenerate
      */
     public boolean isEndGenerate(World world) {
-        return worldSettings.get(Util.getWorld(world)).isEndGenerate();
+        return getWorldSettings(world).isEndGenerate();
     }
 
     /**
      * @return the endIslands
      */
     public boolean isEndIslands(World world) {
-        return worldSettings.get(Util.getWorld(world)).isEndIslands();
+        return getWorldSettings(world).isEndIslands();
     }
 
     /**
      * @return the netherGenerate
      */
     public boolean isNetherGenerate(World world) {
-        return worldSettings.get(Util.getWorld(world)).isNetherGenerate();
+        return getWorldSettings(world).isNetherGenerate();
     }
 
     /**
      * @return the netherIslands
      */
     public boolean isNetherIslands(World world) {
-        return worldSettings.get(Util.getWorld(world)).isNetherIslands();
+        return getWorldSettings(world).isNetherIslands();
     }
 
     /**
@@ -331,8 +390,8 @@ public class IslandWorldManager {
      * @return true if world is a known and valid nether world
      */
     public boolean isNether(World world) {
-        World w = Util.getWorld(world);
-        return worldSettings.containsKey(w) && worldSettings.get(w).isNetherGenerate();
+        WorldSettings s = getWorldSettings(world);
+        return s != null && s.isNetherGenerate();
     }
 
     /**
@@ -341,8 +400,8 @@ public class IslandWorldManager {
      * @return true if world is a known and valid nether world
      */
     public boolean isIslandNether(World world) {
-        World w = Util.getWorld(world);
-        return worldSettings.containsKey(w) && worldSettings.get(w).isNetherGenerate() && worldSettings.get(w).isNetherIslands();
+        WorldSettings s = getWorldSettings(world);
+        return s != null && s.isNetherGenerate() && s.isNetherIslands();
     }
 
     /**
@@ -351,8 +410,8 @@ public class IslandWorldManager {
      * @return true if world is a known and valid nether world
      */
     public boolean isEnd(World world) {
-        World w = Util.getWorld(world);
-        return worldSettings.containsKey(w) && worldSettings.get(w).isEndGenerate();
+        WorldSettings s = getWorldSettings(world);
+        return s != null && s.isEndGenerate();
     }
 
     /**
@@ -361,8 +420,8 @@ public class IslandWorldManager {
      * @return true if world is a known and valid nether world
      */
     public boolean isIslandEnd(World world) {
-        World w = Util.getWorld(world);
-        return worldSettings.containsKey(w) && worldSettings.get(w).isEndGenerate() && worldSettings.get(w).isEndIslands();
+        WorldSettings s = getWorldSettings(world);
+        return s != null && s.isEndGenerate() && s.isEndIslands();
     }
 
     /**
@@ -389,8 +448,8 @@ public class IslandWorldManager {
      * @return true or false
      */
     public boolean isNetherTrees(World world) {
-        World w = Util.getWorld(world);
-        return worldSettings.containsKey(w) && worldSettings.get(w).isNetherTrees();
+        WorldSettings s = getWorldSettings(world);
+        return s != null && s.isNetherTrees();
     }
 
     /**
@@ -399,8 +458,8 @@ public class IslandWorldManager {
      * @return true (default) if it can spawn or not
      */
     public boolean isDragonSpawn(World world) {
-        World w = Util.getWorld(world);
-        return !worldSettings.containsKey(w) || worldSettings.get(w).isDragonSpawn();
+        WorldSettings s = getWorldSettings(world);
+        return s == null || s.isDragonSpawn();
     }
 
     /**
@@ -430,7 +489,7 @@ public class IslandWorldManager {
      * @return max team size
      */
     public int getMaxTeamSize(World world) {
-        return worldSettings.get(Util.getWorld(world)).getMaxTeamSize();
+        return getWorldSettings(world).getMaxTeamSize();
     }
 
     /**
@@ -439,7 +498,7 @@ public class IslandWorldManager {
      * @return max homes
      */
     public int getMaxHomes(World world) {
-        return worldSettings.get(Util.getWorld(world)).getMaxHomes();
+        return getWorldSettings(world).getMaxHomes();
     }
 
     /**
@@ -448,7 +507,7 @@ public class IslandWorldManager {
      * @return Friendly name
      */
     public String getFriendlyName(World world) {
-        return worldSettings.get(Util.getWorld(world)).getFriendlyName();
+        return getWorldSettings(world).getFriendlyName();
     }
 
     /**
@@ -457,7 +516,7 @@ public class IslandWorldManager {
      * @return permission prefix for this world
      */
     public String getPermissionPrefix(World world) {
-        return worldSettings.get(Util.getWorld(world)).getPermissionPrefix();
+        return getWorldSettings(world).getPermissionPrefix();
 
     }
 
@@ -467,7 +526,7 @@ public class IslandWorldManager {
      * @return invisible visitor settings
      */
     public List<String> getIvSettings(World world) {
-        return worldSettings.get(Util.getWorld(world)).getIvSettings();
+        return getWorldSettings(world).getIvSettings();
     }
 
     /**
@@ -487,7 +546,7 @@ public class IslandWorldManager {
      * @return GameMode: SURVIVAL, CREATIVE, ADVENTURE, SPECTATOR
      */
     public GameMode getDefaultGameMode(World world) {
-        return worldSettings.get(Util.getWorld(world)).getDefaultGameMode();
+        return getWorldSettings(world).getDefaultGameMode();
     }
 
     /**
@@ -496,49 +555,49 @@ public class IslandWorldManager {
      * @return - set of entity types
      */
     public Set<EntityType> getRemoveMobsWhitelist(World world) {
-        return worldSettings.get(Util.getWorld(world)).getRemoveMobsWhitelist();
+        return getWorldSettings(world).getRemoveMobsWhitelist();
     }
 
     /**
      * @return the onJoinResetMoney
      */
     public boolean isOnJoinResetMoney(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnJoinResetMoney();
+        return getWorldSettings(world).isOnJoinResetMoney();
     }
 
     /**
      * @return the onJoinResetInventory
      */
     public boolean isOnJoinResetInventory(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnJoinResetInventory();
+        return getWorldSettings(world).isOnJoinResetInventory();
     }
 
     /**
      * @return the onJoinResetEnderChest
      */
     public boolean isOnJoinResetEnderChest(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnJoinResetEnderChest();
+        return getWorldSettings(world).isOnJoinResetEnderChest();
     }
 
     /**
      * @return the onLeaveResetMoney
      */
     public boolean isOnLeaveResetMoney(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnLeaveResetMoney();
+        return getWorldSettings(world).isOnLeaveResetMoney();
     }
 
     /**
      * @return the onLeaveResetInventory
      */
     public boolean isOnLeaveResetInventory(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnLeaveResetInventory();
+        return getWorldSettings(world).isOnLeaveResetInventory();
     }
 
     /**
      * @return the onLeaveResetEnderChest
      */
     public boolean isOnLeaveResetEnderChest(World world) {
-        return worldSettings.get(Util.getWorld(world)).isOnLeaveResetEnderChest();
+        return getWorldSettings(world).isOnLeaveResetEnderChest();
     }
 
     /**
@@ -546,7 +605,7 @@ public class IslandWorldManager {
      * @return
      */
     public File getDataFolder(World world) {
-        return worldSettings.get(Util.getWorld(world)).getAddon().map(Addon::getDataFolder).orElse(plugin.getDataFolder());
+        return getWorldSettings(world).getAddon().map(Addon::getDataFolder).orElse(plugin.getDataFolder());
     }
 
     /**
@@ -555,7 +614,7 @@ public class IslandWorldManager {
      * @return Addon, or empty
      */
     public Optional<Addon> getAddon(World world) {
-        return worldSettings.get(Util.getWorld(world)).getAddon();
+        return getWorldSettings(world).getAddon();
     }
 
 }
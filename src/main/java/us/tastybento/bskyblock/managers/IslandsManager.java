@@ -1,11 +1,13 @@
 package us.tastybento.bskyblock.managers;
 
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
@@ -16,7 +18,6 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Boat;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.material.MaterialData;
@@ -31,9 +32,14 @@ import us.tastybento.bskyblock.database.BSBDatabase;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.lists.Flags;
 import us.tastybento.bskyblock.managers.island.IslandCache;
-import us.tastybento.bskyblock.util.DeleteIslandChunks;
+import us.tastybento.bskyblock.managers.island.IslandDeleter;
+import us.tastybento.bskyblock.managers.island.IslandTracker;
+import us.tastybento.bskyblock.managers.island.MobClearer;
 import us.tastybento.bskyblock.util.Util;
+import us.tastybento.bskyblock.util.teleport.SafeSpotCache;
 import us.tastybento.bskyblock.util.teleport.SafeTeleportBuilder;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
  * The job of this class is manage all island related data.
@@ -44,6 +50,17 @@ import us.tastybento.bskyblock.util.teleport.SafeTeleportBuilder;
  */
 public class IslandsManager {
 
+    /**
+     * Fences cannot be stood on, indexed by material ordinal
+     */
+    private static final boolean[] FENCES = new boolean[Material.values().length];
+    private static final Timer BIG_SCAN = Timings.timer("safespot.big-scan");
+    static {
+        for (Material type : Material.values()) {
+            FENCES[type.ordinal()] = type.toString().contains("FENCE");
+        }
+    }
+
     /**
      * Checks if this location is safe for a player to teleport to. Used by
      * warps and boat exits Unsafe is any liquid or air and also if there's no
@@ -92,7 +109,7 @@ public class IslandsManager {
                 return false;
             }
         }
-        if (ground.getType().equals(Material.CACTUS) || ground.getType().equals(Material.BOAT) || ground.getType().toString().contains("FENCE")
+        if (ground.getType().equals(Material.CACTUS) || ground.getType().equals(Material.BOAT) || FENCES[ground.getType().ordinal()]
                 || ground.getType().equals(Material.SIGN_POST) || ground.getType().equals(Material.WALL_SIGN)) {
             return false;
         }
@@ -120,8 +137,14 @@ public class IslandsManager {
     // Island Cache
     private IslandCache islandCache;
 
-    // Async database saving semaphore
-    private boolean midSave;
+    // Save metrics
+    private volatile int metrics_lastSavedCount;
+
+    // Safe spots found by safe spot teleports
+    private SafeSpotCache safeSpotCache;
+    private IslandTracker tracker;
+    private IslandDeleter deleter;
+    private MobClearer mobClearer;
 
     /**
      * Islands Manager
@@ -131,11 +154,49 @@ public class IslandsManager {
         this.plugin = plugin;
         // Set up the database handler to store and retrieve Island classes
         handler = new BSBDatabase<>(plugin, Island.class);
-        islandCache = new IslandCache();
+        islandCache = new IslandCache(plugin);
+        safeSpotCache = new SafeSpotCache();
+        tracker = new IslandTracker(this);
+        deleter = new IslandDeleter(plugin);
+        mobClearer = new MobClearer(plugin, this);
         spawn = new HashMap<>();
         last = new HashMap<>();
     }
 
+    /**
+     * @return the tracker of which island each online player is on
+     */
+    public IslandTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * @return the deleter of island chunks
+     */
+    public IslandDeleter getDeleter() {
+        return deleter;
+    }
+
+    /**
+     * Gets the island whose protected area this user is in. Online players are answered from the
+     * {@link IslandTracker} without looking up their location.
+     * @param user - user
+     * @return island or empty if the user is not in an island's protected area
+     */
+    public Optional<Island> getCurrentIsland(User user) {
+        if (user.isPlayer() && tracker.isTracked(user.getUniqueId())) {
+            return tracker.getProtectedIsland(user.getUniqueId());
+        }
+        return getProtectedIslandAt(user.getLocation());
+    }
+
+    /**
+     * @return the cache of safe spots found by safe spot teleports
+     */
+    public SafeSpotCache getSafeSpotCache() {
+        return safeSpotCache;
+    }
+
     /**
      * This is a generic scan that can work in the overworld or the nether
      * @param l - location around which to scan
@@ -146,6 +207,15 @@ public class IslandsManager {
         if (l == null) {
             return null;
         }
+        long start = BIG_SCAN.start();
+        try {
+            return scan(l, i);
+        } finally {
+            BIG_SCAN.stop(start);
+        }
+    }
+
+    private Location scan(Location l, int i) {
         final int height;
         final int depth;
         if (i > 0) {
@@ -231,6 +301,10 @@ public class IslandsManager {
     public Island createIsland(Location location, UUID owner){
         Island island = new Island(location, owner, plugin.getIWM().getIslandProtectionRange(location.getWorld()));
         if (islandCache.addIsland(island)) {
+            // Do not let an old deletion remove the new island's blocks
+            deleter.finishOverlapping(island);
+            // Players may already be standing where the island is
+            tracker.refresh(island, Bukkit.getOnlinePlayers());
             return island;
         }
         return null;
@@ -253,10 +327,11 @@ public class IslandsManager {
             removePlayersFromIsland(island);
             // Remove island from the cache
             islandCache.deleteIslandFromCache(island);
+            tracker.removeIsland(island);
             // Remove the island from the database
             handler.deleteObject(island);
             // Remove blocks from world
-            new DeleteIslandChunks(plugin, island);
+            deleter.delete(island);
         }
     }
 
@@ -646,7 +721,19 @@ public class IslandsManager {
      */
     public void load(){
         islandCache.clear();
-        handler.loadObjects().forEach(islandCache::addIsland);
+        List<Island> islands = handler.loadObjects();
+        long start = System.nanoTime();
+        // Islands are indexed in the order they were loaded
+        islands.forEach(island -> {
+            // Just loaded, so it matches the database
+            island.setDirty(false);
+            islandCache.addIsland(island);
+        });
+        plugin.log("Indexed " + islandCache.size() + " islands in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        // Work out where any online players are
+        tracker.reset(Bukkit.getOnlinePlayers());
+        // Carry on with any deletions that were not finished
+        deleter.load();
     }
 
     /**
@@ -685,7 +772,14 @@ public class IslandsManager {
         if (user == null) {
             return false;
         }
-        return Optional.ofNullable(getIsland(world, user)).map(i -> i.onIsland(user.getLocation())).orElse(false);
+        Island island = getIsland(world, user);
+        if (island == null) {
+            return false;
+        }
+        if (user.isPlayer() && tracker.isTracked(user.getUniqueId())) {
+            return tracker.getProtectedIsland(user.getUniqueId()).map(i -> i == island).orElse(false);
+        }
+        return island.onIsland(user.getLocation());
     }
 
     /**
@@ -715,8 +809,9 @@ public class IslandsManager {
      */
     public void removePlayersFromIsland(Island island) {
         // Teleport players away
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (island.inIslandSpace(player.getLocation().getBlockX(), player.getLocation().getBlockZ())) {
+        for (UUID uuid : tracker.getOccupants(island)) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
                 // Teleport island players to their island home
                 if (hasIsland(island.getWorld(), player.getUniqueId()) || plugin.getIslands().inTeam(island.getWorld(), player.getUniqueId())) {
                     homeTeleport(island.getWorld(), player);
@@ -736,37 +831,54 @@ public class IslandsManager {
     }
 
     /**
-     * Save the islands to the database
-     * @param async - if true, saving will be done async
+     * Save the islands that have changed since they were last saved to the database.
+     * Islands are queued and written by the database writer thread, so this returns quickly.
+     * @param async - not used, saving is always done by the database writer thread. Kept for compatibility.
      */
     public void save(boolean async){
-        if (midSave) {
-            // If it's already saving, then do nothing
+        // Islands that the database writer could not save
+        handler.takeFailed().forEach(island -> island.setDirty(true));
+        List<Island> dirty = islandCache.getIslands().stream().filter(Island::isDirty).collect(Collectors.toList());
+        if (dirty.isEmpty()) {
             return;
         }
-        Collection<Island> collection = islandCache.getIslands();
-        if(async) {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                midSave = true;
-                for(Island island : collection){
-                    try {
-                        handler.saveObject(island);
-                    } catch (Exception e) {
-                        plugin.logError("Could not save island to database when running async! " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-                midSave = false;
-            });
-        } else {
-            for(Island island : collection){
-                try {
-                    handler.saveObject(island);
-                } catch (Exception e) {
-                    plugin.logError("Could not save island to database when running sync! " + e.getMessage());
-                }
+        for (Island island : dirty) {
+            // Mark it clean now so that any change made after queuing marks it dirty again
+            island.setDirty(false);
+            if (!handler.saveObject(island)) {
+                // Try again next time
+                island.setDirty(true);
             }
         }
+        metrics_lastSavedCount = dirty.size();
+    }
+
+    /**
+     * @return number of islands that have changed and are waiting to be saved
+     */
+    public int metrics_getDirtyCount() {
+        return (int)islandCache.getIslands().stream().filter(Island::isDirty).count();
+    }
+
+    /**
+     * @return number of islands written by the last save
+     */
+    public int metrics_getLastSavedCount() {
+        return metrics_lastSavedCount;
+    }
+
+    /**
+     * @return how long the database writer took in milliseconds to write the last batch of saves
+     */
+    public long metrics_getLastSaveTime() {
+        return handler.getLastFlushTime();
+    }
+
+    /**
+     * @return number of island saves and deletes waiting to be written to the database
+     */
+    public int metrics_getQueuedCount() {
+        return handler.getQueueSize();
     }
 
     /**
@@ -800,6 +912,8 @@ public class IslandsManager {
     public void shutdown(){
         save(false);
         islandCache.clear();
+        deleter.shutdown();
+        // Writes everything still queued
         handler.close();
     }
 
@@ -849,20 +963,34 @@ public class IslandsManager {
                         + range + " for " + user.getName() + " due to permission.");
             }
             island.setProtectionRange(range);
-
+            // The protection border may have moved past players
+            tracker.refresh(island, Bukkit.getOnlinePlayers());
         }
 
     }
 
     /**
      * Clear an area of mobs as per world rules. Radius is 5 blocks in every direction.
+     * The clear is queued and done within the next few ticks. See {@link MobClearer}.
      * @param loc - location to clear
      */
     public void clearArea(Location loc) {
-        loc.getWorld().getNearbyEntities(loc, 5D, 5D, 5D).stream()
-        .filter(en -> (en instanceof Monster))
-        .filter(en -> !plugin.getIWM().getRemoveMobsWhitelist(loc.getWorld()).contains(en.getType()))
-        .forEach(Entity::remove);
+        mobClearer.queue(loc);
+    }
+
+    /**
+     * Clear an area of mobs as per world rules straight away. Radius is 5 blocks in every direction.
+     * @param loc - location to clear
+     */
+    public void clearAreaNow(Location loc) {
+        mobClearer.clear(loc);
+    }
+
+    /**
+     * @return the clearer of mobs around arriving players
+     */
+    public MobClearer getMobClearer() {
+        return mobClearer;
     }
 
 }
@@ -1,12 +1,19 @@
 package us.tastybento.bskyblock.managers;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -17,16 +24,39 @@ import us.tastybento.bskyblock.api.user.User;
 import us.tastybento.bskyblock.database.BSBDatabase;
 import us.tastybento.bskyblock.database.objects.Names;
 import us.tastybento.bskyblock.database.objects.Players;
+import us.tastybento.bskyblock.managers.player.NameCache;
+import us.tastybento.bskyblock.managers.player.PlayerCache;
 
 public class PlayersManager {
 
+    /**
+     * Most names to keep in memory
+     */
+    private static final int NAME_CACHE_SIZE = 10000;
+    /**
+     * Most offline players to keep in memory
+     */
+    private static final int OFFLINE_CACHE_SIZE = 1000;
+    /**
+     * How long an offline player is kept in memory after they were last used
+     */
+    private static final long OFFLINE_CACHE_EXPIRY = TimeUnit.MINUTES.toNanos(10);
+
     private BSkyBlock plugin;
     private BSBDatabase<Players> handler;
     private BSBDatabase<Names> names;
 
-    private Map<UUID, Players> playerCache;
+    private PlayerCache playerCache;
     private Set<UUID> inTeleport;
 
+    private NameCache nameCache;
+    /**
+     * Runs name and UUID look ups that need the database or Bukkit's offline players
+     */
+    private ExecutorService lookups;
+    private Map<String, CompletableFuture<UUID>> pendingUUIDs = new ConcurrentHashMap<>();
+    private Map<UUID, CompletableFuture<String>> pendingNames = new ConcurrentHashMap<>();
+
     /**
      * Provides a memory cache of online player information
      * This is the one-stop-shop of player info
@@ -40,8 +70,23 @@ public class PlayersManager {
         handler = new BSBDatabase<>(plugin, Players.class);
         // Set up the names database
         names = new BSBDatabase<>(plugin, Names.class);
-        playerCache = new HashMap<>();
+        playerCache = new PlayerCache(OFFLINE_CACHE_SIZE, OFFLINE_CACHE_EXPIRY, this::save);
         inTeleport = new HashSet<>();
+        nameCache = new NameCache(NAME_CACHE_SIZE);
+        lookups = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "BSkyBlock-Names");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Fill the name cache in the background
+        lookups.execute(this::loadNames);
+    }
+
+    /**
+     * Loads the known names into the name cache
+     */
+    private void loadNames() {
+        names.loadObjects().stream().limit(NAME_CACHE_SIZE).forEach(n -> nameCache.putIfAbsent(n.getUniqueId(), n.getUuid()));
     }
 
 
@@ -51,39 +96,120 @@ public class PlayersManager {
     public void load(){
         playerCache.clear();
         inTeleport.clear();
-        handler.loadObjects().forEach(p -> playerCache.put(p.getPlayerUUID(), p));
+        handler.loadObjects().forEach(p -> {
+            p.setDirty(false);
+            playerCache.put(p.getPlayerUUID(), p, Bukkit.getPlayer(p.getPlayerUUID()) != null);
+        });
     }
 
     /**
-     * Save all players
-     * @param async - if true, save async
+     * Save all players that have changed since they were last saved.
+     * Players are queued and written by the database writer thread, so this returns quickly.
+     * @param async - not used, saving is always done by the database writer thread. Kept for compatibility.
      */
     public void save(boolean async){
-        Collection<Players> set = Collections.unmodifiableCollection(playerCache.values());
-        if(async) {
-            Runnable save = () -> set.forEach(handler::saveObject);
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, save);
-        } else {
-            set.forEach(handler::saveObject);
+        // Players that the database writer could not save. They may no longer be cached, so save them directly.
+        handler.takeFailed().forEach(player -> {
+            player.setDirty(true);
+            save(player);
+        });
+        playerCache.getAll().forEach(this::save);
+        // Drop offline players that have not been used for a while
+        playerCache.expire();
+    }
+
+    /**
+     * Saves the player if they have changed
+     * @param player - player
+     */
+    private void save(Players player) {
+        if (player.isDirty()) {
+            // Mark it clean now so that any change made after queuing marks it dirty again
+            player.setDirty(false);
+            if (!handler.saveObject(player)) {
+                // Try again next time
+                player.setDirty(true);
+            }
         }
     }
 
+    /**
+     * @return number of cached players that have changed and are waiting to be saved
+     */
+    public int metrics_getDirtyCount() {
+        return (int)playerCache.getAll().stream().filter(Players::isDirty).count();
+    }
+
+    /**
+     * @return number of player look ups that found the player in memory
+     */
+    public long metrics_getCacheHits() {
+        return playerCache.getHits();
+    }
+
+    /**
+     * @return number of player look ups that had to load or create the player
+     */
+    public long metrics_getCacheMisses() {
+        return playerCache.getMisses();
+    }
+
+    /**
+     * @return number of offline players dropped from memory for space or age
+     */
+    public long metrics_getCacheEvictions() {
+        return playerCache.getEvictions();
+    }
+
+    /**
+     * @return number of players in memory
+     */
+    public int metrics_getCacheSize() {
+        return playerCache.size();
+    }
+
+    /**
+     * @return how long the database writer took in milliseconds to write the last batch of saves
+     */
+    public long metrics_getLastSaveTime() {
+        return handler.getLastFlushTime();
+    }
+
     public void shutdown(){
+        lookups.shutdownNow();
         save(false);
         playerCache.clear();
+        // Writes everything still queued
         handler.close();
+        names.close();
     }
 
     /**
-     * Get player by UUID. Adds player to cache if not in there already
+     * Get player by UUID. Adds player to cache if not in there already.
+     * Online players stay in the cache until they log out. Offline players are dropped when they have not been used for a while.
      * @param uuid of player
      * @return player object or null if it does not exist
      */
     public Players getPlayer(UUID uuid){
-        if (!playerCache.containsKey(uuid)) {
-            addPlayer(uuid);
+        if (uuid == null) {
+            return null;
+        }
+        Players player = playerCache.get(uuid);
+        if (player == null) {
+            // If the player is in the database, load it, otherwise create a new player
+            if (handler.objectExists(uuid.toString())) {
+                player = handler.loadObject(uuid.toString());
+                if (player != null) {
+                    player.setDirty(false);
+                }
+            } else {
+                player = new Players(plugin, uuid);
+            }
+            if (player != null) {
+                playerCache.put(uuid, player, Bukkit.getPlayer(uuid) != null);
+            }
         }
-        return playerCache.get(uuid);
+        return player;
     }
 
     /*
@@ -95,19 +221,55 @@ public class PlayersManager {
      * @param playerUUID - the player's UUID
      */
     public void addPlayer(UUID playerUUID) {
-        if (playerUUID == null) {
-            return;
+        getPlayer(playerUUID);
+    }
+
+    /**
+     * Keeps this player in the cache until they log out. Used when a player who is already cached logs in.
+     * @param playerUUID - the player's UUID
+     */
+    public void setOnline(UUID playerUUID) {
+        playerCache.pin(playerUUID);
+    }
+
+    /**
+     * Loads players into the cache in the background, e.g., before walking through many offline players.
+     * Players that are not in the database are skipped. Only as many players as the offline cache can hold are kept.
+     * @param uuids - players' UUIDs
+     * @return future that is completed on the server thread once the players are in the cache
+     */
+    public CompletableFuture<Void> prefetch(Collection<UUID> uuids) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        List<UUID> toLoad = uuids.stream().filter(u -> u != null && !playerCache.contains(u)).distinct().collect(Collectors.toList());
+        if (toLoad.isEmpty()) {
+            result.complete(null);
+            return result;
         }
-        if (!playerCache.containsKey(playerUUID)) {
-            Players player;
-            // If the player is in the database, load it, otherwise create a new player
-            if (handler.objectExists(playerUUID.toString())) {
-                player = handler.loadObject(playerUUID.toString());
-            } else {
-                player = new Players(plugin, playerUUID);
+        lookups.execute(() -> {
+            List<Players> loaded = new ArrayList<>();
+            try {
+                for (UUID uuid : toLoad) {
+                    if (handler.objectExists(uuid.toString())) {
+                        Players player = handler.loadObject(uuid.toString());
+                        if (player != null) {
+                            player.setDirty(false);
+                            loaded.add(player);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+                return;
             }
-            playerCache.put(playerUUID, player);
-        }
+            // The cache is only changed on the server thread
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Anything loaded in the meantime is newer
+                loaded.stream().filter(p -> !playerCache.contains(p.getPlayerUUID()))
+                .forEach(p -> playerCache.put(p.getPlayerUUID(), p, Bukkit.getPlayer(p.getPlayerUUID()) != null));
+                result.complete(null);
+            });
+        });
+        return result;
     }
 
     /**
@@ -125,7 +287,7 @@ public class PlayersManager {
      * Saves all players on the server and clears the cache
      */
     public void removeAllPlayers() {
-        playerCache.keySet().forEach(this::save);
+        playerCache.getAll().forEach(this::save);
         playerCache.clear();
     }
 
@@ -144,7 +306,7 @@ public class PlayersManager {
             return false;
         }
         // Try cache
-        return playerCache.containsKey(uniqueID) || handler.objectExists(uniqueID.toString());
+        return playerCache.contains(uniqueID) || handler.objectExists(uniqueID.toString());
 // Get from the database - do not add to cache yet
     }
 
@@ -155,8 +317,7 @@ public class PlayersManager {
      * @param number - a number - 1 is default. Can be any number.
      */
     public void setHomeLocation(User user, Location location, int number) {
-        addPlayer(user.getUniqueId());
-        playerCache.get(user.getUniqueId()).setHomeLocation(location,number);
+        getPlayer(user.getUniqueId()).setHomeLocation(location,number);
     }
     
     /**
@@ -166,8 +327,7 @@ public class PlayersManager {
      * @param number - a number - 1 is default. Can be any number.
      */
     public void setHomeLocation(UUID playerUUID, Location location, int number) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).setHomeLocation(location,number);
+        getPlayer(playerUUID).setHomeLocation(location,number);
     }
 
     /**
@@ -176,8 +336,7 @@ public class PlayersManager {
      * @param location - the location
      */
     public void setHomeLocation(UUID playerUUID, Location location) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).setHomeLocation(location,1);
+        getPlayer(playerUUID).setHomeLocation(location,1);
     }
 
     /**
@@ -186,8 +345,7 @@ public class PlayersManager {
      * @param playerUUID - the player's UUID
      */
     public void clearHomeLocations(World world, UUID playerUUID) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).clearHomeLocations(world);
+        getPlayer(playerUUID).clearHomeLocations(world);
     }
 
     /**
@@ -199,8 +357,7 @@ public class PlayersManager {
      * @return Home location or null if none
      */
     public Location getHomeLocation(World world, User user, int number) {
-        addPlayer(user.getUniqueId());
-        return playerCache.get(user.getUniqueId()).getHomeLocation(world, number);
+        return getPlayer(user.getUniqueId()).getHomeLocation(world, number);
     }
     
     /**
@@ -212,8 +369,7 @@ public class PlayersManager {
      * @return Home location or null if none
      */
     public Location getHomeLocation(World world, UUID playerUUID, int number) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getHomeLocation(world, number);
+        return getPlayer(playerUUID).getHomeLocation(world, number);
     }
 
     /**
@@ -222,8 +378,7 @@ public class PlayersManager {
      * @return Home location or null if none
      */
     public Location getHomeLocation(World world, UUID playerUUID) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getHomeLocation(world, 1);
+        return getPlayer(playerUUID).getHomeLocation(world, 1);
     }
 
     /**
@@ -232,17 +387,41 @@ public class PlayersManager {
      * @return List of home locations
      */
     public Map<Location, Integer> getHomeLocations(World world, UUID playerUUID) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getHomeLocations(world);
+        return getPlayer(playerUUID).getHomeLocations(world);
     }
 
     /**
      * Attempts to return a UUID for a given player's name.
+     * Online players and the name cache are checked first. If the name is not known, the database and finally Bukkit
+     * are asked, which blocks. Use {@link #getUUIDAsync(String)} where blocking is not acceptable.
      * @param name - name of player
      * @return UUID of player or null if unknown
      */
-    @SuppressWarnings("deprecation")
     public UUID getUUID(String name) {
+        UUID uuid = getCachedUUID(name);
+        return uuid != null ? uuid : lookUpUUID(name);
+    }
+
+    /**
+     * Gets the UUID for a player's name. If the name is not in memory, the database and then Bukkit are asked
+     * on a background thread.
+     * @param name - name of player
+     * @return future UUID of player. The future is completed on a background thread unless the name is in memory.
+     */
+    public CompletableFuture<UUID> getUUIDAsync(String name) {
+        UUID uuid = getCachedUUID(name);
+        if (uuid != null) {
+            return CompletableFuture.completedFuture(uuid);
+        }
+        return lookUp(pendingUUIDs, name, this::lookUpUUID);
+    }
+
+    /**
+     * Gets the UUID for a name from memory only
+     * @param name - name of player, or a UUID as a string
+     * @return UUID or null if not in memory
+     */
+    private UUID getCachedUUID(String name) {
         // See if this is a UUID
         // example: 5988eecd-1dcd-4080-a843-785b62419abb
         if (name.length() == 36 && name.contains("-")) {
@@ -250,13 +429,11 @@ public class PlayersManager {
                 return UUID.fromString(name);
             } catch (Exception ignored) {}
         }
-        // Look in the name cache, then the data base and finally Bukkit blocking request
-        return playerCache.values().stream()
+        // Look in the player cache, then the name cache
+        return playerCache.getOnline().stream()
                 .filter(p -> p.getPlayerName().equalsIgnoreCase(name)).findFirst()
                 .map(p -> UUID.fromString(p.getUniqueId()))
-                .orElse(names.objectExists(name)
-                        ? names.loadObject(name).getUuid()
-                                : Bukkit.getOfflinePlayer(name).getUniqueId());
+                .orElseGet(() -> nameCache.getUUID(name));
     }
 
     /**
@@ -264,25 +441,96 @@ public class PlayersManager {
      * @param user - the User
      */
     public void setPlayerName(User user) {
-        addPlayer(user.getUniqueId());
-        playerCache.get(user.getUniqueId()).setPlayerName(user.getName());
+        getPlayer(user.getUniqueId()).setPlayerName(user.getName());
+        nameCache.put(user.getName(), user.getUniqueId());
         // Add to names database
         names.saveObject(new Names(user.getName(), user.getUniqueId()));
     }
 
     /**
-     * Obtains the name of the player from their UUID
-     * Player must have logged into the game before
+     * Obtains the name of the player from their UUID.
+     * The player cache and the name cache are checked first. If the name is not known, the database and finally Bukkit
+     * are asked, which blocks. Use {@link #getNameAsync(UUID)} or {@link #prefetch(Collection)} where blocking is not acceptable.
      *
      * @param playerUUID - the player's UUID
-     * @return String - playerName, empty string if UUID is null
+     * @return String - playerName, empty string if UUID is null, or the UUID as a string if the player has never been seen
      */
     public String getName(UUID playerUUID) {
         if (playerUUID == null) {
             return "";
         }
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getPlayerName();
+        String name = getCachedName(playerUUID);
+        return name != null ? name : lookUpName(playerUUID);
+    }
+
+    /**
+     * Gets the name of a player. If the name is not in memory, the database and then Bukkit are asked on a background thread.
+     * @param playerUUID - the player's UUID
+     * @return future name of the player, or the UUID as a string if they have never been seen.
+     * The future is completed on a background thread unless the name is in memory.
+     */
+    public CompletableFuture<String> getNameAsync(UUID playerUUID) {
+        if (playerUUID == null) {
+            return CompletableFuture.completedFuture("");
+        }
+        String name = getCachedName(playerUUID);
+        if (name != null) {
+            return CompletableFuture.completedFuture(name);
+        }
+        return lookUp(pendingNames, playerUUID, this::lookUpName);
+    }
+
+    private String getCachedName(UUID playerUUID) {
+        Players player = playerCache.peek(playerUUID);
+        return player != null ? player.getPlayerName() : nameCache.getName(playerUUID);
+    }
+
+    /**
+     * Runs a look up on the look up thread unless the same one is already running
+     */
+    private <K, V> CompletableFuture<V> lookUp(Map<K, CompletableFuture<V>> pending, K key, Function<K, V> lookUp) {
+        CompletableFuture<V> future = pending.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> lookUp.apply(k), lookups));
+        future.whenComplete((v, t) -> pending.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Finds the UUID for a name in the names database or from Bukkit. Blocks.
+     * The answer is cached even for players that have never joined, so they are not looked up again.
+     */
+    @SuppressWarnings("deprecation")
+    private UUID lookUpUUID(String name) {
+        UUID uuid = null;
+        if (names.objectExists(name)) {
+            Names n = names.loadObject(name);
+            uuid = n == null ? null : n.getUuid();
+        }
+        if (uuid == null) {
+            uuid = Bukkit.getOfflinePlayer(name).getUniqueId();
+        }
+        if (uuid != null) {
+            nameCache.put(name, uuid);
+        }
+        return uuid;
+    }
+
+    /**
+     * Finds the name for a UUID in the players database or from Bukkit. Blocks.
+     */
+    private String lookUpName(UUID playerUUID) {
+        String name = null;
+        if (handler.objectExists(playerUUID.toString())) {
+            Players player = handler.loadObject(playerUUID.toString());
+            name = player == null ? null : player.getPlayerName();
+        }
+        if (name == null) {
+            name = Bukkit.getOfflinePlayer(playerUUID).getName();
+        }
+        if (name == null) {
+            return playerUUID.toString();
+        }
+        nameCache.put(name, playerUUID);
+        return name;
     }
 
     /**
@@ -292,8 +540,7 @@ public class PlayersManager {
      * @return number of resets
      */
     public int getResetsLeft(UUID playerUUID) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getResetsLeft();
+        return getPlayer(playerUUID).getResetsLeft();
     }
 
     /**
@@ -303,8 +550,7 @@ public class PlayersManager {
      * @param resets - number of resets
      */
     public void setResetsLeft(UUID playerUUID, int resets) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).setResetsLeft(resets);
+        getPlayer(playerUUID).setResetsLeft(resets);
     }
 
     /**
@@ -316,8 +562,7 @@ public class PlayersManager {
      * @return time to wait in minutes/hours
      */
     public long getInviteCoolDownTime(UUID playerUUID, Location location) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getInviteCoolDownTime(location);
+        return getPlayer(playerUUID).getInviteCoolDownTime(location);
     }
 
     /**
@@ -329,8 +574,7 @@ public class PlayersManager {
      * @param location - the location
      */
     public void startInviteCoolDownTimer(UUID playerUUID, Location location) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).startInviteCoolDownTimer(location);
+        getPlayer(playerUUID).startInviteCoolDownTimer(location);
     }
 
     /**
@@ -339,11 +583,10 @@ public class PlayersManager {
      * @return name of the locale this player uses
      */
     public String getLocale(UUID playerUUID) {
-        addPlayer(playerUUID);
         if (playerUUID == null) {
             return "";
         }
-        return playerCache.get(playerUUID).getLocale();
+        return getPlayer(playerUUID).getLocale();
     }
 
     /**
@@ -352,8 +595,7 @@ public class PlayersManager {
      * @param localeName - locale name, e.g., en-US
      */
     public void setLocale(UUID playerUUID, String localeName) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).setLocale(localeName);
+        getPlayer(playerUUID).setLocale(localeName);
     }
 
     /**
@@ -361,8 +603,7 @@ public class PlayersManager {
      * @param playerUUID - the player's UUID
      */
     public void addDeath(UUID playerUUID) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).addDeath();
+        getPlayer(playerUUID).addDeath();
     }
 
     /**
@@ -371,8 +612,7 @@ public class PlayersManager {
      * @param deaths - number of deaths
      */
     public void setDeaths(UUID playerUUID, int deaths) {
-        addPlayer(playerUUID);
-        playerCache.get(playerUUID).setDeaths(deaths);
+        getPlayer(playerUUID).setDeaths(deaths);
     }
 
     /**
@@ -381,8 +621,7 @@ public class PlayersManager {
      * @return number of deaths
      */
     public int getDeaths(UUID playerUUID) {
-        addPlayer(playerUUID);
-        return playerCache.get(playerUUID).getDeaths();
+        return getPlayer(playerUUID).getDeaths();
     }
 
     /**
@@ -414,8 +653,9 @@ public class PlayersManager {
      * @param playerUUID - the player's UUID
      */
     public void save(UUID playerUUID) {
-        if (playerCache.containsKey(playerUUID)) {
-            handler.saveObject(playerCache.get(playerUUID));
+        Players player = playerCache.peek(playerUUID);
+        if (player != null) {
+            save(player);
         }
     }
 
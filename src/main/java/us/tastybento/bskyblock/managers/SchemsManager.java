@@ -13,11 +13,13 @@ import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.addons.Addon;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.island.builders.Clipboard;
+import us.tastybento.bskyblock.island.builders.PasteQueue;
 
 public class SchemsManager {
 
     private BSkyBlock plugin;
     private Map<World, Clipboard> islandSchems;
+    private PasteQueue pasteQueue;
 
     /**
      * @param plugin
@@ -25,6 +27,14 @@ public class SchemsManager {
     public SchemsManager(BSkyBlock plugin) {
         this.plugin = plugin;
         islandSchems = new HashMap<>();
+        pasteQueue = new PasteQueue(plugin);
+    }
+
+    /**
+     * @return the queue that all pastes share
+     */
+    public PasteQueue getPasteQueue() {
+        return pasteQueue;
     }
 
     private void copySchems(File schems, World world, String name) {
@@ -79,7 +89,7 @@ public class SchemsManager {
         copySchems(schems, world, name);
         try {
             Clipboard cb = new Clipboard(plugin, schems);
-            cb.load(name);
+            cb.loadBlocks(name);
             islandSchems.put(world, cb);
         } catch (IOException | InvalidConfigurationException e) {
             plugin.logError("Could not load " + name + " schem");
@@ -7,25 +7,47 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.api.configuration.WorldSettings;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.util.Util;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
+/**
+ * Holds all the islands in memory and indexes them by center location, player UUID and grid location.
+ * <p>
+ * Thread-safety: changes are expected to be made on the server thread and are serialized by this object's
+ * monitor. Reads take no lock and can be made from any thread, e.g., async saving or safe spot searching.
+ * Readers never get a {@link java.util.ConcurrentModificationException}. They see a weakly consistent view:
+ * an island is put in the UUID and grid indexes before it appears in {@link #getIslands()} and is taken
+ * out of {@link #getIslands()} first when it is deleted, so iterating the islands never returns one that is
+ * only partly indexed. The contents of each {@link Island} are not covered by this guarantee.
+ */
 public class IslandCache {
-    private Map<Location, Island> islandsByLocation;
+    private static final Timer LOOKUP = Timings.sampledTimer("island.lookup");
+
+    private final Map<Location, Island> islandsByLocation;
     /**
      * Every player who is associated with an island is in this map.
      */
-    private Map<World, Map<UUID, Island>> islandsByUUID;
-    private Map<World, IslandGrid> grids;
+    private final Map<World, Map<UUID, Island>> islandsByUUID;
+    private final Map<World, IslandGrid> grids;
+    private final BSkyBlock plugin;
 
-    public IslandCache() {
-        islandsByLocation = new HashMap<>();
-        islandsByUUID = new HashMap<>();
-        grids = new HashMap<>();
+    /**
+     * @param plugin - plugin, used to get the island grid settings of each world
+     */
+    public IslandCache(BSkyBlock plugin) {
+        this.plugin = plugin;
+        islandsByLocation = new ConcurrentHashMap<>();
+        islandsByUUID = new ConcurrentHashMap<>();
+        grids = new ConcurrentHashMap<>();
     }
 
     /**
@@ -33,19 +55,20 @@ public class IslandCache {
      * @param island - island to add
      * @return true if successfully added, false if not
      */
-    public boolean addIsland(Island island) {
+    public synchronized boolean addIsland(Island island) {
         if (island.getCenter() == null || island.getWorld() == null) {
             return false;
         }
-        islandsByLocation.put(island.getCenter(), island);
-        // Make world
-        islandsByUUID.putIfAbsent(island.getWorld(), new HashMap<>());
         // Only add islands to this map if they are owned
         if (island.getOwner() != null) {
-            islandsByUUID.get(island.getWorld()).put(island.getOwner(), island);
-            island.getMemberSet().forEach(member -> islandsByUUID.get(island.getWorld()).put(member, island));
+            Map<UUID, Island> byUUID = getOrCreateUUIDMap(island.getWorld());
+            byUUID.put(island.getOwner(), island);
+            island.getMemberSet().forEach(member -> byUUID.put(member, island));
         }
-        return addToGrid(island);
+        boolean result = addToGrid(island);
+        // Added last so that iterators only see fully indexed islands
+        islandsByLocation.put(island.getCenter(), island);
+        return result;
     }
 
     /**
@@ -53,9 +76,8 @@ public class IslandCache {
      * @param uuid - player's uuid
      * @param island - island to associate with this uuid. Only one island can be associated per world.
      */
-    public void addPlayer(UUID uuid, Island island) {
-        islandsByUUID.putIfAbsent(island.getWorld(), new HashMap<>());
-        islandsByUUID.get(island.getWorld()).put(uuid, island);
+    public synchronized void addPlayer(UUID uuid, Island island) {
+        getOrCreateUUIDMap(island.getWorld()).put(uuid, island);
     }
 
     /**
@@ -64,13 +86,18 @@ public class IslandCache {
      * @return true if successfully added, false if not
      */
     private boolean addToGrid(Island newIsland) {
-        grids.putIfAbsent(newIsland.getWorld(), new IslandGrid());
-        return grids.get(newIsland.getWorld()).addToGrid(newIsland);
+        return grids.computeIfAbsent(newIsland.getWorld(), this::makeGrid).addToGrid(newIsland);
+    }
+
+    private IslandGrid makeGrid(World world) {
+        WorldSettings ws = plugin.getIWM().getWorldSettings(world);
+        return ws == null ? new IslandGrid(0, 0, 0) : new IslandGrid(ws.getIslandDistance(), ws.getIslandXOffset(), ws.getIslandZOffset());
     }
 
-    public void clear() {
+    public synchronized void clear() {
         islandsByLocation.clear();
         islandsByUUID.clear();
+        grids.clear();
     }
 
     /**
@@ -78,14 +105,15 @@ public class IslandCache {
      * @param island - island to delete
      * @return true if successful, false if not
      */
-    public boolean deleteIslandFromCache(Island island) {
-        if (!islandsByLocation.remove(island.getCenter(), island) || !islandsByUUID.containsKey(island.getWorld())) {
+    public synchronized boolean deleteIslandFromCache(Island island) {
+        if (island.getCenter() == null || island.getWorld() == null
+                || !islandsByLocation.remove(island.getCenter(), island) || !islandsByUUID.containsKey(island.getWorld())) {
             return false;
         }
-        islandsByUUID.get(island.getWorld()).entrySet().removeIf(en -> en.getValue().equals(island));
+        islandsByUUID.get(island.getWorld()).values().removeIf(island::equals);
         // Remove from grid
-        grids.putIfAbsent(island.getWorld(), new IslandGrid());
-        return grids.get(island.getWorld()).removeFromGrid(island);
+        IslandGrid grid = grids.get(island.getWorld());
+        return grid != null && grid.removeFromGrid(island);
     }
 
     /**
@@ -94,7 +122,7 @@ public class IslandCache {
      * @return island or null if it does not exist
      */
     public Island get(Location location) {
-        return islandsByLocation.get(location);
+        return location == null ? null : islandsByLocation.get(location);
     }
 
     /**
@@ -104,7 +132,11 @@ public class IslandCache {
      * @return island or null if none
      */
     public Island get(World world, UUID uuid) {
-        return islandsByUUID.containsKey(Util.getWorld(world)) ? islandsByUUID.get(Util.getWorld(world)).get(uuid) : null;
+        if (uuid == null) {
+            return null;
+        }
+        Map<UUID, Island> byUUID = getUUIDMap(world);
+        return byUUID == null ? null : byUUID.get(uuid);
     }
 
     /**
@@ -115,12 +147,23 @@ public class IslandCache {
      * @return Island object
      */
     public Island getIslandAt(Location location) {
-        if (location == null || !grids.containsKey(Util.getWorld(location.getWorld()))) {
+        if (location == null) {
             return null;
         }
-        return grids.get(Util.getWorld(location.getWorld())).getIslandAt(location.getBlockX(), location.getBlockZ());
+        long start = LOOKUP.start();
+        try {
+            World world = Util.getWorld(location.getWorld());
+            IslandGrid grid = world == null ? null : grids.get(world);
+            return grid == null ? null : grid.getIslandAt(location.getBlockX(), location.getBlockZ());
+        } finally {
+            LOOKUP.stop(start);
+        }
     }
 
+    /**
+     * Gets all the islands. The collection is a live, unmodifiable view that can be iterated from any thread.
+     * @return collection of islands
+     */
     public Collection<Island> getIslands() {
         return Collections.unmodifiableCollection(islandsByLocation.values());
     }
@@ -131,8 +174,7 @@ public class IslandCache {
      * @return set of UUID's of island members. If there is no island, this set will be empty
      */
     public Set<UUID> getMembers(World world, UUID uuid) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
+        Island island = get(world, uuid);
         if (island != null) {
             return island.getMemberSet();
         }
@@ -145,8 +187,7 @@ public class IslandCache {
      * @return team leader's UUID, the player UUID if they are not in a team, or null if there is no island
      */
     public UUID getTeamLeader(World world, UUID uuid) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
+        Island island = get(world, uuid);
         if (island != null) {
             return island.getOwner();
         }
@@ -155,13 +196,12 @@ public class IslandCache {
 
     /**
      * @param world - the world to check
-     * @param uuid - the player
+     * @param uuid - player's uuid
      * @return true if player has island and owns it
      */
     public boolean hasIsland(World world, UUID uuid) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
-        return island != null && island.getOwner().equals(uuid);
+        Island island = get(world, uuid);
+        return island != null && uuid.equals(island.getOwner());
     }
 
     /**
@@ -170,21 +210,23 @@ public class IslandCache {
      * @param world - world
      * @param uuid - player's UUID
      */
-    public void removePlayer(World world, UUID uuid) {
-        world = Util.getWorld(world);
-        islandsByUUID.putIfAbsent(world, new HashMap<>());
-        Island island = islandsByUUID.get(world).get(uuid);
+    public synchronized void removePlayer(World world, UUID uuid) {
+        Map<UUID, Island> byUUID = getUUIDMap(world);
+        if (uuid == null || byUUID == null) {
+            return;
+        }
+        Island island = byUUID.get(uuid);
         if (island != null) {
             if (island.getOwner() != null && island.getOwner().equals(uuid)) {
                 // Clear ownership and members
-                island.getMembers().clear();
+                island.setMembers(new HashMap<>());
                 island.setOwner(null);
             } else {
                 // Remove player from the island membership
                 island.removeMember(uuid);
             }
         }
-        islandsByUUID.get(world).remove(uuid);
+        byUUID.remove(uuid);
     }
 
     /**
@@ -200,11 +242,28 @@ public class IslandCache {
      * @param island - island
      * @param newOwnerUUID - new owner
      */
-    public void setOwner(Island island, UUID newOwnerUUID) {
+    public synchronized void setOwner(Island island, UUID newOwnerUUID) {
         island.setOwner(newOwnerUUID);
-        islandsByUUID.putIfAbsent(Util.getWorld(island.getWorld()), new HashMap<>());
-        islandsByUUID.get(Util.getWorld(island.getWorld())).put(newOwnerUUID, island);
-        islandsByLocation.put(island.getCenter(), island);
+        if (newOwnerUUID != null) {
+            getOrCreateUUIDMap(Util.getWorld(island.getWorld())).put(newOwnerUUID, island);
+        }
+        if (island.getCenter() != null) {
+            islandsByLocation.put(island.getCenter(), island);
+        }
+    }
+
+    /**
+     * Read-only look up of the UUID map for a world. Does not create or change anything.
+     * @param world - world
+     * @return map or null if there is none for this world
+     */
+    private Map<UUID, Island> getUUIDMap(World world) {
+        World w = Util.getWorld(world);
+        return w == null ? null : islandsByUUID.get(w);
+    }
+
+    private Map<UUID, Island> getOrCreateUUIDMap(World world) {
+        return islandsByUUID.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
     }
 
 }
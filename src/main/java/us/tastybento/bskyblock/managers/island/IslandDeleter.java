@@ -0,0 +1,413 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.api.events.IslandBaseEvent;
+import us.tastybento.bskyblock.api.events.island.IslandDeleteProgressEvent;
+import us.tastybento.bskyblock.api.events.island.IslandEvent;
+import us.tastybento.bskyblock.api.events.island.IslandEvent.Reason;
+import us.tastybento.bskyblock.database.BSBDatabase;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.database.objects.IslandDeletion;
+import us.tastybento.bskyblock.managers.IslandWorldManager;
+import us.tastybento.bskyblock.util.LongObjectMap;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
+
+/**
+ * Deletes islands by regenerating their chunks, spending no more than the configured time each tick.
+ * Deletions are queued and done one after the other. Chunks that are not loaded when their turn
+ * comes are regenerated when they next load instead of being loaded just to be deleted.
+ * Progress is stored in the database so deletions carry on after a restart.
+ * <p>
+ * All methods are expected to be called on the server thread.
+ *
+ * @author tastybento
+ *
+ */
+public class IslandDeleter implements Listener {
+
+    /**
+     * How often, in ticks, deletions that are being worked on are saved
+     */
+    private static final long SAVE_PERIOD = 600L;
+    private static final Timer REGENERATE = Timings.timer("island.delete.chunk");
+
+    private final BSkyBlock plugin;
+    private final BSBDatabase<IslandDeletion> handler;
+    private final long budget;
+    private final Deque<IslandDeletion> queue = new ArrayDeque<>();
+    private final Map<String, IslandDeletion> deletions = new HashMap<>();
+    /**
+     * Chunks waiting to load, by world name and packed chunk coordinates
+     */
+    private final Map<String, LongObjectMap<IslandDeletion>> unloaded = new HashMap<>();
+    private final Set<IslandDeletion> dirty = new HashSet<>();
+    private BukkitTask task;
+    private long ticks;
+
+    // Metrics data
+    private long metrics_regenerated;
+    private long metrics_tickRegenerated;
+    private long metrics_busyTime;
+
+    /**
+     * @param plugin - plugin
+     */
+    public IslandDeleter(BSkyBlock plugin) {
+        this.plugin = plugin;
+        handler = new BSBDatabase<>(plugin, IslandDeletion.class);
+        budget = TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getDeleteTimeBudget());
+    }
+
+    /**
+     * Loads deletions that were not finished before the last shutdown and carries on with them
+     */
+    public void load() {
+        for (IslandDeletion deletion : handler.loadObjects()) {
+            if (deletion.isComplete()) {
+                handler.deleteObject(deletion);
+                continue;
+            }
+            deletions.put(deletion.getUniqueId(), deletion);
+            for (String key : deletion.getUnloadedChunks()) {
+                String[] split = IslandDeletion.splitKey(key);
+                if (split != null) {
+                    unloaded.computeIfAbsent(split[0], k -> new LongObjectMap<>())
+                    .put(LongObjectMap.pack(Integer.parseInt(split[1]), Integer.parseInt(split[2])), deletion);
+                }
+            }
+            if (!deletion.isWorkedThrough()) {
+                queue.add(deletion);
+            }
+        }
+        if (!deletions.isEmpty()) {
+            plugin.log("Carrying on with " + deletions.size() + " island deletions");
+        }
+        start();
+    }
+
+    /**
+     * Queues the deletion of an island's chunks in its world and, if it has them, its nether and end islands
+     * @param island - island to delete
+     */
+    public void delete(Island island) {
+        // Fire event
+        IslandBaseEvent event = IslandEvent.builder().island(island).reason(Reason.DELETE).build();
+        if (event.isCancelled()) {
+            return;
+        }
+        final World world = island.getCenter().getWorld();
+        if (world == null) {
+            return;
+        }
+        IslandWorldManager iwm = plugin.getIWM();
+        List<String> worlds = new ArrayList<>();
+        worlds.add(world.getName());
+        if (iwm.isNetherGenerate(world) && iwm.isNetherIslands(world)) {
+            addWorld(worlds, iwm.getNetherWorld(world));
+        }
+        if (iwm.isEndGenerate(world) && iwm.isEndIslands(world)) {
+            addWorld(worlds, iwm.getEndWorld(world));
+        }
+        IslandDeletion deletion = new IslandDeletion(island, worlds);
+        IslandDeletion previous = deletions.put(deletion.getUniqueId(), deletion);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.add(deletion);
+        handler.saveObject(deletion);
+        start();
+    }
+
+    private void addWorld(List<String> worlds, World world) {
+        if (world != null) {
+            worlds.add(world.getName());
+        }
+    }
+
+    /**
+     * Finishes straight away any deletion that overlaps this island, loading chunks if need be,
+     * so that the island's blocks cannot be deleted after they are pasted
+     * @param island - new island
+     */
+    public void finishOverlapping(Island island) {
+        if (deletions.isEmpty() || island.getWorld() == null) {
+            return;
+        }
+        String worldName = island.getWorld().getName();
+        int minX = island.getMinX() >> 4;
+        int maxX = (island.getMinX() + island.getRange() * 2 - 1) >> 4;
+        int minZ = island.getMinZ() >> 4;
+        int maxZ = (island.getMinZ() + island.getRange() * 2 - 1) >> 4;
+        for (IslandDeletion deletion : new ArrayList<>(deletions.values())) {
+            if (deletion.getWorlds().contains(worldName) && deletion.overlaps(minX, minZ, maxX, maxZ)) {
+                finishNow(deletion);
+            }
+        }
+    }
+
+    private void finishNow(IslandDeletion deletion) {
+        while (!deletion.isWorkedThrough()) {
+            int i = deletion.getNext();
+            deletion.setNext(i + 1);
+            regenerate(Bukkit.getWorld(deletion.getWorld(i)), deletion.getChunkX(i), deletion.getChunkZ(i));
+        }
+        for (String key : deletion.getUnloadedChunks()) {
+            String[] split = IslandDeletion.splitKey(key);
+            if (split == null) {
+                continue;
+            }
+            int x = Integer.parseInt(split[1]);
+            int z = Integer.parseInt(split[2]);
+            removeUnloaded(split[0], x, z, deletion);
+            regenerate(Bukkit.getWorld(split[0]), x, z);
+        }
+        deletion.getUnloadedChunks().clear();
+        if (queue.remove(deletion)) {
+            deleted(deletion);
+        }
+        finish(deletion);
+    }
+
+    private void regenerate(World world, int x, int z) {
+        if (world != null) {
+            long start = REGENERATE.start();
+            world.regenerateChunk(x, z);
+            REGENERATE.stop(start);
+            plugin.getIslands().getSafeSpotCache().invalidate(world, x, z);
+            metrics_regenerated++;
+        }
+    }
+
+    private void start() {
+        if (task == null && !queue.isEmpty()) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    private void tick() {
+        ticks++;
+        long start = System.nanoTime();
+        long end = start + budget;
+        while (!queue.isEmpty()) {
+            IslandDeletion deletion = queue.peek();
+            int before = deletion.getNext();
+            boolean workedThrough = deleteSome(deletion, end);
+            if (deletion.getNext() > before) {
+                dirty.add(deletion);
+                Bukkit.getPluginManager().callEvent(new IslandDeleteProgressEvent(deletion.getUniqueId(), deletion.getIsland(),
+                        deletion.getNext(), deletion.getTotal()));
+            }
+            if (!workedThrough) {
+                break;
+            }
+            queue.poll();
+            deleted(deletion);
+            if (deletion.isComplete()) {
+                finish(deletion);
+            }
+        }
+        metrics_busyTime += System.nanoTime() - start;
+        if (queue.isEmpty() || ticks % SAVE_PERIOD == 0) {
+            saveDirty();
+        }
+        if (queue.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Deletes chunks until the deletion is worked through or the time budget for this tick is used up
+     * @param deletion - deletion
+     * @param end - System.nanoTime() when the budget runs out
+     * @return true if the deletion is worked through
+     */
+    private boolean deleteSome(IslandDeletion deletion, long end) {
+        while (!deletion.isWorkedThrough()) {
+            int i = deletion.getNext();
+            deletion.setNext(i + 1);
+            if (deleteChunk(deletion, deletion.getWorld(i), deletion.getChunkX(i), deletion.getChunkZ(i))) {
+                metrics_tickRegenerated++;
+            }
+            if (budget > 0 && System.nanoTime() >= end) {
+                break;
+            }
+        }
+        return deletion.isWorkedThrough();
+    }
+
+    /**
+     * Regenerates a chunk if it is loaded, otherwise leaves it until it next loads
+     * @return true if the chunk was regenerated
+     */
+    private boolean deleteChunk(IslandDeletion deletion, String worldName, int x, int z) {
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            return false;
+        }
+        if (world.isChunkLoaded(x, z)) {
+            regenerate(world, x, z);
+            return true;
+        }
+        deletion.addUnloadedChunk(worldName, x, z);
+        IslandDeletion previous = unloaded.computeIfAbsent(worldName, k -> new LongObjectMap<>()).put(LongObjectMap.pack(x, z), deletion);
+        if (previous != null && previous != deletion) {
+            // Neighbouring islands can share a chunk. It only needs doing once.
+            previous.removeUnloadedChunk(worldName, x, z);
+            if (previous.isComplete()) {
+                finish(previous);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Regenerates chunks that were waiting to load
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent e) {
+        String worldName = e.getWorld().getName();
+        int x = e.getChunk().getX();
+        int z = e.getChunk().getZ();
+        IslandDeletion deletion = removeUnloaded(worldName, x, z, null);
+        if (deletion == null) {
+            return;
+        }
+        deletion.removeUnloadedChunk(worldName, x, z);
+        if (e.isNewChunk()) {
+            // Nothing to delete
+            saveOrFinish(deletion);
+            return;
+        }
+        // Chunks cannot be regenerated while they are loading
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (deletions.get(deletion.getUniqueId()) == deletion) {
+                deleteChunk(deletion, worldName, x, z);
+                saveOrFinish(deletion);
+            }
+        });
+    }
+
+    /**
+     * Removes a chunk from the chunks waiting to load
+     * @param worldName - world name
+     * @param x - chunk x
+     * @param z - chunk z
+     * @param deletion - only remove it if it belongs to this deletion, or null to remove it whatever it belongs to
+     * @return the deletion the chunk belonged to, or null if it was not waiting
+     */
+    private IslandDeletion removeUnloaded(String worldName, int x, int z, IslandDeletion deletion) {
+        LongObjectMap<IslandDeletion> chunks = unloaded.get(worldName);
+        if (chunks == null) {
+            return null;
+        }
+        long key = LongObjectMap.pack(x, z);
+        IslandDeletion found = chunks.get(key);
+        if (found == null || (deletion != null && found != deletion)) {
+            return null;
+        }
+        chunks.remove(key);
+        if (chunks.isEmpty()) {
+            unloaded.remove(worldName);
+        }
+        return found;
+    }
+
+    private void saveOrFinish(IslandDeletion deletion) {
+        if (deletion.isComplete()) {
+            finish(deletion);
+        } else {
+            handler.saveObject(deletion);
+        }
+    }
+
+    /**
+     * Fires the deleted event once every chunk has had its turn
+     */
+    private void deleted(IslandDeletion deletion) {
+        if (deletion.getIsland() != null) {
+            IslandEvent.builder().island(deletion.getIsland()).reason(Reason.DELETED).build();
+        }
+    }
+
+    private void finish(IslandDeletion deletion) {
+        deletions.remove(deletion.getUniqueId(), deletion);
+        dirty.remove(deletion);
+        handler.deleteObject(deletion);
+    }
+
+    private void saveDirty() {
+        dirty.forEach(handler::saveObject);
+        dirty.clear();
+    }
+
+    /**
+     * Saves all deletions that are not finished and closes the database
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        deletions.values().forEach(handler::saveObject);
+        dirty.clear();
+        handler.close();
+    }
+
+    /**
+     * @return number of deletions that are not finished
+     */
+    public int getDeletionCount() {
+        return deletions.size();
+    }
+
+    /**
+     * @return number of chunks waiting to load so they can be regenerated
+     */
+    public int metrics_getUnloadedCount() {
+        return unloaded.values().stream().mapToInt(LongObjectMap::size).sum();
+    }
+
+    /**
+     * @return number of chunks regenerated since the counts were last reset
+     */
+    public long metrics_getRegeneratedCount() {
+        return metrics_regenerated;
+    }
+
+    /**
+     * @return chunks regenerated per second while the queue was being worked on, since the counts were last reset
+     */
+    public int metrics_getChunksPerSecond() {
+        return metrics_busyTime == 0 ? 0 : (int)(metrics_tickRegenerated * TimeUnit.SECONDS.toNanos(1) / metrics_busyTime);
+    }
+
+    /**
+     * Resets the regenerated chunk counts and the time spent
+     */
+    public void metrics_resetCounts() {
+        metrics_regenerated = 0;
+        metrics_tickRegenerated = 0;
+        metrics_busyTime = 0;
+    }
+}
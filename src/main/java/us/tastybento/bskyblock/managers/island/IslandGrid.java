@@ -2,23 +2,74 @@ package us.tastybento.bskyblock.managers.island;
 
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
 
 import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.util.LongObjectMap;
 
 /**
- * Handles the island location grid for each world
+ * Handles the island location grid for each world.
+ * Islands that sit on the world's island grid are indexed by their grid cell so that look ups are O(1)
+ * and do not allocate. The grid comes from the world's island distance and offsets. Islands that are not
+ * aligned to it, e.g., ones made before the settings were changed, are kept in a sorted map as a fallback.
+ * <p>
+ * Changes are made under a write lock. Look ups may be made from any thread. They use an optimistic read
+ * first, so the server thread pays no locking cost unless a change is happening at the same time.
  * @author tastybento
  *
  */
 public class IslandGrid {
+    /**
+     * Islands that are aligned to the grid, keyed by packed cell coordinates
+     */
+    private LongObjectMap<Island> cells = new LongObjectMap<>();
+    /**
+     * Fallback for islands that are not aligned to the grid
+     */
     private TreeMap<Integer, TreeMap<Integer, Island>> grid = new TreeMap<>();
 
+    private final StampedLock lock = new StampedLock();
+
+    // Grid geometry. Cell size is zero if the world has no grid, so every island is in the fallback.
+    private final int cellSize;
+    private final int originX;
+    private final int originZ;
+
+    /**
+     * @param islandDistance - island distance of the world, i.e., the range of its islands
+     * @param xOffset - island x offset of the world
+     * @param zOffset - island z offset of the world
+     */
+    public IslandGrid(int islandDistance, int xOffset, int zOffset) {
+        cellSize = Math.max(0, islandDistance * 2);
+        // Island centers are on the offsets, so cells start one island distance before them
+        originX = cellSize == 0 ? 0 : Math.floorMod(xOffset - islandDistance, cellSize);
+        originZ = cellSize == 0 ? 0 : Math.floorMod(zOffset - islandDistance, cellSize);
+    }
+
     /**
      * Adds island to grid
      * @param island - island to add
      * @return true if successfully added, false if island already exists, or there is an overlap
      */
     public boolean addToGrid(Island island) {
+        long stamp = lock.writeLock();
+        try {
+            return add(island);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean add(Island island) {
+        if (isAligned(island)) {
+            long key = LongObjectMap.pack(cellX(island.getMinX()), cellZ(island.getMinZ()));
+            if (cells.containsKey(key) || inFallback(island.getMinX(), island.getMinZ())) {
+                return false;
+            }
+            cells.put(key, island);
+            return true;
+        }
         if (grid.containsKey(island.getMinX())) {
             TreeMap<Integer, Island> zEntry = grid.get(island.getMinX());
             if (zEntry.containsKey(island.getMinZ())) {
@@ -36,17 +87,33 @@ public class IslandGrid {
         }
         return true;
     }
-    
+
     /**
      * Remove island from grid
      * @param island - the island to remove
      * @return true if island existed and was deleted, false if there was nothing to delete
      */
     public boolean removeFromGrid(Island island) {
+        long stamp = lock.writeLock();
+        try {
+            return remove(island);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean remove(Island island) {
         // Remove from grid
         if (island != null) {
             int x = island.getMinX();
             int z = island.getMinZ();
+            if (isAligned(island)) {
+                long key = LongObjectMap.pack(cellX(x), cellZ(z));
+                if (cells.get(key) == island) {
+                    cells.remove(key);
+                    return true;
+                }
+            }
             if (grid.containsKey(x)) {
                 TreeMap<Integer, Island> zEntry = grid.get(x);
                 if (zEntry.containsKey(z)) {
@@ -59,7 +126,7 @@ public class IslandGrid {
         }
         return false;
     }
-    
+
     /**
      * Returns the island at the x,z location or null if there is none.
      * This includes the full island space, not just the protected area.
@@ -69,6 +136,38 @@ public class IslandGrid {
      * @return Island or null
      */
     public Island getIslandAt(int x, int z) {
+        // Fast path - only valid if nothing changed while it ran
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Island island = getFromCells(x, z);
+            boolean noFallback = grid.isEmpty();
+            if (lock.validate(stamp) && (island != null || noFallback)) {
+                return island;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            Island island = getFromCells(x, z);
+            return island != null ? island : getFromFallback(x, z);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Island getFromCells(int x, int z) {
+        if (cellSize > 0) {
+            Island island = cells.get(LongObjectMap.pack(cellX(x), cellZ(z)));
+            if (island != null && island.inIslandSpace(x, z)) {
+                return island;
+            }
+        }
+        return null;
+    }
+
+    private Island getFromFallback(int x, int z) {
+        if (grid.isEmpty()) {
+            return null;
+        }
         Entry<Integer, TreeMap<Integer, Island>> en = grid.floorEntry(x);
         if (en != null) {
             Entry<Integer, Island> ent = en.getValue().floorEntry(z);
@@ -82,4 +181,43 @@ public class IslandGrid {
         }
         return null;
     }
+
+    /**
+     * @return number of islands in this grid
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            int size = cells.size();
+            for (TreeMap<Integer, Island> zEntry : grid.values()) {
+                size += zEntry.size();
+            }
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param island - island
+     * @return true if the island fills exactly one grid cell
+     */
+    private boolean isAligned(Island island) {
+        return cellSize > 0 && island.getRange() * 2 == cellSize
+                && Math.floorMod(island.getMinX() - originX, cellSize) == 0
+                && Math.floorMod(island.getMinZ() - originZ, cellSize) == 0;
+    }
+
+    private boolean inFallback(int minX, int minZ) {
+        TreeMap<Integer, Island> zEntry = grid.get(minX);
+        return zEntry != null && zEntry.containsKey(minZ);
+    }
+
+    private int cellX(int x) {
+        return Math.floorDiv(x - originX, cellSize);
+    }
+
+    private int cellZ(int z) {
+        return Math.floorDiv(z - originZ, cellSize);
+    }
 }
@@ -0,0 +1,280 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+import us.tastybento.bskyblock.api.events.island.IslandEvent;
+import us.tastybento.bskyblock.api.events.island.IslandEvent.Reason;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.managers.IslandsManager;
+
+/**
+ * Keeps track of which island space each online player is in and whether they are in its protected area.
+ * The state is only looked up again when a player moves to a new block column outside the island space they
+ * were in, so answering "which island is this player on" does not need a spatial query.
+ * <p>
+ * {@link IslandEvent.IslandEnterEvent} and {@link IslandEvent.IslandExitEvent} are fired when a player crosses
+ * the protection border of an island. The move has already happened, so cancelling them does nothing.
+ * <p>
+ * All methods are expected to be called on the server thread.
+ *
+ * @author tastybento
+ *
+ */
+public class IslandTracker implements Listener {
+
+    private static class State {
+        private Island space;
+        private boolean protectedArea;
+        /**
+         * Location looked up by {@link IslandTracker#getIslandSpaceAt(Player, Location)} before the move was made,
+         * and the island space found there
+         */
+        private Location next;
+        private Island nextSpace;
+    }
+
+    private final IslandsManager islands;
+    private final Map<UUID, State> states = new HashMap<>();
+    /**
+     * Players in the space of each island
+     */
+    private final Map<Island, Set<UUID>> occupants = new HashMap<>();
+
+    /**
+     * @param islands - islands manager used to find islands at locations
+     */
+    public IslandTracker(IslandsManager islands) {
+        this.islands = islands;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent e) {
+        if (e.getFrom().getBlockX() != e.getTo().getBlockX() || e.getFrom().getBlockZ() != e.getTo().getBlockZ()) {
+            update(e.getPlayer(), e.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onVehicleMove(VehicleMoveEvent e) {
+        if (e.getFrom().getBlockX() != e.getTo().getBlockX() || e.getFrom().getBlockZ() != e.getTo().getBlockZ()) {
+            e.getVehicle().getPassengers().stream().filter(en -> en instanceof Player).forEach(p -> update((Player)p, e.getTo()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent e) {
+        update(e.getPlayer(), e.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent e) {
+        update(e.getPlayer(), e.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        update(e.getPlayer(), e.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        remove(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Updates the state of a player who is now at this location. Fires enter and exit events if
+     * they have crossed an island's protection border.
+     * @param player - player
+     * @param loc - the player's new location
+     */
+    public void update(Player player, Location loc) {
+        update(player, loc, true);
+    }
+
+    /**
+     * Forgets everyone and works out where these players are without firing any events, e.g., after the islands are loaded
+     * @param players - online players
+     */
+    public void reset(Collection<? extends Player> players) {
+        states.clear();
+        occupants.clear();
+        players.forEach(p -> update(p, p.getLocation(), false));
+    }
+
+    /**
+     * Gets the island whose space contains a location the player is about to move to. The grid is only asked
+     * if the location is outside the island space the player is in, and the answer is kept for the update
+     * when the move is made.
+     * @param player - player
+     * @param loc - location the player is moving to
+     * @return island or empty if the location is not in an island space
+     */
+    public Optional<Island> getIslandSpaceAt(Player player, Location loc) {
+        State state = states.get(player.getUniqueId());
+        if (state == null) {
+            return islands.getIslandAt(loc);
+        }
+        if (state.space != null && state.space.inIslandSpace(loc)) {
+            return Optional.of(state.space);
+        }
+        if (!loc.equals(state.next)) {
+            state.next = loc;
+            state.nextSpace = islands.getIslandAt(loc).orElse(null);
+        }
+        return Optional.ofNullable(state.nextSpace);
+    }
+
+    private void update(Player player, Location loc, boolean fireEvents) {
+        if (loc == null) {
+            return;
+        }
+        UUID uuid = player.getUniqueId();
+        State state = states.computeIfAbsent(uuid, k -> new State());
+        Island space = state.space;
+        // Only look for a new island if the player has left the island space they were in
+        if (space == null || !space.inIslandSpace(loc)) {
+            space = loc.equals(state.next) ? state.nextSpace : islands.getIslandAt(loc).orElse(null);
+        }
+        state.next = null;
+        state.nextSpace = null;
+        boolean protectedArea = space != null && space.onIsland(loc);
+        Island oldSpace = state.space;
+        boolean oldProtectedArea = state.protectedArea;
+        if (space != oldSpace) {
+            removeOccupant(oldSpace, uuid);
+            if (space != null) {
+                occupants.computeIfAbsent(space, k -> new HashSet<>()).add(uuid);
+            }
+        }
+        state.space = space;
+        state.protectedArea = protectedArea;
+        if (!fireEvents) {
+            return;
+        }
+        // Fire events for protection border crossings
+        if (oldProtectedArea && (!protectedArea || space != oldSpace)) {
+            fire(Reason.EXIT, oldSpace, uuid, loc);
+        }
+        if (protectedArea && (!oldProtectedArea || space != oldSpace)) {
+            fire(Reason.ENTER, space, uuid, loc);
+        }
+    }
+
+    /**
+     * Stops tracking this player
+     * @param uuid - player's UUID
+     */
+    public void remove(UUID uuid) {
+        State state = states.remove(uuid);
+        if (state != null) {
+            removeOccupant(state.space, uuid);
+        }
+    }
+
+    /**
+     * Forgets an island, e.g., because it has been deleted. Players in its space are looked up again when they next move.
+     * @param island - island
+     */
+    public void removeIsland(Island island) {
+        Set<UUID> players = occupants.remove(island);
+        if (players != null) {
+            players.stream().map(states::get).filter(s -> s != null).forEach(s -> {
+                s.space = null;
+                s.protectedArea = false;
+            });
+        }
+        states.values().stream().filter(s -> s.nextSpace == island).forEach(s -> {
+            s.next = null;
+            s.nextSpace = null;
+        });
+    }
+
+    /**
+     * Works out again where the players in an island's space are, e.g., after the island is made or its
+     * protection range changes. Enter and exit events are fired for players the protection border has moved past.
+     * @param island - island
+     * @param players - online players
+     */
+    public void refresh(Island island, Collection<? extends Player> players) {
+        Set<UUID> inSpace = occupants.getOrDefault(island, Collections.emptySet());
+        for (Player p : players) {
+            Location loc = p.getLocation();
+            if (loc != null && (inSpace.contains(p.getUniqueId()) || island.inIslandSpace(loc))) {
+                update(p, loc, true);
+            }
+        }
+    }
+
+    /**
+     * @param uuid - player's UUID
+     * @return true if this player is being tracked, i.e., they are online and have been seen
+     */
+    public boolean isTracked(UUID uuid) {
+        return states.containsKey(uuid);
+    }
+
+    /**
+     * Gets the island whose space the player is in. This may be outside the island's protected area.
+     * @param uuid - player's UUID
+     * @return island or empty if the player is not in an island space or not tracked
+     */
+    public Optional<Island> getIslandSpace(UUID uuid) {
+        State state = states.get(uuid);
+        return state == null ? Optional.empty() : Optional.ofNullable(state.space);
+    }
+
+    /**
+     * Gets the island whose protected area the player is in
+     * @param uuid - player's UUID
+     * @return island or empty if the player is not in a protected area or not tracked
+     */
+    public Optional<Island> getProtectedIsland(UUID uuid) {
+        State state = states.get(uuid);
+        return state == null || !state.protectedArea ? Optional.empty() : Optional.ofNullable(state.space);
+    }
+
+    /**
+     * @param island - island
+     * @return the UUIDs of the tracked players in this island's space. The set is a copy.
+     */
+    public Set<UUID> getOccupants(Island island) {
+        Set<UUID> players = occupants.get(island);
+        return players == null ? Collections.emptySet() : new HashSet<>(players);
+    }
+
+    private void removeOccupant(Island island, UUID uuid) {
+        if (island == null) {
+            return;
+        }
+        Set<UUID> players = occupants.get(island);
+        if (players != null) {
+            players.remove(uuid);
+            if (players.isEmpty()) {
+                occupants.remove(island);
+            }
+        }
+    }
+
+    private void fire(Reason reason, Island island, UUID uuid, Location loc) {
+        IslandEvent.builder().island(island).involvedPlayer(uuid).reason(reason).location(loc).build();
+    }
+}
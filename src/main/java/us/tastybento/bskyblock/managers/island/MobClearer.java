@@ -0,0 +1,222 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Monster;
+import org.bukkit.scheduler.BukkitTask;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.managers.IslandsManager;
+
+/**
+ * Clears monsters around locations that players arrive at, e.g., by teleport or by logging in.
+ * Clears are queued and done on later ticks, spending no more than {@link #BUDGET} each tick.
+ * Clears of the same spot on the same island are merged while they are queued and are skipped if the
+ * spot was cleared less than {@link #REPEAT_WINDOW} ago, so teleport or login storms cost one clear per spot.
+ * <p>
+ * Each world's whitelist is copied into an EnumSet once and kept until the world settings give a different
+ * whitelist, e.g., after the settings are loaded again, or {@link #resetWhitelists()} is called.
+ * <p>
+ * All methods are expected to be called on the server thread.
+ *
+ * @author tastybento
+ *
+ */
+public class MobClearer {
+
+    /**
+     * Radius of the cleared area in every direction
+     */
+    public static final double RADIUS = 5D;
+    /**
+     * Most time that can be spent clearing each tick
+     */
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(2);
+    /**
+     * How long a cleared spot is not cleared again
+     */
+    private static final long REPEAT_WINDOW = TimeUnit.SECONDS.toNanos(2);
+    /**
+     * Locations in the same cell of this many blocks are treated as the same spot
+     */
+    private static final int CELL_SHIFT = 3;
+
+    /**
+     * A spot is the island, or the world if there is no island, plus the cell the location is in
+     */
+    private static final class Spot {
+        private final Object place;
+        private final long cell;
+
+        private Spot(Object place, long cell) {
+            this.place = place;
+            this.cell = cell;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Spot)) {
+                return false;
+            }
+            Spot other = (Spot)obj;
+            return cell == other.cell && place.equals(other.place);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * place.hashCode() + Long.hashCode(cell);
+        }
+    }
+
+    /**
+     * A world's whitelist and the set it was copied from
+     */
+    private static final class Whitelist {
+        private final Set<EntityType> source;
+        private final Set<EntityType> types = EnumSet.noneOf(EntityType.class);
+
+        private Whitelist(Set<EntityType> source) {
+            this.source = source;
+            types.addAll(source);
+        }
+    }
+
+    private final BSkyBlock plugin;
+    private final IslandsManager islands;
+    private final Map<Spot, Location> queued = new LinkedHashMap<>();
+    private final Map<Spot, Long> cleared = new HashMap<>();
+    private final Map<World, Whitelist> whitelists = new HashMap<>();
+    private BukkitTask task;
+
+    // Metrics data
+    private long metrics_cleared;
+    private long metrics_skipped;
+
+    /**
+     * @param plugin - plugin
+     * @param islands - islands manager
+     */
+    public MobClearer(BSkyBlock plugin, IslandsManager islands) {
+        this.plugin = plugin;
+        this.islands = islands;
+    }
+
+    /**
+     * Queues a clear of the monsters around this location
+     * @param loc - location
+     */
+    public void queue(Location loc) {
+        Spot key = getKey(loc);
+        Long last = cleared.get(key);
+        if ((last != null && System.nanoTime() - last < REPEAT_WINDOW) || queued.putIfAbsent(key, loc) != null) {
+            metrics_skipped++;
+            return;
+        }
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Clears the monsters around this location straight away
+     * @param loc - location
+     */
+    public void clear(Location loc) {
+        clear(loc, getWhitelist(loc.getWorld()));
+    }
+
+    private void clear(Location loc, Set<EntityType> whitelist) {
+        for (Entity en : loc.getWorld().getNearbyEntities(loc, RADIUS, RADIUS, RADIUS)) {
+            if (en instanceof Monster && !whitelist.contains(en.getType())) {
+                en.remove();
+            }
+        }
+        metrics_cleared++;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long end = now + BUDGET;
+        // Forget spots that can be cleared again
+        cleared.values().removeIf(last -> now - last >= REPEAT_WINDOW);
+        Iterator<Map.Entry<Spot, Location>> it = queued.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Spot, Location> entry = it.next();
+            it.remove();
+            Location loc = entry.getValue();
+            if (loc.getWorld() != null) {
+                clear(loc, getWhitelist(loc.getWorld()));
+                cleared.put(entry.getKey(), System.nanoTime());
+            }
+            if (System.nanoTime() >= end) {
+                break;
+            }
+        }
+        if (queued.isEmpty() && cleared.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @param world - world
+     * @return the monsters in this world that are not cleared
+     */
+    private Set<EntityType> getWhitelist(World world) {
+        Set<EntityType> source = plugin.getIWM().getRemoveMobsWhitelist(world);
+        Whitelist whitelist = whitelists.get(world);
+        if (whitelist == null || whitelist.source != source) {
+            whitelist = new Whitelist(source);
+            whitelists.put(world, whitelist);
+        }
+        return whitelist.types;
+    }
+
+    /**
+     * Forgets the copied whitelists, e.g., after a world's whitelist has been changed in place
+     */
+    public void resetWhitelists() {
+        whitelists.clear();
+    }
+
+    private Spot getKey(Location loc) {
+        Object place = islands.getIslandAt(loc).map(Object.class::cast).orElse(loc.getWorld());
+        // Packed like a block position: 26 bits for x and z, 12 for y
+        long cell = ((long)(loc.getBlockX() >> CELL_SHIFT) & 0x3FFFFFF) << 38
+                | ((long)(loc.getBlockZ() >> CELL_SHIFT) & 0x3FFFFFF) << 12
+                | ((loc.getBlockY() >> CELL_SHIFT) & 0xFFF);
+        return new Spot(place, cell);
+    }
+
+    /**
+     * @return number of clears waiting
+     */
+    public int metrics_getQueuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * @return number of areas cleared
+     */
+    public long metrics_getClearedCount() {
+        return metrics_cleared;
+    }
+
+    /**
+     * @return number of clears that were skipped because the same spot was queued or recently cleared
+     */
+    public long metrics_getSkippedCount() {
+        return metrics_skipped;
+    }
+}
@@ -0,0 +1,99 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * Checks the many blocks of one event, e.g., an explosion or a piston push, in bulk.
+ * Blocks are checked by their coordinates, so no Locations or Vectors are made.
+ * @author tastybento
+ *
+ */
+public class RegionChecker {
+
+    @FunctionalInterface
+    private interface ColumnTest {
+        boolean test(int x, int z);
+    }
+
+    private RegionChecker() {}
+
+    /**
+     * Checks if blocks, once moved one block towards a face, are all in the protected area of an island.
+     * Used for pistons, which move every block one step.
+     * @param island - island
+     * @param blocks - blocks before they are moved
+     * @param face - direction they are moved, or {@link BlockFace#SELF} to check where they are
+     * @return true if all the blocks end up on the island
+     */
+    public static boolean allOnIsland(Island island, List<Block> blocks, BlockFace face) {
+        int dx = face.getModX();
+        int dz = face.getModZ();
+        for (Block b : blocks) {
+            if (!island.onIsland(b.getX() + dx, b.getZ() + dz)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the blocks that are closer than radius to x,z. Height is not taken into account.
+     * @param blocks - blocks, e.g., the block list of an explosion
+     * @param x - x coordinate of the center
+     * @param z - z coordinate of the center
+     * @param radius - radius
+     * @return number of blocks removed
+     */
+    public static int removeInRadius(List<Block> blocks, int x, int z, int radius) {
+        long radiusSquared = (long)radius * radius;
+        return removeIf(blocks, (bx, bz) -> {
+            long dx = (long)bx - x;
+            long dz = (long)bz - z;
+            return dx * dx + dz * dz < radiusSquared;
+        });
+    }
+
+    /**
+     * Removes the blocks whose column passes the test. Lists with random access, such as the block lists
+     * of events, are compacted in one pass instead of shifting the list on each removal.
+     * @param blocks - blocks
+     * @param test - test of the block's x and z
+     * @return number of blocks removed
+     */
+    private static int removeIf(List<Block> blocks, ColumnTest test) {
+        int size = blocks.size();
+        if (!(blocks instanceof RandomAccess)) {
+            int removed = 0;
+            Iterator<Block> it = blocks.iterator();
+            while (it.hasNext()) {
+                Block b = it.next();
+                if (test.test(b.getX(), b.getZ())) {
+                    it.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Block b = blocks.get(i);
+            if (!test.test(b.getX(), b.getZ())) {
+                if (kept != i) {
+                    blocks.set(kept, b);
+                }
+                kept++;
+            }
+        }
+        if (kept < size) {
+            blocks.subList(kept, size).clear();
+        }
+        return size - kept;
+    }
+}
@@ -0,0 +1,108 @@
+package us.tastybento.bskyblock.managers.player;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded two way cache of player names and UUIDs. Names are matched ignoring case.
+ * When the cache is full, the least recently used player is dropped.
+ * <p>
+ * All methods are synchronized, so the cache can be filled from a background thread.
+ *
+ * @author tastybento
+ *
+ */
+public class NameCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<UUID, String> names;
+    private final Map<String, UUID> uuids = new HashMap<>();
+
+    /**
+     * @param maxSize - most players to hold
+     */
+    public NameCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.names = new LinkedHashMap<UUID, String>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, String> eldest) {
+                if (size() > NameCache.this.maxSize) {
+                    uuids.remove(key(eldest.getValue()), eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Adds or updates a player
+     * @param name - player's name
+     * @param uuid - player's UUID
+     */
+    public synchronized void put(String name, UUID uuid) {
+        if (name == null || uuid == null) {
+            return;
+        }
+        String oldName = names.put(uuid, name);
+        if (oldName != null) {
+            uuids.remove(key(oldName), uuid);
+        }
+        UUID oldUUID = uuids.put(key(name), uuid);
+        if (oldUUID != null && !oldUUID.equals(uuid)) {
+            // Someone else had this name before
+            names.remove(oldUUID);
+        }
+    }
+
+    /**
+     * Adds a player only if the UUID is not already known
+     * @param name - player's name
+     * @param uuid - player's UUID
+     */
+    public synchronized void putIfAbsent(String name, UUID uuid) {
+        if (uuid != null && !names.containsKey(uuid)) {
+            put(name, uuid);
+        }
+    }
+
+    /**
+     * @param name - player's name
+     * @return UUID or null if not known
+     */
+    public synchronized UUID getUUID(String name) {
+        if (name == null) {
+            return null;
+        }
+        UUID uuid = uuids.get(key(name));
+        if (uuid != null) {
+            // Counts as a use
+            names.get(uuid);
+        }
+        return uuid;
+    }
+
+    /**
+     * @param uuid - player's UUID
+     * @return name or null if not known
+     */
+    public synchronized String getName(UUID uuid) {
+        return uuid == null ? null : names.get(uuid);
+    }
+
+    /**
+     * @return number of players in the cache
+     */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+}
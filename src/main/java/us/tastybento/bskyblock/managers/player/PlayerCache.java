@@ -0,0 +1,231 @@
+package us.tastybento.bskyblock.managers.player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import us.tastybento.bskyblock.database.objects.Players;
+
+/**
+ * Two tier cache of player data. Online players are pinned and stay until they are removed.
+ * Offline players are held in a least recently used cache that is limited in size and in
+ * how long a player can go unused. Offline players that are dropped are passed to the
+ * eviction handler so that any changes can be saved.
+ * <p>
+ * Not thread safe. All methods are expected to be called on the server thread.
+ *
+ * @author tastybento
+ *
+ */
+public class PlayerCache {
+
+    private static class Entry {
+        private final Players player;
+        private long lastUsed;
+
+        private Entry(Players player, long lastUsed) {
+            this.player = player;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final int maxOffline;
+    private final long expireAfterNanos;
+    private final Consumer<Players> evictionHandler;
+    private final Map<UUID, Players> online = new HashMap<>();
+    private final LinkedHashMap<UUID, Entry> offline = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxOffline - most offline players to hold
+     * @param expireAfterNanos - how long an offline player can go unused before they are dropped
+     * @param evictionHandler - called with each offline player that is dropped
+     */
+    public PlayerCache(int maxOffline, long expireAfterNanos, Consumer<Players> evictionHandler) {
+        this.maxOffline = maxOffline;
+        this.expireAfterNanos = expireAfterNanos;
+        this.evictionHandler = evictionHandler;
+    }
+
+    /**
+     * Gets a player and counts a hit or a miss
+     * @param uuid - player's UUID
+     * @return player or null if not cached
+     */
+    public Players get(UUID uuid) {
+        Players player = peek(uuid);
+        if (player == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return player;
+    }
+
+    /**
+     * Gets a player without counting a hit or a miss
+     * @param uuid - player's UUID
+     * @return player or null if not cached
+     */
+    public Players peek(UUID uuid) {
+        Players player = online.get(uuid);
+        if (player != null) {
+            return player;
+        }
+        Entry entry = offline.get(uuid);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUsed = System.nanoTime();
+        return entry.player;
+    }
+
+    /**
+     * @param uuid - player's UUID
+     * @return true if the player is cached
+     */
+    public boolean contains(UUID uuid) {
+        return online.containsKey(uuid) || offline.containsKey(uuid);
+    }
+
+    /**
+     * Adds a player
+     * @param uuid - player's UUID
+     * @param player - player data
+     * @param isOnline - true to pin the player because they are online
+     */
+    public void put(UUID uuid, Players player, boolean isOnline) {
+        if (isOnline) {
+            offline.remove(uuid);
+            online.put(uuid, player);
+        } else {
+            online.remove(uuid);
+            offline.put(uuid, new Entry(player, System.nanoTime()));
+            trim();
+        }
+    }
+
+    /**
+     * Pins a cached offline player because they are now online
+     * @param uuid - player's UUID
+     */
+    public void pin(UUID uuid) {
+        Entry entry = offline.remove(uuid);
+        if (entry != null) {
+            online.put(uuid, entry.player);
+        }
+    }
+
+    /**
+     * Removes a player without calling the eviction handler
+     * @param uuid - player's UUID
+     * @return the player or null if not cached
+     */
+    public Players remove(UUID uuid) {
+        Players player = online.remove(uuid);
+        if (player != null) {
+            return player;
+        }
+        Entry entry = offline.remove(uuid);
+        return entry == null ? null : entry.player;
+    }
+
+    /**
+     * Removes all players without calling the eviction handler
+     */
+    public void clear() {
+        online.clear();
+        offline.clear();
+    }
+
+    /**
+     * Drops offline players that have not been used for longer than the expiry time
+     */
+    public void expire() {
+        long now = System.nanoTime();
+        Iterator<Entry> it = offline.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            // Oldest first, so stop at the first one that is still fresh
+            if (now - entry.lastUsed < expireAfterNanos) {
+                break;
+            }
+            it.remove();
+            evict(entry.player);
+        }
+    }
+
+    /**
+     * @return the online players
+     */
+    public Collection<Players> getOnline() {
+        return online.values();
+    }
+
+    /**
+     * @return a copy of all the cached players, online and offline
+     */
+    public List<Players> getAll() {
+        List<Players> all = new ArrayList<>(online.values());
+        offline.values().forEach(e -> all.add(e.player));
+        return all;
+    }
+
+    /**
+     * @return number of cached players
+     */
+    public int size() {
+        return online.size() + offline.size();
+    }
+
+    /**
+     * @return number of cached offline players
+     */
+    public int getOfflineSize() {
+        return offline.size();
+    }
+
+    /**
+     * @return the number of look ups that found the player
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of look ups that did not find the player
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of offline players dropped for space or age
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private void trim() {
+        Iterator<Entry> it = offline.values().iterator();
+        while (offline.size() > maxOffline && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            evict(entry.player);
+        }
+    }
+
+    private void evict(Players player) {
+        evictions++;
+        evictionHandler.accept(player);
+    }
+}
@@ -0,0 +1,231 @@
+package us.tastybento.bskyblock.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A small open-addressing hash map keyed by primitive longs.
+ * Lookups do not box or allocate, which makes it suitable for hot paths such as
+ * grid cell or entity id look ups. Null values are not allowed - null is used to mark an empty slot.
+ * This class is not thread-safe. See {@link #get(long)} for what racing readers can expect.
+ *
+ * @author tastybento
+ *
+ * @param <V> value type
+ */
+public class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expected - expected number of entries
+     */
+    public LongObjectMap(int expected) {
+        allocate(tableSizeFor(Math.max(expected, 1)));
+    }
+
+    /**
+     * Packs two ints into one long key, e.g., a grid cell x and z
+     * @param x - x
+     * @param z - z
+     * @return packed key
+     */
+    public static long pack(int x, int z) {
+        return ((long)x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets a value. This method never throws if the map is being changed by another thread at the same time,
+     * but the answer may then be wrong, so it must be validated by the caller, e.g., with a
+     * {@link java.util.concurrent.locks.StampedLock} optimistic read.
+     * @param key - key
+     * @return the value or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        // Work on local copies so that a concurrent resize cannot make the indexes go out of bounds
+        long[] ks = keys;
+        Object[] vs = values;
+        if (ks.length != vs.length) {
+            return null;
+        }
+        int m = vs.length - 1;
+        int i = hash(key) & m;
+        Object v;
+        while ((v = vs[i]) != null) {
+            if (ks[i] == key) {
+                return (V)v;
+            }
+            i = (i + 1) & m;
+        }
+        return null;
+    }
+
+    /**
+     * @param key - key
+     * @return true if there is a value for this key
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Puts a value in the map
+     * @param key - key
+     * @param value - value, not null
+     * @return the previous value or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+        int i = index(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return (V)v;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) {
+            rehash(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes a key
+     * @param key - key
+     * @return the value that was removed or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = index(key);
+        Object v;
+        while ((v = values[i]) != null) {
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return (V)v;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Runs action on every value in the map
+     * @param action - action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object v : values) {
+            if (v != null) {
+                action.accept((V)v);
+            }
+        }
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Backward shift deletion - closes the gap left at slot so that probe chains stay intact
+     * @param slot - slot being emptied
+     */
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int i = slot;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = index(keys[i]);
+            // Move the entry back if its home slot is not between the gap and its current slot
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = index(oldKeys[i]);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private int index(long key) {
+        return hash(key) & mask;
+    }
+
+    private static int hash(long key) {
+        // Mix the bits (murmur3 finalizer) so that neighboring cells spread out
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+
+    private static int tableSizeFor(int expected) {
+        int capacity = Integer.highestOneBit((int)Math.ceil(expected / LOAD_FACTOR));
+        return Math.max(DEFAULT_CAPACITY, capacity < expected / LOAD_FACTOR ? capacity << 1 : capacity);
+    }
+}
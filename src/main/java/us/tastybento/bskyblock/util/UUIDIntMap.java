@@ -0,0 +1,93 @@
+package us.tastybento.bskyblock.util;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+
+/**
+ * A small read-only hash map from UUIDs to ints. The UUIDs are stored as pairs of longs, so look ups
+ * do not box, allocate or follow pointers. It is a snapshot of the map it was made from and is safe
+ * to share between threads.
+ *
+ * @author tastybento
+ *
+ */
+public class UUIDIntMap {
+
+    private final long[] most;
+    private final long[] least;
+    private final int[] values;
+    private final boolean[] used;
+    private final int mask;
+    private final int size;
+
+    /**
+     * @param map - map to copy. Null keys and values are skipped.
+     */
+    public UUIDIntMap(Map<UUID, Integer> map) {
+        // Keep the table at most half full
+        int capacity = Integer.highestOneBit(Math.max(map.size(), 1) * 4 - 1);
+        most = new long[capacity];
+        least = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        int n = 0;
+        for (Entry<UUID, Integer> en : map.entrySet()) {
+            if (en.getKey() != null && en.getValue() != null) {
+                put(en.getKey(), en.getValue());
+                n++;
+            }
+        }
+        size = n;
+    }
+
+    private void put(UUID uuid, int value) {
+        long m = uuid.getMostSignificantBits();
+        long l = uuid.getLeastSignificantBits();
+        int i = index(m, l);
+        while (used[i] && (most[i] != m || least[i] != l)) {
+            i = (i + 1) & mask;
+        }
+        used[i] = true;
+        most[i] = m;
+        least[i] = l;
+        values[i] = value;
+    }
+
+    /**
+     * @param uuid - uuid, may be null
+     * @param defaultValue - value to return if the uuid is not in the map
+     * @return the value or defaultValue
+     */
+    public int get(UUID uuid, int defaultValue) {
+        if (uuid == null) {
+            return defaultValue;
+        }
+        long m = uuid.getMostSignificantBits();
+        long l = uuid.getLeastSignificantBits();
+        int i = index(m, l);
+        while (used[i]) {
+            if (most[i] == m && least[i] == l) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private int index(long m, long l) {
+        long h = m ^ l;
+        int hash = (int)(h ^ (h >>> 32));
+        // Spread the bits
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
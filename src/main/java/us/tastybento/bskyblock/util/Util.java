@@ -6,6 +6,10 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.math.NumberUtils;
@@ -33,6 +37,14 @@ public class Util {
     private static final String THE_END = "_the_end";
     private static String serverVersion = null;
     private static BSkyBlock plugin = BSkyBlock.getInstance();
+    /**
+     * Over world of each nether and end world
+     */
+    private static final Map<World, World> overWorlds = new ConcurrentHashMap<>();
+    /**
+     * Nether and end worlds that have no over world, so they are not looked up again
+     */
+    private static final Set<World> noOverWorld = ConcurrentHashMap.newKeySet();
 
     private Util() {}
 
@@ -61,12 +73,23 @@ public class Util {
      * @return Location
      */
     public static Location getLocationString(final String s) {
+        return getLocationString(s, name -> Bukkit.getServer().getWorld(name));
+    }
+
+    /**
+     * Converts a serialized location to a Location, finding the world with the given function.
+     * Used when the server cannot be asked, e.g., off the server thread.
+     * @param s - serialized location in format "world:x:y:z:y:p"
+     * @param worlds - gets a world by name, or null if there is no such world
+     * @return Location or null if the world is not found
+     */
+    public static Location getLocationString(final String s, Function<String, World> worlds) {
         if (s == null || s.trim().equals("")) {
             return null;
         }
         final String[] parts = s.split(":");
         if (parts.length == 6) {
-            final World w = Bukkit.getServer().getWorld(parts[0]);
+            final World w = worlds.apply(parts[0]);
             if (w == null) {
                 return null;
             }
@@ -230,18 +253,85 @@ public class Util {
      * @return true if the same
      */
     public static boolean sameWorld(World world, World world2) {
-        String worldName = world.getName().replaceAll(NETHER, "").replaceAll(THE_END, "");
-        String world2Name = world2.getName().replaceAll(NETHER, "").replaceAll(THE_END, "");
-        return worldName.equalsIgnoreCase(world2Name);
+        if (world == world2) {
+            return true;
+        }
+        return getOverWorldName(world.getName()).equalsIgnoreCase(getOverWorldName(world2.getName()));
     }
 
     /**
-     * Convert world to an overworld
+     * Convert world to an overworld. The over world of each nether and end world is only looked up once,
+     * even if there is none.
      * @param world - world
-     * @return over world
+     * @return over world, or null if there is none
      */
     public static World getWorld(World world) {
-        return world.getEnvironment().equals(Environment.NORMAL) ? world : Bukkit.getWorld(world.getName().replaceAll(NETHER, "").replaceAll(THE_END, ""));
+        if (world.getEnvironment().equals(Environment.NORMAL)) {
+            return world;
+        }
+        World overWorld = overWorlds.get(world);
+        if (overWorld == null && !noOverWorld.contains(world)) {
+            overWorld = Bukkit.getWorld(getOverWorldName(world.getName()));
+            if (overWorld != null) {
+                overWorlds.put(world, overWorld);
+            } else {
+                noOverWorld.add(world);
+            }
+        }
+        return overWorld;
+    }
+
+    /**
+     * Remembers the over world of a nether or end world
+     * @param world - nether or end world
+     * @param overWorld - over world
+     */
+    public static void addOverWorld(World world, World overWorld) {
+        if (!world.getEnvironment().equals(Environment.NORMAL)) {
+            overWorlds.put(world, overWorld);
+            noOverWorld.remove(world);
+        }
+    }
+
+    /**
+     * Forgets any over world look ups that involve this world, e.g., because it has been unloaded
+     * @param world - world
+     */
+    public static void forgetWorld(World world) {
+        overWorlds.remove(world);
+        overWorlds.values().removeIf(world::equals);
+        noOverWorld.remove(world);
+    }
+
+    /**
+     * Forgets the nether and end worlds that were found to have no over world, e.g., because a world has been loaded
+     */
+    public static void forgetMissingOverWorlds() {
+        noOverWorld.clear();
+    }
+
+    /**
+     * Removes the nether and end parts of a world name without using regular expressions
+     * @param name - world name
+     * @return over world name
+     */
+    private static String getOverWorldName(String name) {
+        return remove(remove(name, NETHER), THE_END);
+    }
+
+    private static String remove(String name, String part) {
+        int i = name.indexOf(part);
+        if (i < 0) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name.length());
+        int start = 0;
+        while (i >= 0) {
+            sb.append(name, start, i);
+            start = i + part.length();
+            i = name.indexOf(part, start);
+        }
+        return sb.append(name, start, name.length()).toString();
     }
 
     /**
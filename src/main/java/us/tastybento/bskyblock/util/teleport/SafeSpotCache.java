@@ -0,0 +1,257 @@
+package us.tastybento.bskyblock.util.teleport;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.util.Vector;
+
+import us.tastybento.bskyblock.util.LongObjectMap;
+
+/**
+ * Remembers what {@link SafeSpotTeleport} found in each chunk it scanned, so that repeat teleports to the
+ * same island do not need to snapshot and scan chunks again. Entries are keyed by chunk coordinates and
+ * belong to the island that was being scanned. Block changes that the server fires events for, e.g., placing,
+ * breaking, explosions, pistons, buckets, flowing liquids, fire and leaf decay, remove the entry of the chunk.
+ * Changes without an event can still make a chunk with no safe spot gain one, so those entries expire after a
+ * short time. The number of chunks kept for each world is bounded.
+ * Chunks may be scanned async, so this class is thread-safe.
+ *
+ * @author tastybento
+ *
+ */
+public class SafeSpotCache implements Listener {
+
+    /**
+     * What was found in a chunk
+     */
+    public static class Entry {
+        private final String islandId;
+        private final Vector spot;
+        private final long time;
+
+        private Entry(String islandId, Vector spot, long time) {
+            this.islandId = islandId;
+            this.spot = spot;
+            this.time = time;
+        }
+
+        /**
+         * @return the first safe spot found in the chunk, or null if the chunk has no safe spot
+         */
+        public Vector getSpot() {
+            return spot == null ? null : spot.clone();
+        }
+    }
+
+    /**
+     * How long chunks with no safe spot are remembered
+     */
+    private static final long NEGATIVE_TTL = TimeUnit.SECONDS.toNanos(30);
+    /**
+     * Most chunks remembered in each world
+     */
+    private static final int MAX_CHUNKS = 4096;
+
+    private final Map<World, Map<Long, Entry>> cache = new ConcurrentHashMap<>();
+    private final long negativeTtl;
+    private final int maxChunks;
+
+    public SafeSpotCache() {
+        this(NEGATIVE_TTL, MAX_CHUNKS);
+    }
+
+    /**
+     * @param negativeTtl - how long, in nanoseconds, chunks with no safe spot are remembered
+     * @param maxChunks - most chunks remembered in each world
+     */
+    SafeSpotCache(long negativeTtl, int maxChunks) {
+        this.negativeTtl = negativeTtl;
+        this.maxChunks = maxChunks;
+    }
+
+    /**
+     * Gets what is known about a chunk
+     * @param world - world
+     * @param chunkX - chunk x
+     * @param chunkZ - chunk z
+     * @param islandId - unique id of the island being scanned, or null if there is no island
+     * @return the entry, or null if the chunk needs to be scanned
+     */
+    public Entry get(World world, int chunkX, int chunkZ, String islandId) {
+        Map<Long, Entry> chunks = cache.get(world);
+        if (chunks == null) {
+            return null;
+        }
+        long key = LongObjectMap.pack(chunkX, chunkZ);
+        Entry entry = chunks.get(key);
+        if (entry == null || !Objects.equals(entry.islandId, islandId)) {
+            return null;
+        }
+        if (entry.spot == null && System.nanoTime() - entry.time >= negativeTtl) {
+            chunks.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Remembers the result of scanning a chunk
+     * @param world - world
+     * @param chunkX - chunk x
+     * @param chunkZ - chunk z
+     * @param islandId - unique id of the island being scanned, or null if there is no island
+     * @param spot - the first safe spot found in the chunk, or null if there is none
+     */
+    public void put(World world, int chunkX, int chunkZ, String islandId, Vector spot) {
+        Map<Long, Entry> chunks = cache.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
+        long key = LongObjectMap.pack(chunkX, chunkZ);
+        if (!chunks.containsKey(key)) {
+            // Make room. Which chunks go does not matter much, they are just scanned again.
+            Iterator<Long> it = chunks.keySet().iterator();
+            while (chunks.size() >= maxChunks && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        chunks.put(key, new Entry(islandId, spot == null ? null : spot.clone(), System.nanoTime()));
+    }
+
+    /**
+     * Forgets what is known about a chunk
+     * @param world - world
+     * @param chunkX - chunk x
+     * @param chunkZ - chunk z
+     */
+    public void invalidate(World world, int chunkX, int chunkZ) {
+        Map<Long, Entry> chunks = cache.get(world);
+        if (chunks != null) {
+            chunks.remove(LongObjectMap.pack(chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Forgets everything
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return number of chunks that are known
+     */
+    public int size() {
+        return cache.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent e) {
+        invalidate(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent e) {
+        invalidate(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent e) {
+        // Blocks can be pushed into the next chunk
+        invalidate(e.getBlock());
+        for (Block b : e.getBlocks()) {
+            invalidate(b);
+            invalidate(b.getRelative(e.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent e) {
+        invalidate(e.getBlock());
+        for (Block b : e.getBlocks()) {
+            invalidate(b);
+            invalidate(b.getRelative(e.getDirection()));
+            invalidate(b.getRelative(e.getDirection().getOppositeFace()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent e) {
+        invalidate(e.getBlockClicked().getRelative(e.getBlockFace()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent e) {
+        invalidate(e.getBlockClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLiquidFlow(BlockFromToEvent e) {
+        invalidate(e.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent e) {
+        invalidate(e.getBlock());
+    }
+
+    private void invalidate(Block block) {
+        invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    /**
+     * Forgets the chunks of many blocks, e.g., of an explosion. Each chunk is only removed once.
+     */
+    private void invalidate(List<Block> blocks) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        Map<Long, Entry> chunks = cache.get(blocks.get(0).getWorld());
+        if (chunks == null || chunks.isEmpty()) {
+            return;
+        }
+        long last = 0;
+        boolean first = true;
+        for (Block b : blocks) {
+            long key = LongObjectMap.pack(b.getX() >> 4, b.getZ() >> 4);
+            if (first || key != last) {
+                chunks.remove(key);
+                last = key;
+                first = false;
+            }
+        }
+    }
+}
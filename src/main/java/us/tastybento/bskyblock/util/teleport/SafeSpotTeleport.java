@@ -20,6 +20,8 @@ import us.tastybento.bskyblock.BSkyBlock;
 import us.tastybento.bskyblock.api.user.User;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.util.Pair;
+import us.tastybento.bskyblock.util.timings.Timer;
+import us.tastybento.bskyblock.util.timings.Timings;
 
 /**
  * A class that calculates finds a safe spot asynchronously and then teleports the player there.
@@ -31,6 +33,33 @@ public class SafeSpotTeleport {
     private static final int MAX_CHUNKS = 200;
     private static final long SPEED = 1;
     private static final int MAX_RADIUS = 200;
+    private static final Timer SCAN = Timings.timer("safespot.scan-chunk");
+
+    // Results of checking a spot
+    private static final int UNSAFE = 0;
+    private static final int SAFE = 1;
+    private static final int PORTAL = 2;
+
+    // Ground block flags, indexed by material ordinal
+    private static final byte DANGEROUS = 1;
+    private static final byte FENCE_DOOR_GATE_PLATE = 2;
+    private static final byte[] GROUND = new byte[Material.values().length];
+    static {
+        for (Material type : Material.values()) {
+            String name = type.toString();
+            if (name.contains("FENCE") || name.contains("DOOR") || name.contains("GATE") || name.contains("PLATE")) {
+                GROUND[type.ordinal()] |= FENCE_DOOR_GATE_PLATE;
+            }
+        }
+        for (Material type : new Material[] {Material.ANVIL, Material.BARRIER, Material.BOAT, Material.CACTUS, Material.DOUBLE_PLANT,
+                Material.ENDER_PORTAL, Material.FIRE, Material.FLOWER_POT, Material.LADDER, Material.LAVA, Material.LEVER,
+                Material.LONG_GRASS, Material.PISTON_EXTENSION, Material.PISTON_MOVING_PIECE, Material.SIGN_POST, Material.SKULL,
+                Material.STANDING_BANNER, Material.STATIONARY_LAVA, Material.STATIONARY_WATER, Material.STONE_BUTTON,
+                Material.TORCH, Material.TRIPWIRE, Material.WATER, Material.WEB, Material.WOOD_BUTTON}) {
+            GROUND[type.ordinal()] |= DANGEROUS;
+        }
+    }
+
     private boolean checking;
     private BukkitTask task;
 
@@ -46,6 +75,9 @@ public class SafeSpotTeleport {
 
     private BSkyBlock plugin;
     private List<Pair<Integer, Integer>> chunksToScan;
+    private SafeSpotCache cache;
+    private String islandId;
+    private boolean cacheable;
 
     /**
      * Teleports and entity to a safe spot on island
@@ -63,15 +95,21 @@ public class SafeSpotTeleport {
         this.location = location;
         this.portal = portal;
         this.homeNumber = homeNumber;
+        this.cache = plugin.getIslands().getSafeSpotCache();
+
+        // Get chunks to scan
+        chunksToScan = getChunksToScan();
+
+        // Try spots found by earlier teleports first
+        if (!portal && teleportToCachedSpot()) {
+            return;
+        }
 
         // Put player into spectator mode
         if (entity instanceof Player && ((Player)entity).getGameMode().equals(GameMode.SURVIVAL)) {
             ((Player)entity).setGameMode(GameMode.SPECTATOR);
         }
 
-        // Get chunks to scan
-        chunksToScan = getChunksToScan();
-
         // Start checking
         checking = true;
 
@@ -131,6 +169,7 @@ public class SafeSpotTeleport {
         List<Pair<Integer, Integer>> result = new ArrayList<>();
         // Get island if available
         Optional<Island> island = plugin.getIslands().getIslandAt(location);
+        islandId = island.map(Island::getUniqueId).orElse(null);
         int maxRadius = island.map(Island::getProtectionRange).orElse(plugin.getIWM().getIslandProtectionRange(location.getWorld()));
         maxRadius = maxRadius > MAX_RADIUS ? MAX_RADIUS : maxRadius;
 
@@ -166,6 +205,42 @@ public class SafeSpotTeleport {
         }
     }
 
+    /**
+     * Goes through the chunks in scan order using what earlier scans found. Stops at the first chunk that
+     * is not known. Cached spots are checked against the world before they are used.
+     * @return true if the entity is being teleported to a cached spot
+     */
+    private boolean teleportToCachedSpot() {
+        World world = location.getWorld();
+        int worldHeight = world.getMaxHeight() - 20;
+        Iterator<Pair<Integer, Integer>> it = chunksToScan.iterator();
+        while (it.hasNext()) {
+            Pair<Integer, Integer> pair = it.next();
+            SafeSpotCache.Entry entry = cache.get(world, pair.x, pair.z, islandId);
+            if (entry == null) {
+                // This chunk and the rest need to be scanned
+                return false;
+            }
+            Vector spot = entry.getSpot();
+            if (spot != null) {
+                int x = spot.getBlockX();
+                int y = spot.getBlockY() - 1;
+                int z = spot.getBlockZ();
+                if (checkSpot(world.getBlockAt(x, y, z).getType(), world.getBlockAt(x, Math.min(y + 1, worldHeight), z).getType(),
+                        world.getBlockAt(x, Math.min(y + 2, worldHeight), z).getType()) == SAFE) {
+                    teleportEntity(spot.toLocation(world));
+                    return true;
+                }
+                // Changed without a block event, so scan it again
+                cache.invalidate(world, pair.x, pair.z);
+                return false;
+            }
+            // Nothing safe in this chunk
+            it.remove();
+        }
+        return false;
+    }
+
     /**
      * Loops through the chunks and if a safe spot is found, fires off the teleportation
      * @param chunkSnapshot - list of chunk snapshots to check
@@ -190,6 +265,17 @@ public class SafeSpotTeleport {
      * @return true if a safe spot was found
      */
     private boolean scanChunk(ChunkSnapshot chunk) {
+        long start = SCAN.start();
+        try {
+            return scan(chunk);
+        } finally {
+            SCAN.stop(start);
+        }
+    }
+
+    private boolean scan(ChunkSnapshot chunk) {
+        // Only non-portal scans give the same result every time
+        cacheable = !portal;
         // Max height
         int maxHeight = location.getWorld().getMaxHeight() - 20;
         // Run through the chunk
@@ -203,6 +289,9 @@ public class SafeSpotTeleport {
                 } // end y
             } //end z
         } // end x
+        if (cacheable) {
+            cache.put(location.getWorld(), chunk.getX(), chunk.getZ(), islandId, null);
+        }
         return false;
     }
 
@@ -210,7 +299,9 @@ public class SafeSpotTeleport {
      * Teleports entity to the safe spot
      */
     private void teleportEntity(final Location loc) {
-        task.cancel();
+        if (task != null) {
+            task.cancel();
+        }
         // Return to main thread and teleport the player
         Bukkit.getScheduler().runTask(plugin, () -> {
             if (!portal && entity instanceof Player) {
@@ -242,54 +333,45 @@ public class SafeSpotTeleport {
      * @return true if this is a safe spot, false if this is a portal scan
      */
     private boolean checkBlock(ChunkSnapshot chunk, int x, int y, int z, int worldHeight) {
-        World world = location.getWorld();
         Material type = chunk.getBlockType(x, y, z);
-        if (!type.equals(Material.AIR)) { // AIR
-            Material space1 = chunk.getBlockType(x, Math.min(y + 1, worldHeight), z);
-            Material space2 = chunk.getBlockType(x, Math.min(y + 2, worldHeight), z);
-            if ((space1.equals(Material.AIR) && space2.equals(Material.AIR)) || (space1.equals(Material.PORTAL) && space2.equals(Material.PORTAL))
-                    && (!type.toString().contains("FENCE") && !type.toString().contains("DOOR") && !type.toString().contains("GATE") && !type.toString().contains("PLATE"))) {
-                switch (type) {
-                // Unsafe
-                case ANVIL:
-                case BARRIER:
-                case BOAT:
-                case CACTUS:
-                case DOUBLE_PLANT:
-                case ENDER_PORTAL:
-                case FIRE:
-                case FLOWER_POT:
-                case LADDER:
-                case LAVA:
-                case LEVER:
-                case LONG_GRASS:
-                case PISTON_EXTENSION:
-                case PISTON_MOVING_PIECE:
-                case SIGN_POST:
-                case SKULL:
-                case STANDING_BANNER:
-                case STATIONARY_LAVA:
-                case STATIONARY_WATER:
-                case STONE_BUTTON:
-                case TORCH:
-                case TRIPWIRE:
-                case WATER:
-                case WEB:
-                case WOOD_BUTTON:
-                    //Block is dangerous
-                    break;
-                case PORTAL:
-                    if (portal) {
-                        // A portal has been found, switch to non-portal mode now
-                        portal = false;
-                    }
-                    break;
-                default:
-                    return safe(chunk, x, y, z, world);
-                }
+        if (type.equals(Material.AIR)) {
+            return false;
+        }
+        switch (checkSpot(type, chunk.getBlockType(x, Math.min(y + 1, worldHeight), z), chunk.getBlockType(x, Math.min(y + 2, worldHeight), z))) {
+        case SAFE:
+            return safe(chunk, x, y, z, location.getWorld());
+        case PORTAL:
+            if (portal) {
+                // A portal has been found, switch to non-portal mode now
+                portal = false;
             }
+            return false;
+        default:
+            return false;
         }
-        return false;
+    }
+
+    /**
+     * Checks if standing on a block is safe
+     * @param type - ground block
+     * @param space1 - block above the ground
+     * @param space2 - block above that
+     * @return SAFE, UNSAFE or PORTAL if the ground is a portal block with room above it
+     */
+    private static int checkSpot(Material type, Material space1, Material space2) {
+        if (type.equals(Material.AIR)) {
+            return UNSAFE;
+        }
+        byte flags = GROUND[type.ordinal()];
+        if ((space1.equals(Material.AIR) && space2.equals(Material.AIR))
+                || (space1.equals(Material.PORTAL) && space2.equals(Material.PORTAL) && (flags & FENCE_DOOR_GATE_PLATE) == 0)) {
+            if ((flags & DANGEROUS) != 0) {
+                //Block is dangerous
+                return UNSAFE;
+            }
+            return type.equals(Material.PORTAL) ? PORTAL : SAFE;
+        }
+        return UNSAFE;
     }
 
     private boolean safe(ChunkSnapshot chunk, int x, int y, int z, World world) {
@@ -301,6 +383,9 @@ public class SafeSpotTeleport {
             }
             return false;
         } else {
+            if (cacheable) {
+                cache.put(world, chunk.getX(), chunk.getZ(), islandId, newSpot);
+            }
             teleportEntity(newSpot.toLocation(world));
             return true;
         }
@@ -0,0 +1,61 @@
+package us.tastybento.bskyblock.util.timings;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts something, e.g., blocks pasted. Can be used from any thread.
+ *
+ * @author tastybento
+ *
+ */
+public class Counter {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param name - name shown in reports
+     */
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds one
+     */
+    public void increment() {
+        if (Timings.isEnabled()) {
+            count.increment();
+        }
+    }
+
+    /**
+     * @param n - amount to add
+     */
+    public void add(long n) {
+        if (Timings.isEnabled()) {
+            count.add(n);
+        }
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the count
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * Sets the count back to zero
+     */
+    public void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,176 @@
+package us.tastybento.bskyblock.util.timings;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts calls of something and times them. Every call is counted. Sampled timers only time one in
+ * {@link Timings#getSampleRate()} calls, so they are cheap enough for protection checks and look ups.
+ * Times are kept as a total, a maximum and a histogram with one bucket per power of two nanoseconds.
+ * <p>
+ * Timers can be used from any thread. Use like this:
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ *
+ * @author tastybento
+ *
+ */
+public class Timer {
+
+    /**
+     * Returned by {@link #start()} when this call is not timed
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final boolean sampled;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder timed = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param name - name shown in reports
+     * @param sampled - true if only some calls are timed
+     */
+    Timer(String name, boolean sampled) {
+        this.name = name;
+        this.sampled = sampled;
+    }
+
+    /**
+     * Counts a call and starts timing it if it is sampled
+     * @return start time to pass to {@link #stop(long)}, or {@link #NOT_TIMED}
+     */
+    public long start() {
+        if (!Timings.isEnabled()) {
+            return NOT_TIMED;
+        }
+        calls.increment();
+        if (sampled && ThreadLocalRandom.current().nextInt(Timings.getSampleRate()) != 0) {
+            return NOT_TIMED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing a call
+     * @param start - value returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if (start != NOT_TIMED) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time of a call that was timed
+     * @param nanos - time taken in nanoseconds
+     */
+    private void record(long nanos) {
+        timed.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+        histogram.incrementAndGet(bucket(nanos));
+    }
+
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return number of calls that were timed
+     */
+    public long getTimed() {
+        return timed.sum();
+    }
+
+    /**
+     * @return total time of the timed calls in nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+
+    /**
+     * @return estimated total time of all the calls in nanoseconds
+     */
+    public long getEstimatedTotalNanos() {
+        long t = getTimed();
+        return t == 0 ? 0 : getTotalNanos() / t * getCalls();
+    }
+
+    /**
+     * @return mean time of the timed calls in nanoseconds
+     */
+    public long getMeanNanos() {
+        long t = getTimed();
+        return t == 0 ? 0 : getTotalNanos() / t;
+    }
+
+    /**
+     * @return longest time of a timed call in nanoseconds
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile from the histogram. The result is the upper end of the bucket it falls in,
+     * so it can be up to twice the real value.
+     * @param percentile - percentile, from 0 to 100
+     * @return time in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        long t = getTimed();
+        if (t == 0) {
+            return 0;
+        }
+        long rank = (long)Math.ceil(t * percentile / 100D);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram.get(i);
+            if (seen >= rank) {
+                return Math.min(getMaxNanos(), i == 0 ? 0 : (1L << i) - 1);
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Clears the counts and times
+     */
+    public void reset() {
+        calls.reset();
+        timed.reset();
+        total.reset();
+        max.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.set(i, 0);
+        }
+    }
+}
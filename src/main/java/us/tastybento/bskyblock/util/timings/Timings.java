@@ -0,0 +1,155 @@
+package us.tastybento.bskyblock.util.timings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import us.tastybento.bskyblock.api.flags.Flag;
+
+/**
+ * Holds the timers and counters of the hot paths, e.g., protection checks, island look ups and database
+ * saves, so admins can see what costs what without attaching a profiler. Timers and counters are made
+ * the first time they are asked for and live until the server stops.
+ *
+ * @author tastybento
+ *
+ */
+public class Timings {
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    /**
+     * Flag timers by flag, so checks do not build a name each time
+     */
+    private static final Map<Flag, Timer> FLAGS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = true;
+    private static volatile int sampleRate = 16;
+    private static volatile long since = System.currentTimeMillis();
+
+    private Timings() {}
+
+    /**
+     * Gets a timer that times every call. Use for things that are not done many times a tick.
+     * @param name - name of the timer
+     * @return timer
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new Timer(n, false));
+    }
+
+    /**
+     * Gets a timer that counts every call but only times some of them. Use for things done many times a tick.
+     * @param name - name of the timer
+     * @return timer
+     */
+    public static Timer sampledTimer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> new Timer(n, true));
+    }
+
+    /**
+     * Gets the sampled timer of the protection checks of a flag
+     * @param flag - flag
+     * @return timer
+     */
+    public static Timer flag(Flag flag) {
+        Timer timer = FLAGS.get(flag);
+        if (timer == null) {
+            timer = FLAGS.computeIfAbsent(flag, f -> sampledTimer("flag." + f.getID()));
+        }
+        return timer;
+    }
+
+    /**
+     * Gets a counter
+     * @param name - name of the counter
+     * @return counter
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * @return true if calls are being counted and timed
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return one in this many calls of sampled timers are timed
+     */
+    public static int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Sets how many calls of sampled timers are timed. 0 or less stops all counting and timing.
+     * @param rate - one in this many calls is timed
+     */
+    public static void setSampleRate(int rate) {
+        enabled = rate > 0;
+        sampleRate = Math.max(1, rate);
+    }
+
+    /**
+     * Clears all the timers and counters
+     */
+    public static void reset() {
+        TIMERS.values().forEach(Timer::reset);
+        COUNTERS.values().forEach(Counter::reset);
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * @return time of the last reset, or when the server started, in milliseconds
+     */
+    public static long getSince() {
+        return since;
+    }
+
+    /**
+     * Makes a report of the timers that have been called, most costly first, followed by the counters
+     * @return lines of the report
+     */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        TIMERS.values().stream()
+        .filter(t -> t.getCalls() > 0)
+        .sorted(Comparator.comparingLong(Timer::getEstimatedTotalNanos).reversed().thenComparing(Timer::getName))
+        .forEach(t -> lines.add(t.getName() + " calls=" + t.getCalls()
+        + " mean=" + micros(t.getMeanNanos())
+        + " p95=" + micros(t.getPercentileNanos(95))
+        + " max=" + micros(t.getMaxNanos())
+        + " total=" + micros(t.getEstimatedTotalNanos())));
+        COUNTERS.values().stream()
+        .filter(c -> c.get() > 0)
+        .sorted(Comparator.comparing(Counter::getName))
+        .forEach(c -> lines.add(c.getName() + " count=" + c.get()));
+        return lines;
+    }
+
+    /**
+     * Writes the report to a file, replacing what was there
+     * @param file - file to write
+     * @throws IOException - if the file cannot be written
+     */
+    public static void dump(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Timings from " + new Date(since) + " to " + new Date() + ", one in " + sampleRate + " sampled calls timed");
+        lines.addAll(report());
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1000D);
+    }
+}
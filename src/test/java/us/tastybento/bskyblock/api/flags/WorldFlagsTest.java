@@ -0,0 +1,98 @@
+package us.tastybento.bskyblock.api.flags;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import us.tastybento.bskyblock.Settings;
+import us.tastybento.bskyblock.api.configuration.WorldSettings;
+
+public class WorldFlagsTest {
+
+    private WorldSettings ws;
+    private Map<String, Boolean> worldFlags;
+    private Flag flag;
+
+    @Before
+    public void setUp() throws Exception {
+        ws = mock(WorldSettings.class);
+        worldFlags = new HashMap<>();
+        when(ws.getWorldFlags()).thenReturn(worldFlags);
+        flag = new Flag("id", null, null, Flag.Type.WORLD_SETTING, 0, null, false);
+        flag.setOrdinal(3);
+    }
+
+    @Test
+    public void testOf() {
+        assertSame(WorldFlags.of(ws), WorldFlags.of(ws));
+    }
+
+    @Test
+    public void testDefaultIsStored() {
+        assertTrue(WorldFlags.of(ws).isSet(flag, true));
+        assertTrue(worldFlags.get("id"));
+    }
+
+    @Test
+    public void testStoredValueWins() {
+        worldFlags.put("id", false);
+        assertFalse(WorldFlags.of(ws).isSet(flag, true));
+    }
+
+    @Test
+    public void testSet() {
+        WorldFlags flags = WorldFlags.of(ws);
+        assertFalse(flags.isSet(flag, false));
+        flags.set(flag, true);
+        assertTrue(flags.isSet(flag, false));
+        assertTrue(worldFlags.get("id"));
+    }
+
+    @Test
+    public void testReset() {
+        WorldFlags flags = WorldFlags.of(ws);
+        assertFalse(flags.isSet(flag, false));
+        // Changed behind its back
+        worldFlags.put("id", true);
+        assertFalse(flags.isSet(flag, false));
+        WorldFlags.reset(ws);
+        assertTrue(flags.isSet(flag, false));
+    }
+
+    @Test
+    public void testSetWorldFlagsResets() {
+        Settings settings = new Settings();
+        WorldFlags flags = WorldFlags.of(settings);
+        assertFalse(flags.isSet(flag, false));
+        Map<String, Boolean> newFlags = new HashMap<>();
+        newFlags.put("id", true);
+        settings.setWorldFlags(newFlags);
+        assertTrue(flags.isSet(flag, false));
+    }
+
+    @Test
+    public void testUnregisteredFlag() {
+        Flag unregistered = new Flag("other", null, null, Flag.Type.WORLD_SETTING, 0, null, false);
+        WorldFlags flags = WorldFlags.of(ws);
+        assertFalse(flags.isSet(unregistered, false));
+        worldFlags.put("other", true);
+        assertTrue(flags.isSet(unregistered, false));
+    }
+
+    @Test
+    public void testSettingsAreSeparate() {
+        WorldSettings other = mock(WorldSettings.class);
+        when(other.getWorldFlags()).thenReturn(new HashMap<>());
+        WorldFlags.of(ws).set(flag, true);
+        assertFalse(WorldFlags.of(other).isSet(flag, false));
+        assertTrue(WorldFlags.of(ws).isSet(flag, false));
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -109,6 +110,8 @@ public class AdminInfoCommandTest {
 
         // Has team 
         pm = mock(PlayersManager.class);
+        // Players are loaded straight away
+        when(pm.prefetch(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         when(im.inTeam(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
 
         when(plugin.getPlayers()).thenReturn(pm);
@@ -144,7 +147,7 @@ public class AdminInfoCommandTest {
     public void testExecuteUnknownPlayer() {
         AdminInfoCommand itl = new AdminInfoCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.unknown-player"));
     }
@@ -156,7 +159,7 @@ public class AdminInfoCommandTest {
     public void testExecutePlayerHasNoIsland() {
         AdminInfoCommand itl = new AdminInfoCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(false);
         when(im.inTeam(Mockito.any(), Mockito.any())).thenReturn(false);
         assertFalse(itl.execute(user, Arrays.asList(name)));
@@ -170,7 +173,7 @@ public class AdminInfoCommandTest {
     public void testExecuteSuccess() {
         AdminInfoCommand itl = new AdminInfoCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(true);
         Island is = mock(Island.class);
         when(im.getIsland(Mockito.any(), Mockito.eq(notUUID))).thenReturn(is);
@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -141,7 +142,7 @@ public class AdminRegisterCommandTest {
     public void testExecuteUnknownPlayer() {
         AdminRegisterCommand itl = new AdminRegisterCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.unknown-player"));
     }
@@ -153,7 +154,7 @@ public class AdminRegisterCommandTest {
     public void testExecutePlayerHasIsland() {
         AdminRegisterCommand itl = new AdminRegisterCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(true);
         when(im.inTeam(Mockito.any(), Mockito.any())).thenReturn(false);
         assertFalse(itl.execute(user, Arrays.asList(name)));
@@ -168,7 +169,7 @@ public class AdminRegisterCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(false);
         when(im.inTeam(Mockito.any(), Mockito.any())).thenReturn(true);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         AdminRegisterCommand itl = new AdminRegisterCommand(ac);
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage("commands.admin.register.cannot-register-team-player");
@@ -182,7 +183,7 @@ public class AdminRegisterCommandTest {
         when(im.inTeam(Mockito.any(), Mockito.any())).thenReturn(false);
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(false);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         Location loc = mock(Location.class);
         
         // Island has owner
@@ -212,7 +213,7 @@ public class AdminRegisterCommandTest {
         when(im.getIslandAt(Mockito.any())).thenReturn(opi);
         when(user.getLocation()).thenReturn(loc);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
 
         AdminRegisterCommand itl = new AdminRegisterCommand(ac);
         assertTrue(itl.execute(user, Arrays.asList(name)));
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -139,7 +140,7 @@ public class AdminUnregisterCommandTest {
     public void testExecuteUnknownPlayer() {
         AdminUnregisterCommand itl = new AdminUnregisterCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.unknown-player"));
     }
@@ -151,7 +152,7 @@ public class AdminUnregisterCommandTest {
     public void testExecutePlayerNoIsland() {
         AdminUnregisterCommand itl = new AdminUnregisterCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         when(im.hasIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(false);
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.player-has-no-island"));
@@ -164,7 +165,7 @@ public class AdminUnregisterCommandTest {
     public void testExecuteInTeam() {
         when(im.inTeam(Mockito.any(),Mockito.any())).thenReturn(true);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         AdminUnregisterCommand itl = new AdminUnregisterCommand(ac);
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage("commands.admin.unregister.cannot-unregister-team-player");
@@ -182,7 +183,7 @@ public class AdminUnregisterCommandTest {
         when(is.getCenter()).thenReturn(loc);
         when(im.getIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(is);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
 
         AdminUnregisterCommand itl = new AdminUnregisterCommand(ac);
         assertTrue(itl.execute(user, Arrays.asList(name)));
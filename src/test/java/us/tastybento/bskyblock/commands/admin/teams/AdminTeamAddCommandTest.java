@@ -10,6 +10,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -150,14 +151,14 @@ public class AdminTeamAddCommandTest {
         String[] name = {"tastybento", "poslovich"};
         
         // Unknown leader
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(null);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(null));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage("general.errors.unknown-player-name", "[name]", "tastybento");
         
         // Unknown target
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage("general.errors.unknown-player-name", "[name]", "poslovich");
     }
@@ -170,8 +171,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         when(im.inTeam(Mockito.any(), Mockito.eq(notUUID))).thenReturn(true);
         
@@ -188,8 +189,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         // No island,
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(false);
@@ -207,8 +208,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         // Has island, has team, but not a leader
         when(im.hasIsland(Mockito.any(),Mockito.eq(uuid))).thenReturn(true);
@@ -232,8 +233,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         // Has island, has team, is leader
         when(im.hasIsland(Mockito.any(),Mockito.eq(uuid))).thenReturn(true);
@@ -256,8 +257,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         // Has island, no team
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
@@ -279,8 +280,8 @@ public class AdminTeamAddCommandTest {
         AdminTeamAddCommand itl = new AdminTeamAddCommand(ac);
         String[] name = {"tastybento", "poslovich"};       
         
-        when(pm.getUUID(Mockito.eq("tastybento"))).thenReturn(uuid);
-        when(pm.getUUID(Mockito.eq("poslovich"))).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.eq("tastybento"))).thenReturn(CompletableFuture.completedFuture(uuid));
+        when(pm.getUUIDAsync(Mockito.eq("poslovich"))).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         // Has island, no team
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
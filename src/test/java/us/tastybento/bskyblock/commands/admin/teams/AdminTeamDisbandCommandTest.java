@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -139,7 +140,7 @@ public class AdminTeamDisbandCommandTest {
     public void testExecuteUnknownPlayer() {
         AdminTeamDisbandCommand itl = new AdminTeamDisbandCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.unknown-player"));
     }
@@ -151,7 +152,7 @@ public class AdminTeamDisbandCommandTest {
     public void testExecutePlayerNotInTeam() {
         AdminTeamDisbandCommand itl = new AdminTeamDisbandCommand(ac);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         when(im.getMembers(Mockito.any(), Mockito.any())).thenReturn(new HashSet<>());
         assertFalse(itl.execute(user, Arrays.asList(name)));
         Mockito.verify(user).sendMessage(Mockito.eq("general.errors.not-in-team"));
@@ -166,7 +167,7 @@ public class AdminTeamDisbandCommandTest {
         Island is = mock(Island.class);
         when(im.getIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(is);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         
         when(im.getTeamLeader(Mockito.any(), Mockito.eq(notUUID))).thenReturn(uuid);
         when(pm.getName(Mockito.any())).thenReturn("leader");
@@ -185,7 +186,7 @@ public class AdminTeamDisbandCommandTest {
         Island is = mock(Island.class);
         when(im.getIsland(Mockito.any(), Mockito.any(UUID.class))).thenReturn(is);
         String[] name = {"tastybento"};
-        when(pm.getUUID(Mockito.any())).thenReturn(notUUID);
+        when(pm.getUUIDAsync(Mockito.any())).thenReturn(CompletableFuture.completedFuture(notUUID));
         // Leader
         when(im.getTeamLeader(Mockito.any(), Mockito.eq(notUUID))).thenReturn(notUUID);
         // Members
@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
@@ -26,6 +27,7 @@ import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -166,7 +168,7 @@ public class IslandBanCommandTest {
         IslandBanCommand ibc = new IslandBanCommand(ic);
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
-        when(pm.getUUID(Mockito.anyString())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(ibc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("general.errors.unknown-player");
     }
@@ -176,7 +178,7 @@ public class IslandBanCommandTest {
         IslandBanCommand ibc = new IslandBanCommand(ic);
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
-        when(pm.getUUID(Mockito.anyString())).thenReturn(uuid);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(uuid));
         assertFalse(ibc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("commands.island.ban.cannot-ban-yourself");
     }
@@ -187,7 +189,7 @@ public class IslandBanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID teamMate = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(teamMate);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(teamMate));
         Set<UUID> members = new HashSet<>();
         members.add(uuid);
         members.add(teamMate);
@@ -202,7 +204,7 @@ public class IslandBanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID bannedUser = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(bannedUser);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(bannedUser));
         when(island.isBanned(Mockito.eq(bannedUser))).thenReturn(true);
         assertFalse(ibc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("commands.island.ban.player-already-banned");
@@ -214,7 +216,7 @@ public class IslandBanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID op = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(op);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(op));
         PowerMockito.mockStatic(User.class);
         User opUser = mock(User.class);
         when(opUser.isOp()).thenReturn(true);
@@ -230,7 +232,7 @@ public class IslandBanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID targetUuid = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(targetUuid);        
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(targetUuid));        
         PowerMockito.mockStatic(User.class);
         User targetUser = mock(User.class);
         when(targetUser.isOp()).thenReturn(false);
@@ -246,13 +248,37 @@ public class IslandBanCommandTest {
         Mockito.verify(targetUser).sendMessage("commands.island.ban.owner-banned-you", TextVariables.NAME, user.getName());
     }
 
+    @Test
+    public void testBanUserNotInMemory() {
+        IslandBanCommand ibc = new IslandBanCommand(ic);
+        when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
+        when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
+        // The name is looked up in the background
+        CompletableFuture<UUID> lookUp = new CompletableFuture<>();
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(lookUp);
+        PowerMockito.mockStatic(User.class);
+        User targetUser = mock(User.class);
+        when(User.getInstance(Mockito.any(UUID.class))).thenReturn(targetUser);
+        when(island.addToBanList(Mockito.any())).thenReturn(true);
+
+        assertTrue(ibc.execute(user, Arrays.asList("bill")));
+        Mockito.verify(island, Mockito.never()).addToBanList(Mockito.any());
+        // The rest of the command is run on the server thread once the name is known
+        lookUp.complete(UUID.randomUUID());
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(Bukkit.getScheduler()).runTask(Mockito.any(), task.capture());
+        task.getValue().run();
+        Mockito.verify(user).sendMessage("general.success");
+        Mockito.verify(targetUser).sendMessage("commands.island.ban.owner-banned-you", TextVariables.NAME, user.getName());
+    }
+
     @Test
     public void testBanOnlineUser() {
         IslandBanCommand ibc = new IslandBanCommand(ic);
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID op = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(op);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(op));
         PowerMockito.mockStatic(User.class);
         User targetUser = mock(User.class);
         when(targetUser.isOp()).thenReturn(false);
@@ -273,7 +299,7 @@ public class IslandBanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID op = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(op);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(op));
         PowerMockito.mockStatic(User.class);
         User targetUser = mock(User.class);
         when(targetUser.isOp()).thenReturn(false);
@@ -15,6 +15,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -97,6 +98,8 @@ public class IslandBanlistCommandTest {
 
         // Has team
         pm = mock(PlayersManager.class);
+        // Players are loaded straight away
+        when(pm.prefetch(Mockito.any())).thenReturn(CompletableFuture.completedFuture(null));
         when(im.inTeam(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(plugin.getPlayers()).thenReturn(pm);
 
@@ -167,6 +170,8 @@ public class IslandBanlistCommandTest {
 
         });       
         assertTrue(iubc.execute(user, new ArrayList<>()));
+        // The banned players are loaded in one go before their names are used
+        Mockito.verify(pm).prefetch(banned);
         Mockito.verify(user).sendMessage("commands.island.banlist.the-following");
     }
 
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -158,7 +159,7 @@ public class IslandUnbanCommandTest {
         IslandUnbanCommand iubc = new IslandUnbanCommand(ic);
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
-        when(pm.getUUID(Mockito.anyString())).thenReturn(null);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(null));
         assertFalse(iubc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("general.errors.unknown-player");
     }
@@ -168,7 +169,7 @@ public class IslandUnbanCommandTest {
         IslandUnbanCommand iubc = new IslandUnbanCommand(ic);
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
-        when(pm.getUUID(Mockito.anyString())).thenReturn(uuid);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(uuid));
         assertFalse(iubc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("commands.island.unban.cannot-unban-yourself");
     }
@@ -179,7 +180,7 @@ public class IslandUnbanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID bannedUser = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(bannedUser);
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(bannedUser));
         when(island.isBanned(Mockito.eq(bannedUser))).thenReturn(false);
         assertFalse(iubc.execute(user, Arrays.asList("bill")));
         Mockito.verify(user).sendMessage("commands.island.unban.player-not-banned");
@@ -191,7 +192,7 @@ public class IslandUnbanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID targetUUID = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(targetUUID);        
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(targetUUID));        
         PowerMockito.mockStatic(User.class);
         User targetUser = mock(User.class);
         when(targetUser.isOp()).thenReturn(false);
@@ -215,7 +216,7 @@ public class IslandUnbanCommandTest {
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
         UUID targetUUID = UUID.randomUUID();
-        when(pm.getUUID(Mockito.anyString())).thenReturn(targetUUID);        
+        when(pm.getUUIDAsync(Mockito.anyString())).thenReturn(CompletableFuture.completedFuture(targetUUID));        
         PowerMockito.mockStatic(User.class);
         User targetUser = mock(User.class);
         when(targetUser.isOp()).thenReturn(false);
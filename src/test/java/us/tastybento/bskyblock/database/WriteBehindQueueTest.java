@@ -0,0 +1,282 @@
+package us.tastybento.bskyblock.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import us.tastybento.bskyblock.database.objects.DataObject;
+
+/**
+ * @author tastybento
+ *
+ */
+public class WriteBehindQueueTest {
+
+    private AbstractDatabaseHandler<DataObject> handler;
+    private Logger logger;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        handler = mock(AbstractDatabaseHandler.class);
+        // Snapshots are the objects and batches are saved one by one by default
+        Mockito.doCallRealMethod().when(handler).snapshot(Mockito.any());
+        Mockito.doCallRealMethod().when(handler).saveSnapshots(Mockito.anyCollection());
+        Mockito.doCallRealMethod().when(handler).saveObjects(Mockito.anyCollection());
+        logger = Logger.getAnonymousLogger();
+    }
+
+    private DataObject object(String id) {
+        DataObject o = mock(DataObject.class);
+        Mockito.when(o.getUniqueId()).thenReturn(id);
+        return o;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#save(java.lang.Object)}.
+     */
+    @Test
+    public void testSaveAndClose() throws Exception {
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        DataObject a = object("a");
+        DataObject b = object("b");
+        assertTrue(q.save(a));
+        assertTrue(q.save(b));
+        q.close();
+        Mockito.verify(handler).saveObject(a);
+        Mockito.verify(handler).saveObject(b);
+        assertEquals(0, q.size());
+        assertEquals(2, q.getWritten());
+        // Closed, so the caller has to write it
+        assertFalse(q.save(a));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#save(java.lang.Object)}.
+     */
+    @Test
+    public void testSaveCoalesces() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataObject a = object("a");
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(handler).saveObject(a);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        // Wait until the writer is busy with a
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        DataObject b1 = object("b");
+        DataObject b2 = object("b");
+        q.save(b1);
+        q.save(b2);
+        q.save(b2);
+        assertEquals(2, q.size());
+        release.countDown();
+        q.close();
+        Mockito.verify(handler).saveObject(a);
+        Mockito.verify(handler, Mockito.never()).saveObject(b1);
+        Mockito.verify(handler).saveObject(b2);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#save(java.lang.Object)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSavesAreBatched() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataObject a = object("a");
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(handler).saveObject(a);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        DataObject b = object("b");
+        DataObject c = object("c");
+        q.save(b);
+        q.save(c);
+        release.countDown();
+        q.close();
+        ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(handler).saveObjects(captor.capture());
+        assertEquals(Arrays.asList(b, c), new ArrayList<>(captor.getValue()));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#delete(java.lang.Object)}.
+     */
+    @Test
+    public void testDeleteReplacesSave() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataObject a = object("a");
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(handler).saveObject(a);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        DataObject b = object("b");
+        q.save(b);
+        q.delete(b);
+        WriteBehindQueue.Op<DataObject> op = q.getQueued("b");
+        assertNotNull(op);
+        assertTrue(op.delete);
+        assertNull(q.getQueued("c"));
+        release.countDown();
+        q.close();
+        Mockito.verify(handler, Mockito.never()).saveObject(b);
+        Mockito.verify(handler).deleteObject(b);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#flush()}.
+     */
+    @Test
+    public void testFlushRetriesFailures() throws Exception {
+        DataObject a = object("a");
+        Mockito.doThrow(new IllegalAccessException("fail")).doNothing().when(handler).saveObject(a);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        q.flush();
+        assertEquals(0, q.size());
+        Mockito.verify(handler, Mockito.times(2)).saveObject(a);
+        assertEquals(1, q.getWritten());
+        assertTrue(q.takeFailed().isEmpty());
+        q.close();
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#save(java.lang.Object)}.
+     */
+    @Test
+    public void testSnapshotTakenWhenQueued() throws Exception {
+        DataObject a = object("a");
+        Mockito.when(handler.snapshot(a)).thenReturn("first");
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        Mockito.doNothing().when(handler).saveSnapshots(Mockito.anyCollection());
+        q.save(a);
+        Mockito.verify(handler).snapshot(a);
+        q.close();
+        // What is written is what the object was when it was queued
+        Mockito.verify(handler).saveSnapshots(Collections.singletonList("first"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#takeFailed()}.
+     */
+    @Test
+    public void testTakeFailed() throws Exception {
+        DataObject a = object("a");
+        DataObject b = object("b");
+        Mockito.doThrow(new IllegalAccessException("fail")).when(handler).saveObject(a);
+        Mockito.doThrow(new IllegalAccessException("fail")).when(handler).saveObject(b);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        q.flush();
+        q.save(b);
+        q.flush();
+        // Each was tried three times
+        Mockito.verify(handler, Mockito.times(3)).saveObject(a);
+        Mockito.verify(handler, Mockito.times(3)).saveObject(b);
+        // Queuing again drops it from the failures
+        Mockito.doNothing().when(handler).saveObject(b);
+        q.save(b);
+        q.flush();
+        assertEquals(Collections.singletonList(a), q.takeFailed());
+        assertTrue(q.takeFailed().isEmpty());
+        q.close();
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#save(java.lang.Object)}.
+     */
+    @Test
+    public void testFullQueueDoesNotBlock() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataObject a = object("a");
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(handler).saveObject(a);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test", 1);
+        q.save(a);
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        DataObject b = object("b");
+        DataObject c = object("c");
+        assertTrue(q.save(b));
+        // Full, so the caller has to write it
+        assertFalse(q.save(c));
+        assertFalse(q.delete(c));
+        // Replacing a waiting object or one being written always fits
+        assertTrue(q.save(b));
+        assertTrue(q.save(a));
+        Mockito.verify(handler, Mockito.never()).snapshot(c);
+        release.countDown();
+        q.close();
+        Mockito.verify(handler, Mockito.never()).saveObject(c);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.WriteBehindQueue#close()}.
+     */
+    @Test
+    public void testCloseWritesAfterInFlight() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataObject a = object("a");
+        DataObject b = object("b");
+        List<DataObject> order = Collections.synchronizedList(new ArrayList<>());
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            order.add(a);
+            return null;
+        }).when(handler).saveObject(a);
+        Mockito.doAnswer(inv -> order.add(b)).when(handler).saveObject(b);
+        WriteBehindQueue<DataObject> q = new WriteBehindQueue<>(handler, logger, "test");
+        q.save(a);
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        q.save(b);
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+        q.close();
+        assertEquals(Arrays.asList(a, b), order);
+        assertEquals(0, q.size());
+    }
+
+}
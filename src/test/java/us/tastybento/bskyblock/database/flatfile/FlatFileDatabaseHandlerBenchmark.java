@@ -0,0 +1,116 @@
+package us.tastybento.bskyblock.database.flatfile;
+
+import java.beans.IntrospectionException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * Measures saving and loading islands with the flat file database, including the disk.
+ * The world is a mock that the server returns by name. Flags are left empty because loading them
+ * needs the flags manager. Files go into a temporary folder that is deleted afterwards.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatFileDatabaseHandlerBenchmark {
+
+    private static final int OBJECTS = 100;
+
+    private Path folder;
+    private FlatFileDatabaseHandler<Island> handler;
+    private World world;
+    private Island island;
+
+    @Setup
+    public void setUp() throws IOException, IllegalAccessException, InvocationTargetException, IntrospectionException {
+        folder = Files.createTempDirectory("bsb-benchmark");
+        BSkyBlock plugin = Mockito.mock(BSkyBlock.class);
+        Mockito.when(plugin.getDataFolder()).thenReturn(folder.toFile());
+        world = Mockito.mock(World.class);
+        Mockito.when(world.getName()).thenReturn("BSkyBlock_world");
+        Server server = Mockito.mock(Server.class);
+        Mockito.when(server.getWorlds()).thenReturn(Collections.singletonList(world));
+        Mockito.when(plugin.getServer()).thenReturn(server);
+        handler = new FlatFileDatabaseHandler<>(plugin, Island.class, new FlatFileDatabaseConnecter(plugin));
+        for (int i = 0; i < OBJECTS; i++) {
+            handler.saveObject(getIsland("island" + i, i));
+        }
+        island = getIsland("island0", 0);
+    }
+
+    private Island getIsland(String uniqueId, int i) {
+        Island is = new Island();
+        is.setUniqueId(uniqueId);
+        is.setWorld(world);
+        is.setCenter(new Location(world, i * 400D, 120, 0));
+        is.setRange(200);
+        is.setMinX(i * 400 - 200);
+        is.setMinZ(-200);
+        is.setProtectionRange(50);
+        is.setMinProtectedX(i * 400 - 50);
+        is.setMinProtectedZ(-50);
+        is.setOwner(UUID.randomUUID());
+        for (int j = 0; j < 3; j++) {
+            is.addMember(UUID.randomUUID());
+        }
+        is.setSpawnPoint(Environment.NORMAL, new Location(world, i * 400D + 0.5, 121, 0.5));
+        return is;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void saveObject() throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        handler.saveObject(island);
+    }
+
+    @Benchmark
+    public Island loadObject() throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        return handler.loadObject("island0");
+    }
+
+    @Benchmark
+    public List<Island> loadObjects() throws InstantiationException, IllegalAccessException, InvocationTargetException, ClassNotFoundException, IntrospectionException {
+        return handler.loadObjects();
+    }
+}
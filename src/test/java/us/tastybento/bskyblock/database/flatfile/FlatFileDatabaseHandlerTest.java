@@ -0,0 +1,136 @@
+package us.tastybento.bskyblock.database.flatfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.DataObject;
+
+/**
+ * @author tastybento
+ *
+ */
+public class FlatFileDatabaseHandlerTest {
+
+    private static final int OBJECTS = 40;
+
+    public static class TestObject implements DataObject {
+        private String uniqueId = "";
+        private World world;
+        private Location home;
+        private List<String> names = new ArrayList<>();
+
+        @Override
+        public String getUniqueId() {
+            return uniqueId;
+        }
+        @Override
+        public void setUniqueId(String uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+        public World getWorld() {
+            return world;
+        }
+        public void setWorld(World world) {
+            this.world = world;
+        }
+        public Location getHome() {
+            return home;
+        }
+        public void setHome(Location home) {
+            this.home = home;
+        }
+        public List<String> getNames() {
+            return names;
+        }
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+    }
+
+    private Path folder;
+    private Server server;
+    private World world;
+    private FlatFileDatabaseHandler<TestObject> handler;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("bsb-test");
+        BSkyBlock plugin = mock(BSkyBlock.class);
+        when(plugin.getDataFolder()).thenReturn(folder.toFile());
+        server = mock(Server.class);
+        when(plugin.getServer()).thenReturn(server);
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        handler = new FlatFileDatabaseHandler<>(plugin, TestObject.class, new FlatFileDatabaseConnecter(plugin));
+        for (int i = 0; i < OBJECTS; i++) {
+            TestObject o = new TestObject();
+            o.setUniqueId("object" + i);
+            o.setWorld(world);
+            o.setHome(new Location(world, i, 64, -i));
+            o.setNames(Collections.singletonList("name" + i));
+            handler.saveObject(o);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.flatfile.FlatFileDatabaseHandler#loadObjects()}.
+     */
+    @Test
+    public void testParallelLoadMatchesSequentialLoad() throws Exception {
+        // Record which threads ask for the worlds
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        when(server.getWorlds()).thenAnswer(inv -> {
+            threads.add(Thread.currentThread());
+            return Collections.singletonList(world);
+        });
+        List<TestObject> sequential = handler.loadObjects(1);
+        List<TestObject> parallel = handler.loadObjects(4);
+        assertEquals(OBJECTS, sequential.size());
+        assertEquals(OBJECTS, parallel.size());
+        for (int i = 0; i < OBJECTS; i++) {
+            TestObject s = sequential.get(i);
+            TestObject p = parallel.get(i);
+            assertEquals(s.getUniqueId(), p.getUniqueId());
+            assertSame(world, s.getWorld());
+            assertSame(world, p.getWorld());
+            assertEquals(s.getHome(), p.getHome());
+            assertSame(world, p.getHome().getWorld());
+            assertEquals(s.getNames(), p.getNames());
+        }
+        // Same order every time
+        assertEquals("object0", parallel.get(0).getUniqueId());
+        assertEquals("object9", parallel.get(OBJECTS - 1).getUniqueId());
+        // Worlds are only looked up by the thread that asked for the load
+        assertEquals(2, threads.size());
+        threads.forEach(t -> assertSame(Thread.currentThread(), t));
+        Mockito.verify(server, Mockito.never()).getWorld(Mockito.anyString());
+    }
+}
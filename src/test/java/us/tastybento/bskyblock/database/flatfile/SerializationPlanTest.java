@@ -0,0 +1,153 @@
+package us.tastybento.bskyblock.database.flatfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import us.tastybento.bskyblock.database.flatfile.SerializationPlan.FieldPlan;
+import us.tastybento.bskyblock.database.flatfile.SerializationPlan.Kind;
+import us.tastybento.bskyblock.database.objects.adapters.Adapter;
+import us.tastybento.bskyblock.database.objects.adapters.AdapterInterface;
+
+/**
+ * @author tastybento
+ *
+ */
+public class SerializationPlanTest {
+
+    public static class TestAdapter implements AdapterInterface<String, String> {
+
+        @Override
+        public String deserialize(Object object) {
+            return "in";
+        }
+
+        @Override
+        public String serialize(Object object) {
+            return "out";
+        }
+    }
+
+    public static class TestObject {
+        private String uniqueId = "";
+        private int count;
+        private Map<UUID, Integer> members = new HashMap<>();
+        private Set<String> banned;
+        private List<Long> times;
+        @Adapter(TestAdapter.class)
+        private String adapted;
+        private transient boolean dirty;
+
+        public String getUniqueId() {
+            return uniqueId;
+        }
+        public void setUniqueId(String uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+        public int getCount() {
+            return count;
+        }
+        public void setCount(int count) {
+            this.count = count;
+        }
+        public Map<UUID, Integer> getMembers() {
+            return members;
+        }
+        public void setMembers(Map<UUID, Integer> members) {
+            this.members = members;
+        }
+        public Set<String> getBanned() {
+            return banned;
+        }
+        public void setBanned(Set<String> banned) {
+            this.banned = banned;
+        }
+        public List<Long> getTimes() {
+            return times;
+        }
+        public void setTimes(List<Long> times) {
+            this.times = times;
+        }
+        public String getAdapted() {
+            return adapted;
+        }
+        public void setAdapted(String adapted) {
+            this.adapted = adapted;
+        }
+        public boolean isDirty() {
+            return dirty;
+        }
+    }
+
+    private FieldPlan field(SerializationPlan plan, String name) {
+        return plan.getFields().stream().filter(f -> f.storageLocation.equals(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.flatfile.SerializationPlan#of(java.lang.Class)}.
+     */
+    @Test
+    public void testOfIsCached() throws Exception {
+        assertSame(SerializationPlan.of(TestObject.class), SerializationPlan.of(TestObject.class));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.flatfile.SerializationPlan#getFields()}.
+     */
+    @Test
+    public void testFields() throws Exception {
+        SerializationPlan plan = SerializationPlan.of(TestObject.class);
+        // Transient field is not stored
+        assertEquals(6, plan.getFields().size());
+        assertNull(field(plan, "dirty"));
+        assertSame(field(plan, "uniqueId"), plan.getUniqueIdField());
+        FieldPlan members = field(plan, "members");
+        assertEquals(Kind.MAP, members.kind);
+        assertEquals(UUID.class, members.getTypeArgument(0));
+        assertEquals(Integer.class, members.getTypeArgument(1));
+        assertEquals(Kind.SET, field(plan, "banned").kind);
+        assertEquals(String.class, field(plan, "banned").getTypeArgument(0));
+        assertEquals(Kind.LIST, field(plan, "times").kind);
+        assertEquals(Long.class, field(plan, "times").getTypeArgument(0));
+        assertEquals(Kind.OTHER, field(plan, "count").kind);
+        assertEquals(int.class, field(plan, "count").propertyType);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.flatfile.SerializationPlan.FieldPlan#get(Object)}.
+     */
+    @Test
+    public void testGetAndSet() throws Exception {
+        SerializationPlan plan = SerializationPlan.of(TestObject.class);
+        TestObject o = new TestObject();
+        plan.getUniqueIdField().set(o, "abc");
+        assertEquals("abc", o.getUniqueId());
+        assertEquals("abc", plan.getUniqueIdField().get(o));
+        // Primitive
+        field(plan, "count").set(o, 5);
+        assertEquals(5, o.getCount());
+        assertEquals(5, field(plan, "count").get(o));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.flatfile.SerializationPlan.FieldPlan#hasAdapter()}.
+     */
+    @Test
+    public void testAdapterIsShared() throws Exception {
+        FieldPlan adapted = field(SerializationPlan.of(TestObject.class), "adapted");
+        assertTrue(adapted.hasAdapter());
+        assertNotNull(adapted.adapter);
+        assertTrue(adapted.adapter instanceof TestAdapter);
+        assertSame(adapted.adapter, field(SerializationPlan.of(TestObject.class), "adapted").adapter);
+    }
+}
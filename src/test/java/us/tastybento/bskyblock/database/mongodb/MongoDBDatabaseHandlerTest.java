@@ -0,0 +1,194 @@
+package us.tastybento.bskyblock.database.mongodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOptions;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.Names;
+
+/**
+ * Runs the Mongo handler against an in-memory stand-in for a collection
+ * @author tastybento
+ *
+ */
+public class MongoDBDatabaseHandlerTest {
+
+    private static final int OBJECTS = 50;
+
+    private MongoCollection<Document> collection;
+    private Map<Object, Document> store;
+    private MongoDBDatabaseHandler<Names> handler;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        store = new LinkedHashMap<>();
+        collection = mock(MongoCollection.class);
+        // Replace one - upsert
+        when(collection.replaceOne(Mockito.any(), Mockito.any(), Mockito.any(UpdateOptions.class))).thenAnswer(inv -> {
+            Document doc = (Document)inv.getArguments()[1];
+            store.put(doc.get("_id"), doc);
+            return null;
+        });
+        // Bulk write of replace one upserts
+        when(collection.bulkWrite(Mockito.anyList(), Mockito.any(BulkWriteOptions.class))).thenAnswer(inv -> {
+            for (ReplaceOneModel<Document> model : (List<ReplaceOneModel<Document>>)inv.getArguments()[0]) {
+                store.put(model.getReplacement().get("_id"), model.getReplacement());
+            }
+            return null;
+        });
+        // Find
+        when(collection.find(Mockito.any(Bson.class))).thenAnswer(inv -> {
+            Document filter = (Document)inv.getArguments()[0];
+            List<Document> result = new ArrayList<>();
+            if (filter.containsKey("_id")) {
+                if (store.containsKey(filter.get("_id"))) {
+                    result.add(store.get(filter.get("_id")));
+                }
+            } else {
+                result.addAll(store.values());
+            }
+            return findIterable(result);
+        });
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getCollection(Mockito.anyString())).thenReturn(collection);
+        MongoDBDatabaseConnecter dbConn = mock(MongoDBDatabaseConnecter.class);
+        when(dbConn.createConnection()).thenReturn(database);
+        handler = new MongoDBDatabaseHandler<>(mock(BSkyBlock.class), Names.class, dbConn);
+    }
+
+    @SuppressWarnings("unchecked")
+    private FindIterable<Document> findIterable(List<Document> result) {
+        FindIterable<Document> iterable = mock(FindIterable.class);
+        when(iterable.limit(Mockito.anyInt())).thenReturn(iterable);
+        when(iterable.first()).thenReturn(result.isEmpty() ? null : result.get(0));
+        when(iterable.iterator()).thenAnswer(inv -> {
+            Iterator<Document> it = result.iterator();
+            MongoCursor<Document> cursor = mock(MongoCursor.class);
+            when(cursor.hasNext()).thenAnswer(i -> it.hasNext());
+            when(cursor.next()).thenAnswer(i -> it.next());
+            return cursor;
+        });
+        return iterable;
+    }
+
+    private List<Names> makeNames() {
+        List<Names> list = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            list.add(new Names("player" + i, UUID.randomUUID()));
+        }
+        return list;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.mongodb.MongoDBDatabaseHandler#saveObjects(java.util.Collection)}.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testSaveObjects() throws Exception {
+        List<Names> names = makeNames();
+        handler.saveObjects(names);
+        // One unordered bulk write
+        ArgumentCaptor<List> models = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        Mockito.verify(collection).bulkWrite(models.capture(), options.capture());
+        assertEquals(OBJECTS, models.getValue().size());
+        assertFalse(options.getValue().isOrdered());
+        ReplaceOneModel<Document> model = (ReplaceOneModel<Document>)models.getValue().get(0);
+        assertEquals(true, model.getOptions().isUpsert());
+        // Documents are keyed by the unique id
+        Document doc = store.get("player0");
+        assertNotNull(doc);
+        assertFalse(doc.containsKey("uniqueId"));
+        assertEquals(names.get(0).getUuid().toString(), doc.get("uuid"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.mongodb.MongoDBDatabaseHandler#saveObjects(java.util.Collection)}.
+     */
+    @Test
+    public void testSaveObjectsFailureThrows() {
+        when(collection.bulkWrite(Mockito.anyList(), Mockito.any(BulkWriteOptions.class))).thenThrow(new MongoException("down"));
+        try {
+            handler.saveObjects(makeNames());
+            fail("Expected the failure to be thrown");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof MongoException);
+        }
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.mongodb.MongoDBDatabaseHandler#loadObjects()}.
+     */
+    @Test
+    public void testLoadObjects() throws Exception {
+        List<Names> names = makeNames();
+        handler.saveObjects(names);
+        List<Names> loaded = handler.loadObjects();
+        assertEquals(OBJECTS, loaded.size());
+        for (int i = 0; i < OBJECTS; i++) {
+            assertEquals(names.get(i).getUniqueId(), loaded.get(i).getUniqueId());
+            assertEquals(names.get(i).getUuid(), loaded.get(i).getUuid());
+        }
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.mongodb.MongoDBDatabaseHandler#saveObject(java.lang.Object)}.
+     */
+    @Test
+    public void testSaveAndLoadObject() throws Exception {
+        Names name = new Names("tastybento", UUID.randomUUID());
+        handler.saveObject(name);
+        // Update
+        name.setUuid(UUID.randomUUID());
+        handler.saveObject(name);
+        assertEquals(1, store.size());
+        Names loaded = handler.loadObject("tastybento");
+        assertNotNull(loaded);
+        assertEquals(name.getUuid(), loaded.getUuid());
+        assertNull(handler.loadObject("nobody"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.database.mongodb.DocumentConverter}.
+     */
+    @Test
+    public void testConverterKeepsTypes() {
+        Document doc = new Document("_id", "id").append("int", 1).append("long", 3000000000L).append("double", 1.5D)
+                .append("bool", true).append("null", null).append("list", Arrays.asList(1, 2))
+                .append("doc", new Document("a", "b"));
+        Document back = DocumentConverter.toDocument(DocumentConverter.toJson(doc));
+        assertEquals(doc, back);
+    }
+}
@@ -0,0 +1,205 @@
+package us.tastybento.bskyblock.database.mysql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.database.objects.Names;
+
+/**
+ * Runs the MySQL handler against an embedded H2 database in MySQL mode and counts the round trips to the database.
+ * H2 cannot do ON DUPLICATE KEY UPDATE on a generated column, so the handler's upsert is turned into the H2 MERGE
+ * that does the same thing, filling in the unique id from the JSON.
+ * @author tastybento
+ *
+ */
+public class MySQLDatabaseHandlerBatchTest {
+
+    private static final String URL = "jdbc:h2:mem:bsb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int OBJECTS = 500;
+    private static final String UNIQUE_ID = "REGEXP_REPLACE(json, '^.*\"uniqueId\":(\"[^\"]*\").*$', '\\1')";
+    private static final String H2_UPSERT = "MERGE INTO `" + Names.class.getCanonicalName() + "` (json, uniqueId) KEY(uniqueId) "
+            + "SELECT json, " + UNIQUE_ID + " FROM (SELECT CAST(? AS VARCHAR) json)";
+
+    private BSkyBlock plugin;
+    private MySQLDatabaseConnecter dbConn;
+    private AtomicInteger roundTrips;
+    private MySQLDatabaseHandler<Names> handler;
+
+    @Before
+    public void setUp() throws Exception {
+        plugin = mock(BSkyBlock.class);
+        roundTrips = new AtomicInteger();
+        // The handler's own schema uses MySQL JSON functions, so make an equivalent table first
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS `" + Names.class.getCanonicalName()
+            + "` (json VARCHAR, uniqueId VARCHAR(255), UNIQUE(uniqueId))");
+        }
+        dbConn = mock(MySQLDatabaseConnecter.class);
+        when(dbConn.createConnection()).thenAnswer(inv -> counting(DriverManager.getConnection(URL)));
+        handler = new MySQLDatabaseHandler<>(plugin, Names.class, dbConn);
+        roundTrips.set(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        handler.close();
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE `" + Names.class.getCanonicalName() + "`");
+        }
+    }
+
+    private List<Names> makeNames() {
+        List<Names> list = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            list.add(new Names("player" + i, UUID.randomUUID()));
+        }
+        return list;
+    }
+
+    @Test
+    public void testSaveObjectOneAtATime() throws Exception {
+        for (Names name : makeNames()) {
+            handler.saveObject(name);
+        }
+        assertEquals(OBJECTS, roundTrips.get());
+        assertEquals(OBJECTS, handler.loadObjects().size());
+    }
+
+    @Test
+    public void testSaveObjects() throws Exception {
+        List<Names> names = makeNames();
+        handler.saveObjects(names);
+        // One round trip per batch of 100
+        assertEquals(OBJECTS / 100, roundTrips.get());
+        assertEquals(OBJECTS, handler.loadObjects().size());
+        Names loaded = handler.loadObject("player42");
+        assertNotNull(loaded);
+        assertEquals(names.get(42).getUuid(), loaded.getUuid());
+    }
+
+    @Test
+    public void testSaveObjectsInsertsAndUpdates() throws Exception {
+        List<Names> names = makeNames();
+        handler.saveObjects(names);
+        // Half of the batch are new UUIDs for names that are already saved, the other half are new names
+        List<Names> batch = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            batch.add(i % 2 == 0 ? new Names("player" + i, UUID.randomUUID()) : new Names("new" + i, UUID.randomUUID()));
+        }
+        handler.saveObjects(batch);
+        Map<String, String> rows = readRows();
+        assertEquals(OBJECTS + OBJECTS / 2, rows.size());
+        for (int i = 0; i < OBJECTS; i++) {
+            String expected = (i % 2 == 0 ? batch : names).get(i).getUuid().toString();
+            assertTrue(rows.get("\"player" + i + "\"").contains(expected));
+            if (i % 2 == 1) {
+                assertTrue(rows.get("\"new" + i + "\"").contains(batch.get(i).getUuid().toString()));
+            }
+        }
+    }
+
+    @Test
+    public void testSaveObjectsFailureThrows() throws Exception {
+        List<Names> names = makeNames();
+        handler.saveObjects(names.subList(0, 10));
+        // Kill the table so that the batch fails
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE `" + Names.class.getCanonicalName() + "` RENAME TO `gone`");
+        }
+        try {
+            handler.saveObjects(names);
+            fail("Expected the failure to be thrown");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        } finally {
+            try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE `gone` RENAME TO `" + Names.class.getCanonicalName() + "`");
+            }
+        }
+        // Nothing from the failed batch was saved
+        assertEquals(10, readRows().size());
+    }
+
+    /**
+     * Reads the rows straight from the database
+     * @return json by unique id
+     */
+    private Map<String, String> readRows() throws SQLException {
+        Map<String, String> rows = new HashMap<>();
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT uniqueId, json FROM `" + Names.class.getCanonicalName() + "`")) {
+            while (resultSet.next()) {
+                rows.put(resultSet.getString(1), resultSet.getString(2));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws Exception {
+        handler.saveObjects(makeNames());
+        handler.loadObjects();
+        handler.objectExists("player1");
+        // The connection made for the schema is used for everything
+        Mockito.verify(dbConn, Mockito.times(1)).createConnection();
+    }
+
+    /**
+     * Wraps a connection so that every statement execution is counted as a round trip.
+     * The handler's upsert is swapped for the H2 one.
+     * @param connection - real connection
+     * @return counting connection
+     */
+    private Connection counting(Connection connection) {
+        return (Connection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("prepareStatement") && ((String)args[0]).contains("ON DUPLICATE KEY UPDATE")) {
+                args[0] = H2_UPSERT;
+            }
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement) {
+                PreparedStatement ps = (PreparedStatement)result;
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {PreparedStatement.class}, (p, m, a) -> {
+                    if (m.getName().startsWith("execute")) {
+                        roundTrips.incrementAndGet();
+                    }
+                    return invoke(ps, m, a);
+                });
+            }
+            return result;
+        });
+    }
+
+    private Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
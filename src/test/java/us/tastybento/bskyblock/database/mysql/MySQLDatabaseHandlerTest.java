@@ -96,7 +96,7 @@ public class MySQLDatabaseHandlerTest {
     }
 
     @Test
-    public void testSaveObject() {
+    public void testSaveObject() throws Exception {
         handler.saveObject(instance);
         BSkyBlock plugin = mock(BSkyBlock.class);
         Settings settings = mock(Settings.class);
@@ -0,0 +1,81 @@
+package us.tastybento.bskyblock.database.objects;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.tastybento.bskyblock.api.flags.Flag;
+import us.tastybento.bskyblock.api.flags.FlagBuilder;
+import us.tastybento.bskyblock.api.user.User;
+
+/**
+ * Measures {@link Island#isAllowed(Flag)} and {@link Island#isAllowed(User, Flag)}, which every
+ * protection check ends in. The island has a handful of members and the user is either one of
+ * them or a visitor.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IslandBenchmark {
+
+    private static final int MEMBERS = 8;
+
+    private Island island;
+    private Flag flag;
+    private User member;
+    private User visitor;
+
+    @Setup
+    public void setUp() {
+        island = new Island();
+        UUID owner = UUID.randomUUID();
+        island.setOwner(owner);
+        for (int i = 1; i < MEMBERS; i++) {
+            island.addMember(UUID.randomUUID());
+        }
+        flag = new FlagBuilder().id("BENCHMARK").icon(Material.STONE).build();
+        flag.setOrdinal(0);
+        member = getUser(owner);
+        visitor = getUser(UUID.randomUUID());
+    }
+
+    private static User getUser(UUID uuid) {
+        Player player = Mockito.mock(Player.class);
+        Mockito.when(player.getUniqueId()).thenReturn(uuid);
+        return User.getInstance(player);
+    }
+
+    @Benchmark
+    public boolean isAllowed() {
+        return island.isAllowed(flag);
+    }
+
+    @Benchmark
+    public boolean isAllowedMember() {
+        return island.isAllowed(member, flag);
+    }
+
+    @Benchmark
+    public boolean isAllowedVisitor() {
+        return island.isAllowed(visitor, flag);
+    }
+}
@@ -0,0 +1,83 @@
+package us.tastybento.bskyblock.database.objects;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IslandDeletionTest {
+
+    private IslandDeletion deletion;
+
+    @Before
+    public void setUp() throws Exception {
+        Island island = mock(Island.class);
+        when(island.getUniqueId()).thenReturn("id");
+        // Blocks -32 to 31 in x and 0 to 63 in z
+        when(island.getMinX()).thenReturn(-32);
+        when(island.getMinZ()).thenReturn(0);
+        when(island.getRange()).thenReturn(32);
+        deletion = new IslandDeletion(island, Arrays.asList("world", "world_nether"));
+    }
+
+    @Test
+    public void testRange() {
+        assertEquals("id", deletion.getUniqueId());
+        assertEquals(-2, deletion.getMinXChunk());
+        assertEquals(1, deletion.getMaxXChunk());
+        assertEquals(0, deletion.getMinZChunk());
+        assertEquals(3, deletion.getMaxZChunk());
+        // 4 x 4 chunks in two worlds
+        assertEquals(32, deletion.getTotal());
+    }
+
+    @Test
+    public void testEveryChunkOnce() {
+        Set<String> chunks = new HashSet<>();
+        for (int i = 0; i < deletion.getTotal(); i++) {
+            assertTrue(chunks.add(deletion.getWorld(i) + " " + deletion.getChunkX(i) + " " + deletion.getChunkZ(i)));
+        }
+        assertTrue(chunks.contains("world -2 0"));
+        assertTrue(chunks.contains("world_nether 1 3"));
+        assertEquals("world", deletion.getWorld(15));
+        assertEquals("world_nether", deletion.getWorld(16));
+    }
+
+    @Test
+    public void testWorkedThroughAndComplete() {
+        assertFalse(deletion.isWorkedThrough());
+        deletion.setNext(deletion.getTotal());
+        assertTrue(deletion.isWorkedThrough());
+        assertTrue(deletion.isComplete());
+        deletion.addUnloadedChunk("world", -1, 2);
+        assertFalse(deletion.isComplete());
+        assertFalse(deletion.removeUnloadedChunk("world", 2, -1));
+        assertTrue(deletion.removeUnloadedChunk("world", -1, 2));
+        assertTrue(deletion.isComplete());
+    }
+
+    @Test
+    public void testSplitKey() {
+        deletion.addUnloadedChunk("world", -1, 2);
+        assertArrayEquals(new String[] {"world", "-1", "2"}, IslandDeletion.splitKey(deletion.getUnloadedChunks().iterator().next()));
+        assertNull(IslandDeletion.splitKey("rubbish"));
+    }
+
+    @Test
+    public void testOverlaps() {
+        assertTrue(deletion.overlaps(1, 3, 5, 5));
+        assertTrue(deletion.overlaps(-10, -10, 10, 10));
+        assertFalse(deletion.overlaps(2, 0, 5, 3));
+        assertFalse(deletion.overlaps(-2, -5, 1, -1));
+    }
+}
@@ -1,6 +1,7 @@
 package us.tastybento.bskyblock.database.objects;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -110,4 +111,25 @@ public class PlayersTest {
         // More than 0 cooldown
         assertTrue(p.getInviteCoolDownTime(l) > 0);
     }
+
+    @Test
+    public void testDirty() {
+        Players p = new Players(plugin, UUID.randomUUID());
+        // New players need saving
+        assertTrue(p.isDirty());
+        p.setDirty(false);
+        assertFalse(p.isDirty());
+        // Reads do not change anything
+        p.getDeaths();
+        p.getResetsLeft();
+        assertFalse(p.isDirty());
+        p.setResetsLeft(2);
+        assertTrue(p.isDirty());
+        p.setDirty(false);
+        p.addDeath();
+        assertTrue(p.isDirty());
+        p.setDirty(false);
+        p.startInviteCoolDownTimer(mock(Location.class));
+        assertTrue(p.isDirty());
+    }
 }
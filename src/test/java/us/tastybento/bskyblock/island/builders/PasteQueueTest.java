@@ -0,0 +1,95 @@
+package us.tastybento.bskyblock.island.builders;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.Settings;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class PasteQueueTest {
+
+    private BSkyBlock plugin;
+    private Settings settings;
+    private BukkitScheduler sch;
+    private BukkitTask task;
+
+    @Before
+    public void setUp() throws Exception {
+        plugin = mock(BSkyBlock.class);
+        settings = mock(Settings.class);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getPasteTimeBudget()).thenReturn(10);
+        PowerMockito.mockStatic(Bukkit.class);
+        sch = mock(BukkitScheduler.class);
+        when(Bukkit.getScheduler()).thenReturn(sch);
+        task = mock(BukkitTask.class);
+        when(sch.runTaskTimer(Mockito.any(), Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.anyLong())).thenReturn(task);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.PasteQueue#tick()}.
+     */
+    @Test
+    public void testPastesShareOneBudget() {
+        PasteQueue queue = new PasteQueue(plugin);
+        SchemPaster first = mock(SchemPaster.class);
+        SchemPaster second = mock(SchemPaster.class);
+        SchemPaster third = mock(SchemPaster.class);
+        // The first finishes this tick, the second uses up the rest of the time
+        when(first.pasteSome(Mockito.anyLong())).thenReturn(true);
+        when(second.pasteSome(Mockito.anyLong())).thenReturn(false, true);
+        when(third.pasteSome(Mockito.anyLong())).thenReturn(true);
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+        // One task for all pastes
+        Mockito.verify(sch, Mockito.times(1)).runTaskTimer(Mockito.eq(plugin), Mockito.any(Runnable.class), Mockito.eq(1L), Mockito.eq(1L));
+        queue.tick();
+        ArgumentCaptor<Long> ends = ArgumentCaptor.forClass(Long.class);
+        InOrder inOrder = Mockito.inOrder(first, second);
+        inOrder.verify(first).pasteSome(ends.capture());
+        inOrder.verify(second).pasteSome(ends.capture());
+        // Both are given the same end time
+        assertEquals(ends.getAllValues().get(0), ends.getAllValues().get(1));
+        Mockito.verify(third, Mockito.never()).pasteSome(Mockito.anyLong());
+        assertEquals(2, queue.size());
+        // Next tick finishes the rest
+        queue.tick();
+        assertEquals(0, queue.size());
+        Mockito.verify(task).cancel();
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.PasteQueue#add(SchemPaster)}.
+     */
+    @Test
+    public void testNoBudgetPastesInOneGo() {
+        when(settings.getPasteTimeBudget()).thenReturn(0);
+        PasteQueue queue = new PasteQueue(plugin);
+        SchemPaster paster = mock(SchemPaster.class);
+        queue.add(paster);
+        Mockito.verify(paster).pasteSome(Long.MAX_VALUE);
+        Mockito.verify(sch, Mockito.never()).runTaskTimer(Mockito.any(), Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.anyLong());
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,105 @@
+package us.tastybento.bskyblock.island.builders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.util.Vector;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author tastybento
+ *
+ */
+public class SchemBlocksTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private YamlConfiguration config;
+
+    @Before
+    public void setUp() {
+        config = new YamlConfiguration();
+        config.set("blocks.0,5,2.type", "COBBLESTONE_STAIRS");
+        config.set("blocks.0,5,2.data", 4);
+        config.set("blocks.0,5,2.inverted", true);
+        config.set("blocks.0,5,2.facing", "EAST");
+        config.set("blocks.0,5,3.type", "STONE");
+        config.set("blocks.-3,0,20.type", "STONE");
+        config.set("blocks.1,6,0.type", "WOOL");
+        config.set("blocks.1,6,0.data", 14);
+        config.set("blocks.2,7,1.type", "SIGN_POST");
+        config.set("blocks.2,7,1.lines", Arrays.asList("a", "b", "", ""));
+        config.set("blocks.2,8,1.type", "NOT_A_MATERIAL");
+        config.set("bedrock", "0,5,3");
+    }
+
+    private void checkBlocks(SchemBlocks blocks) {
+        assertEquals(6, blocks.size());
+        // Stone appears twice but is in the palette once
+        assertEquals(5, blocks.getPaletteSize());
+        // Order is kept
+        assertEquals(Material.COBBLESTONE_STAIRS, blocks.getMaterial(0));
+        assertEquals(4, blocks.getData(0));
+        assertNotNull(blocks.getTile(0));
+        assertEquals("EAST", blocks.getTile(0).getString("facing"));
+        assertEquals(Material.STONE, blocks.getMaterial(1));
+        assertNull(blocks.getTile(1));
+        // Negative coordinates
+        assertEquals(-3, blocks.getX(2));
+        assertEquals(0, blocks.getY(2));
+        assertEquals(20, blocks.getZ(2));
+        assertEquals(Material.WOOL, blocks.getMaterial(3));
+        assertEquals(14, blocks.getData(3));
+        assertEquals(Arrays.asList("a", "b", "", ""), blocks.getTile(4).getStringList("lines"));
+        // Unknown materials are not pasted
+        assertNull(blocks.getMaterial(5));
+        assertEquals(new Vector(0, 5, 3), blocks.getBedrock());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.SchemBlocks#fromYaml(org.bukkit.configuration.file.YamlConfiguration)}.
+     */
+    @Test
+    public void testFromYaml() throws Exception {
+        checkBlocks(SchemBlocks.fromYaml(config));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.SchemBlocks#write(java.io.File)}.
+     */
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File file = folder.newFile("island" + SchemBlocks.FILE_EXTENSION);
+        SchemBlocks.fromYaml(config).write(file);
+        checkBlocks(SchemBlocks.read(file));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.SchemBlocks#fromYaml(org.bukkit.configuration.file.YamlConfiguration)}.
+     */
+    @Test(expected = InvalidConfigurationException.class)
+    public void testOutOfRange() throws Exception {
+        config.set("blocks.0,600,0.type", "STONE");
+        SchemBlocks.fromYaml(config);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.island.builders.SchemBlocks#read(java.io.File)}.
+     */
+    @Test(expected = IOException.class)
+    public void testReadNotBinary() throws Exception {
+        SchemBlocks.read(folder.newFile("island.schem"));
+    }
+}
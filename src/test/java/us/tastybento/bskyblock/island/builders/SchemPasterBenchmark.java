@@ -0,0 +1,76 @@
+package us.tastybento.bskyblock.island.builders;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.Settings;
+
+/**
+ * Measures how long {@link SchemPaster} takes to plan a paste, i.e., to sort the blocks into chunks
+ * with attached blocks last. This is done once before the first block is set. The schem is a solid
+ * cube with a torch on every eighth block of its top layer.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemPasterBenchmark {
+
+    /**
+     * Length of the side of the cube
+     */
+    @Param({"16", "32", "64"})
+    private int side;
+
+    private SchemPaster paster;
+
+    @Setup
+    public void setUp() throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        int half = side / 2;
+        for (int x = -half; x < half; x++) {
+            for (int y = 0; y < side; y++) {
+                for (int z = -half; z < half; z++) {
+                    config.set("blocks." + x + "," + y + "," + z + ".type", "STONE");
+                }
+            }
+            for (int z = -half; z < half; z += 8) {
+                String key = "blocks." + x + "," + side + "," + z;
+                config.set(key + ".type", "TORCH");
+                config.set(key + ".attached", true);
+            }
+        }
+        BSkyBlock plugin = Mockito.mock(BSkyBlock.class);
+        Settings settings = Mockito.mock(Settings.class);
+        Mockito.when(plugin.getSettings()).thenReturn(settings);
+        // Not on a chunk boundary, so the cube spreads over more chunks
+        Location location = new Location(null, 5, 64, 5);
+        paster = new SchemPaster(plugin, Mockito.mock(Clipboard.class), SchemBlocks.fromYaml(config), null, null, location, null);
+    }
+
+    @Benchmark
+    public int[] getPasteOrder() {
+        return paster.getPasteOrder();
+    }
+}
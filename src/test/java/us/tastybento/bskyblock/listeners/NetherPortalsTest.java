@@ -439,6 +439,8 @@ public class NetherPortalsTest {
         Location blockLoc = mock(Location.class);
         when(blockLoc.toVector()).thenReturn(new Vector(10000,0,10000));
         when(block.getLocation()).thenReturn(blockLoc);
+        when(block.getX()).thenReturn(10000);
+        when(block.getZ()).thenReturn(10000);
         when(blockLoc.getWorld()).thenReturn(nether);
         // One block will be blown up by the wither
         List<Block> affectedBlocks = new ArrayList<>();
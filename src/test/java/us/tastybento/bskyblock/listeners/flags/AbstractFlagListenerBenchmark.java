@@ -0,0 +1,169 @@
+package us.tastybento.bskyblock.listeners.flags;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.Settings;
+import us.tastybento.bskyblock.api.flags.Flag;
+import us.tastybento.bskyblock.api.flags.FlagBuilder;
+import us.tastybento.bskyblock.api.user.User;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.managers.IslandWorldManager;
+import us.tastybento.bskyblock.managers.IslandsManager;
+
+/**
+ * Compares how {@link AbstractFlagListener#checkIsland} used to find the event's player, by
+ * reflection on every call, with the per-class resolver it uses now, and measures a whole
+ * protection check by a member and by a visitor. The plugin and its managers are mocks, so the
+ * checkIsland numbers include the mocks' overhead and are only worth comparing with each other.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbstractFlagListenerBenchmark {
+
+    private Event playerEvent;
+    private Event plainEvent;
+    private AbstractFlagListener listener;
+    private Location location;
+    private Flag flag;
+    private User member;
+    private User visitor;
+
+    @Setup
+    public void setUp() {
+        playerEvent = new TestPlayerEvent(Mockito.mock(Player.class));
+        plainEvent = new TestEvent();
+
+        UUID owner = UUID.randomUUID();
+        Island island = new Island();
+        island.setOwner(owner);
+        flag = new FlagBuilder().id("BENCHMARK").icon(Material.STONE).build();
+        flag.setOrdinal(0);
+        member = getUser(owner);
+        visitor = getUser(UUID.randomUUID());
+        location = new Location(null, 0, 64, 0);
+
+        BSkyBlock plugin = Mockito.mock(BSkyBlock.class);
+        IslandWorldManager iwm = Mockito.mock(IslandWorldManager.class);
+        Mockito.when(iwm.inWorld(Mockito.any())).thenReturn(true);
+        Mockito.when(plugin.getIWM()).thenReturn(iwm);
+        IslandsManager im = Mockito.mock(IslandsManager.class);
+        Mockito.when(im.getProtectedIslandAt(Mockito.any())).thenReturn(Optional.of(island));
+        Mockito.when(plugin.getIslands()).thenReturn(im);
+        Settings settings = Mockito.mock(Settings.class);
+        Mockito.when(settings.getFakePlayers()).thenReturn(Collections.emptySet());
+        Mockito.when(plugin.getSettings()).thenReturn(settings);
+
+        listener = new AbstractFlagListener() {};
+        listener.setPlugin(plugin);
+    }
+
+    private static User getUser(UUID uuid) {
+        Player player = Mockito.mock(Player.class);
+        Mockito.when(player.getUniqueId()).thenReturn(uuid);
+        return User.getInstance(player);
+    }
+
+    @Benchmark
+    public Player oldPathWithPlayer() {
+        return oldEventPlayer(playerEvent);
+    }
+
+    @Benchmark
+    public Player oldPathWithoutPlayer() {
+        return oldEventPlayer(plainEvent);
+    }
+
+    @Benchmark
+    public Player newPathWithPlayer() {
+        return AbstractFlagListener.getEventPlayer(playerEvent);
+    }
+
+    @Benchmark
+    public Player newPathWithoutPlayer() {
+        return AbstractFlagListener.getEventPlayer(plainEvent);
+    }
+
+    @Benchmark
+    public boolean checkIslandMember() {
+        return listener.checkIsland(plainEvent, member, location, flag, true);
+    }
+
+    @Benchmark
+    public boolean checkIslandVisitor() {
+        return listener.checkIsland(plainEvent, visitor, location, flag, true);
+    }
+
+    /**
+     * How checkIsland found the player before
+     */
+    private static Player oldEventPlayer(Event e) {
+        try {
+            Method getPlayer = e.getClass().getMethod("getPlayer");
+            Object player = getPlayer.invoke(e);
+            return player instanceof Player ? (Player)player : null;
+        } catch (NoSuchMethodException | SecurityException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+            return null;
+        }
+    }
+
+    public static class TestPlayerEvent extends PlayerEvent {
+        private static final HandlerList handlers = new HandlerList();
+
+        public TestPlayerEvent(Player who) {
+            super(who);
+        }
+
+        @Override
+        public HandlerList getHandlers() {
+            return handlers;
+        }
+
+        public static HandlerList getHandlerList() {
+            return handlers;
+        }
+    }
+
+    public static class TestEvent extends Event {
+        private static final HandlerList handlers = new HandlerList();
+
+        @Override
+        public HandlerList getHandlers() {
+            return handlers;
+        }
+
+        public static HandlerList getHandlerList() {
+            return handlers;
+        }
+    }
+}
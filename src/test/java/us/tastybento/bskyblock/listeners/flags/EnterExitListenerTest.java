@@ -37,6 +37,7 @@ import us.tastybento.bskyblock.managers.IslandWorldManager;
 import us.tastybento.bskyblock.managers.IslandsManager;
 import us.tastybento.bskyblock.managers.LocalesManager;
 import us.tastybento.bskyblock.managers.PlayersManager;
+import us.tastybento.bskyblock.managers.island.IslandTracker;
 import us.tastybento.bskyblock.util.Util;
 
 /**
@@ -61,6 +62,7 @@ public class EnterExitListenerTest {
     private Notifier notifier;
     private Location inside2;
     private EnterExitListener listener;
+    private IslandMoveListener moveListener;
     private LocalesManager lm;
     /**
      * @throws java.lang.Exception
@@ -92,6 +94,8 @@ public class EnterExitListenerTest {
 
         // No island for player to begin with (set it later in the tests)
         im = mock(IslandsManager.class);
+        // Players are not tracked, so moves look up both islands
+        when(im.getTracker()).thenReturn(mock(IslandTracker.class));
         when(plugin.getIslands()).thenReturn(im);
 
         // Locales      
@@ -155,6 +159,8 @@ public class EnterExitListenerTest {
 
         // Listener
         listener = new EnterExitListener();
+        moveListener = new IslandMoveListener(plugin);
+        moveListener.addHandler(listener);
 
         PowerMockito.mockStatic(Util.class);
         when(Util.getWorld(Mockito.any())).thenReturn(world);
@@ -167,35 +173,35 @@ public class EnterExitListenerTest {
     }
 
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testOnMoveInsideIsland() {        
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), inside, inside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving in the island should result in no messages to the user
         Mockito.verify(user, Mockito.never()).sendMessage(Mockito.anyVararg());
     }
 
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testOnMoveOutsideIsland() {        
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), outside, outside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving outside the island should result in no messages to the user
         Mockito.verify(user, Mockito.never()).sendMessage(Mockito.anyVararg());
     }
 
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testOnGoingIntoIslandEmptyIslandName() {
         when(island.getName()).thenReturn("");
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), outside, inside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving into the island should show a message
         Mockito.verify(lm).get(Mockito.any(), Mockito.eq("protection.flags.ENTER_EXIT_MESSAGES.now-entering"));
         // The island owner needs to be checked
@@ -203,13 +209,13 @@ public class EnterExitListenerTest {
     }
     
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testOnGoingIntoIslandWithIslandName() {
         when(island.getName()).thenReturn("fancy name");
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), outside, inside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving into the island should show a message
         Mockito.verify(lm).get(Mockito.any(), Mockito.eq("protection.flags.ENTER_EXIT_MESSAGES.now-entering"));
         // No owner check
@@ -218,13 +224,13 @@ public class EnterExitListenerTest {
     }
 
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testExitingIslandEmptyIslandName() {
         when(island.getName()).thenReturn("");
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), inside, outside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving into the island should show a message
         Mockito.verify(lm).get(Mockito.any(), Mockito.eq("protection.flags.ENTER_EXIT_MESSAGES.now-leaving"));
         // The island owner needs to be checked
@@ -232,13 +238,13 @@ public class EnterExitListenerTest {
     }
     
     /**
-     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onMove(org.bukkit.event.player.PlayerMoveEvent)}.
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.EnterExitListener#onIslandMove(IslandMove)}.
      */
     @Test
     public void testExitingIslandWithIslandName() {
         when(island.getName()).thenReturn("fancy name");
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), inside, outside);
-        listener.onMove(e);
+        moveListener.onPlayerMove(e);
         // Moving into the island should show a message
         Mockito.verify(lm).get(Mockito.any(), Mockito.eq("protection.flags.ENTER_EXIT_MESSAGES.now-leaving"));
         // No owner check
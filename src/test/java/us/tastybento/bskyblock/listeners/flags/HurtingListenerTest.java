@@ -0,0 +1,167 @@
+package us.tastybento.bskyblock.listeners.flags;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Cow;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.IronGolem;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.MagmaCube;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Squid;
+import org.bukkit.entity.ThrownPotion;
+import org.bukkit.entity.Villager;
+import org.bukkit.entity.Zombie;
+import org.bukkit.event.entity.PotionSplashEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.Settings;
+import us.tastybento.bskyblock.api.user.Notifier;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.lists.Flags;
+import us.tastybento.bskyblock.managers.IslandWorldManager;
+import us.tastybento.bskyblock.managers.IslandsManager;
+import us.tastybento.bskyblock.managers.LocalesManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BSkyBlock.class})
+public class HurtingListenerTest {
+
+    private BSkyBlock plugin;
+    private IslandsManager im;
+    private Island island;
+    private Player player;
+    private World world;
+    private Location loc;
+    private Location loc2;
+
+    @Before
+    public void setUp() {
+        plugin = mock(BSkyBlock.class);
+        Whitebox.setInternalState(BSkyBlock.class, "instance", plugin);
+        IslandWorldManager iwm = mock(IslandWorldManager.class);
+        when(iwm.inWorld(any())).thenReturn(true);
+        when(plugin.getIWM()).thenReturn(iwm);
+
+        im = mock(IslandsManager.class);
+        island = mock(Island.class);
+        when(im.getProtectedIslandAt(any())).thenReturn(Optional.of(island));
+        when(plugin.getIslands()).thenReturn(im);
+
+        Settings s = mock(Settings.class);
+        when(s.getFakePlayers()).thenReturn(Collections.emptySet());
+        when(plugin.getSettings()).thenReturn(s);
+        when(plugin.getNotifier()).thenReturn(mock(Notifier.class));
+        LocalesManager lm = mock(LocalesManager.class);
+        when(plugin.getLocalesManager()).thenReturn(lm);
+        when(lm.get(any(), any())).thenAnswer(new Answer<String>() {
+
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return invocation.getArgumentAt(1, String.class);
+            }});
+
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        world = mock(World.class);
+        loc = mock(Location.class);
+        when(loc.getWorld()).thenReturn(world);
+        loc2 = mock(Location.class);
+        when(loc2.getWorld()).thenReturn(world);
+        when(loc2.getBlockX()).thenReturn(20);
+    }
+
+    private <T extends LivingEntity> T mob(Class<T> clazz, EntityType type, Location location) {
+        T entity = mock(clazz);
+        when(entity.getType()).thenReturn(type);
+        when(entity.getLocation()).thenReturn(location);
+        return entity;
+    }
+
+    private HurtingListener getListener() {
+        HurtingListener listener = new HurtingListener();
+        listener.setPlugin(plugin);
+        return listener;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.HurtingListener#getHurtFlag(org.bukkit.entity.Entity)}.
+     */
+    @Test
+    public void testGetHurtFlag() {
+        HurtingListener listener = getListener();
+        assertEquals(Flags.HURT_ANIMALS, listener.getHurtFlag(mob(Cow.class, EntityType.COW, loc)));
+        assertEquals(Flags.HURT_ANIMALS, listener.getHurtFlag(mob(IronGolem.class, EntityType.IRON_GOLEM, loc)));
+        assertEquals(Flags.HURT_VILLAGERS, listener.getHurtFlag(mob(Villager.class, EntityType.VILLAGER, loc)));
+        assertEquals(Flags.HURT_MONSTERS, listener.getHurtFlag(mob(Zombie.class, EntityType.ZOMBIE, loc)));
+        assertEquals(Flags.HURT_MONSTERS, listener.getHurtFlag(mob(Squid.class, EntityType.SQUID, loc)));
+        assertEquals(Flags.HURT_MONSTERS, listener.getHurtFlag(mob(MagmaCube.class, EntityType.MAGMA_CUBE, loc)));
+        assertNull(listener.getHurtFlag(player));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.HurtingListener#onSplashPotionSplash(org.bukkit.event.entity.PotionSplashEvent)}.
+     */
+    @Test
+    public void testOnSplashPotionSplashChecksEachColumnOnce() {
+        when(island.isAllowed(any(), any())).thenReturn(true);
+        ThrownPotion tp = mock(ThrownPotion.class);
+        when(tp.getShooter()).thenReturn(player);
+        Map<LivingEntity, Double> map = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            map.put(mob(Zombie.class, EntityType.ZOMBIE, loc), 1D);
+        }
+        map.put(mob(Zombie.class, EntityType.ZOMBIE, loc2), 1D);
+        map.put(mob(Cow.class, EntityType.COW, loc), 1D);
+        PotionSplashEvent e = new PotionSplashEvent(tp, map);
+        getListener().onSplashPotionSplash(e);
+        assertFalse(e.isCancelled());
+        // Zombies in two columns and a cow in one of them
+        Mockito.verify(im, Mockito.times(3)).getProtectedIslandAt(any());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.listeners.flags.HurtingListener#onSplashPotionSplash(org.bukkit.event.entity.PotionSplashEvent)}.
+     */
+    @Test
+    public void testOnSplashPotionSplashNotAllowed() {
+        when(island.isAllowed(any(), any())).thenReturn(false);
+        ThrownPotion tp = mock(ThrownPotion.class);
+        when(tp.getShooter()).thenReturn(player);
+        when(tp.getEffects()).thenReturn(Collections.emptyList());
+        Map<LivingEntity, Double> map = new HashMap<>();
+        map.put(mob(Zombie.class, EntityType.ZOMBIE, loc), 1D);
+        map.put(mob(Zombie.class, EntityType.ZOMBIE, loc), 1D);
+        PotionSplashEvent e = new PotionSplashEvent(tp, map);
+        getListener().onSplashPotionSplash(e);
+        assertTrue(e.isCancelled());
+        Mockito.verify(im).getProtectedIslandAt(any());
+    }
+}
@@ -40,9 +40,11 @@ import us.tastybento.bskyblock.api.user.Notifier;
 import us.tastybento.bskyblock.api.user.User;
 import us.tastybento.bskyblock.database.objects.Island;
 import us.tastybento.bskyblock.lists.Flags;
+import us.tastybento.bskyblock.managers.IslandWorldManager;
 import us.tastybento.bskyblock.managers.IslandsManager;
 import us.tastybento.bskyblock.managers.LocalesManager;
 import us.tastybento.bskyblock.managers.PlayersManager;
+import us.tastybento.bskyblock.managers.island.IslandTracker;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({Bukkit.class, BSkyBlock.class, User.class })
@@ -58,6 +60,7 @@ public class LockAndBanListenerTest {
     private Island island;
     private World world;
     private LockAndBanListener listener;
+    private IslandMoveListener moveListener;
     private Location outside;
     private Location inside;
     private Notifier notifier;
@@ -96,10 +99,17 @@ public class LockAndBanListenerTest {
 
         // No island for player to begin with (set it later in the tests)
         im = mock(IslandsManager.class);
+        // Players are not tracked, so moves look up both islands
+        when(im.getTracker()).thenReturn(mock(IslandTracker.class));
         when(im.hasIsland(Mockito.any(), Mockito.eq(uuid))).thenReturn(false);
         when(im.isOwner(Mockito.any(), Mockito.eq(uuid))).thenReturn(false);
         when(plugin.getIslands()).thenReturn(im);
 
+        // Island World Manager
+        IslandWorldManager iwm = mock(IslandWorldManager.class);
+        when(iwm.inWorld(Mockito.any())).thenReturn(true);
+        when(plugin.getIWM()).thenReturn(iwm);
+
         // Has team
         PlayersManager pm = mock(PlayersManager.class);
         when(im.inTeam(Mockito.any(), Mockito.eq(uuid))).thenReturn(true);
@@ -137,6 +147,8 @@ public class LockAndBanListenerTest {
         
         // Create the listener object
         listener = new LockAndBanListener();
+        moveListener = new IslandMoveListener(plugin);
+        moveListener.addHandler(listener);
         
         // Common from to's
         outside = mock(Location.class);
@@ -239,7 +251,7 @@ public class LockAndBanListenerTest {
         when(to.getBlockY()).thenReturn(55);
         when(to.getBlockZ()).thenReturn(Z);
         PlayerMoveEvent e = new PlayerMoveEvent(user.getPlayer(), from, to);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertFalse(e.isCancelled());
         // Confirm no check is done on the island
         Mockito.verify(im, Mockito.never()).getProtectedIslandAt(Mockito.any());
@@ -286,7 +298,7 @@ public class LockAndBanListenerTest {
 
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, outside, inside);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertTrue(e.isCancelled());
         // Player should see a message
         Mockito.verify(notifier).notify(Mockito.any(), Mockito.anyString());
@@ -308,7 +320,7 @@ public class LockAndBanListenerTest {
         when(island.isBanned(Mockito.eq(uuid))).thenReturn(true);        
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, inside, inside2);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertTrue(e.isCancelled());
         // Player should see a message
         Mockito.verify(notifier).notify(Mockito.any(), Mockito.anyString());
@@ -455,7 +467,7 @@ public class LockAndBanListenerTest {
 
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, outside, inside);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertTrue(e.isCancelled());
         // Player should see a message
         Mockito.verify(notifier).notify(Mockito.any(), Mockito.anyString());
@@ -474,7 +486,7 @@ public class LockAndBanListenerTest {
         when(player.getLocation()).thenReturn(outside);
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, outside, inside);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         // Should not be cancelled
         assertFalse(e.isCancelled());
         // Player should not see a message
@@ -498,7 +510,7 @@ public class LockAndBanListenerTest {
 
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, inside, inside2);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertTrue(e.isCancelled());
         // Player should see a message
         Mockito.verify(notifier).notify(Mockito.any(), Mockito.anyString());
@@ -523,7 +535,7 @@ public class LockAndBanListenerTest {
         when(player.getLocation()).thenReturn(inside);
         // Move player
         PlayerMoveEvent e = new PlayerMoveEvent(player, inside, inside2);
-        listener.onPlayerMove(e);
+        moveListener.onPlayerMove(e);
         assertFalse(e.isCancelled());
         // Player should not see a message
         Mockito.verify(notifier, Mockito.never()).notify(Mockito.any(), Mockito.anyString());
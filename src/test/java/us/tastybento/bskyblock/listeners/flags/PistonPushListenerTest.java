@@ -117,7 +117,7 @@ public class PistonPushListenerTest {
     public void testOnPistonExtendFlagSetOnIsland() { 
         
         // The blocks in the pushed list are all inside the island
-        when(island.onIsland(Mockito.any())).thenReturn(true);
+        when(island.onIsland(Mockito.anyInt(), Mockito.anyInt())).thenReturn(true);
         
         BlockPistonExtendEvent e = new BlockPistonExtendEvent(block, blocks, BlockFace.EAST);
         new PistonPushListener().onPistonExtend(e);
@@ -129,7 +129,7 @@ public class PistonPushListenerTest {
     @Test
     public void testOnPistonExtendFlagSetOffIsland() {
         // The blocks in the pushed list are all outside the island
-        when(island.onIsland(Mockito.any())).thenReturn(false);
+        when(island.onIsland(Mockito.anyInt(), Mockito.anyInt())).thenReturn(false);
         
         BlockPistonExtendEvent e = new BlockPistonExtendEvent(block, blocks, BlockFace.EAST);
         new PistonPushListener().onPistonExtend(e);
@@ -3,6 +3,7 @@
  */
 package us.tastybento.bskyblock.listeners.protection;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -35,7 +36,10 @@ import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -128,7 +132,105 @@ public class FlyingMobEventsTest {
     public void testFlyingMobEvents() {
         FlyingMobEvents fme = new FlyingMobEvents(plugin);
         assertNotNull(fme);
-        Mockito.verify(sch).runTaskTimer(Mockito.eq(plugin), Mockito.any(Runnable.class), Mockito.eq(20L), Mockito.eq(20L));
+        Mockito.verify(sch).runTaskTimer(Mockito.eq(plugin), Mockito.any(Runnable.class), Mockito.eq(1L), Mockito.eq(1L));
+    }
+
+    /**
+     * Runs the sweep task for a number of ticks
+     */
+    private void sweep(int ticks) {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sch).runTaskTimer(Mockito.eq(plugin), task.capture(), Mockito.eq(1L), Mockito.eq(1L));
+        for (int i = 0; i < ticks; i++) {
+            task.getValue().run();
+        }
+    }
+
+    /**
+     * Makes a blaze that is at x, z when the sweep asks where it is
+     */
+    private LivingEntity blaze(int id, int[] xz) {
+        LivingEntity le = mock(LivingEntity.class);
+        when(le.getEntityId()).thenReturn(id);
+        when(le.getType()).thenReturn(EntityType.BLAZE);
+        when(le.isValid()).thenReturn(true);
+        when(le.getLocation()).thenReturn(mock(Location.class));
+        when(le.getLocation(Mockito.any(Location.class))).thenAnswer(new Answer<Location>() {
+
+            @Override
+            public Location answer(InvocationOnMock invocation) throws Throwable {
+                Location l = invocation.getArgumentAt(0, Location.class);
+                l.setX(xz[0]);
+                l.setZ(xz[1]);
+                return l;
+            }});
+        return le;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.listeners.protection.FlyingMobEvents#FlyingMobEvents(us.tastybento.bskyblock.BSkyBlock)}.
+     */
+    @Test
+    public void testSweepOnlyRechecksMobsThatChangeChunk() {
+        FlyingMobEvents fme = new FlyingMobEvents(plugin);
+        Island island = mock(Island.class);
+        // Island space is 0,0 to 99,99
+        when(island.inIslandSpace(Mockito.anyInt(), Mockito.anyInt())).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                int x = invocation.getArgumentAt(0, Integer.class);
+                int z = invocation.getArgumentAt(1, Integer.class);
+                return x >= 0 && x < 100 && z >= 0 && z < 100;
+            }});
+        when(im.getIslandAt(Mockito.any(Location.class))).thenReturn(Optional.of(island));
+        int[] xz = {8, 8};
+        LivingEntity le = blaze(1, xz);
+        fme.onMobSpawn(new CreatureSpawnEvent(le, SpawnReason.NATURAL));
+        // Not looked at before its turn
+        sweep(19);
+        Mockito.verify(le, Mockito.never()).getLocation(Mockito.any(Location.class));
+        // First look checks the chunk corners
+        sweep(1);
+        Mockito.verify(island, Mockito.times(2)).inIslandSpace(Mockito.anyInt(), Mockito.anyInt());
+        // Moved within the same chunk, so the island is not asked again
+        xz[0] = 12;
+        sweep(20);
+        Mockito.verify(le, Mockito.times(2)).getLocation(Mockito.any(Location.class));
+        Mockito.verify(island, Mockito.times(2)).inIslandSpace(Mockito.anyInt(), Mockito.anyInt());
+        // Moved out of the island space
+        xz[0] = 200;
+        sweep(20);
+        Mockito.verify(le).setHealth(0);
+        Mockito.verify(le).remove();
+        // No longer tracked
+        sweep(40);
+        Mockito.verify(le, Mockito.times(3)).getLocation(Mockito.any(Location.class));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.listeners.protection.FlyingMobEvents#FlyingMobEvents(us.tastybento.bskyblock.BSkyBlock)}.
+     */
+    @Test
+    public void testSweepBudget() {
+        FlyingMobEvents fme = new FlyingMobEvents(plugin);
+        Island island = mock(Island.class);
+        when(island.inIslandSpace(Mockito.anyInt(), Mockito.anyInt())).thenReturn(true);
+        when(im.getIslandAt(Mockito.any(Location.class))).thenReturn(Optional.of(island));
+        int[] xz = {8, 8};
+        List<LivingEntity> blazes = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            LivingEntity le = blaze(i, xz);
+            blazes.add(le);
+            fme.onMobSpawn(new CreatureSpawnEvent(le, SpawnReason.NATURAL));
+        }
+        // No more than 100 a tick
+        sweep(20);
+        assertEquals(100, blazes.stream().filter(le -> Mockito.mockingDetails(le).getInvocations().stream()
+                .anyMatch(inv -> inv.getMethod().getName().equals("isValid"))).count());
+        sweep(2);
+        assertEquals(250, blazes.stream().filter(le -> Mockito.mockingDetails(le).getInvocations().stream()
+                .anyMatch(inv -> inv.getMethod().getName().equals("isValid"))).count());
     }
 
     /**
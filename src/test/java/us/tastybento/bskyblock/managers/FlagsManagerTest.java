@@ -97,6 +97,26 @@ public class FlagsManagerTest {
         assertTrue(fm.registerFlag(originalFlag));
     }
 
+    @Test
+    public void testRegisterFlagOrdinals() {
+        FlagsManager fm = new FlagsManager(plugin);
+        int size = fm.getFlags().size();
+        Flag first = new FlagBuilder().id("FIRST").icon(Material.DIAMOND_BLOCK).build();
+        Flag second = new FlagBuilder().id("SECOND").icon(Material.GOLD_BLOCK).build();
+        Flag dupe = new FlagBuilder().id("FIRST").icon(Material.IRON_BLOCK).build();
+        assertEquals(-1, first.getOrdinal());
+        assertTrue(fm.registerFlag(first));
+        assertTrue(fm.registerFlag(second));
+        assertFalse(fm.registerFlag(dupe));
+        // Ordinals are dense and match the list
+        assertEquals(size, first.getOrdinal());
+        assertEquals(size + 1, second.getOrdinal());
+        assertEquals(-1, dupe.getOrdinal());
+        for (int i = 0; i < fm.getFlags().size(); i++) {
+            assertEquals(i, fm.getFlags().get(i).getOrdinal());
+        }
+    }
+
     @Test
     public void testGetFlags() {
         FlagsManager fm = new FlagsManager(plugin);
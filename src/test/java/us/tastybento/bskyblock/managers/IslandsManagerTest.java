@@ -41,6 +41,7 @@ import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -896,10 +897,10 @@ public class IslandsManagerTest {
     }
 
     /**
-     * Test method for {@link us.tastybento.bskyblock.managers.IslandsManager#clearArea(Location)}.
+     * Test method for {@link us.tastybento.bskyblock.managers.IslandsManager#clearAreaNow(Location)}.
      */
     @Test
-    public void testClearArea() {
+    public void testClearAreaNow() {
         WorldSettings ws = mock(WorldSettings.class);
         when(iwm.getWorldSettings(Mockito.any())).thenReturn(ws);
         Map<String, Boolean> worldFlags = new HashMap<>();
@@ -943,7 +944,7 @@ public class IslandsManagerTest {
         .thenReturn(collection);
 
         IslandsManager im = new IslandsManager(plugin);
-        im.clearArea(location);
+        im.clearAreaNow(location);
 
         Mockito.verify(zombie).remove();
         Mockito.verify(player, Mockito.never()).remove();
@@ -953,4 +954,39 @@ public class IslandsManagerTest {
         Mockito.verify(creeper).remove();
     }
 
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.IslandsManager#clearArea(Location)}.
+     */
+    @Test
+    public void testClearAreaIsQueued() {
+        when(iwm.getRemoveMobsWhitelist(Mockito.any())).thenReturn(new HashSet<>());
+        Zombie zombie = mock(Zombie.class);
+        when(zombie.getType()).thenReturn(EntityType.ZOMBIE);
+        Collection<Entity> collection = new ArrayList<>();
+        collection.add(zombie);
+        when(world
+                .getNearbyEntities(Mockito.any(Location.class), Mockito.anyDouble(), Mockito.anyDouble(), Mockito.anyDouble()))
+        .thenReturn(collection);
+
+        IslandsManager im = new IslandsManager(plugin);
+        im.clearArea(location);
+        // Same spot again is merged
+        im.clearArea(location);
+        Mockito.verify(zombie, Mockito.never()).remove();
+        assertEquals(1, im.getMobClearer().metrics_getQueuedCount());
+        assertEquals(1, im.getMobClearer().metrics_getSkippedCount());
+
+        // Run the clearing task
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(Bukkit.getScheduler()).runTaskTimer(Mockito.eq(plugin), task.capture(), Mockito.eq(1L), Mockito.eq(1L));
+        task.getValue().run();
+        Mockito.verify(zombie).remove();
+        assertEquals(0, im.getMobClearer().metrics_getQueuedCount());
+
+        // Recently cleared, so this is skipped
+        im.clearArea(location);
+        assertEquals(0, im.getMobClearer().metrics_getQueuedCount());
+        assertEquals(2, im.getMobClearer().metrics_getSkippedCount());
+    }
+
 }
@@ -321,7 +321,7 @@ public class PlayersManagerTest {
      * Test method for {@link us.tastybento.bskyblock.managers.PlayersManager#getUUID(java.lang.String)}.
      */
     @Test
-    public void testGetUUID() {
+    public void testGetUUID() throws Exception {
         PlayersManager pm = new PlayersManager(plugin);
         assertEquals(uuid,pm.getUUID(uuid.toString()));
         
@@ -344,8 +344,34 @@ public class PlayersManagerTest {
             }
             
         });
+        // Not in memory yet, so it is looked up in the background
+        assertEquals(uuid, pm.getUUIDAsync("tastybento").get());
+        // Now it is in memory
         assertEquals(uuid, pm.getUUID("tastybento"));
-        
+        assertEquals(uuid, pm.getUUID("TastyBento"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.PlayersManager#getUUID(java.lang.String)}.
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testGetUUIDNotInMemory() throws Exception {
+        PlayersManager pm = new PlayersManager(plugin);
+        // Never joined, so not in the database
+        UUID other = UUID.randomUUID();
+        OfflinePlayer olp = mock(OfflinePlayer.class);
+        when(olp.getUniqueId()).thenReturn(other);
+        when(olp.hasPlayedBefore()).thenReturn(false);
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getOfflinePlayer(Mockito.anyString())).thenReturn(olp);
+        when(db.objectExists(Mockito.anyString())).thenReturn(false);
+        // Looked up straight away, not only next time
+        assertEquals(other, pm.getUUID("poslovitch"));
+        // And remembered
+        assertEquals(other, pm.getUUID("poslovitch"));
+        PowerMockito.verifyStatic(Mockito.times(1));
+        Bukkit.getOfflinePlayer("poslovitch");
     }
 
     /**
@@ -404,4 +430,32 @@ public class PlayersManagerTest {
         Mockito.verify(db).saveObject(Mockito.any());
     }
 
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.PlayersManager#save(java.util.UUID)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSaveUUIDOnlyIfDirty() {
+        when(((BSBDatabase<Players>)db).saveObject(Mockito.any())).thenReturn(true);
+        PlayersManager pm = new PlayersManager(plugin);
+        Server server = mock(Server.class);
+        when(Bukkit.getServer()).thenReturn(server);
+        OfflinePlayer olp = mock(OfflinePlayer.class);
+        when(olp.getName()).thenReturn("tasty");
+        when(server.getOfflinePlayer(Mockito.any(UUID.class))).thenReturn(olp);
+
+        // Add a player
+        pm.addPlayer(uuid);
+        pm.save(uuid);
+        // Nothing has changed so this does not save again
+        pm.save(uuid);
+        pm.save(false);
+        Mockito.verify(db, Mockito.times(1)).saveObject(Mockito.any());
+        // Change and save
+        pm.setResetsLeft(uuid, 3);
+        pm.save(false);
+        Mockito.verify(db, Mockito.times(2)).saveObject(Mockito.any());
+        assertEquals(0, pm.metrics_getDirtyCount());
+    }
+
 }
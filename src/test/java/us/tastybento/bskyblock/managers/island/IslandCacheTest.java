@@ -87,12 +87,12 @@ public class IslandCacheTest {
 
     @Test
     public void testIslandCache() {
-        assertNotNull(new IslandCache());
+        assertNotNull(new IslandCache(plugin));
     }
 
     @Test
     public void testAddIsland() {
-        IslandCache ic = new IslandCache();
+        IslandCache ic = new IslandCache(plugin);
         assertTrue(ic.addIsland(island));
         // Check if they are added
         assertEquals(island, ic.get(world, owner)); 
@@ -101,7 +101,7 @@ public class IslandCacheTest {
 
     @Test
     public void testAddPlayer() {
-        IslandCache ic = new IslandCache();
+        IslandCache ic = new IslandCache(plugin);
         UUID playerUUID = UUID.randomUUID();
         ic.addPlayer(playerUUID, island);
         // Check if they are added
@@ -112,7 +112,7 @@ public class IslandCacheTest {
 
     @Test
     public void testClear() {
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
         // Check if they are added
         assertEquals(island, ic.get(world, owner)); 
@@ -125,7 +125,7 @@ public class IslandCacheTest {
     @Test
     public void testDeleteIslandFromCache() {
 
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
         // Check if they are added
         assertEquals(island, ic.get(world, owner)); 
@@ -159,7 +159,7 @@ public class IslandCacheTest {
 
     @Test
     public void testGetLocation() {
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
         // Check if they are added
         assertEquals(island, ic.get(location));
@@ -168,7 +168,7 @@ public class IslandCacheTest {
 
     @Test
     public void testGetUUID() {
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
         // Check if they are added
         assertEquals(island, ic.get(world, owner)); 
@@ -181,7 +181,7 @@ public class IslandCacheTest {
         // Set plugin
         Util.setPlugin(plugin);
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
 
         // Check exact match for location
@@ -209,7 +209,7 @@ public class IslandCacheTest {
     @Test
     public void testgetMembers() {
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
 
         assertTrue(ic.getMembers(world, null).isEmpty());
@@ -221,7 +221,7 @@ public class IslandCacheTest {
     @Test
     public void testGetTeamLeader() {
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
 
         assertEquals(owner, ic.getTeamLeader(world, owner));
@@ -234,7 +234,7 @@ public class IslandCacheTest {
     @Test
     public void testHasIsland() {
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
 
         assertTrue(ic.hasIsland(world, owner));
@@ -245,7 +245,7 @@ public class IslandCacheTest {
     @Test
     public void testRemovePlayer() {
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
 
         assertTrue(ic.hasIsland(world, owner));
@@ -257,10 +257,41 @@ public class IslandCacheTest {
         assertFalse(ic.hasIsland(world, owner));
     }
 
+    @Test
+    public void testGetIslandsWhileChanging() {
+        IslandCache ic = new IslandCache(plugin);
+        ic.addIsland(island);
+        // Adding while iterating must not throw a ConcurrentModificationException
+        for (Island i : ic.getIslands()) {
+            Island island2 = mock(Island.class);
+            when(island2.getWorld()).thenReturn(world);
+            when(island2.getCenter()).thenReturn(mock(Location.class));
+            when(island2.getMinX()).thenReturn(200);
+            when(island2.getMinZ()).thenReturn(200);
+            ic.addIsland(island2);
+            assertNotNull(i);
+        }
+        assertEquals(2, ic.size());
+    }
+
+    @Test
+    public void testReadsDoNotCreateWorlds() {
+        IslandCache ic = new IslandCache(plugin);
+        World world2 = mock(World.class);
+        when(Util.getWorld(world2)).thenReturn(world2);
+        assertNull(ic.get(world2, owner));
+        assertTrue(ic.getMembers(world2, owner).isEmpty());
+        assertNull(ic.getTeamLeader(world2, owner));
+        assertFalse(ic.hasIsland(world2, owner));
+        // Still nothing there
+        ic.addPlayer(owner, island);
+        assertNull(ic.get(world2, owner));
+    }
+
     @Test
     public void testSize() {
         // New cache
-        IslandCache ic = new IslandCache();        
+        IslandCache ic = new IslandCache(plugin);        
         ic.addIsland(island);
         assertEquals(1, ic.size());
     }
@@ -0,0 +1,246 @@
+package us.tastybento.bskyblock.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import us.tastybento.bskyblock.BSkyBlock;
+import us.tastybento.bskyblock.Settings;
+import us.tastybento.bskyblock.database.BSBDatabase;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.database.objects.IslandDeletion;
+import us.tastybento.bskyblock.managers.IslandWorldManager;
+import us.tastybento.bskyblock.managers.IslandsManager;
+import us.tastybento.bskyblock.util.teleport.SafeSpotCache;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, IslandDeleter.class})
+public class IslandDeleterTest {
+
+    private BSkyBlock plugin;
+    private BSBDatabase<IslandDeletion> db;
+    private BukkitScheduler sch;
+    private World world;
+    /**
+     * Chunks that are loaded, as x:z
+     */
+    private Set<String> loaded;
+    private IslandDeleter deleter;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        plugin = mock(BSkyBlock.class);
+        Settings s = mock(Settings.class);
+        when(plugin.getSettings()).thenReturn(s);
+        // No time budget, so each tick does all it can
+        when(s.getDeleteTimeBudget()).thenReturn(0);
+
+        IslandWorldManager iwm = mock(IslandWorldManager.class);
+        when(plugin.getIWM()).thenReturn(iwm);
+        IslandsManager im = mock(IslandsManager.class);
+        when(plugin.getIslands()).thenReturn(im);
+        when(im.getSafeSpotCache()).thenReturn(mock(SafeSpotCache.class));
+
+        // Database
+        db = mock(BSBDatabase.class);
+        when(db.loadObjects()).thenReturn(new ArrayList<>());
+        PowerMockito.whenNew(BSBDatabase.class).withAnyArguments().thenReturn(db);
+
+        // Server & Scheduler
+        PowerMockito.mockStatic(Bukkit.class);
+        sch = mock(BukkitScheduler.class);
+        when(Bukkit.getScheduler()).thenReturn(sch);
+        when(sch.runTaskTimer(Mockito.any(), Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.anyLong())).thenReturn(mock(BukkitTask.class));
+        // Tasks for loaded chunks run straight away
+        when(sch.runTask(Mockito.any(), Mockito.any(Runnable.class))).thenAnswer(inv -> {
+            ((Runnable)inv.getArguments()[1]).run();
+            return mock(BukkitTask.class);
+        });
+        PluginManager pim = mock(PluginManager.class);
+        Server server = mock(Server.class);
+        when(server.getPluginManager()).thenReturn(pim);
+        when(Bukkit.getServer()).thenReturn(server);
+        when(Bukkit.getPluginManager()).thenReturn(pim);
+
+        // World
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        when(Bukkit.getWorld("world")).thenReturn(world);
+        loaded = new HashSet<>();
+        when(world.isChunkLoaded(Mockito.anyInt(), Mockito.anyInt())).thenAnswer(inv -> loaded.contains(inv.getArguments()[0] + ":" + inv.getArguments()[1]));
+    }
+
+    /**
+     * Makes an island whose space starts at minX, 0
+     */
+    private Island island(String id, int minX, int range) {
+        Island island = mock(Island.class);
+        when(island.getUniqueId()).thenReturn(id);
+        Location center = mock(Location.class);
+        when(center.getWorld()).thenReturn(world);
+        when(island.getCenter()).thenReturn(center);
+        when(island.getWorld()).thenReturn(world);
+        when(island.getMinX()).thenReturn(minX);
+        when(island.getMinZ()).thenReturn(0);
+        when(island.getRange()).thenReturn(range);
+        return island;
+    }
+
+    /**
+     * Runs the deletion task for a tick
+     */
+    private void tick() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sch, Mockito.atLeastOnce()).runTaskTimer(Mockito.eq(plugin), task.capture(), Mockito.eq(1L), Mockito.eq(1L));
+        task.getValue().run();
+    }
+
+    private void loadChunk(int x, int z, boolean newChunk) {
+        loaded.add(x + ":" + z);
+        Chunk chunk = mock(Chunk.class);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getX()).thenReturn(x);
+        when(chunk.getZ()).thenReturn(z);
+        ChunkLoadEvent e = mock(ChunkLoadEvent.class);
+        when(e.getWorld()).thenReturn(world);
+        when(e.getChunk()).thenReturn(chunk);
+        when(e.isNewChunk()).thenReturn(newChunk);
+        deleter.onChunkLoad(e);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.IslandDeleter#onChunkLoad(org.bukkit.event.world.ChunkLoadEvent)}.
+     */
+    @Test
+    public void testUnloadedChunksRegenerateWhenTheyLoad() {
+        deleter = new IslandDeleter(plugin);
+        // Chunks 0,0 to 1,1 and only 0,0 is loaded
+        loaded.add("0:0");
+        deleter.delete(island("id", 0, 16));
+        tick();
+        Mockito.verify(world).regenerateChunk(0, 0);
+        Mockito.verify(world, Mockito.never()).regenerateChunk(1, 1);
+        assertEquals(3, deleter.metrics_getUnloadedCount());
+        assertEquals(1, deleter.getDeletionCount());
+        // Loads later
+        loadChunk(1, 1, false);
+        Mockito.verify(world).regenerateChunk(1, 1);
+        // New chunks have nothing to delete
+        loadChunk(0, 1, true);
+        Mockito.verify(world, Mockito.never()).regenerateChunk(0, 1);
+        // Other chunks are left alone
+        loadChunk(5, 5, false);
+        Mockito.verify(world, Mockito.never()).regenerateChunk(5, 5);
+        assertEquals(1, deleter.metrics_getUnloadedCount());
+        assertEquals(1, deleter.getDeletionCount());
+        // Last one finishes the deletion
+        loadChunk(1, 0, false);
+        Mockito.verify(world).regenerateChunk(1, 0);
+        assertEquals(0, deleter.metrics_getUnloadedCount());
+        assertEquals(0, deleter.getDeletionCount());
+        Mockito.verify(db).deleteObject(Mockito.any());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.IslandDeleter#load()}.
+     */
+    @Test
+    public void testCarriesOnAfterRestart() {
+        // Worked through before the restart, but one chunk had not loaded
+        IslandDeletion waiting = new IslandDeletion(island("waiting", 0, 16), Collections.singletonList("world"));
+        waiting.setNext(waiting.getTotal());
+        waiting.addUnloadedChunk("world", 1, 1);
+        // Not started
+        IslandDeletion notStarted = new IslandDeletion(island("notStarted", 1000, 16), Collections.singletonList("world"));
+        when(db.loadObjects()).thenReturn(Arrays.asList(waiting, notStarted));
+        deleter = new IslandDeleter(plugin);
+        deleter.load();
+        assertEquals(2, deleter.getDeletionCount());
+        assertEquals(1, deleter.metrics_getUnloadedCount());
+        // The one that was not started is worked on
+        tick();
+        assertEquals(5, deleter.metrics_getUnloadedCount());
+        loadChunk(1, 1, false);
+        Mockito.verify(world).regenerateChunk(1, 1);
+        Mockito.verify(db).deleteObject(waiting);
+        assertEquals(1, deleter.getDeletionCount());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.IslandDeleter#delete(Island)}.
+     */
+    @Test
+    public void testSharedChunkIsHandedOver() {
+        deleter = new IslandDeleter(plugin);
+        // Chunks 0 to 1 and 1 to 2 along x, 0 to 1 along z, nothing loaded
+        deleter.delete(island("a", 0, 12));
+        deleter.delete(island("b", 24, 12));
+        tick();
+        // Shared chunks are only waited for once
+        assertEquals(6, deleter.metrics_getUnloadedCount());
+        loadChunk(1, 0, false);
+        loadChunk(1, 1, false);
+        Mockito.verify(world, Mockito.times(1)).regenerateChunk(1, 0);
+        Mockito.verify(world, Mockito.times(1)).regenerateChunk(1, 1);
+        assertEquals(2, deleter.getDeletionCount());
+        loadChunk(0, 0, false);
+        loadChunk(0, 1, false);
+        assertEquals(1, deleter.getDeletionCount());
+        loadChunk(2, 0, false);
+        loadChunk(2, 1, false);
+        assertEquals(0, deleter.getDeletionCount());
+        assertEquals(0, deleter.metrics_getUnloadedCount());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.IslandDeleter#finishOverlapping(Island)}.
+     */
+    @Test
+    public void testFinishOverlapping() {
+        deleter = new IslandDeleter(plugin);
+        deleter.delete(island("old", 0, 16));
+        tick();
+        assertEquals(4, deleter.metrics_getUnloadedCount());
+        // Island elsewhere does not finish it
+        deleter.finishOverlapping(island("elsewhere", 1000, 16));
+        assertEquals(1, deleter.getDeletionCount());
+        Mockito.verify(world, Mockito.never()).regenerateChunk(Mockito.anyInt(), Mockito.anyInt());
+        // Island on the same spot does, loading the chunks
+        deleter.finishOverlapping(island("new", 0, 16));
+        Mockito.verify(world, Mockito.times(4)).regenerateChunk(Mockito.anyInt(), Mockito.anyInt());
+        assertEquals(0, deleter.metrics_getUnloadedCount());
+        assertEquals(0, deleter.getDeletionCount());
+        // Chunks that load later are not regenerated again
+        loadChunk(1, 1, false);
+        Mockito.verify(world, Mockito.times(4)).regenerateChunk(Mockito.anyInt(), Mockito.anyInt());
+    }
+}
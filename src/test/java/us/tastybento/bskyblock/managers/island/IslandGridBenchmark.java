@@ -0,0 +1,73 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * Measures {@link IslandGrid#getIslandAt(int, int)} as the number of islands grows.
+ * Islands are laid out on a square grid and half of the look ups are in the gaps between rows,
+ * which is roughly what players flying around a world do.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IslandGridBenchmark {
+
+    private static final int RANGE = 200;
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int islands;
+
+    private IslandGrid grid;
+    private int[] xs;
+    private int[] zs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        grid = new IslandGrid(RANGE, RANGE, RANGE);
+        int side = (int)Math.ceil(Math.sqrt(islands));
+        for (int i = 0; i < islands; i++) {
+            Island island = new Island();
+            island.setRange(RANGE);
+            island.setMinX((i % side) * RANGE * 2);
+            island.setMinZ((i / side) * RANGE * 2 * 2);
+            grid.addToGrid(island);
+        }
+        // Same look ups every run so results can be compared
+        Random random = new Random(1);
+        xs = new int[LOOKUPS];
+        zs = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            xs[i] = random.nextInt(side * RANGE * 2);
+            zs[i] = random.nextInt(side * RANGE * 2 * 2);
+        }
+    }
+
+    @Benchmark
+    public Island getIslandAt() {
+        int i = next++ & (LOOKUPS - 1);
+        return grid.getIslandAt(xs[i], zs[i]);
+    }
+}
@@ -0,0 +1,114 @@
+package us.tastybento.bskyblock.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import us.tastybento.bskyblock.database.objects.Island;
+
+public class IslandGridTest {
+
+    private static final int DISTANCE = 100;
+
+    private IslandGrid grid;
+
+    @Before
+    public void setUp() throws Exception {
+        grid = new IslandGrid(DISTANCE, 0, 0);
+    }
+
+    /**
+     * Makes a mock island with the given center and range
+     */
+    private Island island(int x, int z, int range) {
+        Island island = mock(Island.class);
+        when(island.getRange()).thenReturn(range);
+        when(island.getMinX()).thenReturn(x - range);
+        when(island.getMinZ()).thenReturn(z - range);
+        when(island.inIslandSpace(Mockito.anyInt(), Mockito.anyInt())).thenAnswer(inv -> {
+            int bx = (Integer) inv.getArguments()[0];
+            int bz = (Integer) inv.getArguments()[1];
+            return bx >= x - range && bx < x + range && bz >= z - range && bz < z + range;
+        });
+        return island;
+    }
+
+    @Test
+    public void testAddAligned() {
+        Island a = island(0, 0, DISTANCE);
+        Island b = island(200, -400, DISTANCE);
+        assertTrue(grid.addToGrid(a));
+        assertTrue(grid.addToGrid(b));
+        assertFalse(grid.addToGrid(island(0, 0, DISTANCE)));
+        assertEquals(2, grid.size());
+        assertEquals(a, grid.getIslandAt(0, 0));
+        assertEquals(a, grid.getIslandAt(-100, 99));
+        assertEquals(b, grid.getIslandAt(100, -500));
+        assertEquals(b, grid.getIslandAt(299, -301));
+        assertNull(grid.getIslandAt(100, 0));
+        assertNull(grid.getIslandAt(-101, 0));
+    }
+
+    @Test
+    public void testUnalignedFallback() {
+        Island a = island(0, 0, DISTANCE);
+        // Off the grid
+        Island b = island(450, 450, DISTANCE);
+        // Different size
+        Island c = island(-1000, -1000, 50);
+        // Islands off the grid added first do not change it
+        assertTrue(grid.addToGrid(b));
+        assertTrue(grid.addToGrid(c));
+        assertTrue(grid.addToGrid(a));
+        assertEquals(3, grid.size());
+        assertEquals(a, grid.getIslandAt(50, 50));
+        assertEquals(b, grid.getIslandAt(360, 540));
+        assertEquals(c, grid.getIslandAt(-1049, -951));
+        assertNull(grid.getIslandAt(-1051, -951));
+    }
+
+    @Test
+    public void testRemove() {
+        Island a = island(0, 0, DISTANCE);
+        Island b = island(450, 450, DISTANCE);
+        grid.addToGrid(a);
+        grid.addToGrid(b);
+        assertTrue(grid.removeFromGrid(a));
+        assertFalse(grid.removeFromGrid(a));
+        assertTrue(grid.removeFromGrid(b));
+        assertFalse(grid.removeFromGrid(null));
+        assertNull(grid.getIslandAt(0, 0));
+        assertNull(grid.getIslandAt(450, 450));
+        assertEquals(0, grid.size());
+    }
+
+    @Test
+    public void testOffsetGrid() {
+        // Grid with an x offset
+        grid = new IslandGrid(DISTANCE, 30, 0);
+        Island a = island(30, 0, DISTANCE);
+        Island b = island(-170, 200, DISTANCE);
+        assertTrue(grid.addToGrid(a));
+        assertTrue(grid.addToGrid(b));
+        assertEquals(a, grid.getIslandAt(-70, -100));
+        assertEquals(b, grid.getIslandAt(-71, 100));
+        assertNull(grid.getIslandAt(-71, 99));
+    }
+
+    @Test
+    public void testNoGrid() {
+        grid = new IslandGrid(0, 0, 0);
+        Island a = island(0, 0, DISTANCE);
+        assertTrue(grid.addToGrid(a));
+        assertFalse(grid.addToGrid(island(0, 0, DISTANCE)));
+        assertEquals(a, grid.getIslandAt(-100, 99));
+        assertNull(grid.getIslandAt(100, 0));
+    }
+}
@@ -0,0 +1,192 @@
+package us.tastybento.bskyblock.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import us.tastybento.bskyblock.api.events.island.IslandEvent.IslandEnterEvent;
+import us.tastybento.bskyblock.api.events.island.IslandEvent.IslandExitEvent;
+import us.tastybento.bskyblock.database.objects.Island;
+import us.tastybento.bskyblock.managers.IslandsManager;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class IslandTrackerTest {
+
+    private IslandsManager im;
+    private PluginManager pim;
+    private IslandTracker tracker;
+    private Island island;
+    private Player player;
+    private UUID uuid;
+    private Location onIsland;
+    private Location inSpace;
+    private Location outside;
+
+    @Before
+    public void setUp() throws Exception {
+        // Events
+        PowerMockito.mockStatic(Bukkit.class);
+        Server server = mock(Server.class);
+        pim = mock(PluginManager.class);
+        when(server.getPluginManager()).thenReturn(pim);
+        when(Bukkit.getServer()).thenReturn(server);
+
+        im = mock(IslandsManager.class);
+        tracker = new IslandTracker(im);
+
+        uuid = UUID.randomUUID();
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+
+        island = mock(Island.class);
+        onIsland = mock(Location.class);
+        inSpace = mock(Location.class);
+        outside = mock(Location.class);
+        when(island.inIslandSpace(onIsland)).thenReturn(true);
+        when(island.inIslandSpace(inSpace)).thenReturn(true);
+        when(island.onIsland(onIsland)).thenReturn(true);
+        when(im.getIslandAt(onIsland)).thenReturn(Optional.of(island));
+        when(im.getIslandAt(inSpace)).thenReturn(Optional.of(island));
+        when(im.getIslandAt(outside)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void testNotTracked() {
+        assertFalse(tracker.isTracked(uuid));
+        assertFalse(tracker.getProtectedIsland(uuid).isPresent());
+        assertFalse(tracker.getIslandSpace(uuid).isPresent());
+        assertTrue(tracker.getOccupants(island).isEmpty());
+    }
+
+    @Test
+    public void testUpdateOnIsland() {
+        tracker.update(player, onIsland);
+        assertTrue(tracker.isTracked(uuid));
+        assertEquals(island, tracker.getProtectedIsland(uuid).get());
+        assertEquals(island, tracker.getIslandSpace(uuid).get());
+        assertEquals(Collections.singleton(uuid), tracker.getOccupants(island));
+        Mockito.verify(pim).callEvent(Mockito.any(IslandEnterEvent.class));
+    }
+
+    @Test
+    public void testUpdateInSpaceOnly() {
+        tracker.update(player, inSpace);
+        assertFalse(tracker.getProtectedIsland(uuid).isPresent());
+        assertEquals(island, tracker.getIslandSpace(uuid).get());
+        assertEquals(Collections.singleton(uuid), tracker.getOccupants(island));
+    }
+
+    @Test
+    public void testMoveInsideSpaceDoesNotLookUp() {
+        tracker.update(player, inSpace);
+        tracker.update(player, onIsland);
+        assertEquals(island, tracker.getProtectedIsland(uuid).get());
+        // Only the first update needed the grid
+        Mockito.verify(im).getIslandAt(inSpace);
+        Mockito.verify(im, Mockito.never()).getIslandAt(onIsland);
+    }
+
+    @Test
+    public void testLeaveIsland() {
+        tracker.update(player, onIsland);
+        tracker.update(player, outside);
+        assertTrue(tracker.isTracked(uuid));
+        assertFalse(tracker.getProtectedIsland(uuid).isPresent());
+        assertFalse(tracker.getIslandSpace(uuid).isPresent());
+        assertTrue(tracker.getOccupants(island).isEmpty());
+        Mockito.verify(pim).callEvent(Mockito.any(IslandExitEvent.class));
+    }
+
+    @Test
+    public void testIslandSpaceAtIsKeptForUpdate() {
+        tracker.update(player, outside);
+        // Looked up before the move is made
+        assertEquals(island, tracker.getIslandSpaceAt(player, onIsland).get());
+        assertEquals(island, tracker.getIslandSpaceAt(player, onIsland).get());
+        tracker.update(player, onIsland);
+        assertEquals(island, tracker.getProtectedIsland(uuid).get());
+        // Moving inside the island space needs no look up
+        assertEquals(island, tracker.getIslandSpaceAt(player, inSpace).get());
+        Mockito.verify(im).getIslandAt(onIsland);
+        Mockito.verify(im, Mockito.never()).getIslandAt(inSpace);
+    }
+
+    @Test
+    public void testRemove() {
+        tracker.update(player, onIsland);
+        tracker.remove(uuid);
+        assertFalse(tracker.isTracked(uuid));
+        assertTrue(tracker.getOccupants(island).isEmpty());
+    }
+
+    @Test
+    public void testRemoveIsland() {
+        tracker.update(player, onIsland);
+        tracker.removeIsland(island);
+        assertTrue(tracker.isTracked(uuid));
+        assertFalse(tracker.getProtectedIsland(uuid).isPresent());
+        assertTrue(tracker.getOccupants(island).isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        when(player.getLocation()).thenReturn(onIsland);
+        UUID other = UUID.randomUUID();
+        Player otherPlayer = mock(Player.class);
+        when(otherPlayer.getUniqueId()).thenReturn(other);
+        tracker.update(otherPlayer, onIsland);
+        tracker.reset(Collections.singletonList(player));
+        assertFalse(tracker.isTracked(other));
+        assertEquals(Collections.singleton(uuid), tracker.getOccupants(island));
+    }
+
+    @Test
+    public void testRefreshNewIsland() {
+        when(player.getLocation()).thenReturn(inSpace);
+        when(im.getIslandAt(inSpace)).thenReturn(Optional.empty());
+        tracker.update(player, inSpace);
+        assertFalse(tracker.getIslandSpace(uuid).isPresent());
+        // Island made where the player is
+        when(im.getIslandAt(inSpace)).thenReturn(Optional.of(island));
+        tracker.refresh(island, Collections.singletonList(player));
+        assertEquals(island, tracker.getIslandSpace(uuid).get());
+        assertEquals(Collections.singleton(uuid), tracker.getOccupants(island));
+    }
+
+    @Test
+    public void testRefreshProtectionRange() {
+        when(player.getLocation()).thenReturn(inSpace);
+        tracker.update(player, inSpace);
+        assertFalse(tracker.getProtectedIsland(uuid).isPresent());
+        // Protection range grows to cover the player
+        when(island.onIsland(inSpace)).thenReturn(true);
+        tracker.refresh(island, Collections.singletonList(player));
+        assertEquals(island, tracker.getProtectedIsland(uuid).get());
+        // Players elsewhere are not looked up
+        Player otherPlayer = mock(Player.class);
+        when(otherPlayer.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(otherPlayer.getLocation()).thenReturn(outside);
+        tracker.refresh(island, Collections.singletonList(otherPlayer));
+        assertFalse(tracker.isTracked(otherPlayer.getUniqueId()));
+    }
+}
@@ -0,0 +1,160 @@
+package us.tastybento.bskyblock.managers.island;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.util.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures removing the blocks near spawn from the block list of an explosion, with a Location and
+ * Vectors for each block, as {@link us.tastybento.bskyblock.listeners.NetherPortals} used to do,
+ * against {@link RegionChecker#removeInRadius(List, int, int, int)}.
+ * <p>
+ * The block lists are recorded once in set up by running the vanilla explosion rays through dirt
+ * at seeded spots, some of them on the edge of the spawn radius. Bursts are several explosions at nearly the
+ * same spot in one list, like a TNT cannon hitting a wall.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionCheckerBenchmark {
+
+    private static final int SPAWN_RADIUS = 25;
+    private static final int EXPLOSIONS = 64;
+    /**
+     * Explosion resistance of dirt
+     */
+    private static final float RESISTANCE = 0.5F;
+
+    @Param({"4", "8"})
+    private float power;
+
+    @Param({"1", "16"})
+    private int burst;
+
+    private List<List<Block>> explosions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Same explosions every run so results can be compared
+        Random random = new Random(1);
+        explosions = new ArrayList<>();
+        for (int i = 0; i < EXPLOSIONS; i++) {
+            // Half on the edge of the spawn radius
+            int x = i % 2 == 0 ? SPAWN_RADIUS : random.nextInt(SPAWN_RADIUS * 4) - SPAWN_RADIUS * 2;
+            int z = random.nextInt(SPAWN_RADIUS * 4) - SPAWN_RADIUS * 2;
+            List<int[]> blocks = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (int j = 0; j < burst; j++) {
+                explode(random, x + random.nextInt(3) - 1, 64, z + random.nextInt(3) - 1, seen, blocks);
+            }
+            List<Block> list = new ArrayList<>(blocks.size());
+            for (int[] b : blocks) {
+                list.add(block(b[0], b[1], b[2]));
+            }
+            explosions.add(list);
+        }
+    }
+
+    /**
+     * Makes a block that only knows where it is
+     */
+    private static Block block(int x, int y, int z) {
+        return (Block)Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[] {Block.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "getX":
+                return x;
+            case "getY":
+                return y;
+            case "getZ":
+                return z;
+            case "getLocation":
+                return new Location(null, x, y, z);
+            default:
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Adds the blocks that an explosion would break, following the rays of vanilla explosions
+     */
+    private void explode(Random random, double x, double y, double z, Set<Long> seen, List<int[]> blocks) {
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                for (int k = 0; k < 16; k++) {
+                    if (i != 0 && i != 15 && j != 0 && j != 15 && k != 0 && k != 15) {
+                        continue;
+                    }
+                    double dx = i / 15D * 2 - 1;
+                    double dy = j / 15D * 2 - 1;
+                    double dz = k / 15D * 2 - 1;
+                    double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                    dx /= length;
+                    dy /= length;
+                    dz /= length;
+                    float strength = power * (0.7F + random.nextFloat() * 0.6F);
+                    double px = x;
+                    double py = y;
+                    double pz = z;
+                    while (strength > 0) {
+                        strength -= (RESISTANCE + 0.3F) * 0.3F;
+                        int bx = (int)Math.floor(px);
+                        int by = (int)Math.floor(py);
+                        int bz = (int)Math.floor(pz);
+                        if (strength > 0 && seen.add(((long)bx & 0x3FFFFFF) << 38 | ((long)bz & 0x3FFFFFF) << 12 | (by & 0xFFF))) {
+                            blocks.add(new int[] {bx, by, bz});
+                        }
+                        px += dx * 0.3;
+                        py += dy * 0.3;
+                        pz += dz * 0.3;
+                        strength -= 0.22500001F;
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int perBlock() {
+        List<Block> blocks = new ArrayList<>(explosions.get(next++ & (EXPLOSIONS - 1)));
+        int size = blocks.size();
+        Vector spawn = new Location(null, 0, 64, 0).toVector().multiply(new Vector(1, 0, 1));
+        blocks.removeIf(b -> {
+            Vector p = b.getLocation().toVector().multiply(new Vector(1, 0, 1));
+            return spawn.distanceSquared(p) < SPAWN_RADIUS * SPAWN_RADIUS;
+        });
+        return size - blocks.size();
+    }
+
+    @Benchmark
+    public int regionChecker() {
+        List<Block> blocks = new ArrayList<>(explosions.get(next++ & (EXPLOSIONS - 1)));
+        return RegionChecker.removeInRadius(blocks, 0, 0, SPAWN_RADIUS);
+    }
+}
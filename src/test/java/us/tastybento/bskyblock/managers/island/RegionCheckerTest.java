@@ -0,0 +1,85 @@
+package us.tastybento.bskyblock.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.junit.Before;
+import org.junit.Test;
+
+import us.tastybento.bskyblock.database.objects.Island;
+
+/**
+ * @author tastybento
+ *
+ */
+public class RegionCheckerTest {
+
+    private static final int RANGE = 100;
+    private static final int PROTECTION_RANGE = 50;
+
+    private Island a;
+
+    @Before
+    public void setUp() {
+        a = island(0, 0);
+    }
+
+    /**
+     * Makes an island with the given center
+     */
+    private Island island(int x, int z) {
+        Island island = new Island();
+        island.setRange(RANGE);
+        island.setMinX(x - RANGE);
+        island.setMinZ(z - RANGE);
+        island.setProtectionRange(PROTECTION_RANGE);
+        island.setMinProtectedX(x - PROTECTION_RANGE);
+        island.setMinProtectedZ(z - PROTECTION_RANGE);
+        return island;
+    }
+
+    private Block block(int x, int z) {
+        Block block = mock(Block.class);
+        when(block.getX()).thenReturn(x);
+        when(block.getZ()).thenReturn(z);
+        return block;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.RegionChecker#allOnIsland(Island, List, BlockFace)}.
+     */
+    @Test
+    public void testAllOnIsland() {
+        List<Block> blocks = Arrays.asList(block(47, 0), block(48, 0));
+        assertTrue(RegionChecker.allOnIsland(a, blocks, BlockFace.EAST));
+        assertFalse(RegionChecker.allOnIsland(a, Arrays.asList(block(48, 0), block(49, 0)), BlockFace.EAST));
+        assertTrue(RegionChecker.allOnIsland(a, Arrays.asList(block(49, 0)), BlockFace.SELF));
+        assertFalse(RegionChecker.allOnIsland(a, Arrays.asList(block(0, -50)), BlockFace.NORTH));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.managers.island.RegionChecker#removeInRadius(java.util.List, int, int, int)}.
+     */
+    @Test
+    public void testRemoveInRadius() {
+        List<Block> blocks = new ArrayList<>(Arrays.asList(block(0, 0), block(3, 4), block(2, 2), block(100, 0)));
+        assertEquals(2, RegionChecker.removeInRadius(blocks, 0, 0, 5));
+        assertEquals(2, blocks.size());
+        assertEquals(3, blocks.get(0).getX());
+        assertEquals(100, blocks.get(1).getX());
+        // Lists without random access
+        List<Block> linked = new LinkedList<>(Arrays.asList(block(0, 0), block(100, 0)));
+        assertEquals(1, RegionChecker.removeInRadius(linked, 0, 0, 5));
+        assertEquals(100, linked.get(0).getX());
+    }
+}
@@ -0,0 +1,84 @@
+package us.tastybento.bskyblock.managers.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NameCacheTest {
+
+    private NameCache cache;
+    private UUID uuid;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new NameCache(2);
+        uuid = UUID.randomUUID();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        cache.put("tastybento", uuid);
+        assertEquals(uuid, cache.getUUID("tastybento"));
+        assertEquals(uuid, cache.getUUID("TastyBento"));
+        assertEquals("tastybento", cache.getName(uuid));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testUnknown() {
+        assertNull(cache.getUUID("tastybento"));
+        assertNull(cache.getName(uuid));
+        assertNull(cache.getUUID(null));
+        assertNull(cache.getName(null));
+        cache.put(null, uuid);
+        cache.put("tastybento", null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNameChange() {
+        cache.put("tastybento", uuid);
+        cache.put("poslovitch", uuid);
+        assertNull(cache.getUUID("tastybento"));
+        assertEquals(uuid, cache.getUUID("poslovitch"));
+        assertEquals("poslovitch", cache.getName(uuid));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testNameTakenByAnotherPlayer() {
+        UUID other = UUID.randomUUID();
+        cache.put("tastybento", uuid);
+        cache.put("tastybento", other);
+        assertEquals(other, cache.getUUID("tastybento"));
+        assertNull(cache.getName(uuid));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        cache.put("tastybento", uuid);
+        cache.putIfAbsent("poslovitch", uuid);
+        assertEquals("tastybento", cache.getName(uuid));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsDropped() {
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        cache.put("tastybento", uuid);
+        cache.put("poslovitch", second);
+        // Use the first one so the second is the oldest
+        cache.getUUID("tastybento");
+        cache.put("florian", third);
+        assertEquals(2, cache.size());
+        assertEquals(uuid, cache.getUUID("tastybento"));
+        assertNull(cache.getUUID("poslovitch"));
+        assertNull(cache.getName(second));
+        assertEquals("florian", cache.getName(third));
+    }
+}
@@ -0,0 +1,118 @@
+package us.tastybento.bskyblock.managers.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import us.tastybento.bskyblock.database.objects.Players;
+
+public class PlayerCacheTest {
+
+    private List<Players> evicted;
+    private PlayerCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        evicted = new ArrayList<>();
+        cache = new PlayerCache(2, TimeUnit.MINUTES.toNanos(10), evicted::add);
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        UUID uuid = UUID.randomUUID();
+        Players player = mock(Players.class);
+        assertNull(cache.get(uuid));
+        cache.put(uuid, player, false);
+        assertSame(player, cache.get(uuid));
+        assertSame(player, cache.peek(uuid));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testOfflineEviction() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        Players firstPlayer = mock(Players.class);
+        Players secondPlayer = mock(Players.class);
+        cache.put(first, firstPlayer, false);
+        cache.put(second, secondPlayer, false);
+        // Use the first so the second is the oldest
+        cache.get(first);
+        cache.put(third, mock(Players.class), false);
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains(first));
+        assertFalse(cache.contains(second));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, evicted.size());
+        assertSame(secondPlayer, evicted.get(0));
+    }
+
+    @Test
+    public void testOnlinePlayersArePinned() {
+        UUID online = UUID.randomUUID();
+        cache.put(online, mock(Players.class), true);
+        for (int i = 0; i < 5; i++) {
+            cache.put(UUID.randomUUID(), mock(Players.class), false);
+        }
+        assertTrue(cache.contains(online));
+        assertEquals(2, cache.getOfflineSize());
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getOnline().size());
+        assertEquals(3, cache.getEvictions());
+    }
+
+    @Test
+    public void testPin() {
+        UUID uuid = UUID.randomUUID();
+        cache.put(uuid, mock(Players.class), false);
+        cache.pin(uuid);
+        assertEquals(0, cache.getOfflineSize());
+        assertEquals(1, cache.getOnline().size());
+    }
+
+    @Test
+    public void testExpire() {
+        cache = new PlayerCache(2, 0L, evicted::add);
+        UUID online = UUID.randomUUID();
+        UUID offline = UUID.randomUUID();
+        cache.put(online, mock(Players.class), true);
+        cache.put(offline, mock(Players.class), false);
+        cache.expire();
+        assertTrue(cache.contains(online));
+        assertFalse(cache.contains(offline));
+        assertEquals(1, evicted.size());
+    }
+
+    @Test
+    public void testRemoveDoesNotEvict() {
+        UUID uuid = UUID.randomUUID();
+        Players player = mock(Players.class);
+        cache.put(uuid, player, false);
+        assertSame(player, cache.remove(uuid));
+        assertNull(cache.remove(uuid));
+        assertTrue(evicted.isEmpty());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void testGetAll() {
+        cache.put(UUID.randomUUID(), mock(Players.class), true);
+        cache.put(UUID.randomUUID(), mock(Players.class), false);
+        assertEquals(2, cache.getAll().size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
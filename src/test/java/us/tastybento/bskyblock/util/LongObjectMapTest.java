@@ -0,0 +1,75 @@
+package us.tastybento.bskyblock.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void testPutGet() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(1L, "one"));
+        assertEquals("one", map.put(1L, "uno"));
+        assertEquals("uno", map.get(1L));
+        assertNull(map.get(2L));
+        assertEquals(1, map.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutNull() {
+        new LongObjectMap<String>().put(1L, null);
+    }
+
+    @Test
+    public void testPack() {
+        assertTrue(LongObjectMap.pack(1, -1) != LongObjectMap.pack(-1, 1));
+        assertEquals(LongObjectMap.pack(-5, 7), LongObjectMap.pack(-5, 7));
+    }
+
+    @Test
+    public void testRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+        map.put(LongObjectMap.pack(0, 0), "a");
+        map.put(LongObjectMap.pack(0, 1), "b");
+        assertEquals("a", map.remove(LongObjectMap.pack(0, 0)));
+        assertNull(map.remove(LongObjectMap.pack(0, 0)));
+        assertFalse(map.containsKey(LongObjectMap.pack(0, 0)));
+        assertEquals("b", map.get(LongObjectMap.pack(0, 1)));
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Compares the map to a HashMap across many random puts and removes so that resizing and
+     * backward shift deletion are exercised
+     */
+    @Test
+    public void testAgainstHashMap() {
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long key = LongObjectMap.pack(random.nextInt(64) - 32, random.nextInt(64) - 32);
+            if (random.nextBoolean()) {
+                assertEquals(reference.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(reference.remove(key), map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (Map.Entry<Long, Integer> en : reference.entrySet()) {
+            assertEquals(en.getValue(), map.get(en.getKey()));
+        }
+        int[] count = new int[1];
+        map.forEachValue(v -> count[0]++);
+        assertEquals(reference.size(), count[0]);
+    }
+}
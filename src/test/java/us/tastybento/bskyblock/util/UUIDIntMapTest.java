@@ -0,0 +1,63 @@
+package us.tastybento.bskyblock.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * @author tastybento
+ *
+ */
+public class UUIDIntMapTest {
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.UUIDIntMap#get(java.util.UUID, int)}.
+     */
+    @Test
+    public void testGet() {
+        Map<UUID, Integer> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(UUID.randomUUID(), i * 100);
+        }
+        UUIDIntMap m = new UUIDIntMap(map);
+        assertEquals(100, m.size());
+        map.forEach((k, v) -> assertEquals((int)v, m.get(k, -1)));
+        // Copies are found too
+        map.forEach((k, v) -> assertEquals((int)v, m.get(new UUID(k.getMostSignificantBits(), k.getLeastSignificantBits()), -1)));
+        assertEquals(-1, m.get(UUID.randomUUID(), -1));
+        assertEquals(-1, m.get(null, -1));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.UUIDIntMap#UUIDIntMap(java.util.Map)}.
+     */
+    @Test
+    public void testEmptyAndNulls() {
+        assertEquals(0, new UUIDIntMap(new HashMap<>()).size());
+        assertEquals(7, new UUIDIntMap(new HashMap<>()).get(UUID.randomUUID(), 7));
+        Map<UUID, Integer> map = new HashMap<>();
+        map.put(null, 1);
+        UUID uuid = UUID.randomUUID();
+        map.put(uuid, null);
+        UUIDIntMap m = new UUIDIntMap(map);
+        assertEquals(0, m.size());
+        assertEquals(5, m.get(uuid, 5));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.UUIDIntMap#UUIDIntMap(java.util.Map)}.
+     */
+    @Test
+    public void testIsACopy() {
+        Map<UUID, Integer> map = new HashMap<>();
+        UUID uuid = UUID.randomUUID();
+        map.put(uuid, 1);
+        UUIDIntMap m = new UUIDIntMap(map);
+        map.put(uuid, 2);
+        assertEquals(1, m.get(uuid, 0));
+    }
+}
@@ -0,0 +1,112 @@
+package us.tastybento.bskyblock.util;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares how {@link Util#getWorld(World)} and {@link Util#sameWorld(World, World)} used to
+ * strip the nether and end suffixes with regular expressions on every call with the cached
+ * look ups they use now.
+ *
+ * @author tastybento
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilBenchmark {
+
+    private static final String NETHER = "_nether";
+    private static final String THE_END = "_the_end";
+
+    private World world;
+    private World nether;
+    private World end;
+
+    @Setup
+    public void setUp() {
+        world = mockWorld("bskyblock_world", Environment.NORMAL);
+        nether = mockWorld("bskyblock_world" + NETHER, Environment.NETHER);
+        end = mockWorld("bskyblock_world" + THE_END, Environment.THE_END);
+        Server server = mock(Server.class);
+        when(server.getWorld("bskyblock_world")).thenReturn(world);
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(server);
+        }
+        Util.addOverWorld(nether, world);
+        Util.addOverWorld(end, world);
+    }
+
+    private static World mockWorld(String name, Environment environment) {
+        World w = mock(World.class);
+        when(w.getName()).thenReturn(name);
+        when(w.getEnvironment()).thenReturn(environment);
+        return w;
+    }
+
+    @Benchmark
+    public World oldGetWorldOverWorld() {
+        return oldGetWorld(world);
+    }
+
+    @Benchmark
+    public World oldGetWorldNether() {
+        return oldGetWorld(nether);
+    }
+
+    @Benchmark
+    public World newGetWorldOverWorld() {
+        return Util.getWorld(world);
+    }
+
+    @Benchmark
+    public World newGetWorldNether() {
+        return Util.getWorld(nether);
+    }
+
+    @Benchmark
+    public boolean oldSameWorld() {
+        return oldSameWorld(nether, end);
+    }
+
+    @Benchmark
+    public boolean newSameWorld() {
+        return Util.sameWorld(nether, end);
+    }
+
+    /**
+     * How getWorld found the over world before
+     */
+    private static World oldGetWorld(World w) {
+        return w.getEnvironment().equals(Environment.NORMAL) ? w : Bukkit.getWorld(w.getName().replaceAll(NETHER, "").replaceAll(THE_END, ""));
+    }
+
+    /**
+     * How sameWorld compared worlds before
+     */
+    private static boolean oldSameWorld(World w, World w2) {
+        String worldName = w.getName().replaceAll(NETHER, "").replaceAll(THE_END, "");
+        String world2Name = w2.getName().replaceAll(NETHER, "").replaceAll(THE_END, "");
+        return worldName.equalsIgnoreCase(world2Name);
+    }
+}
@@ -0,0 +1,138 @@
+package us.tastybento.bskyblock.util.teleport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.util.Vector;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author tastybento
+ *
+ */
+public class SafeSpotCacheTest {
+
+    private SafeSpotCache cache;
+    private World world;
+
+    @Before
+    public void setUp() {
+        cache = new SafeSpotCache();
+        world = mock(World.class);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache#get(org.bukkit.World, int, int, java.lang.String)}.
+     */
+    @Test
+    public void testPutAndGet() {
+        assertNull(cache.get(world, 0, 0, "island"));
+        cache.put(world, 0, 0, "island", new Vector(1.5, 65, 2.5));
+        cache.put(world, 1, 0, "island", null);
+        assertEquals(new Vector(1.5, 65, 2.5), cache.get(world, 0, 0, "island").getSpot());
+        // Known to have no safe spot
+        assertNotNull(cache.get(world, 1, 0, "island"));
+        assertNull(cache.get(world, 1, 0, "island").getSpot());
+        // Other island, world or chunk
+        assertNull(cache.get(world, 0, 0, "other"));
+        assertNull(cache.get(world, 0, 0, null));
+        assertNull(cache.get(mock(World.class), 0, 0, "island"));
+        assertNull(cache.get(world, 0, 1, "island"));
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache#onBlockBreak(org.bukkit.event.block.BlockBreakEvent)}.
+     */
+    @Test
+    public void testBlockBreakInvalidatesChunk() {
+        cache.put(world, -1, 2, "island", new Vector(-0.5, 65, 40.5));
+        cache.put(world, 0, 2, "island", new Vector(0.5, 65, 40.5));
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(-3);
+        when(block.getZ()).thenReturn(44);
+        cache.onBlockBreak(new BlockBreakEvent(block, mock(Player.class)));
+        assertNull(cache.get(world, -1, 2, "island"));
+        assertNotNull(cache.get(world, 0, 2, "island"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache#onEntityExplode(org.bukkit.event.entity.EntityExplodeEvent)}.
+     */
+    @Test
+    public void testExplosionInvalidatesChunks() {
+        cache.put(world, 0, 0, "island", new Vector(0.5, 65, 0.5));
+        cache.put(world, 1, 0, "island", new Vector(16.5, 65, 0.5));
+        cache.put(world, 2, 0, "island", new Vector(32.5, 65, 0.5));
+        EntityExplodeEvent e = new EntityExplodeEvent(mock(Entity.class), mock(Location.class),
+                new ArrayList<>(Arrays.asList(block(1, 1), block(2, 1), block(17, 1))), 1F);
+        cache.onEntityExplode(e);
+        assertNull(cache.get(world, 0, 0, "island"));
+        assertNull(cache.get(world, 1, 0, "island"));
+        assertNotNull(cache.get(world, 2, 0, "island"));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache#get(org.bukkit.World, int, int, java.lang.String)}.
+     */
+    @Test
+    public void testNoSpotExpires() {
+        cache = new SafeSpotCache(0, 10);
+        cache.put(world, 0, 0, "island", null);
+        cache.put(world, 1, 0, "island", new Vector(16.5, 65, 0.5));
+        assertNull(cache.get(world, 0, 0, "island"));
+        assertNotNull(cache.get(world, 1, 0, "island"));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache#put(org.bukkit.World, int, int, java.lang.String, org.bukkit.util.Vector)}.
+     */
+    @Test
+    public void testBounded() {
+        cache = new SafeSpotCache(Long.MAX_VALUE, 2);
+        cache.put(world, 0, 0, "island", null);
+        cache.put(world, 1, 0, "island", null);
+        // Replacing a chunk does not drop another
+        cache.put(world, 1, 0, "island", new Vector(16.5, 65, 0.5));
+        assertEquals(2, cache.size());
+        cache.put(world, 2, 0, "island", null);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(world, 2, 0, "island"));
+    }
+
+    private Block block(int x, int z) {
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getZ()).thenReturn(z);
+        return block;
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.teleport.SafeSpotCache.Entry#getSpot()}.
+     */
+    @Test
+    public void testSpotCannotBeChanged() {
+        Vector spot = new Vector(1, 2, 3);
+        cache.put(world, 0, 0, null, spot);
+        spot.setX(100);
+        cache.get(world, 0, 0, null).getSpot().setY(100);
+        assertEquals(new Vector(1, 2, 3), cache.get(world, 0, 0, null).getSpot());
+    }
+}
@@ -79,6 +79,7 @@ public class SafeSpotTeleportTest {
         // Island Manager
         IslandsManager im = mock(IslandsManager.class);
         when(plugin.getIslands()).thenReturn(im);
+        when(im.getSafeSpotCache()).thenReturn(new SafeSpotCache());
         
         Island island = mock(Island.class);
         when(island.getCenter()).thenReturn(mock(Location.class));
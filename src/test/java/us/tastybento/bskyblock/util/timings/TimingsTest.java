@@ -0,0 +1,119 @@
+package us.tastybento.bskyblock.util.timings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author tastybento
+ *
+ */
+public class TimingsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        Timings.setSampleRate(1);
+        Timings.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Timings.setSampleRate(16);
+        Timings.reset();
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.timings.Timings#timer(java.lang.String)}.
+     */
+    @Test
+    public void testTimer() {
+        Timer timer = Timings.timer("test.timer");
+        assertSame(timer, Timings.timer("test.timer"));
+        for (int i = 0; i < 10; i++) {
+            long start = timer.start();
+            assertNotEquals(Timer.NOT_TIMED, start);
+            timer.stop(start);
+        }
+        assertEquals(10, timer.getCalls());
+        assertEquals(10, timer.getTimed());
+        assertTrue(timer.getMaxNanos() >= timer.getMeanNanos());
+        assertTrue(timer.getPercentileNanos(95) <= timer.getMaxNanos());
+        timer.reset();
+        assertEquals(0, timer.getCalls());
+        assertEquals(0, timer.getMaxNanos());
+        assertEquals(0, timer.getPercentileNanos(95));
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.timings.Timings#sampledTimer(java.lang.String)}.
+     */
+    @Test
+    public void testSampledTimer() {
+        Timings.setSampleRate(1000000);
+        Timer timer = Timings.sampledTimer("test.sampled");
+        for (int i = 0; i < 100; i++) {
+            timer.stop(timer.start());
+        }
+        // Every call is counted, few are timed
+        assertEquals(100, timer.getCalls());
+        assertTrue(timer.getTimed() < 100);
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.timings.Timings#setSampleRate(int)}.
+     */
+    @Test
+    public void testSetSampleRateOff() {
+        Timings.setSampleRate(0);
+        Timer timer = Timings.timer("test.off");
+        assertEquals(Timer.NOT_TIMED, timer.start());
+        Counter counter = Timings.counter("test.off");
+        counter.increment();
+        assertEquals(0, timer.getCalls());
+        assertEquals(0, counter.get());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.timings.Timings#report()}.
+     */
+    @Test
+    public void testReport() {
+        Timings.timer("test.report").stop(Timings.timer("test.report").start());
+        Timings.counter("test.count").add(5);
+        // Never called, so not reported
+        Timings.timer("test.unused");
+        List<String> report = Timings.report();
+        assertTrue(report.stream().anyMatch(l -> l.startsWith("test.report calls=1 ")));
+        assertTrue(report.contains("test.count count=5"));
+        assertTrue(report.stream().noneMatch(l -> l.startsWith("test.unused")));
+        Timings.reset();
+        assertTrue(Timings.report().isEmpty());
+    }
+
+    /**
+     * Test method for {@link us.tastybento.bskyblock.util.timings.Timings#dump(java.io.File)}.
+     */
+    @Test
+    public void testDump() throws Exception {
+        Timings.counter("test.dump").increment();
+        File file = new File(folder.getRoot(), "timings.txt");
+        Timings.dump(file);
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertTrue(lines.get(0).startsWith("# Timings from "));
+        assertTrue(lines.contains("test.dump count=1"));
+    }
+}